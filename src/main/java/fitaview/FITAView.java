@@ -1,11 +1,15 @@
 package fitaview;
 
+import fitaview.batch.BatchCommand;
 import fitaview.viewer.MainWindow;
 
 public final class FITAView
 {
     public static void main(String[] args)
     {
+        if(args.length > 0)
+            System.exit(BatchCommand.execute(args));
+
         MainWindow mainWindow = new MainWindow();
 
         mainWindow.start();
@@ -1,6 +1,8 @@
 package fitaview.automaton;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -8,25 +10,44 @@ import fitaview.FITAViewException;
 import fitaview.automaton.transition.NoSuchTransitionException;
 import fitaview.automaton.traversing.TopDownDFS;
 import fitaview.automaton.traversing.TopDownTraversing;
+import fitaview.automaton.traversing.TraversingMode;
+import fitaview.tree.NodeHasParentException;
 import fitaview.tree.NodeType;
+import fitaview.tree.StandardNode;
 import fitaview.tree.TreeNode;
 import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
+import fitaview.utils.Triple;
 
 public abstract class AbstractTreeAutomaton
         implements TreeAutomaton
 {
+    /** Default maximal number of nodes in subtree evaluated sequentially by parallel run. */
+    public static final int DEFAULT_PARALLEL_CUTOFF = 4096;
     protected TreeNode tree;
     protected final Set<String> alphabet;
     protected final List<Variable> variables;
+    protected final StateEncoding stateEncoding;
     protected final AcceptanceConditions acceptanceConditions = new AcceptanceConditions();
     protected AutomatonRunningMode runningMode = AutomatonRunningMode.STOPPED;
     protected boolean isSendingMessages = false;
+    private boolean isParallelLevels = false;
+    private boolean isRecordingHistory = false;
+    private boolean isRecordingRun = false;
+    private final List<String> indexedAlphabet;
+    private final Map<String, Integer> labelsIndices = new HashMap<>();
+    private final RunHistory history;
 
     public AbstractTreeAutomaton(Collection<Variable> variables, Collection<String> alphabet)
     {
         this.variables = new ArrayList<>(variables);
         this.alphabet = new HashSet<>(alphabet);
+        stateEncoding = new StateEncoding(this.variables);
+        history = new RunHistory(stateEncoding);
+        indexedAlphabet = new ArrayList<>(this.alphabet);
+
+        for(int i = 0; i < indexedAlphabet.size(); ++i)
+            labelsIndices.put(indexedAlphabet.get(i), i);
     }
 
     @Override
@@ -61,6 +82,43 @@ public abstract class AbstractTreeAutomaton
             AutomatonRunningModeSender.getInstance().send();
     }
 
+    /** @return labels of alphabet in order of their indices */
+    protected List<String> getIndexedAlphabet()
+    {
+        return indexedAlphabet;
+    }
+
+    /**
+     * Getting the position of specified label in the alphabet. All labels outside the alphabet
+     * share one index equal to the size of the alphabet.
+     * @param label label of node
+     * @return index of the label
+     */
+    protected int getLabelIndex(String label)
+    {
+        Integer index = labelsIndices.get(label);
+
+        return index == null ? indexedAlphabet.size() : index;
+    }
+
+    /**
+     * Getting the index of variable value produced by transition relation.
+     * @param var variable
+     * @param value variable value
+     * @return index of the value
+     * @throws IllegalVariableValueException if value does not belong to variable
+     */
+    protected int getValueIndex(Variable var, String value)
+            throws IllegalVariableValueException
+    {
+        int index = var.indexOf(value);
+
+        if(index < 0)
+            throw new IllegalVariableValueException(value);
+
+        return index;
+    }
+
     /** @return initial state of tree in the automaton */
     protected Map<Variable, String> getInitialState()
     {
@@ -80,12 +138,82 @@ public abstract class AbstractTreeAutomaton
         stopTraversing();
     }
 
+    @Override
+    public RunContext createRunContext(TreeNode tree)
+            throws TreeFinitenessException, NoTreeException
+    {
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        if(containsRecursiveNode(tree))
+            throw new TreeFinitenessException("Tree is infinite");
+
+        return new RunContext(this, tree);
+    }
+
     @Override
     public void setSendingMessages(boolean isSendingMessages)
     {
         this.isSendingMessages = isSendingMessages;
     }
 
+    /**
+     * Checking if transition relation can be applied concurrently, which is required to run the
+     * automaton in parallel.
+     * @return {@code true} if the automaton can run concurrently, otherwise {@code false}
+     */
+    public boolean canRunConcurrently()
+    {
+        return false;
+    }
+
+    /**
+     * @return {@code true} if nodes of a level are processed in parallel in {@code LEVEL}
+     * traversing mode, otherwise {@code false}
+     */
+    public boolean isParallelLevels()
+    {
+        return isParallelLevels;
+    }
+
+    /**
+     * @param isParallelLevels if {@code true} then nodes of a level are processed in parallel in
+     * {@code LEVEL} traversing mode and transition of only the last node in level is sent
+     * @throws UnsupportedOperationException if the automaton cannot run concurrently
+     */
+    public void setParallelLevels(boolean isParallelLevels)
+    {
+        if(isParallelLevels && !canRunConcurrently())
+            throw new UnsupportedOperationException(
+                    String.format("%s cannot process nodes in parallel", getTypeName()));
+
+        this.isParallelLevels = isParallelLevels;
+    }
+
+    /** @return {@code true} if steps made by {@link #makeStepForward()} are recorded */
+    public boolean isRecordingHistory()
+    {
+        return isRecordingHistory;
+    }
+
+    /**
+     * Switching recording of steps on and off. Only steps made one by one are recorded, so they
+     * can be reverted by {@link #makeStepBackward()} and {@link #jumpToStep(int)}, and running
+     * the rest of the run drops the history. Steps over trees with recursive nodes are never
+     * recorded, because their continuation is kept by the traversing and cannot be reverted.
+     * @param isRecordingHistory {@code true} if steps should be recorded
+     * @throws AutomatonIsRunningException if automaton is running
+     */
+    public void setRecordingHistory(boolean isRecordingHistory)
+            throws AutomatonIsRunningException
+    {
+        if(isRunning())
+            throw new AutomatonIsRunningException(
+                    "Cannot change recording of steps when automaton is running");
+
+        this.isRecordingHistory = isRecordingHistory;
+    }
+
     @Override
     public void addAcceptanceConditions(Map<Variable, Pair<String, Boolean>> accept)
     {
@@ -113,10 +241,184 @@ public abstract class AbstractTreeAutomaton
         if(!isRunning())
             initialize();
 
+        while(history.hasRevertedSteps())
+            makeStepForward();
+
+        if(getTraversing().hasNext())
+        {
+            history.clear();
+            isRecordingRun = false;
+        }
+
         while(getTraversing().hasNext())
             makeStepForward();
     }
 
+    /**
+     * Running the automaton over the whole finite tree in parallel in the common fork/join pool.
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws NoTreeException if the automaton contains no tree
+     * @throws TreeFinitenessException if the tree is infinite
+     * @throws UnsupportedOperationException if the automaton cannot evaluate subtrees in parallel
+     */
+    public void runParallel()
+            throws IllegalVariableValueException, NoSuchTransitionException, NoTreeException,
+                   TreeFinitenessException
+    {
+        runParallel(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_CUTOFF);
+    }
+
+    /**
+     * Running the automaton over the whole finite tree in parallel. Each maximal subtree with at
+     * most {@code cutoff} nodes is evaluated sequentially in a separate fork/join task. States in
+     * the tree are the same as after {@link #run()}.
+     * @param pool fork/join pool to run tasks
+     * @param cutoff maximal number of nodes in subtree evaluated sequentially
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws NoTreeException if the automaton contains no tree
+     * @throws TreeFinitenessException if the tree is infinite
+     * @throws UnsupportedOperationException if the automaton cannot evaluate subtrees in parallel
+     */
+    public void runParallel(ForkJoinPool pool, int cutoff)
+            throws IllegalVariableValueException, NoSuchTransitionException, NoTreeException,
+                   TreeFinitenessException
+    {
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        if(containsRecursiveNode(tree))
+            throw new TreeFinitenessException("Tree is infinite");
+
+        if(getTraversing() != null)
+            getTraversing().clear();
+
+        history.clear();
+        deleteTreeStates();
+        setRunningMode(AutomatonRunningMode.RUNNING);
+
+        try
+        {
+            evaluateParallel(pool, Math.max(cutoff, 1));
+        }
+        catch(NoSuchTransitionException | IllegalVariableValueException | RuntimeException e)
+        {
+            stopTraversing();
+            throw e;
+        }
+
+        setRunningMode(AutomatonRunningMode.FINISHED);
+    }
+
+    /**
+     * Changing label of the node in the tree of the automaton. If the automaton has finished its
+     * run and can evaluate nodes separately, only states depending on the node are computed
+     * again, otherwise the run is stopped.
+     * @param node node of the tree
+     * @param label new label of the node
+     * @throws AutomatonIsRunningException if the automaton is running
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    public void relabelNode(StandardNode node, String label)
+            throws AutomatonIsRunningException, NoSuchTransitionException,
+                   IllegalVariableValueException
+    {
+        if(isRunning())
+            throw new AutomatonIsRunningException("Cannot edit tree when automaton is running");
+
+        node.setLabel(label);
+        history.clear();
+
+        if(runningMode != AutomatonRunningMode.FINISHED || !canRunConcurrently())
+        {
+            stopTraversing();
+            return;
+        }
+
+        try
+        {
+            updateLabel(node);
+        }
+        catch(NoSuchTransitionException | IllegalVariableValueException | RuntimeException e)
+        {
+            stopTraversing();
+            throw e;
+        }
+    }
+
+    /**
+     * Replacing a non-null subtree in the tree of the automaton with a new finite subtree. If the
+     * automaton has finished its run and can evaluate nodes separately, only states depending on
+     * the new subtree are computed again, otherwise the run is stopped.
+     * @param subtree subtree of the tree
+     * @param newSubtree new subtree without a parent
+     * @throws AutomatonIsRunningException if the automaton is running
+     * @throws NodeHasParentException if the new subtree has already got a parent
+     * @throws TreeFinitenessException if the new subtree is infinite
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UnsupportedOperationException if the subtree is not a son of a standard node
+     */
+    public void replaceSubtree(TreeNode subtree, TreeNode newSubtree)
+            throws AutomatonIsRunningException, NodeHasParentException, TreeFinitenessException,
+                   NoSuchTransitionException, IllegalVariableValueException
+    {
+        if(isRunning())
+            throw new AutomatonIsRunningException("Cannot edit tree when automaton is running");
+
+        if(subtree.isNull() || newSubtree == null || newSubtree.isNull())
+            throw new IllegalArgumentException("Only non-null subtrees can be replaced");
+
+        if(newSubtree.getParent() != null)
+            throw new NodeHasParentException(
+                    "Node has already got a parent, so it cannot be assigned as a child");
+
+        if(containsRecursiveNode(newSubtree))
+            throw new TreeFinitenessException("Replacing subtree is infinite");
+
+        TreeNode parent = subtree.getParent();
+
+        if(parent == null && !isSameNode(subtree, tree))
+            throw new IllegalArgumentException(
+                    "Subtree without parent is not the root of the tree");
+
+        if(parent != null && !(parent instanceof StandardNode))
+            throw new UnsupportedOperationException(
+                    "Only sons of standard nodes can be replaced");
+
+        boolean isUpdating = runningMode == AutomatonRunningMode.FINISHED && canRunConcurrently();
+
+        if(isUpdating)
+            removeSubtree(subtree);
+
+        history.clear();
+
+        if(parent == null)
+            tree = newSubtree;
+        else if(isSameNode(parent.getLeft(), subtree))
+            ((StandardNode)parent).setLeft(newSubtree);
+        else
+            ((StandardNode)parent).setRight(newSubtree);
+
+        if(!isUpdating)
+        {
+            stopTraversing();
+            return;
+        }
+
+        try
+        {
+            updateSubtree(newSubtree);
+        }
+        catch(NoSuchTransitionException | IllegalVariableValueException | RuntimeException e)
+        {
+            stopTraversing();
+            throw e;
+        }
+    }
+
     @Override
     public void makeStepForward()
             throws NoSuchTransitionException, IllegalVariableValueException,
@@ -132,15 +434,35 @@ public abstract class AbstractTreeAutomaton
         if(runningMode == AutomatonRunningMode.STOPPED)
             initialize();
 
+        if(history.hasRevertedSteps())
+        {
+            Iterable<TreeNode> nodes = history.applyStep();
+
+            nodes.forEach(this::completeNode);
+            finishHistoryMove();
+            return;
+        }
+
         Iterable<TreeNode> nextNodes = getTraversing().next();
 
         if(isSendingMessages)
             AutomatonCurrentNodesSender.getInstance().send(nextNodes);
 
-        try
+        if(isRecordingRun)
         {
+            history.startStep(nextNodes);
+
             for(TreeNode node : nextNodes)
-                processNode(node);
+                getComputedNodes(node).forEach(history::addChange);
+        }
+
+        try
+        {
+            if(isParallelLevels && getTraversing().getMode() == TraversingMode.LEVEL)
+                processLevel(nextNodes);
+            else
+                for(TreeNode node : nextNodes)
+                    processNode(node);
         }
         catch(FITAViewException e)
         {
@@ -148,13 +470,67 @@ public abstract class AbstractTreeAutomaton
             throw e;
         }
 
+        if(isRecordingRun)
+            history.finishStep();
+
         changeRunningMode();
     }
 
+    /**
+     * Reverting the last step of the current run. States changed in the step are restored from
+     * the history of the run, so no transition is applied and the traversing is not changed.
+     * Reverted steps are applied again by {@link #makeStepForward()}.
+     * @throws IllegalStateException if the automaton has not recorded any step
+     */
+    public void makeStepBackward()
+    {
+        if(history.getCurrentStep() == 0)
+            throw new IllegalStateException("Automaton has not recorded any step");
+
+        revertStep();
+        finishHistoryMove();
+    }
+
+    /**
+     * Moving the current run to the state after the specified number of steps, which have
+     * already been made. Only states changed in the steps between the current step and the
+     * specified one are restored.
+     * @param step number of steps, where {@code 0} means no step was made
+     * @throws IllegalArgumentException if the step has not been recorded
+     */
+    public void jumpToStep(int step)
+    {
+        if(step < 0 || step > history.size() || history.size() == 0)
+            throw new IllegalArgumentException(
+                    String.format("Step %d is outside of the %d steps recorded", step,
+                                  history.size()));
+
+        while(history.getCurrentStep() > step)
+            revertStep();
+
+        while(history.getCurrentStep() < step)
+            history.applyStep().forEach(this::completeNode);
+
+        finishHistoryMove();
+    }
+
+    /** @return number of steps recorded in the current run, including reverted ones */
+    public int getStepsCount()
+    {
+        return history.size();
+    }
+
+    /** @return number of steps recorded in the current run, excluding reverted ones */
+    public int getCurrentStep()
+    {
+        return history.getCurrentStep();
+    }
+
     @Override
     public void stopTraversing()
     {
         setRunningMode(AutomatonRunningMode.STOPPED);
+        history.clear();
 
         if(getTraversing() != null)
             getTraversing().clear();
@@ -188,6 +564,8 @@ public abstract class AbstractTreeAutomaton
         if(getTraversing() == null)
             throw new NoTraversingStrategyException("Automaton has no traversing strategy");
 
+        history.clear();
+        isRecordingRun = isRecordingHistory && !containsRecursiveNode(tree);
         deleteTreeStates();
         setRunningMode(AutomatonRunningMode.RUNNING);
     }
@@ -199,10 +577,267 @@ public abstract class AbstractTreeAutomaton
      */
     protected boolean containsRecursiveNode(TreeNode node)
     {
-        return node != null && (node.getType() == NodeType.REC || containsRecursiveNode(
-                node.getLeft()) || containsRecursiveNode(node.getRight()));
+        Deque<TreeNode> nodes = new ArrayDeque<>();
+
+        if(node != null)
+            nodes.push(node);
+
+        while(!nodes.isEmpty())
+        {
+            TreeNode current = nodes.pop();
+
+            if(current.getType() == NodeType.REC)
+                return true;
+
+            if(!current.isNull())
+            {
+                nodes.push(current.getRight());
+                nodes.push(current.getLeft());
+            }
+        }
+
+        return false;
     }
 
+    /**
+     * Processing all nodes of a level in parallel. States are computed concurrently, then
+     * traversing is updated and transitions of all nodes are sent in a single message.
+     * @param nodes nodes of the level
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UndefinedStateValueException if state of a node is undefined
+     */
+    protected void processLevel(Iterable<TreeNode> nodes)
+            throws NoSuchTransitionException, IllegalVariableValueException,
+                   UndefinedStateValueException
+    {
+        List<ForkJoinTask<TreeNode>> tasks = new ArrayList<>();
+        List<TreeNode> completed = new ArrayList<>();
+
+        for(TreeNode node : nodes)
+            tasks.add(ForkJoinTask.adapt(() -> {
+                evaluateNode(node);
+                return node;
+            }));
+
+        invokeParallel(ForkJoinPool.commonPool(), tasks);
+
+        for(ForkJoinTask<TreeNode> task : tasks)
+        {
+            completed.add(task.join());
+            completeNode(completed.get(completed.size() - 1));
+        }
+
+        if(isSendingMessages && !completed.isEmpty())
+            sendTransitions(completed);
+    }
+
+    /**
+     * Computing states from transition in single node without changing the automaton, so it can
+     * be called concurrently for distinct nodes.
+     * @param node node to evaluate
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected abstract void evaluateNode(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException;
+
+    /**
+     * Updating the automaton after states in node were computed by {@link #evaluateNode}.
+     * @param node evaluated node
+     */
+    protected abstract void completeNode(TreeNode node);
+
+    /**
+     * @param node node processed in a step
+     * @return nodes whose states are computed when the node is processed
+     */
+    protected abstract Collection<TreeNode> getComputedNodes(TreeNode node);
+
+    /**
+     * Updating the automaton before states computed in node are restored by stepping backward.
+     * Nodes are reverted in the reversed order of steps.
+     * @param node node processed in the reverted step
+     */
+    protected abstract void revertNode(TreeNode node);
+
+    /**
+     * Computing again states depending on the node after its label was changed in the tree of a
+     * finished run.
+     * @param node relabelled node
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected abstract void updateLabel(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException;
+
+    /**
+     * Computing states of the new subtree and states depending on it after it was placed in the
+     * tree of a finished run.
+     * @param subtree new subtree
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected abstract void updateSubtree(TreeNode subtree)
+            throws NoSuchTransitionException, IllegalVariableValueException;
+
+    /**
+     * Updating the automaton before the subtree is removed from the tree of a finished run.
+     * @param subtree removed subtree
+     */
+    protected abstract void removeSubtree(TreeNode subtree);
+
+    /**
+     * Sending information about transition applied in node.
+     * @param node processed node
+     * @throws UndefinedStateValueException if state of the node or its sons is undefined
+     */
+    protected void sendTransition(TreeNode node)
+            throws UndefinedStateValueException
+    {
+        sendTransitions(Collections.singletonList(node));
+    }
+
+    /**
+     * Sending information about transitions applied in nodes as a single message.
+     * @param nodes processed nodes
+     * @throws UndefinedStateValueException if state of a node or its sons is undefined
+     */
+    protected void sendTransitions(Iterable<TreeNode> nodes)
+            throws UndefinedStateValueException
+    {
+        List<Triple<NodeInfoSource, String, Map<Variable, String>>> transitions =
+                new ArrayList<>();
+
+        for(TreeNode node : nodes)
+        {
+            transitions.add(Triple.make(NodeInfoSource.LEFT_SON, node.getLeft().getLabel(),
+                                        node.getLeft().getState()));
+            transitions.add(Triple.make(NodeInfoSource.PARENT, node.getLabel(),
+                                        node.getState()));
+            transitions.add(Triple.make(NodeInfoSource.RIGHT_SON, node.getRight().getLabel(),
+                                        node.getRight().getState()));
+        }
+
+        TransitionSender.getInstance().send(transitions);
+    }
+
+    /**
+     * Evaluating the whole tree in parallel and saving states in its nodes.
+     * @param pool fork/join pool to run tasks
+     * @param cutoff maximal number of nodes in subtree evaluated sequentially
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected abstract void evaluateParallel(ForkJoinPool pool, int cutoff)
+            throws NoSuchTransitionException, IllegalVariableValueException;
+
+    /**
+     * Invoking fork/join tasks in the pool and rethrowing exceptions of transition relation.
+     * @param pool fork/join pool to run tasks
+     * @param tasks tasks to invoke
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected void invokeParallel(ForkJoinPool pool, Collection<? extends ForkJoinTask<?>> tasks)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        try
+        {
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(tasks);
+            }));
+        }
+        catch(RuntimeException e)
+        {
+            for(Throwable cause = e.getCause(); cause != null; cause = cause.getCause())
+            {
+                if(cause instanceof NoSuchTransitionException)
+                    throw (NoSuchTransitionException)cause;
+
+                if(cause instanceof IllegalVariableValueException)
+                    throw (IllegalVariableValueException)cause;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Splitting the tree into maximal subtrees with at most {@code cutoff} nodes, which can be
+     * evaluated independently, and upper nodes outside of these subtrees.
+     * @param cutoff maximal number of nodes in subtree
+     * @return pair of upper nodes in preorder and roots of subtrees (first upper nodes, second
+     * roots)
+     */
+    protected Pair<List<TreeNode>, List<TreeNode>> splitTree(int cutoff)
+    {
+        List<TreeNode> nodes = new ArrayList<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+
+        stack.push(tree);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            if(!node.isNull())
+            {
+                nodes.add(node);
+                stack.push(node.getRight());
+                stack.push(node.getLeft());
+            }
+        }
+
+        int[] sizes = new int[nodes.size()];
+
+        for(int i = nodes.size() - 1; i >= 0; --i)
+        {
+            TreeNode node = nodes.get(i);
+            int leftSize = node.getLeft().isNull() ? 0 : sizes[i + 1];
+            int rightSize = node.getRight().isNull() ? 0 : sizes[i + 1 + leftSize];
+
+            sizes[i] = 1 + leftSize + rightSize;
+        }
+
+        List<TreeNode> upperNodes = new ArrayList<>();
+        List<TreeNode> roots = new ArrayList<>();
+        int i = 0;
+
+        while(i < nodes.size())
+            if(sizes[i] <= cutoff)
+            {
+                roots.add(nodes.get(i));
+                i += sizes[i];
+            }
+            else
+            {
+                upperNodes.add(nodes.get(i));
+                ++i;
+            }
+
+        return Pair.make(upperNodes, roots);
+    }
+
+    /**
+     * Evaluating the whole tree of a separate run. States are stored only in the run context.
+     * @param context context of the run
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected abstract void evaluate(RunContext context)
+            throws NoSuchTransitionException, IllegalVariableValueException;
+
+    /**
+     * Checking acceptance of the tree in a finished separate run.
+     * @param context context of the run
+     * @return {@code true} if automaton accepts tree, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if no acceptance conditions were defined
+     * @throws UndefinedStateValueException if state of the tree is undefined
+     */
+    protected abstract boolean isAccepted(RunContext context)
+            throws UndefinedAcceptanceException, UndefinedStateValueException;
+
     /**
      * Processing tree nodes in each step
      * @param node nodes to process
@@ -211,6 +846,32 @@ public abstract class AbstractTreeAutomaton
             throws NoSuchTransitionException, IllegalVariableValueException,
                    UndefinedStateValueException;
 
+    private void revertStep()
+    {
+        List<TreeNode> nodes = new ArrayList<>();
+
+        history.getProcessedNodes(history.getCurrentStep()).forEach(nodes::add);
+
+        for(int i = nodes.size() - 1; i >= 0; --i)
+            revertNode(nodes.get(i));
+
+        history.revertStep();
+    }
+
+    private void finishHistoryMove()
+    {
+        if(history.hasRevertedSteps())
+            setRunningMode(AutomatonRunningMode.RUNNING);
+        else
+            changeRunningMode();
+
+        if(isSendingMessages)
+            AutomatonCurrentNodesSender.getInstance().send(
+                    history.getCurrentStep() == 0 ? Collections::emptyIterator
+                                                  : history.getProcessedNodes(
+                                                          history.getCurrentStep()));
+    }
+
     private void deleteTreeStates()
     {
         TopDownTraversing t = new TopDownDFS();
@@ -218,4 +879,13 @@ public abstract class AbstractTreeAutomaton
         t.initialize(tree);
         t.forEachRemaining(iterable -> iterable.forEach(TreeNode::deleteState));
     }
+
+    /**
+     * Views are created anew on each access, so they are compared by equality, while other nodes
+     * are compared by identity, since equal standard nodes may still be different subtrees.
+     */
+    private static boolean isSameNode(TreeNode node, TreeNode other)
+    {
+        return node.isView() ? node.equals(other) : node == other;
+    }
 }
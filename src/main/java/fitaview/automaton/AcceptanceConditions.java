@@ -1,9 +1,7 @@
 package fitaview.automaton;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.function.UnaryOperator;
 
 import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
@@ -11,6 +9,8 @@ import fitaview.utils.Pair;
 public class AcceptanceConditions
 {
     private final Set<Map<Variable, Pair<String, Boolean>>> statesConditions = new HashSet<>();
+    private final List<AcceptanceConditions> conjuncts = new ArrayList<>();
+    private volatile CompiledConditions compiledConditions = null;
 
     /**
      * Describing single acceptance entry with condition on value for variable.
@@ -38,6 +38,14 @@ public class AcceptanceConditions
         return statesConditions;
     }
 
+    /**
+     * @return acceptance conditions required together with these ones
+     */
+    public List<AcceptanceConditions> getConjuncts()
+    {
+        return Collections.unmodifiableList(conjuncts);
+    }
+
     /**
      * @return number of acceptance conditions
      */
@@ -53,6 +61,17 @@ public class AcceptanceConditions
     public void add(Map<Variable, Pair<String, Boolean>> mapping)
     {
         statesConditions.add(mapping);
+        compiledConditions = null;
+    }
+
+    /**
+     * Requiring accepted states to satisfy also specified acceptance conditions. Each conjunct is
+     * checked on its own, so a conjunction of alternatives is never multiplied out.
+     * @param conditions acceptance conditions required together with these ones
+     */
+    public void addConjunct(AcceptanceConditions conditions)
+    {
+        conjuncts.add(conditions);
     }
 
     /**
@@ -65,9 +84,14 @@ public class AcceptanceConditions
     public boolean check(Map<Variable, String> state)
             throws UndefinedStateValueException, UndefinedAcceptanceException
     {
+        assertDefined();
+
+        for(AcceptanceConditions conjunct : conjuncts)
+            if(!conjunct.check(state))
+                return false;
+
         if(statesConditions.isEmpty())
-            throw new UndefinedAcceptanceException(
-                    "Automaton has no acceptance conditions defined");
+            return true;
 
         for(Map<Variable, Pair<String, Boolean>> condition : statesConditions)
         {
@@ -95,6 +119,61 @@ public class AcceptanceConditions
         return false;
     }
 
+    /**
+     * Checking if specified encoded state can be accepted by the automaton.
+     * @param encoding encoding of the state
+     * @param code state code from a tree node
+     * @return {@code true} if state is accepted, otherwise {@code false}
+     * @throws UndefinedStateValueException if state contains a variable with undefined value
+     * @throws UndefinedAcceptanceException if set of acceptance conditions is empty
+     */
+    public boolean check(StateEncoding encoding, long code)
+            throws UndefinedStateValueException, UndefinedAcceptanceException
+    {
+        assertDefined();
+
+        for(AcceptanceConditions conjunct : conjuncts)
+            if(!conjunct.check(encoding, code))
+                return false;
+
+        if(statesConditions.isEmpty())
+            return true;
+
+        CompiledConditions compiled = compiledConditions;
+
+        if(compiled == null || compiled.encoding != encoding)
+        {
+            compiled = new CompiledConditions(encoding, statesConditions);
+            compiledConditions = compiled;
+        }
+
+        for(int[] condition : compiled.conditions)
+        {
+            boolean canAccept = true;
+
+            for(int i = 0; i < condition.length; i += 3)
+            {
+                int valueIndex =
+                        condition[i] < 0 ? -1 : encoding.getValueIndex(code, condition[i]);
+
+                if(valueIndex < 0)
+                    throw new UndefinedStateValueException(
+                            "State contains a variable with undefined value");
+
+                if(condition[i + 2] == 1)
+                    canAccept &= condition[i + 1] == valueIndex
+                            || condition[i + 1] == CompiledConditions.EVERY_VALUE;
+                else
+                    canAccept &= condition[i + 1] != valueIndex;
+            }
+
+            if(canAccept)
+                return true;
+        }
+
+        return false;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -106,12 +185,84 @@ public class AcceptanceConditions
 
         AcceptanceConditions other = (AcceptanceConditions)o;
 
-        return Objects.equals(statesConditions, other.statesConditions);
+        return Objects.equals(statesConditions, other.statesConditions)
+                && Objects.equals(conjuncts, other.conjuncts);
     }
 
     @Override
     public int hashCode()
     {
-        return statesConditions.hashCode();
+        return Objects.hash(statesConditions, conjuncts);
+    }
+
+    /**
+     * Copying acceptance conditions together with their conjuncts, transforming each condition.
+     * @param transformation transformation of a single condition
+     * @return transformed acceptance conditions
+     */
+    AcceptanceConditions transform(
+            UnaryOperator<Map<Variable, Pair<String, Boolean>>> transformation)
+    {
+        AcceptanceConditions transformed = new AcceptanceConditions();
+
+        statesConditions.forEach(condition -> transformed.add(transformation.apply(condition)));
+        conjuncts.forEach(conjunct -> transformed.addConjunct(conjunct.transform(transformation)));
+
+        return transformed;
+    }
+
+    /**
+     * @return all conditions, including conditions of conjuncts
+     */
+    List<Map<Variable, Pair<String, Boolean>>> getAllStatesConditions()
+    {
+        List<Map<Variable, Pair<String, Boolean>>> allConditions =
+                new ArrayList<>(statesConditions);
+
+        conjuncts.forEach(conjunct -> allConditions.addAll(conjunct.getAllStatesConditions()));
+
+        return allConditions;
+    }
+
+    private void assertDefined()
+            throws UndefinedAcceptanceException
+    {
+        if(statesConditions.isEmpty() && conjuncts.isEmpty())
+            throw new UndefinedAcceptanceException(
+                    "Automaton has no acceptance conditions defined");
+    }
+
+    private static final class CompiledConditions
+    {
+        private static final int EVERY_VALUE = -2;
+        private final StateEncoding encoding;
+        private final List<int[]> conditions = new ArrayList<>();
+
+        private CompiledConditions(StateEncoding encoding,
+                                   Set<Map<Variable, Pair<String, Boolean>>> statesConditions)
+        {
+            this.encoding = encoding;
+
+            for(Map<Variable, Pair<String, Boolean>> condition : statesConditions)
+            {
+                int[] compiled = new int[3 * condition.size()];
+                int i = 0;
+
+                for(Map.Entry<Variable, Pair<String, Boolean>> entry : condition.entrySet())
+                {
+                    String value = entry.getValue().getFirst();
+                    boolean isEqual = entry.getValue().getSecond();
+
+                    compiled[i] = encoding.indexOf(entry.getKey());
+                    compiled[i + 1] = isEqual && Objects.equals(value, Wildcard.EVERY_VALUE)
+                                      ? EVERY_VALUE
+                                      : entry.getKey().indexOf(value);
+                    compiled[i + 2] = isEqual ? 1 : 0;
+                    i += 3;
+                }
+
+                conditions.add(compiled);
+            }
+        }
     }
 }
@@ -0,0 +1,286 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+import fitaview.automaton.transition.DuplicatedTransitionException;
+import fitaview.automaton.transition.IllegalTransitionException;
+import fitaview.automaton.traversing.IncorrectTraversingException;
+import fitaview.tree.UndefinedStateValueException;
+import fitaview.utils.Pair;
+import fitaview.utils.Triple;
+
+public final class AutomataProduct
+{
+    private final AbstractTreeAutomaton automaton;
+    private final ProductAcceptance acceptance;
+    private final List<TreeAutomaton> components;
+    private final List<AcceptanceConditions> componentsConditions = new ArrayList<>();
+
+    /**
+     * Creating product of finite tree automata with the same direction. Variables of each
+     * component are copied with new identifiers together with their transitions, so a state of
+     * the product is a concatenation of components states and pairs of states are created only
+     * when the product reaches them. The product is deterministic if all components are
+     * deterministic. Traversing strategy and strategy of non-determinism are taken from the
+     * first component that has them.
+     * @param automata components of the product
+     * @param acceptance combination of acceptance of components
+     * @throws IllegalArgumentException if there are no components, they have different
+     * directions, any of them works on infinite trees or states of the product do not fit in
+     * state code
+     */
+    public AutomataProduct(List<? extends TreeAutomaton> automata, ProductAcceptance acceptance)
+    {
+        if(automata.isEmpty())
+            throw new IllegalArgumentException("Product has no components");
+
+        AutomatonDirection direction = automata.get(0).getDirection();
+        List<Map<Variable, Variable>> renamings = new ArrayList<>();
+        List<Variable> variables = new ArrayList<>();
+        Set<String> alphabet = new LinkedHashSet<>();
+        boolean isDeterministic = true;
+
+        for(TreeAutomaton component : automata)
+        {
+            if(component.getDirection() != direction)
+                throw new IllegalArgumentException(
+                        "Cannot combine automata with different directions");
+
+            if(component instanceof InfiniteTreeAutomaton)
+                throw new IllegalArgumentException(
+                        String.format("%s cannot be combined", component.getTypeName()));
+
+            Map<Variable, Variable> renaming = new LinkedHashMap<>();
+
+            for(Variable var : component.getVariables())
+            {
+                Variable renamed = renameVariable(var, variables.size());
+
+                renaming.put(var, renamed);
+                variables.add(renamed);
+            }
+
+            renamings.add(renaming);
+            alphabet.addAll(component.getAlphabet());
+            isDeterministic &= !(component instanceof NonDeterministicAutomaton);
+        }
+
+        this.acceptance = acceptance;
+        this.components = new ArrayList<>(automata);
+
+        if(direction == AutomatonDirection.BOTTOM_UP)
+            automaton = isDeterministic ? new BottomUpDFTA(variables, alphabet)
+                                        : new BottomUpNFTA(variables, alphabet);
+        else
+            automaton = isDeterministic ? new TopDownDFTA(variables, alphabet)
+                                        : new TopDownNFTA(variables, alphabet);
+
+        for(int i = 0; i < components.size(); ++i)
+        {
+            copyTransitions(components.get(i), renamings.get(i));
+            componentsConditions.add(renameConditions(components.get(i), renamings.get(i)));
+        }
+
+        copyStrategies();
+        addAcceptanceConditions();
+    }
+
+    /** @return automaton running all components at once */
+    public TreeAutomaton getAutomaton()
+    {
+        return automaton;
+    }
+
+    /** @return combination of acceptance of components */
+    public ProductAcceptance getAcceptance()
+    {
+        return acceptance;
+    }
+
+    /** @return number of components */
+    public int size()
+    {
+        return components.size();
+    }
+
+    /**
+     * Checking if associated tree of the product automaton is accepted by specified component,
+     * using states from the last run of the product.
+     * @param index index of component
+     * @return {@code true} if the component accepts the tree, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if the component has no acceptance conditions
+     * @throws UndefinedStateValueException if states of the tree are undefined
+     * @throws NoTreeException if the product automaton contains no tree
+     */
+    public boolean isAccepted(int index)
+            throws UndefinedAcceptanceException, UndefinedStateValueException, NoTreeException
+    {
+        AcceptanceConditions conditions = componentsConditions.get(index);
+
+        if(automaton instanceof BottomUpAutomaton)
+            return ((BottomUpAutomaton)automaton).isAccepted(conditions);
+
+        TopDownAutomaton topDownAutomaton = (TopDownAutomaton)automaton;
+
+        if(topDownAutomaton.tree == null)
+            throw new NoTreeException("No tree specified");
+
+        if(topDownAutomaton.leafStates.isEmpty())
+            throw new UndefinedStateValueException("States in tree leaves are undefined");
+
+        return topDownAutomaton.isAccepted(conditions);
+    }
+
+    /**
+     * Checking if associated tree of the product automaton is accepted by the product. Union of
+     * top-down automata is accepted if all leaves are accepted by the same component, which
+     * cannot be expressed with acceptance conditions of the product automaton, so this method
+     * should be used instead.
+     * @return {@code true} if the product accepts the tree, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if any checked component has no acceptance conditions
+     * @throws UndefinedStateValueException if states of the tree are undefined
+     * @throws NoTreeException if the product automaton contains no tree
+     */
+    public boolean isAccepted()
+            throws UndefinedAcceptanceException, UndefinedStateValueException, NoTreeException
+    {
+        boolean isUnion = acceptance == ProductAcceptance.UNION;
+
+        for(int i = 0; i < components.size(); ++i)
+            if(isAccepted(i) == isUnion)
+                return isUnion;
+
+        return !isUnion;
+    }
+
+    /**
+     * Checking if the product cannot accept any tree. Emptiness of intersection is checked on the
+     * product automaton, so only pairs of states reachable in all components at once are
+     * explored. Union is empty if all its components are empty.
+     * @return {@code true} if the product cannot accept any tree, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if acceptance of a top-down automaton is undefined
+     * @throws UndefinedStateValueException if acceptance of a top-down automaton is undefined
+     */
+    public boolean checkEmptiness()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        if(acceptance == ProductAcceptance.INTERSECTION)
+            return checkEmptiness(automaton);
+
+        for(TreeAutomaton component : components)
+            if(!checkEmptiness(component))
+                return false;
+
+        return true;
+    }
+
+    private static boolean checkEmptiness(TreeAutomaton automaton)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return automaton instanceof BottomUpAutomaton
+               ? ((BottomUpAutomaton)automaton).checkEmptiness()
+               : ((TopDownAutomaton)automaton).checkEmptiness();
+    }
+
+    private static Variable renameVariable(Variable var, int index)
+    {
+        try
+        {
+            return new Variable(index, var.getInitValue(), var.getValuesList());
+        }
+        catch(IllegalVariableValueException e)
+        {
+            throw new IllegalStateException("Copied variable has illegal values", e);
+        }
+    }
+
+    private static AcceptanceConditions renameConditions(TreeAutomaton component,
+                                                         Map<Variable, Variable> renaming)
+    {
+        return component.getAcceptanceConditions().transform(condition -> {
+            Map<Variable, Pair<String, Boolean>> renamed = new HashMap<>();
+
+            condition.forEach((var, value) -> renamed.put(renaming.get(var), value));
+
+            return renamed;
+        });
+    }
+
+    private void copyTransitions(TreeAutomaton component, Map<Variable, Variable> renaming)
+    {
+        try
+        {
+            if(component instanceof BottomUpAutomaton)
+            {
+                BottomUpAutomaton bottomUpComponent = (BottomUpAutomaton)component;
+
+                for(Map.Entry<Variable, Variable> entry : renaming.entrySet())
+                    for(Triple<String, String, String> key : bottomUpComponent.getTransitionKeys(
+                            entry.getKey()))
+                        for(String result : bottomUpComponent.getTransitionResults(
+                                entry.getKey(), key))
+                            ((BottomUpAutomaton)automaton).addTransition(
+                                    entry.getValue(), key.getFirst(), key.getSecond(),
+                                    key.getThird(), result);
+            }
+            else
+            {
+                TopDownAutomaton topDownComponent = (TopDownAutomaton)component;
+
+                for(Map.Entry<Variable, Variable> entry : renaming.entrySet())
+                    for(Pair<String, String> key : topDownComponent.getTransitionKeys(
+                            entry.getKey()))
+                        for(Pair<String, String> result : topDownComponent.getTransitionResults(
+                                entry.getKey(), key))
+                            ((TopDownAutomaton)automaton).addTransition(
+                                    entry.getValue(), key.getFirst(), key.getSecond(),
+                                    result.getFirst(), result.getSecond());
+            }
+        }
+        catch(DuplicatedTransitionException | IllegalTransitionException e)
+        {
+            throw new IllegalStateException("Copied transition is incorrect", e);
+        }
+    }
+
+    private void copyStrategies()
+    {
+        for(TreeAutomaton component : components)
+            if(component.getTraversing() != null)
+            {
+                try
+                {
+                    automaton.setTraversing(component.getTraversing().getMode());
+                }
+                catch(IncorrectTraversingException | AutomatonIsRunningException e)
+                {
+                    throw new IllegalStateException("Copied traversing is incorrect", e);
+                }
+
+                break;
+            }
+
+        for(TreeAutomaton component : components)
+            if(component instanceof BottomUpNFTA && ((BottomUpNFTA)component).getChoice() != null)
+            {
+                ((BottomUpNFTA)automaton).setChoice(((BottomUpNFTA)component).getChoice());
+                break;
+            }
+            else if(component instanceof TopDownNondeterministicAutomaton
+                    && ((TopDownNondeterministicAutomaton)component).getChoice() != null)
+            {
+                ((TopDownNondeterministicAutomaton)automaton).setChoice(
+                        ((TopDownNondeterministicAutomaton)component).getChoice());
+                break;
+            }
+    }
+
+    private void addAcceptanceConditions()
+    {
+        if(acceptance == ProductAcceptance.INTERSECTION)
+            componentsConditions.forEach(automaton.getAcceptanceConditions()::addConjunct);
+        else if(automaton instanceof BottomUpAutomaton)
+            for(AcceptanceConditions conditions : componentsConditions)
+                conditions.getStatesConditions().forEach(automaton::addAcceptanceConditions);
+    }
+}
@@ -1,6 +1,7 @@
 package fitaview.automaton;
 
 import java.util.*;
+import java.util.function.BiFunction;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
@@ -154,6 +155,28 @@ abstract class AutomatonHandler<T extends TreeAutomaton>
         }
     }
 
+    /**
+     * Creating automaton over read variables and alphabet.
+     * @param constructor constructor of the automaton
+     * @return new automaton
+     * @throws AutomatonParsingException if states over read variables cannot be encoded
+     */
+    protected T createAutomaton(
+            BiFunction<Collection<Variable>, Collection<String>, ? extends T> constructor)
+            throws AutomatonParsingException
+    {
+        try
+        {
+            return constructor.apply(variables.values(), alphabet);
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new AutomatonParsingException(
+                    String.format("%s: Cannot encode states of automaton; %s", writePosition(),
+                                  e.getMessage()), e);
+        }
+    }
+
     @Override
     public void characters(char[] chars, int start, int length)
     {
@@ -1,13 +1,19 @@
 package fitaview.automaton;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
 import fitaview.automaton.transition.DuplicatedTransitionException;
 import fitaview.automaton.transition.IllegalTransitionException;
 import fitaview.automaton.transition.NoSuchTransitionException;
 import fitaview.automaton.traversing.*;
+import fitaview.tree.NodeHasParentException;
+import fitaview.tree.StandardNode;
 import fitaview.tree.TreeNode;
 import fitaview.tree.UndefinedStateValueException;
+import fitaview.utils.Pair;
 import fitaview.utils.Triple;
 
 public abstract class BottomUpAutomaton
@@ -44,24 +50,11 @@ public abstract class BottomUpAutomaton
         traversing = TraversingFactory.getBottomUpTraversing(mode);
     }
 
-    @Override
-    public void setTree(TreeNode tree)
-            throws TreeFinitenessException
-    {
-        super.setTree(tree);
-
-        if(tree != null)
-            findLeaves();
-    }
-
     @Override
     public Boolean isAccepted()
             throws UndefinedAcceptanceException, UndefinedStateValueException, NoTreeException
     {
-        if(tree == null)
-            throw new NoTreeException("No tree specified");
-
-        return acceptanceConditions.check(tree.getState());
+        return isAccepted(acceptanceConditions);
     }
 
     /**
@@ -77,11 +70,204 @@ public abstract class BottomUpAutomaton
             throws DuplicatedTransitionException, IllegalTransitionException;
 
     /**
-     * Checking if the automaton can accept at least one tree.
+     * Checking if the automaton can accept at least one tree. Reachable states are computed as a
+     * semi-naive fixpoint starting from states in leaves, where each new state is combined only
+     * with states reached before it and with itself. States are identified by their codes and
+     * indexed by labels of nodes they can be sons in.
      * @return {@code true} if the automaton cannot accept any tree, otherwise {@code false}
      */
-    public abstract boolean checkEmptiness()
-            throws UndefinedAcceptanceException, UndefinedStateValueException;
+    public boolean checkEmptiness()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        int labelsCount = getIndexedAlphabet().size();
+        StateSpace space = new StateSpace();
+        Set<Long> reachableStates = new HashSet<>();
+        List<Long> states = new ArrayList<>();
+        List<List<Long>> leftStates = new ArrayList<>();
+        List<List<Long>> rightStates = new ArrayList<>();
+        long initialState = stateEncoding.getInitialCode();
+
+        for(int label = 0; label < labelsCount; ++label)
+        {
+            leftStates.add(new ArrayList<>());
+            rightStates.add(new ArrayList<>());
+
+            if(addNextStates(space, initialState, initialState, label, reachableStates, states))
+                return false;
+        }
+
+        for(int next = 0; next < states.size(); ++next)
+        {
+            long state = states.get(next);
+
+            for(int label = 0; label < labelsCount; ++label)
+            {
+                boolean isLeftSon = space.canBeSon(true, state, label);
+                boolean isRightSon = space.canBeSon(false, state, label);
+
+                if(isLeftSon)
+                    leftStates.get(label).add(state);
+
+                if(isRightSon)
+                    rightStates.get(label).add(state);
+
+                if(isLeftSon)
+                    for(long rightState : rightStates.get(label))
+                        if(addNextStates(space, state, rightState, label, reachableStates,
+                                         states))
+                            return false;
+
+                if(isRightSon)
+                    for(long leftState : leftStates.get(label))
+                        if(leftState != state
+                                && addNextStates(space, leftState, state, label, reachableStates,
+                                                 states))
+                            return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finding the smallest tree accepted by the automaton. States are settled in order of the size
+     * of the smallest tree reaching them (Knuth's generalization of Dijkstra's algorithm), so the
+     * first accepting state to be settled gives a tree with the least possible number of nodes.
+     * Nodes of the tree are indexed in preorder.
+     * @return the smallest accepted tree, or {@code null} if the automaton cannot accept any tree
+     */
+    public TreeNode findMinimalTree()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        int labelsCount = getIndexedAlphabet().size();
+        StateSpace space = new StateSpace();
+        Map<Long, Derivation> derivations = new HashMap<>();
+        Set<Long> settledStates = new HashSet<>();
+        PriorityQueue<Derivation> queue =
+                new PriorityQueue<>(Comparator.comparingLong(Derivation::getSize));
+        List<List<Derivation>> leftDerivations = new ArrayList<>();
+        List<List<Derivation>> rightDerivations = new ArrayList<>();
+
+        for(int label = 0; label < labelsCount; ++label)
+        {
+            leftDerivations.add(new ArrayList<>());
+            rightDerivations.add(new ArrayList<>());
+            offerDerivations(space, null, null, label, derivations, settledStates, queue);
+        }
+
+        while(!queue.isEmpty())
+        {
+            Derivation derivation = queue.poll();
+            long state = derivation.getState();
+
+            if(!settledStates.add(state))
+                continue;
+
+            if(acceptanceConditions.check(stateEncoding, state))
+                return buildTree(derivation);
+
+            for(int label = 0; label < labelsCount; ++label)
+            {
+                boolean isLeftSon = space.canBeSon(true, state, label);
+                boolean isRightSon = space.canBeSon(false, state, label);
+
+                if(isLeftSon)
+                    leftDerivations.get(label).add(derivation);
+
+                if(isRightSon)
+                    rightDerivations.get(label).add(derivation);
+
+                if(isLeftSon)
+                    for(Derivation right : rightDerivations.get(label))
+                        offerDerivations(space, derivation, right, label, derivations,
+                                         settledStates, queue);
+
+                if(isRightSon)
+                    for(Derivation left : leftDerivations.get(label))
+                        if(left != derivation)
+                            offerDerivations(space, left, derivation, label, derivations,
+                                             settledStates, queue);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finding a tree accepted by this automaton and not accepted by the other automaton. Trees are
+     * explored over labels from alphabets of both automata, using an antichain of pairs of a state
+     * of this automaton and a set of states of the other automaton instead of complementing the
+     * other automaton.
+     * @param other other bottom-up automaton
+     * @return the smallest found counterexample, or {@code null} if language of this automaton is
+     * included in language of the other automaton
+     */
+    public TreeNode findNotIncludedTree(BottomUpAutomaton other)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return new InclusionChecker(this, other).findCounterexample();
+    }
+
+    /**
+     * Checking if every tree accepted by this automaton is accepted by the other automaton.
+     * @param other other bottom-up automaton
+     * @return {@code true} if language of this automaton is included in language of the other
+     * automaton, otherwise {@code false}
+     */
+    public boolean isIncludedIn(BottomUpAutomaton other)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return findNotIncludedTree(other) == null;
+    }
+
+    /**
+     * Finding a tree accepted by exactly one of the automata.
+     * @param other other bottom-up automaton
+     * @return counterexample to equivalence, or {@code null} if both automata accept the same
+     * trees
+     */
+    public TreeNode findDifferentTree(BottomUpAutomaton other)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        TreeNode tree = findNotIncludedTree(other);
+
+        return tree != null ? tree : other.findNotIncludedTree(this);
+    }
+
+    /**
+     * Checking if both automata accept the same trees.
+     * @param other other bottom-up automaton
+     * @return {@code true} if languages of the automata are equal, otherwise {@code false}
+     */
+    public boolean isEquivalentTo(BottomUpAutomaton other)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return findDifferentTree(other) == null;
+    }
+
+    /**
+     * Finding the smallest tree over the alphabet not accepted by the automaton. Sets of states
+     * reachable for the same tree are explored with an antichain of minimal sets, where an empty
+     * set stands for the rejecting sink state of the completed automaton. Deterministic automata
+     * reach sets of at most one state, so this reduces to searching for a reachable rejecting
+     * state.
+     * @return the smallest rejected tree, or {@code null} if the automaton accepts every tree
+     */
+    public TreeNode findRejectedTree()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return new InclusionChecker(this).findCounterexample();
+    }
+
+    /**
+     * Checking if the automaton accepts every tree over its alphabet.
+     * @return {@code true} if the automaton accepts every tree, otherwise {@code false}
+     */
+    public boolean checkUniversality()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return findRejectedTree() == null;
+    }
 
     @Override
     protected void changeRunningMode()
@@ -97,14 +283,89 @@ public abstract class BottomUpAutomaton
                    NoNonDeterministicStrategyException
     {
         super.initialize();
-
+        findLeaves();
         traversing.initialize(leaves.toArray(new TreeNode[0]));
+        long initialState = stateEncoding.getInitialCode();
+
         leaves.forEach(leaf -> {
-            leaf.getLeft().setInitialState(variables);
-            leaf.getRight().setInitialState(variables);
+            leaf.getLeft().setStateCode(stateEncoding, initialState);
+            leaf.getRight().setStateCode(stateEncoding, initialState);
         });
     }
 
+    @Override
+    protected void evaluate(RunContext context)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        List<TreeNode> nodes = new ArrayList<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        long initialState = stateEncoding.getInitialCode();
+
+        stack.push(context.getTree());
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            if(!node.isNull())
+            {
+                nodes.add(node);
+                stack.push(node.getLeft());
+                stack.push(node.getRight());
+            }
+            else
+                context.setStateCode(node, initialState);
+        }
+
+        for(int i = nodes.size() - 1; i >= 0; --i)
+        {
+            TreeNode node = nodes.get(i);
+
+            context.setStateCode(node, applySharedTransition(
+                    context.getStateCode(node.getLeft()), context.getStateCode(node.getRight()),
+                    node.getLabel()));
+        }
+    }
+
+    @Override
+    protected void evaluateParallel(ForkJoinPool pool, int cutoff)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Pair<List<TreeNode>, List<TreeNode>> parts = splitTree(cutoff);
+        List<ForkJoinTask<Long>> tasks = parts.getSecond()
+                                              .stream()
+                                              .map(root -> ForkJoinTask.adapt(
+                                                      () -> evaluateSubtree(root)))
+                                              .collect(Collectors.toList());
+        List<TreeNode> upperNodes = parts.getFirst();
+        long initialState = stateEncoding.getInitialCode();
+
+        invokeParallel(pool, tasks);
+
+        for(int i = upperNodes.size() - 1; i >= 0; --i)
+        {
+            TreeNode node = upperNodes.get(i);
+
+            if(node.getLeft().isNull())
+                node.getLeft().setStateCode(stateEncoding, initialState);
+
+            if(node.getRight().isNull())
+                node.getRight().setStateCode(stateEncoding, initialState);
+
+            node.setStateCode(stateEncoding,
+                              applySharedTransition(node.getLeft().getStateCode(stateEncoding),
+                                                    node.getRight().getStateCode(stateEncoding),
+                                                    node.getLabel()));
+        }
+    }
+
+    @Override
+    protected boolean isAccepted(RunContext context)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        return acceptanceConditions.check(stateEncoding, context.getStateCode(context.getTree()));
+    }
+
     @Override
     protected void assertFiniteness(TreeNode tree)
             throws TreeFinitenessException
@@ -118,23 +379,105 @@ public abstract class BottomUpAutomaton
             throws IllegalVariableValueException, UndefinedStateValueException,
                    NoSuchTransitionException
     {
-        node.setState(applyTransition(node.getLeft().getState(), node.getRight().getState(),
-                                      node.getLabel()));
+        node.setStateCode(stateEncoding,
+                          applyTransition(node.getLeft().getStateCode(stateEncoding),
+                                          node.getRight().getStateCode(stateEncoding),
+                                          node.getLabel()));
 
         if(isSendingMessages)
-        {
-            TransitionSender.getInstance()
-                            .send(Triple.make(NodeInfoSource.LEFT_SON, node.getLeft().getLabel(),
-                                              node.getLeft().getState()));
-            TransitionSender.getInstance()
-                            .send(Triple.make(NodeInfoSource.PARENT, node.getLabel(),
-                                              node.getState()));
-            TransitionSender.getInstance()
-                            .send(Triple.make(NodeInfoSource.RIGHT_SON, node.getRight().getLabel(),
-                                              node.getRight().getState()));
-        }
+            sendTransition(node);
+    }
+
+    @Override
+    protected void evaluateNode(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        node.setStateCode(stateEncoding,
+                          applySharedTransition(node.getLeft().getStateCode(stateEncoding),
+                                                node.getRight().getStateCode(stateEncoding),
+                                                node.getLabel()));
+    }
+
+    @Override
+    protected void completeNode(TreeNode node)
+    {
+    }
+
+    @Override
+    protected Collection<TreeNode> getComputedNodes(TreeNode node)
+    {
+        return Collections.singletonList(node);
+    }
+
+    @Override
+    protected void revertNode(TreeNode node)
+    {
+    }
+
+    @Override
+    protected void updateLabel(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        updateAncestors(node);
+    }
+
+    @Override
+    protected void updateSubtree(TreeNode subtree)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        evaluateSubtree(subtree);
+
+        if(subtree.getParent() != null)
+            updateAncestors(subtree.getParent());
+    }
+
+    @Override
+    protected void removeSubtree(TreeNode subtree)
+    {
     }
 
+    /**
+     * Checking if associated tree is accepted with respect to specified acceptance conditions.
+     * @param conditions acceptance conditions over variables of the automaton
+     * @return {@code true} if state in the root is accepted, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if set of acceptance conditions is empty
+     * @throws UndefinedStateValueException if state in the root is undefined
+     * @throws NoTreeException if the automaton contains no tree
+     */
+    boolean isAccepted(AcceptanceConditions conditions)
+            throws UndefinedAcceptanceException, UndefinedStateValueException, NoTreeException
+    {
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        return conditions.check(stateEncoding, tree.getStateCode(stateEncoding));
+    }
+
+    /**
+     * @param var variable
+     * @return arguments of all transition entries for the variable
+     */
+    protected abstract Collection<Triple<String, String, String>> getTransitionKeys(Variable var);
+
+    /**
+     * @param var variable
+     * @param key arguments of transition entry
+     * @return unresolved results of transition entry with the exact arguments
+     */
+    protected abstract Collection<String> getTransitionResults(Variable var,
+                                                               Triple<String, String, String> key);
+
+    /**
+     * Finding results of transition relation with specified arguments without sending messages.
+     * @param var variable
+     * @param leftValue variable value in left son
+     * @param rightValue variable value in right son
+     * @param label label of node
+     * @return resolved variable values in node, empty if there is no transition entry
+     */
+    protected abstract Collection<String> findTransitionResults(Variable var, String leftValue,
+                                                                String rightValue, String label);
+
     /**
      * Applying transition relation with specified arguments.
      * @param var variable
@@ -148,6 +491,69 @@ public abstract class BottomUpAutomaton
                                               String label)
             throws NoSuchTransitionException;
 
+    /**
+     * Applying transition relation on the whole encoded state.
+     * @param leftState code of state from left son
+     * @param rightState code of state from right son
+     * @param label label of node
+     * @return code of state in the node
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected long applyTransition(long leftState, long rightState, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        long result = StateEncoding.EMPTY_STATE;
+
+        for(int i = 0; i < variables.size(); ++i)
+        {
+            Variable var = variables.get(i);
+            String value = applyTransition(var, stateEncoding.getValue(leftState, i),
+                                           stateEncoding.getValue(rightState, i), label);
+
+            result = stateEncoding.setValueIndex(result, i, getValueIndex(var, value));
+        }
+
+        return result;
+    }
+
+    /**
+     * Applying transition relation on the whole encoded state without sending messages or
+     * changing the automaton, so it can be called from concurrent runs.
+     * @param leftState code of state from left son
+     * @param rightState code of state from right son
+     * @param label label of node
+     * @return code of state in the node
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UnsupportedOperationException if transition relation cannot be shared between runs
+     */
+    protected long applySharedTransition(long leftState, long rightState, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        throw new UnsupportedOperationException(
+                String.format("%s cannot be shared between runs", getTypeName()));
+    }
+
+    /**
+     * Applying transition relation on the whole encoded state without sending messages or
+     * changing the automaton, with the label already found in the alphabet.
+     * @param leftState code of state from left son
+     * @param rightState code of state from right son
+     * @param labelIndex index of the label returned by {@link #getLabelIndex(String)}
+     * @param label label of node
+     * @return code of state in the node
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UnsupportedOperationException if transition relation cannot be shared between runs
+     */
+    protected long applySharedTransition(long leftState, long rightState, int labelIndex,
+                                         String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applySharedTransition(leftState, rightState, label);
+    }
+
     /**
      * Applying transition relation on the whole state.
      * @param leftState state from left son
@@ -155,17 +561,15 @@ public abstract class BottomUpAutomaton
      * @param label label of node
      * @return state in the node
      * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
      */
     protected Map<Variable, String> applyTransition(Map<Variable, String> leftState,
                                                     Map<Variable, String> rightState, String label)
-            throws NoSuchTransitionException
+            throws NoSuchTransitionException, IllegalVariableValueException
     {
-        Map<Variable, String> result = new HashMap<>();
-
-        for(Variable var : variables)
-            result.put(var, applyTransition(var, leftState.get(var), rightState.get(var), label));
-
-        return result;
+        return stateEncoding.decode(
+                applyTransition(stateEncoding.encode(leftState), stateEncoding.encode(rightState),
+                                label));
     }
 
     /**
@@ -207,6 +611,152 @@ public abstract class BottomUpAutomaton
         return String.format("VALUE = '%s'", value);
     }
 
+    /**
+     * Computing again states on the path from the node to the root. States above a node whose
+     * state has not changed depend only on unchanged states, so computing stops there.
+     * @param node the lowest node with changed arguments of transition
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    private void updateAncestors(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        for(TreeNode current = node; current != null; current = current.getParent())
+        {
+            long state = applySharedTransition(current.getLeft().getStateCode(stateEncoding),
+                                               current.getRight().getStateCode(stateEncoding),
+                                               current.getLabel());
+
+            if(state == current.getStateCode(stateEncoding))
+                break;
+
+            current.setStateCode(stateEncoding, state);
+        }
+    }
+
+    private long evaluateSubtree(TreeNode root)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        List<TreeNode> nodes = new ArrayList<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        long initialState = stateEncoding.getInitialCode();
+
+        stack.push(root);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            if(!node.isNull())
+            {
+                nodes.add(node);
+                stack.push(node.getLeft());
+                stack.push(node.getRight());
+            }
+            else
+                node.setStateCode(stateEncoding, initialState);
+        }
+
+        for(int i = nodes.size() - 1; i >= 0; --i)
+        {
+            TreeNode node = nodes.get(i);
+
+            node.setStateCode(stateEncoding,
+                              applySharedTransition(node.getLeft().getStateCode(stateEncoding),
+                                                    node.getRight().getStateCode(stateEncoding),
+                                                    node.getLabel()));
+        }
+
+        return root.getStateCode(stateEncoding);
+    }
+
+    StateSpace createStateSpace()
+    {
+        return new StateSpace();
+    }
+
+    private boolean addNextStates(StateSpace space, long leftState, long rightState, int label,
+                                  Set<Long> reachableStates, List<Long> states)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        for(long nextState : space.getNextStates(leftState, rightState, label))
+            if(reachableStates.add(nextState))
+            {
+                if(acceptanceConditions.check(stateEncoding, nextState))
+                    return true;
+
+                states.add(nextState);
+            }
+
+        return false;
+    }
+
+    private void offerDerivations(StateSpace space, Derivation left, Derivation right, int label,
+                                  Map<Long, Derivation> derivations, Set<Long> settledStates,
+                                  PriorityQueue<Derivation> queue)
+    {
+        long initialState = stateEncoding.getInitialCode();
+        long size = left == null ? 1 : 1 + left.getSize() + right.getSize();
+        List<Long> nextStates =
+                space.getNextStates(left == null ? initialState : left.getState(),
+                                    right == null ? initialState : right.getState(), label);
+
+        for(long nextState : nextStates)
+        {
+            Derivation derivation = derivations.get(nextState);
+
+            if(settledStates.contains(nextState)
+                    || derivation != null && derivation.getSize() <= size)
+                continue;
+
+            derivation = new Derivation(nextState, size, label, left, right);
+            derivations.put(nextState, derivation);
+            queue.add(derivation);
+        }
+    }
+
+    private TreeNode buildTree(Derivation root)
+    {
+        List<Derivation> preorder = new ArrayList<>();
+        Deque<Derivation> stack = new ArrayDeque<>();
+        Deque<TreeNode> nodes = new ArrayDeque<>();
+
+        stack.push(root);
+
+        while(!stack.isEmpty())
+        {
+            Derivation derivation = stack.pop();
+
+            preorder.add(derivation);
+
+            if(derivation.getLeft() != null)
+            {
+                stack.push(derivation.getRight());
+                stack.push(derivation.getLeft());
+            }
+        }
+
+        try
+        {
+            for(int i = preorder.size() - 1; i >= 0; --i)
+            {
+                Derivation derivation = preorder.get(i);
+                String label = getIndexedAlphabet().get(derivation.getLabel());
+
+                if(derivation.getLeft() == null)
+                    nodes.push(new StandardNode(label, i + 1));
+                else
+                    nodes.push(new StandardNode(label, i + 1, nodes.pop(), nodes.pop()));
+            }
+        }
+        catch(NodeHasParentException e)
+        {
+            throw new IllegalStateException("Built node has already got a parent", e);
+        }
+
+        return nodes.pop();
+    }
+
     private void findLeaves()
     {
         TopDownTraversing t = new TopDownDFS();
@@ -219,4 +769,138 @@ public abstract class BottomUpAutomaton
                 leaves.add(v);
         }));
     }
+
+    private static final class Derivation
+    {
+        private final long state;
+        private final long size;
+        private final int label;
+        private final Derivation left;
+        private final Derivation right;
+
+        Derivation(long state, long size, int label, Derivation left, Derivation right)
+        {
+            this.state = state;
+            this.size = size;
+            this.label = label;
+            this.left = left;
+            this.right = right;
+        }
+
+        long getState()
+        {
+            return state;
+        }
+
+        long getSize()
+        {
+            return size;
+        }
+
+        int getLabel()
+        {
+            return label;
+        }
+
+        Derivation getLeft()
+        {
+            return left;
+        }
+
+        Derivation getRight()
+        {
+            return right;
+        }
+    }
+
+    final class StateSpace
+    {
+        private final List<boolean[]> leftSons = new ArrayList<>();
+        private final List<boolean[]> rightSons = new ArrayList<>();
+        private final List<Map<Long, int[]>> results = new ArrayList<>();
+
+        StateSpace()
+        {
+            int labelsCount = getIndexedAlphabet().size();
+
+            for(Variable var : variables)
+            {
+                boolean[] leftValues = new boolean[var.size() * labelsCount];
+                boolean[] rightValues = new boolean[var.size() * labelsCount];
+
+                for(Triple<String, String, String> key : getTransitionKeys(var))
+                {
+                    markSons(leftValues, var, key.getFirst(), key.getThird());
+                    markSons(rightValues, var, key.getSecond(), key.getThird());
+                }
+
+                leftSons.add(leftValues);
+                rightSons.add(rightValues);
+                results.add(new HashMap<>());
+            }
+        }
+
+        boolean canBeSon(boolean isLeft, long state, int label)
+        {
+            List<boolean[]> sons = isLeft ? leftSons : rightSons;
+            int labelsCount = getIndexedAlphabet().size();
+
+            for(int i = 0; i < variables.size(); ++i)
+                if(!sons.get(i)[stateEncoding.getValueIndex(state, i) * labelsCount + label])
+                    return false;
+
+            return true;
+        }
+
+        List<Long> getNextStates(long leftState, long rightState, int label)
+        {
+            List<Long> nextStates = Collections.singletonList(StateEncoding.EMPTY_STATE);
+
+            for(int i = 0; i < variables.size(); ++i)
+            {
+                int[] values = getResultIndices(i, leftState, rightState, label);
+                List<Long> extendedStates = new ArrayList<>();
+
+                for(long nextState : nextStates)
+                    for(int value : values)
+                        extendedStates.add(stateEncoding.setValueIndex(nextState, i, value));
+
+                nextStates = extendedStates;
+            }
+
+            return nextStates;
+        }
+
+        private void markSons(boolean[] sons, Variable var, String value, String label)
+        {
+            int labelsCount = getIndexedAlphabet().size();
+            int valueIndex = var.indexOf(value);
+            int labelIndex = getLabelIndex(label);
+            boolean isEveryValue = Objects.equals(value, Wildcard.EVERY_VALUE)
+                    || Objects.equals(value, Wildcard.SAME_VALUE);
+            boolean isEveryLabel = Objects.equals(label, Wildcard.EVERY_VALUE);
+
+            for(int i = 0; i < var.size(); ++i)
+                for(int j = 0; j < labelsCount; ++j)
+                    if((isEveryValue || i == valueIndex) && (isEveryLabel || j == labelIndex))
+                        sons[i * labelsCount + j] = true;
+        }
+
+        private int[] getResultIndices(int position, long leftState, long rightState, int label)
+        {
+            List<String> labels = getIndexedAlphabet();
+            Variable var = variables.get(position);
+            int leftIndex = stateEncoding.getValueIndex(leftState, position);
+            int rightIndex = stateEncoding.getValueIndex(rightState, position);
+            long key = ((long)leftIndex * var.size() + rightIndex) * (labels.size() + 1) + label;
+            String labelValue = label < labels.size() ? labels.get(label) : Wildcard.EVERY_VALUE;
+
+            return results.get(position).computeIfAbsent(key, k -> findTransitionResults(
+                    var, var.getValue(leftIndex), var.getValue(rightIndex), labelValue).stream()
+                                                    .mapToInt(var::indexOf)
+                                                    .filter(index -> index >= 0)
+                                                    .distinct()
+                                                    .toArray());
+        }
+    }
 }
@@ -43,9 +43,8 @@ class BottomUpAutomatonHandler
                 break;
 
             case "variables":
-                result = isDeterministic
-                        ? new BottomUpDFTA(variables.values(), alphabet)
-                        : new BottomUpNFTA(variables.values(), alphabet);
+                result = isDeterministic ? createAutomaton(BottomUpDFTA::new)
+                                         : createAutomaton(BottomUpNFTA::new);
                 break;
 
             case "conditions":
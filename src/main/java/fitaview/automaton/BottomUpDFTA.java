@@ -1,11 +1,16 @@
 package fitaview.automaton;
 
+import java.io.IOException;
 import java.util.*;
+import org.xml.sax.SAXException;
 
+import fitaview.automaton.transition.BottomUpTransitionTable;
 import fitaview.automaton.transition.BottomUpTransitions;
 import fitaview.automaton.transition.DuplicatedTransitionException;
 import fitaview.automaton.transition.IllegalTransitionException;
 import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.automaton.transition.TransitionTable;
+import fitaview.tree.TreeReader;
 import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
 import fitaview.utils.Triple;
@@ -13,8 +18,12 @@ import fitaview.utils.Triple;
 public class BottomUpDFTA
         extends BottomUpAutomaton
 {
+    private static final int LEFT_VALUE_INDEX = -2;
+    private static final int RIGHT_VALUE_INDEX = -3;
     private final BottomUpTransitions<String> transitions =
             new BottomUpTransitions<>(this::keyToString, this::valueToString);
+    private volatile CompiledTransitions compiledTransitions = null;
+    private volatile long transitionsVersion = 0L;
 
     public BottomUpDFTA(Collection<Variable> variables, Collection<String> alphabet)
     {
@@ -33,50 +42,85 @@ public class BottomUpDFTA
         return "Bottom-up deterministic finite tree automaton";
     }
 
-    @Override
-    public boolean checkEmptiness()
-            throws UndefinedAcceptanceException, UndefinedStateValueException
+    /**
+     * Running the automaton on a tree while it is read from file, without building the tree.
+     * Transitions are applied when nodes are closed, so memory usage depends only on depth of
+     * the tree.
+     * @param reader reader of file with the tree
+     * @return state in the root, or {@code null} if file contains no tree
+     * @throws IOException if any IO error occurs
+     * @throws SAXException if any parsing error occurs
+     * @throws TreeFinitenessException if the tree is infinite
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    public Map<Variable, String> evaluate(TreeReader reader)
+            throws IOException, SAXException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException
     {
-        Set<Map<Variable, String>> reachableStates = new HashSet<>();
-        List<Map<Variable, String>> currentStates = Collections.singletonList(getInitialState());
+        Long rootState = evaluateCode(reader);
 
-        while(!currentStates.isEmpty())
-        {
-            Set<Map<Variable, String>> generatedStates = new HashSet<>();
-
-            for(int i = 0; i < currentStates.size(); ++i)
-                for(int j = i; j < currentStates.size(); ++j)
-                    for(String word : alphabet)
-                    {
-                        Map<Variable, String> newState1 =
-                                getNextState(currentStates.get(i), currentStates.get(j), word);
-
-                        if(newState1 != null && !reachableStates.contains(newState1))
-                        {
-                            if(acceptanceConditions.check(newState1))
-                                return false;
-
-                            reachableStates.add(newState1);
-                            generatedStates.add(newState1);
-                        }
-
-                        Map<Variable, String> newState2 =
-                                getNextState(currentStates.get(j), currentStates.get(i), word);
-
-                        if(newState2 != null && !reachableStates.contains(newState2))
-                        {
-                            if(acceptanceConditions.check(newState2))
-                                return false;
-
-                            reachableStates.add(newState2);
-                            generatedStates.add(newState2);
-                        }
-                    }
-
-            currentStates = new ArrayList<>(generatedStates);
-        }
+        return rootState == null ? null : stateEncoding.decode(rootState);
+    }
 
-        return true;
+    /**
+     * Checking acceptance of a tree while it is read from file, without building the tree.
+     * @param reader reader of file with the tree
+     * @return {@code true} if the automaton accepts the tree, otherwise {@code false}
+     * @throws IOException if any IO error occurs
+     * @throws SAXException if any parsing error occurs
+     * @throws TreeFinitenessException if the tree is infinite
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws NoTreeException if file contains no tree
+     * @throws UndefinedAcceptanceException if set of acceptance conditions is empty
+     * @throws UndefinedStateValueException if root state contains undefined values
+     */
+    public boolean isAccepted(TreeReader reader)
+            throws IOException, SAXException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException, NoTreeException, UndefinedAcceptanceException,
+                   UndefinedStateValueException
+    {
+        Long rootState = evaluateCode(reader);
+
+        if(rootState == null)
+            throw new NoTreeException("No tree specified");
+
+        return acceptanceConditions.check(stateEncoding, rootState);
+    }
+
+    /**
+     * Minimizing the automaton with respect to current transition relation and acceptance
+     * conditions. Each variable changes independently of the others, so values unreachable from
+     * the initial value are removed and remaining values are merged by partition refinement
+     * separately for each variable.
+     * @return minimal equivalent automaton with sizes of both automata
+     */
+    public BottomUpMinimization minimize()
+    {
+        return new BottomUpMinimization(this);
+    }
+
+    /**
+     * Creating evaluator with cache of states of subtrees with default capacity of cache.
+     * @return memoizing evaluator for current transition relation
+     */
+    public SubtreeMemoizer memoize()
+    {
+        return memoize(SubtreeMemoizer.DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Creating evaluator with cache of states of subtrees, so repeated subtrees are evaluated
+     * once in a tree and in all trees evaluated by the same evaluator. Subtrees are kept in a
+     * cache of bounded size, where the least recently used ones are removed first. The cache is
+     * cleared when transition entries are added.
+     * @param cacheCapacity maximal number of cached subtrees
+     * @return memoizing evaluator for current transition relation
+     */
+    public SubtreeMemoizer memoize(int cacheCapacity)
+    {
+        return new SubtreeMemoizer(this, cacheCapacity);
     }
 
     @Override
@@ -109,12 +153,52 @@ public class BottomUpDFTA
         return Objects.hash(alphabet, variables, acceptanceConditions, traversing, transitions);
     }
 
+    @Override
+    public boolean canRunConcurrently()
+    {
+        return true;
+    }
+
     @Override
     public void addTransition(Variable var, String leftValue, String rightValue, String label,
                               String result)
             throws DuplicatedTransitionException, IllegalTransitionException
     {
         transitions.add(var, Triple.make(leftValue, rightValue, label), result);
+        compiledTransitions = null;
+        ++transitionsVersion;
+    }
+
+    /** @return number of changes in transition relation */
+    long getTransitionsVersion()
+    {
+        return transitionsVersion;
+    }
+
+    @Override
+    protected Collection<Triple<String, String, String>> getTransitionKeys(Variable var)
+    {
+        return transitions.getKeys(var);
+    }
+
+    @Override
+    protected Collection<String> getTransitionResults(Variable var,
+                                                      Triple<String, String, String> key)
+    {
+        String result = transitions.get(var, key);
+
+        return result == null ? Collections.emptySet() : Collections.singleton(result);
+    }
+
+    @Override
+    protected Collection<String> findTransitionResults(Variable var, String leftValue,
+                                                       String rightValue, String label)
+    {
+        String result = transitions.findMatched(var, Triple.make(leftValue, rightValue, label));
+
+        return result == null ? Collections.emptySet()
+                              : Collections.singleton(resolveWildcard(result, leftValue,
+                                                                      rightValue));
     }
 
     @Override
@@ -127,16 +211,139 @@ public class BottomUpDFTA
         return resolveWildcard(result, leftValue, rightValue);
     }
 
-    private Map<Variable, String> getNextState(Map<Variable, String> leftState,
-                                               Map<Variable, String> rightState, String word)
+    @Override
+    protected long applyTransition(long leftState, long rightState, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applyTransition(leftState, rightState, getLabelIndex(label), label,
+                               isSendingMessages);
+    }
+
+    @Override
+    protected long applySharedTransition(long leftState, long rightState, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applyTransition(leftState, rightState, getLabelIndex(label), label, false);
+    }
+
+    @Override
+    protected long applySharedTransition(long leftState, long rightState, int labelIndex,
+                                         String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applyTransition(leftState, rightState, labelIndex, label, false);
+    }
+
+    private long applyTransition(long leftState, long rightState, int labelIndex, String label,
+                                 boolean isSending)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        CompiledTransitions compiled = getCompiledTransitions();
+        List<BottomUpTransitionTable<String>> tables = compiled.tables;
+        long result = StateEncoding.EMPTY_STATE;
+
+        for(int i = 0; i < tables.size(); ++i)
+        {
+            BottomUpTransitionTable<String> table = tables.get(i);
+            int leftIndex = stateEncoding.getValueIndex(leftState, i);
+            int rightIndex = stateEncoding.getValueIndex(rightState, i);
+            int entry = table.find(leftIndex, rightIndex, labelIndex);
+
+            if(entry == TransitionTable.NO_ENTRY)
+                throw new NoSuchTransitionException(
+                        String.format("No entry for arguments %s with variable %s",
+                                      Triple.make(stateEncoding.getValue(leftState, i),
+                                                  stateEncoding.getValue(rightState, i), label),
+                                      table.getVariable()));
+
+            if(isSending)
+                table.sendEntry(entry);
+
+            int resultIndex = compiled.results[i][entry];
+
+            if(resultIndex == LEFT_VALUE_INDEX)
+                resultIndex = leftIndex;
+            else if(resultIndex == RIGHT_VALUE_INDEX)
+                resultIndex = rightIndex;
+            else if(resultIndex < 0)
+                throw new IllegalVariableValueException(table.getValue(entry));
+
+            result = stateEncoding.setValueIndex(result, i, resultIndex);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compiling transition relation into dense tables if it has changed since the last
+     * compilation.
+     * @return compiled transition tables for each variable with encoded results
+     */
+    private CompiledTransitions getCompiledTransitions()
+    {
+        CompiledTransitions compiled = compiledTransitions;
+
+        if(compiled == null)
+        {
+            List<BottomUpTransitionTable<String>> tables = new ArrayList<>();
+            int[][] results = new int[variables.size()][];
+
+            for(Variable var : variables)
+            {
+                BottomUpTransitionTable<String> table =
+                        transitions.compile(var, getIndexedAlphabet());
+
+                results[tables.size()] = table.encodeValues(value -> encodeResult(var, value));
+                tables.add(table);
+            }
+
+            compiled = new CompiledTransitions(tables, results);
+            compiledTransitions = compiled;
+        }
+
+        return compiled;
+    }
+
+    private Long evaluateCode(TreeReader reader)
+            throws IOException, SAXException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException
     {
         try
         {
-            return applyTransition(leftState, rightState, word);
+            return reader.read(new BottomUpStreamingHandler(this));
         }
-        catch(NoSuchTransitionException e)
+        catch(SAXException e)
+        {
+            if(e.getException() instanceof TreeFinitenessException)
+                throw (TreeFinitenessException)e.getException();
+
+            if(e.getException() instanceof NoSuchTransitionException)
+                throw (NoSuchTransitionException)e.getException();
+
+            throw e;
+        }
+    }
+
+    private int encodeResult(Variable var, String value)
+    {
+        if(Objects.equals(value, Wildcard.LEFT_VALUE))
+            return LEFT_VALUE_INDEX;
+
+        if(Objects.equals(value, Wildcard.RIGHT_VALUE))
+            return RIGHT_VALUE_INDEX;
+
+        return var.indexOf(value);
+    }
+
+    private static final class CompiledTransitions
+    {
+        final List<BottomUpTransitionTable<String>> tables;
+        final int[][] results;
+
+        CompiledTransitions(List<BottomUpTransitionTable<String>> tables, int[][] results)
         {
-            return null;
+            this.tables = tables;
+            this.results = results;
         }
     }
 }
@@ -0,0 +1,329 @@
+package fitaview.automaton;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+import fitaview.automaton.transition.DuplicatedTransitionException;
+import fitaview.automaton.transition.IllegalTransitionException;
+import fitaview.utils.Pair;
+import fitaview.utils.Triple;
+
+public final class BottomUpMinimization
+{
+    private static final int UNDEFINED_RESULT = -1;
+    private static final int ILLEGAL_RESULT = -2;
+    private final BottomUpDFTA original;
+    private final BottomUpDFTA automaton;
+    private final Map<Variable, Variable> renaming = new HashMap<>();
+    private final Map<Variable, Map<String, String>> representatives = new HashMap<>();
+
+    BottomUpMinimization(BottomUpDFTA original)
+    {
+        this.original = original;
+
+        List<Variable> variables = new ArrayList<>();
+        List<VariableTable> tables = new ArrayList<>();
+
+        for(Variable var : original.variables)
+        {
+            VariableTable table = new VariableTable(var);
+            Variable minimalVar = table.createVariable();
+
+            tables.add(table);
+            variables.add(minimalVar);
+            renaming.put(var, minimalVar);
+            representatives.put(var, table.getRepresentatives());
+        }
+
+        automaton = new BottomUpDFTA(variables, original.getAlphabet());
+
+        for(VariableTable table : tables)
+            table.addTransitions();
+
+        AcceptanceConditions minimalConditions = original.acceptanceConditions.transform(
+                condition -> {
+                    Map<Variable, Pair<String, Boolean>> minimalCondition = new HashMap<>();
+
+                    condition.forEach((var, value) -> minimalCondition.put(
+                            renaming.get(var),
+                            Pair.make(representatives.get(var).getOrDefault(value.getFirst(),
+                                                                            value.getFirst()),
+                                      value.getSecond())));
+
+                    return minimalCondition;
+                });
+
+        minimalConditions.getStatesConditions().forEach(automaton::addAcceptanceConditions);
+        minimalConditions.getConjuncts().forEach(automaton.acceptanceConditions::addConjunct);
+    }
+
+    /** @return minimal automaton equivalent to the original one */
+    public BottomUpDFTA getAutomaton()
+    {
+        return automaton;
+    }
+
+    /** @return number of states of the original automaton */
+    public long getOriginalStatesCount()
+    {
+        return countStates(original);
+    }
+
+    /** @return number of states of the minimal automaton */
+    public long getStatesCount()
+    {
+        return countStates(automaton);
+    }
+
+    /** @return number of transition entries of the original automaton */
+    public int getOriginalTransitionsCount()
+    {
+        return original.getTransitionAsStrings().size();
+    }
+
+    /** @return number of transition entries of the minimal automaton */
+    public int getTransitionsCount()
+    {
+        return automaton.getTransitionAsStrings().size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("States: %d -> %d, transitions: %d -> %d",
+                             getOriginalStatesCount(), getStatesCount(),
+                             getOriginalTransitionsCount(), getTransitionsCount());
+    }
+
+    private static long countStates(BottomUpDFTA automaton)
+    {
+        long count = 1;
+
+        for(Variable var : automaton.variables)
+            count *= var.size();
+
+        return count;
+    }
+
+    private final class VariableTable
+    {
+        private final Variable var;
+        private final List<String> labels = new ArrayList<>();
+        private final int[][][] resultIndices;
+        private final List<Integer> reachableValues = new ArrayList<>();
+        private final int[] blocks;
+        private final List<Integer> blocksValues = new ArrayList<>();
+        private Variable minimalVar;
+
+        private VariableTable(Variable var)
+        {
+            this.var = var;
+            labels.addAll(original.getIndexedAlphabet());
+            labels.add(Wildcard.EVERY_VALUE);
+            resultIndices = new int[var.size()][var.size()][labels.size()];
+            blocks = new int[var.size()];
+
+            for(int left = 0; left < var.size(); ++left)
+                for(int right = 0; right < var.size(); ++right)
+                    for(int label = 0; label < labels.size(); ++label)
+                    {
+                        Collection<String> result = original.findTransitionResults(
+                                var, var.getValue(left), var.getValue(right), labels.get(label));
+
+                        resultIndices[left][right][label] = result.isEmpty()
+                                ? UNDEFINED_RESULT
+                                : var.contains(result.iterator().next())
+                                  ? var.indexOf(result.iterator().next())
+                                  : ILLEGAL_RESULT;
+                    }
+
+            findReachableValues();
+            refineBlocks();
+        }
+
+        /**
+         * Creating the variable of the minimal automaton, whose values are representatives of
+         * blocks. The initial value is always the first reachable value, so it represents its
+         * block.
+         * @return variable with values of representatives
+         */
+        private Variable createVariable()
+        {
+            List<String> values = new ArrayList<>();
+
+            for(int value : blocksValues)
+                values.add(var.getValue(value));
+
+            try
+            {
+                minimalVar = new Variable(var.getIndex(), var.getInitValue(), values);
+            }
+            catch(IllegalVariableValueException e)
+            {
+                throw new IllegalStateException("Representative value is illegal", e);
+            }
+
+            return minimalVar;
+        }
+
+        private Map<String, String> getRepresentatives()
+        {
+            Map<String, String> values = new HashMap<>();
+
+            for(int value : reachableValues)
+                values.put(var.getValue(value), var.getValue(blocksValues.get(blocks[value])));
+
+            return values;
+        }
+
+        /**
+         * Adding transition entries of the original automaton to the minimal automaton. Entries
+         * with an argument value other than a representative never match in the minimal
+         * automaton, so they are skipped. Results are replaced with their representatives and
+         * entries with unreachable results are skipped, since they never match reachable values.
+         */
+        private void addTransitions()
+        {
+            Map<String, String> values = getRepresentatives();
+
+            try
+            {
+                for(Triple<String, String, String> key : original.getTransitionKeys(var))
+                {
+                    if(!isArgument(key.getFirst()) || !isArgument(key.getSecond()))
+                        continue;
+
+                    for(String result : original.getTransitionResults(var, key))
+                        if(!var.contains(result) || values.containsKey(result))
+                            automaton.addTransition(minimalVar, key.getFirst(), key.getSecond(),
+                                                    key.getThird(),
+                                                    values.getOrDefault(result, result));
+                }
+            }
+            catch(DuplicatedTransitionException | IllegalTransitionException e)
+            {
+                throw new IllegalStateException("Minimal transition is incorrect", e);
+            }
+        }
+
+        private boolean isArgument(String value)
+        {
+            return Objects.equals(value, Wildcard.EVERY_VALUE)
+                    || Objects.equals(value, Wildcard.SAME_VALUE) || minimalVar.contains(value);
+        }
+
+        private void findReachableValues()
+        {
+            boolean[] isReachable = new boolean[var.size()];
+            boolean isChanged = true;
+
+            isReachable[0] = true;
+            reachableValues.add(0);
+
+            while(isChanged)
+            {
+                isChanged = false;
+
+                for(int label = 0; label < labels.size(); ++label)
+                    for(int i = 0; i < reachableValues.size(); ++i)
+                        for(int j = 0; j < reachableValues.size(); ++j)
+                        {
+                            int left = reachableValues.get(i);
+                            int right = reachableValues.get(j);
+                            int result = resultIndices[left][right][label];
+
+                            if(result >= 0 && !isReachable[result])
+                            {
+                                isReachable[result] = true;
+                                reachableValues.add(result);
+                                isChanged = true;
+                            }
+                        }
+            }
+
+            Collections.sort(reachableValues);
+        }
+
+        /**
+         * Refining partition of reachable values, which starts with values indistinguishable by
+         * acceptance conditions. Values stay in one block as long as for each label and each
+         * reachable value of the other son their results are in the same block.
+         */
+        private void refineBlocks()
+        {
+            List<Map<Variable, Pair<String, Boolean>>> conditions =
+                    original.acceptanceConditions.getAllStatesConditions();
+            int blocksCount = assignBlocks(value -> {
+                List<Object> signature = new ArrayList<>();
+
+                for(Map<Variable, Pair<String, Boolean>> condition : conditions)
+                    if(condition.containsKey(var))
+                        signature.add(isSatisfied(condition.get(var), var.getValue(value)));
+
+                return signature;
+            });
+            int previousCount = 0;
+
+            while(blocksCount != previousCount)
+            {
+                int[] previousBlocks = Arrays.copyOf(blocks, blocks.length);
+
+                previousCount = blocksCount;
+                blocksCount = assignBlocks(value -> {
+                    List<Object> signature = new ArrayList<>();
+
+                    signature.add(previousBlocks[value]);
+
+                    for(int label = 0; label < labels.size(); ++label)
+                        for(int other : reachableValues)
+                        {
+                            signature.add(getBlock(previousBlocks,
+                                                   resultIndices[value][other][label]));
+                            signature.add(getBlock(previousBlocks,
+                                                   resultIndices[other][value][label]));
+                        }
+
+                    return signature;
+                });
+            }
+        }
+
+        private int assignBlocks(IntFunction<List<Object>> signature)
+        {
+            Map<List<Object>, Integer> blocksIds = new HashMap<>();
+
+            blocksValues.clear();
+
+            for(int value : reachableValues)
+            {
+                List<Object> valueSignature = signature.apply(value);
+                Integer block = blocksIds.get(valueSignature);
+
+                if(block == null)
+                {
+                    block = blocksIds.size();
+                    blocksIds.put(valueSignature, block);
+                    blocksValues.add(value);
+                }
+
+                blocks[value] = block;
+            }
+
+            return blocksIds.size();
+        }
+
+        private int getBlock(int[] previousBlocks, int result)
+        {
+            return result >= 0 ? previousBlocks[result] : result;
+        }
+
+        private boolean isSatisfied(Pair<String, Boolean> valueEquality, String value)
+        {
+            if(valueEquality.getSecond())
+                return Objects.equals(valueEquality.getFirst(), value)
+                        || Objects.equals(valueEquality.getFirst(), Wildcard.EVERY_VALUE);
+
+            return !Objects.equals(valueEquality.getFirst(), value);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import fitaview.automaton.transition.BottomUpTransitions;
 import fitaview.automaton.transition.DuplicatedTransitionException;
 import fitaview.automaton.transition.IllegalTransitionException;
 import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.tree.NodeMap;
+import fitaview.tree.TreeNode;
 import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
 import fitaview.utils.Triple;
@@ -20,6 +22,13 @@ public class BottomUpNFTA
     private StateChoice<Triple<String, String, String>, String> choice;
     private final BottomUpTransitions<Set<String>> transitions =
             new BottomUpTransitions<>(this::keyToString, this::valueSetToString);
+    private final Map<TreeNode, BitSet> stateSets = new NodeMap<>();
+    private final Map<TreeNode, BitSet> revertedStateSets = new NodeMap<>();
+    private final List<Long> internedStates = new ArrayList<>();
+    private final Map<Long, Integer> stateIndices = new HashMap<>();
+    private final List<Map<Long, int[]>> transitionIndices = new ArrayList<>();
+    private StateSpace space = null;
+    private boolean isAllRuns = false;
 
     public BottomUpNFTA(Collection<Variable> variables, Collection<String> alphabet)
     {
@@ -38,6 +47,69 @@ public class BottomUpNFTA
         this.choice = choice;
     }
 
+    /** @return {@code true} if all runs are evaluated instead of choosing states */
+    public boolean isAllRuns()
+    {
+        return isAllRuns;
+    }
+
+    /**
+     * Switching evaluation of all runs on and off. When on, every node gets the set of all states
+     * reachable in it by any run, so no state is chosen and the tree is accepted if any state in
+     * the root is accepted. Nodes show the first of their reachable states.
+     * @param allRuns {@code true} if all runs should be evaluated
+     * @throws AutomatonIsRunningException if automaton is running
+     */
+    public void setAllRuns(boolean allRuns)
+            throws AutomatonIsRunningException
+    {
+        if(isRunning())
+            throw new AutomatonIsRunningException(
+                    "Cannot change evaluation of runs when automaton is running");
+
+        isAllRuns = allRuns;
+    }
+
+    /**
+     * @param node tree node
+     * @return all states reachable in the node
+     * @throws UndefinedStateValueException if the node was not evaluated in the mode of all runs
+     */
+    public Set<Map<Variable, String>> getAllStates(TreeNode node)
+            throws UndefinedStateValueException
+    {
+        BitSet states = stateSets.get(node);
+
+        if(states == null)
+            throw new UndefinedStateValueException("Reachable states of node are undefined");
+
+        return states.stream()
+                     .mapToObj(i -> stateEncoding.decode(internedStates.get(i)))
+                     .collect(Collectors.toSet());
+    }
+
+    @Override
+    boolean isAccepted(AcceptanceConditions conditions)
+            throws UndefinedAcceptanceException, UndefinedStateValueException, NoTreeException
+    {
+        if(!isAllRuns)
+            return super.isAccepted(conditions);
+
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        BitSet rootStates = stateSets.get(tree);
+
+        if(rootStates == null)
+            throw new UndefinedStateValueException("States in tree root are undefined");
+
+        for(int i = rootStates.nextSetBit(0); i >= 0; i = rootStates.nextSetBit(i + 1))
+            if(conditions.check(stateEncoding, internedStates.get(i)))
+                return true;
+
+        return false;
+    }
+
     @Override
     public String getTypeName()
     {
@@ -72,34 +144,26 @@ public class BottomUpNFTA
         entry.add(result);
     }
 
-    @Override
-    public boolean checkEmptiness()
-            throws UndefinedStateValueException, UndefinedAcceptanceException
+    /**
+     * Creating deterministic view of the automaton with default capacity of cache.
+     * @return determinized automaton for current transition relation
+     */
+    public SubsetDeterminizer determinize()
     {
-        Set<Map<Variable, String>> reachableStates = new HashSet<>();
-        List<Map<Variable, String>> currentStates = Collections.singletonList(getInitialState());
-
-        while(!currentStates.isEmpty())
-        {
-            Set<Map<Variable, String>> generatedStates = new HashSet<>();
-
-            for(int i = 0; i < currentStates.size(); ++i)
-                for(int j = i; j < currentStates.size(); ++j)
-                    for(String word : alphabet)
-                    {
-                        if(addNextStates(reachableStates, currentStates.get(i),
-                                         currentStates.get(j), generatedStates, word))
-                            return false;
-
-                        if(addNextStates(reachableStates, currentStates.get(j),
-                                         currentStates.get(i), generatedStates, word))
-                            return false;
-                    }
-
-            currentStates = new ArrayList<>(generatedStates);
-        }
+        return determinize(SubsetDeterminizer.DEFAULT_CACHE_CAPACITY);
+    }
 
-        return true;
+    /**
+     * Creating deterministic view of the automaton, whose states are sets of states of this
+     * automaton. Sets are created only when reached in a tree and their transitions are kept in
+     * a cache of bounded size, where the least recently used ones are removed first. Transition
+     * entries added later are not seen by the view.
+     * @param cacheCapacity maximal number of cached transitions of sets
+     * @return determinized automaton for current transition relation
+     */
+    public SubsetDeterminizer determinize(int cacheCapacity)
+    {
+        return new SubsetDeterminizer(this, cacheCapacity);
     }
 
     @Override
@@ -141,16 +205,101 @@ public class BottomUpNFTA
                                   getAllTransitionResults(var, leftValue, rightValue, label));
     }
 
+    @Override
+    protected Collection<Triple<String, String, String>> getTransitionKeys(Variable var)
+    {
+        return transitions.getKeys(var);
+    }
+
+    @Override
+    protected Collection<String> getTransitionResults(Variable var,
+                                                      Triple<String, String, String> key)
+    {
+        Set<String> results = transitions.get(var, key);
+
+        return results == null ? Collections.emptySet() : results;
+    }
+
+    @Override
+    protected Collection<String> findTransitionResults(Variable var, String leftValue,
+                                                       String rightValue, String label)
+    {
+        return transitions.findAll(var, Triple.make(leftValue, rightValue, label))
+                          .stream()
+                          .flatMap(set -> set.stream()
+                                             .map(res -> resolveWildcard(res, leftValue,
+                                                                         rightValue)))
+                          .collect(Collectors.toSet());
+    }
+
     @Override
     protected void initialize()
             throws IllegalVariableValueException, NoTreeException, NoTraversingStrategyException,
                    NoNonDeterministicStrategyException
     {
-        if(choice == null)
+        if(choice == null && !isAllRuns)
             throw new NoNonDeterministicStrategyException(
                     "Automaton has no non-deterministic strategy");
 
         super.initialize();
+        stateSets.clear();
+        revertedStateSets.clear();
+        internedStates.clear();
+        stateIndices.clear();
+        transitionIndices.clear();
+        space = null;
+
+        if(isAllRuns)
+        {
+            space = createStateSpace();
+
+            for(int i = 0; i <= getIndexedAlphabet().size(); ++i)
+                transitionIndices.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    protected void processNode(TreeNode node)
+            throws IllegalVariableValueException, UndefinedStateValueException,
+                   NoSuchTransitionException
+    {
+        if(!isAllRuns)
+        {
+            super.processNode(node);
+            return;
+        }
+
+        BitSet states = applyAllTransitions(getStateSet(node.getLeft()),
+                                            getStateSet(node.getRight()),
+                                            getLabelIndex(node.getLabel()));
+
+        stateSets.put(node, states);
+
+        if(states.isEmpty())
+            return;
+
+        node.setStateCode(stateEncoding, internedStates.get(states.nextSetBit(0)));
+
+        if(isSendingMessages)
+            sendTransition(node);
+    }
+
+    @Override
+    protected void completeNode(TreeNode node)
+    {
+        BitSet states = revertedStateSets.remove(node);
+
+        if(states != null)
+            stateSets.put(node, states);
+    }
+
+    @Override
+    protected void revertNode(TreeNode node)
+    {
+        BitSet states = stateSets.remove(node);
+
+        if(states != null)
+            revertedStateSets.put(node, states);
     }
 
     Set<Map<Variable, String>> getNextStates(Map<Variable, String> leftState,
@@ -173,28 +322,66 @@ public class BottomUpNFTA
         return pairsToMap(convert(mapToPairs(result)));
     }
 
-    private boolean addNextStates(Set<Map<Variable, String>> reachableStates,
-                                  Map<Variable, String> currentState1,
-                                  Map<Variable, String> currentState2,
-                                  Set<Map<Variable, String>> generatedStates, String word)
-            throws UndefinedStateValueException, UndefinedAcceptanceException
+    private BitSet getStateSet(TreeNode node)
+            throws UndefinedStateValueException
     {
-        Set<Map<Variable, String>> nextStates = getNextStates(currentState1, currentState2, word);
-
-        if(nextStates != null)
+        if(!node.isNull())
         {
-            for(Map<Variable, String> state : nextStates)
-                if(!reachableStates.contains(state))
-                {
-                    if(acceptanceConditions.check(state))
-                        return true;
+            BitSet states = stateSets.get(node);
+
+            if(states == null)
+                throw new UndefinedStateValueException("Reachable states of son are undefined");
+
+            return states;
+        }
+
+        BitSet states = new BitSet();
+
+        states.set(internState(stateEncoding.getInitialCode()));
+
+        return states;
+    }
+
+    private BitSet applyAllTransitions(BitSet leftStates, BitSet rightStates, int label)
+    {
+        Map<Long, int[]> results = transitionIndices.get(label);
+        BitSet states = new BitSet();
+
+        for(int i = leftStates.nextSetBit(0); i >= 0; i = leftStates.nextSetBit(i + 1))
+            for(int j = rightStates.nextSetBit(0); j >= 0; j = rightStates.nextSetBit(j + 1))
+            {
+                long key = (long)i << Integer.SIZE | j;
+                int[] nextStates = results.get(key);
 
-                    reachableStates.add(state);
-                    generatedStates.add(state);
+                if(nextStates == null)
+                {
+                    nextStates = space.getNextStates(internedStates.get(i),
+                                                     internedStates.get(j), label)
+                                      .stream()
+                                      .mapToInt(this::internState)
+                                      .toArray();
+                    results.put(key, nextStates);
                 }
+
+                for(int state : nextStates)
+                    states.set(state);
+            }
+
+        return states;
+    }
+
+    private int internState(long code)
+    {
+        Integer index = stateIndices.get(code);
+
+        if(index == null)
+        {
+            index = internedStates.size();
+            internedStates.add(code);
+            stateIndices.put(code, index);
         }
 
-        return false;
+        return index;
     }
 
     private Set<String> getAllTransitionResults(Variable var, String leftValue, String rightValue,
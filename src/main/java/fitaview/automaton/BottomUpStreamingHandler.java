@@ -0,0 +1,105 @@
+package fitaview.automaton;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.tree.OneChildException;
+import fitaview.tree.TreeParsingException;
+import fitaview.utils.XMLHandler;
+
+class BottomUpStreamingHandler
+        extends XMLHandler<Long>
+{
+    private final BottomUpDFTA automaton;
+    private final long initialState;
+    private final Deque<String> labels = new ArrayDeque<>();
+    private final Deque<Integer> sonsCounts = new ArrayDeque<>();
+    private final Deque<Long> states = new ArrayDeque<>();
+
+    BottomUpStreamingHandler(BottomUpDFTA automaton)
+    {
+        this.automaton = automaton;
+        this.initialState = automaton.stateEncoding.getInitialCode();
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+            throws SAXException
+    {
+        switch(qName)
+        {
+            case "node":
+                String label = attributes.getValue("label");
+
+                if(label == null)
+                    throw new TreeParsingException(
+                            String.format("%s: Label is null", writePosition()));
+
+                labels.push(label);
+                sonsCounts.push(0);
+                break;
+
+            case "rec":
+            case "repeat":
+                throw new SAXException(String.format("%s: Tree is infinite", writePosition()),
+                                       new TreeFinitenessException("Tree is infinite"));
+
+            default:
+                throw new TreeParsingException(
+                        String.format("%s: Unexpected tag: '%s'", writePosition(), qName));
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName)
+            throws SAXException
+    {
+        long leftState = initialState;
+        long rightState = initialState;
+
+        switch(sonsCounts.pop())
+        {
+            case 0:
+                break;
+
+            case 2:
+                rightState = states.pop();
+                leftState = states.pop();
+                break;
+
+            default:
+                throw new OneChildException(
+                        String.format("%s: Node must have zero or two children, but it has one",
+                                      writePosition()));
+        }
+
+        try
+        {
+            states.push(automaton.applySharedTransition(leftState, rightState, labels.pop()));
+        }
+        catch(NoSuchTransitionException e)
+        {
+            throw new SAXException(String.format("%s: %s", writePosition(), e.getMessage()), e);
+        }
+
+        if(!sonsCounts.isEmpty())
+            sonsCounts.push(sonsCounts.pop() + 1);
+    }
+
+    @Override
+    public void endDocument()
+    {
+        result = states.peek();
+    }
+
+    @Override
+    public void error(SAXParseException e)
+            throws SAXException
+    {
+        throw new TreeParsingException(e.getMessage(), e);
+    }
+}
@@ -0,0 +1,270 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+import fitaview.tree.NodeHasParentException;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
+
+final class InclusionChecker
+{
+    private final BottomUpAutomaton included;
+    private final BottomUpAutomaton including;
+    private final BottomUpAutomaton.StateSpace includedSpace;
+    private final BottomUpAutomaton.StateSpace includingSpace;
+    private final List<String> labels = new ArrayList<>();
+    private final Map<Long, List<Product>> antichain = new HashMap<>();
+    private final List<Product> products = new ArrayList<>();
+    private final PriorityQueue<Product> queue =
+            new PriorityQueue<>(Comparator.comparingLong(Product::getSize));
+
+    /**
+     * Creating checker of universality of the automaton, which accepts every tree over its
+     * alphabet if the language of all such trees is included in its language.
+     * @param including checked automaton
+     */
+    InclusionChecker(BottomUpAutomaton including)
+    {
+        this.included = null;
+        this.including = including;
+        this.includedSpace = null;
+        this.includingSpace = including.createStateSpace();
+        labels.addAll(including.getIndexedAlphabet());
+    }
+
+    InclusionChecker(BottomUpAutomaton included, BottomUpAutomaton including)
+    {
+        this.included = included;
+        this.including = including;
+        this.includedSpace = included.createStateSpace();
+        this.includingSpace = including.createStateSpace();
+
+        Set<String> alphabet = new LinkedHashSet<>(included.getIndexedAlphabet());
+
+        alphabet.addAll(including.getIndexedAlphabet());
+        labels.addAll(alphabet);
+    }
+
+    /**
+     * Searching for a tree accepted by the included automaton and not accepted by the including
+     * one. Products of a state of the included automaton with the set of all states of the
+     * including automaton reachable for the same tree are explored from the smallest trees. A
+     * product is pruned when another product with the same state has a subset of its states,
+     * since every tree extending the first one is a counterexample if it is for the second one.
+     * @return the smallest counterexample found, or {@code null} if language of the included
+     * automaton is a subset of language of the including one
+     * @throws UndefinedAcceptanceException if any automaton has no acceptance conditions
+     * @throws UndefinedStateValueException if any checked state contains undefined values
+     */
+    TreeNode findCounterexample()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        Product initial =
+                new Product(included == null
+                            ? StateEncoding.EMPTY_STATE
+                            : included.stateEncoding.getInitialCode(),
+                            Collections.singleton(including.stateEncoding.getInitialCode()), 0,
+                            -1, null, null);
+
+        for(int label = 0; label < labels.size(); ++label)
+            offerProducts(initial, initial, label);
+
+        while(!queue.isEmpty())
+        {
+            Product product = queue.poll();
+
+            if(product.isRemoved())
+                continue;
+
+            if(isCounterexample(product))
+                return buildTree(product);
+
+            products.add(product);
+
+            for(int label = 0; label < labels.size(); ++label)
+                for(int i = 0; i < products.size() && !product.isRemoved(); ++i)
+                {
+                    Product other = products.get(i);
+
+                    if(other.isRemoved())
+                        continue;
+
+                    offerProducts(product, other, label);
+
+                    if(other != product)
+                        offerProducts(other, product, label);
+                }
+
+            products.removeIf(Product::isRemoved);
+        }
+
+        return null;
+    }
+
+    private boolean isCounterexample(Product product)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        if(included != null
+                && !included.acceptanceConditions.check(included.stateEncoding,
+                                                        product.getState()))
+            return false;
+
+        for(long state : product.getStates())
+            if(including.acceptanceConditions.check(including.stateEncoding, state))
+                return false;
+
+        return true;
+    }
+
+    private void offerProducts(Product left, Product right, int label)
+    {
+        int includingLabel = including.getLabelIndex(labels.get(label));
+        List<Long> nextStates = included == null
+                ? Collections.singletonList(StateEncoding.EMPTY_STATE)
+                : includedSpace.getNextStates(left.getState(), right.getState(),
+                                              included.getLabelIndex(labels.get(label)));
+
+        if(nextStates.isEmpty())
+            return;
+
+        Set<Long> nextSubset = new HashSet<>();
+
+        for(long leftState : left.getStates())
+            for(long rightState : right.getStates())
+                nextSubset.addAll(
+                        includingSpace.getNextStates(leftState, rightState, includingLabel));
+
+        boolean isLeaf = left.getLabel() < 0;
+        long size = isLeaf ? 1 : left.getSize() + right.getSize() + 1;
+
+        for(long state : nextStates)
+            offer(new Product(state, nextSubset, size, label, isLeaf ? null : left,
+                              isLeaf ? null : right));
+    }
+
+    private void offer(Product product)
+    {
+        List<Product> minimalProducts =
+                antichain.computeIfAbsent(product.getState(), k -> new ArrayList<>());
+
+        for(Product minimal : minimalProducts)
+            if(product.getStates().containsAll(minimal.getStates()))
+                return;
+
+        minimalProducts.removeIf(minimal -> {
+            if(minimal.getStates().containsAll(product.getStates()))
+            {
+                minimal.remove();
+                return true;
+            }
+
+            return false;
+        });
+        minimalProducts.add(product);
+        queue.add(product);
+    }
+
+    private TreeNode buildTree(Product root)
+    {
+        List<Product> preorder = new ArrayList<>();
+        Deque<Product> stack = new ArrayDeque<>();
+        Deque<TreeNode> nodes = new ArrayDeque<>();
+
+        stack.push(root);
+
+        while(!stack.isEmpty())
+        {
+            Product product = stack.pop();
+
+            preorder.add(product);
+
+            if(product.getLeft() != null)
+            {
+                stack.push(product.getRight());
+                stack.push(product.getLeft());
+            }
+        }
+
+        try
+        {
+            for(int i = preorder.size() - 1; i >= 0; --i)
+            {
+                Product product = preorder.get(i);
+                String label = labels.get(product.getLabel());
+
+                if(product.getLeft() == null)
+                    nodes.push(new StandardNode(label, i + 1));
+                else
+                    nodes.push(new StandardNode(label, i + 1, nodes.pop(), nodes.pop()));
+            }
+        }
+        catch(NodeHasParentException e)
+        {
+            throw new IllegalStateException("Built node has already got a parent", e);
+        }
+
+        return nodes.pop();
+    }
+
+    private static final class Product
+    {
+        private final long state;
+        private final Set<Long> states;
+        private final long size;
+        private final int label;
+        private final Product left;
+        private final Product right;
+        private boolean isRemoved = false;
+
+        Product(long state, Set<Long> states, long size, int label, Product left, Product right)
+        {
+            this.state = state;
+            this.states = states;
+            this.size = size;
+            this.label = label;
+            this.left = left;
+            this.right = right;
+        }
+
+        long getState()
+        {
+            return state;
+        }
+
+        Set<Long> getStates()
+        {
+            return states;
+        }
+
+        long getSize()
+        {
+            return size;
+        }
+
+        int getLabel()
+        {
+            return label;
+        }
+
+        Product getLeft()
+        {
+            return left;
+        }
+
+        Product getRight()
+        {
+            return right;
+        }
+
+        boolean isRemoved()
+        {
+            return isRemoved;
+        }
+
+        void remove()
+        {
+            isRemoved = true;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
+import fitaview.utils.Pair;
+
+public final class MultiAutomatonEvaluator
+{
+    private static final int NO_SON = -1;
+    private final List<AbstractTreeAutomaton> automata = new ArrayList<>();
+    private final Map<String, Integer> labelsIds = new HashMap<>();
+    private final List<Integer> bottomUpIndices = new ArrayList<>();
+    private final List<Integer> topDownIndices = new ArrayList<>();
+    private final int[][] labelsIndices;
+    private final long[] initialStates;
+
+    /**
+     * Creating evaluator of many automata over one tree. Labels from alphabets of all automata
+     * are numbered once, so each node label is found once for all automata.
+     * @param automata automata to evaluate
+     * @throws UnsupportedOperationException if any automaton cannot be shared between runs
+     */
+    public MultiAutomatonEvaluator(List<? extends TreeAutomaton> automata)
+    {
+        for(TreeAutomaton automaton : automata)
+        {
+            if(!(automaton instanceof AbstractTreeAutomaton)
+                    || !((AbstractTreeAutomaton)automaton).canRunConcurrently())
+                throw new UnsupportedOperationException(
+                        String.format("%s cannot be evaluated together with other automata",
+                                      automaton.getTypeName()));
+
+            if(automaton instanceof BottomUpAutomaton)
+                bottomUpIndices.add(this.automata.size());
+            else
+                topDownIndices.add(this.automata.size());
+
+            this.automata.add((AbstractTreeAutomaton)automaton);
+
+            for(String label : automaton.getAlphabet())
+                labelsIds.putIfAbsent(label, labelsIds.size());
+        }
+
+        labelsIndices = new int[this.automata.size()][labelsIds.size() + 1];
+        initialStates = new long[this.automata.size()];
+
+        for(int i = 0; i < this.automata.size(); ++i)
+        {
+            AbstractTreeAutomaton automaton = this.automata.get(i);
+
+            for(Map.Entry<String, Integer> entry : labelsIds.entrySet())
+                labelsIndices[i][entry.getValue()] = automaton.getLabelIndex(entry.getKey());
+
+            labelsIndices[i][labelsIds.size()] = automaton.getIndexedAlphabet().size();
+            initialStates[i] = automaton.stateEncoding.getInitialCode();
+        }
+    }
+
+    /** @return number of evaluated automata */
+    public int size()
+    {
+        return automata.size();
+    }
+
+    /**
+     * Evaluating all automata on the tree in a single traversal. Nodes are numbered once and
+     * states of all automata in a node are stored side by side, so bottom-up automata visit the
+     * nodes once in reversed order and top-down automata once in order, without modifying the
+     * tree.
+     * @param tree finite tree
+     * @return acceptance of the tree by each automaton, in order of automata
+     * @throws NoTreeException if tree is empty
+     * @throws TreeFinitenessException if tree is infinite
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UndefinedAcceptanceException if any automaton has no acceptance conditions
+     * @throws UndefinedStateValueException if any accepted state is undefined
+     */
+    public boolean[] evaluate(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException, UndefinedAcceptanceException,
+                   UndefinedStateValueException
+    {
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        if(!automata.isEmpty() && automata.get(0).containsRecursiveNode(tree))
+            throw new TreeFinitenessException("Tree is infinite");
+
+        int count = automata.size();
+        NodesTable nodes = new NodesTable(tree, labelsIds);
+        long[] states = new long[nodes.size() * count];
+        boolean[] accepted = new boolean[count];
+
+        Arrays.fill(accepted, true);
+
+        for(int i : topDownIndices)
+            states[i] = initialStates[i];
+
+        for(int n = 0; n < nodes.size(); ++n)
+            for(int i : topDownIndices)
+                evaluateTopDown(i, n, nodes, states, accepted);
+
+        for(int n = nodes.size() - 1; n >= 0; --n)
+            for(int i : bottomUpIndices)
+            {
+                int left = nodes.getLeft(n);
+                int right = nodes.getRight(n);
+
+                states[n * count + i] = ((BottomUpAutomaton)automata.get(i)).applySharedTransition(
+                        left == NO_SON ? initialStates[i] : states[left * count + i],
+                        right == NO_SON ? initialStates[i] : states[right * count + i],
+                        labelsIndices[i][nodes.getLabelId(n)], nodes.getLabel(n));
+            }
+
+        for(int i : bottomUpIndices)
+            accepted[i] = automata.get(i).acceptanceConditions.check(
+                    automata.get(i).stateEncoding, states[i]);
+
+        return accepted;
+    }
+
+    private void evaluateTopDown(int i, int n, NodesTable nodes, long[] states, boolean[] accepted)
+            throws NoSuchTransitionException, IllegalVariableValueException,
+                   UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        int count = automata.size();
+        AbstractTreeAutomaton automaton = automata.get(i);
+        Pair<Long, Long> sonsStates = ((TopDownAutomaton)automaton).applySharedTransition(
+                states[n * count + i], labelsIndices[i][nodes.getLabelId(n)], nodes.getLabel(n));
+        int left = nodes.getLeft(n);
+        int right = nodes.getRight(n);
+
+        if(left != NO_SON)
+            states[left * count + i] = sonsStates.getFirst();
+
+        if(right != NO_SON)
+            states[right * count + i] = sonsStates.getSecond();
+
+        if(left == NO_SON && right == NO_SON && accepted[i])
+            accepted[i] = automaton.acceptanceConditions.check(automaton.stateEncoding,
+                                                               sonsStates.getFirst())
+                    && automaton.acceptanceConditions.check(automaton.stateEncoding,
+                                                            sonsStates.getSecond());
+    }
+
+    private static final class NodesTable
+    {
+        private final List<TreeNode> nodes = new ArrayList<>();
+        private int[] labelsIds = new int[16];
+        private int[] lefts = new int[16];
+        private int[] rights = new int[16];
+
+        private NodesTable(TreeNode tree, Map<String, Integer> labelsIds)
+        {
+            nodes.add(tree);
+
+            for(int n = 0; n < nodes.size(); ++n)
+            {
+                TreeNode node = nodes.get(n);
+
+                if(n == this.labelsIds.length)
+                {
+                    this.labelsIds = Arrays.copyOf(this.labelsIds, 2 * n);
+                    lefts = Arrays.copyOf(lefts, 2 * n);
+                    rights = Arrays.copyOf(rights, 2 * n);
+                }
+
+                this.labelsIds[n] = labelsIds.getOrDefault(node.getLabel(), labelsIds.size());
+                lefts[n] = addSon(node.getLeft());
+                rights[n] = addSon(node.getRight());
+            }
+        }
+
+        int size()
+        {
+            return nodes.size();
+        }
+
+        String getLabel(int n)
+        {
+            return nodes.get(n).getLabel();
+        }
+
+        int getLabelId(int n)
+        {
+            return labelsIds[n];
+        }
+
+        int getLeft(int n)
+        {
+            return lefts[n];
+        }
+
+        int getRight(int n)
+        {
+            return rights[n];
+        }
+
+        private int addSon(TreeNode son)
+        {
+            if(son.isNull())
+                return NO_SON;
+
+            nodes.add(son);
+
+            return nodes.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package fitaview.automaton;
+
+public enum ProductAcceptance
+{
+    INTERSECTION, UNION
+}
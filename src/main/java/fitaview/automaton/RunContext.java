@@ -0,0 +1,97 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.tree.NodeMap;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
+
+public final class RunContext
+{
+    private final AbstractTreeAutomaton automaton;
+    private final TreeNode tree;
+    private final Map<TreeNode, Long> states = new NodeMap<>();
+    private final List<Long> leafStates = new ArrayList<>();
+    private AutomatonRunningMode runningMode = AutomatonRunningMode.STOPPED;
+
+    RunContext(AbstractTreeAutomaton automaton, TreeNode tree)
+    {
+        this.automaton = automaton;
+        this.tree = tree;
+    }
+
+    /** @return tree evaluated in this run */
+    public TreeNode getTree()
+    {
+        return tree;
+    }
+
+    /** @return running mode of this run */
+    public AutomatonRunningMode getRunningMode()
+    {
+        return runningMode;
+    }
+
+    /**
+     * Running the automaton on the whole tree. States are stored in this context, so neither
+     * the automaton nor the tree is modified and many contexts can run concurrently.
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    public void run()
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        states.clear();
+        leafStates.clear();
+        runningMode = AutomatonRunningMode.STOPPED;
+        automaton.evaluate(this);
+        runningMode = AutomatonRunningMode.FINISHED;
+    }
+
+    /**
+     * @param node tree node
+     * @return state of the node in this run, without undefined variables
+     */
+    public Map<Variable, String> getState(TreeNode node)
+    {
+        return automaton.stateEncoding.decode(getStateCode(node));
+    }
+
+    /**
+     * Checking acceptance of the tree in this run.
+     * @return {@code true} if the automaton accepts the tree, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if set of acceptance conditions is empty
+     * @throws UndefinedStateValueException if the run has not finished
+     */
+    public boolean isAccepted()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        if(runningMode != AutomatonRunningMode.FINISHED)
+            throw new UndefinedStateValueException("Run has not finished");
+
+        return automaton.isAccepted(this);
+    }
+
+    long getStateCode(TreeNode node)
+    {
+        Long code = states.get(node);
+
+        return code == null ? StateEncoding.EMPTY_STATE : code;
+    }
+
+    void setStateCode(TreeNode node, long code)
+    {
+        states.put(node, code);
+    }
+
+    List<Long> getLeafStates()
+    {
+        return leafStates;
+    }
+
+    void addLeafState(long code)
+    {
+        leafStates.add(code);
+    }
+}
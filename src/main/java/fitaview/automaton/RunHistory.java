@@ -0,0 +1,147 @@
+package fitaview.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fitaview.tree.TreeNode;
+
+final class RunHistory
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private final StateEncoding stateEncoding;
+    private final List<Iterable<TreeNode>> processedNodes = new ArrayList<>();
+    private int[] stepsStarts = new int[INITIAL_CAPACITY];
+    private TreeNode[] nodes = new TreeNode[INITIAL_CAPACITY];
+    private StateEncoding[] oldEncodings = new StateEncoding[INITIAL_CAPACITY];
+    private long[] oldCodes = new long[INITIAL_CAPACITY];
+    private long[] newCodes = new long[INITIAL_CAPACITY];
+    private int changesCount = 0;
+    private int currentStep = 0;
+
+    RunHistory(StateEncoding stateEncoding)
+    {
+        this.stateEncoding = stateEncoding;
+    }
+
+    /** @return number of recorded steps */
+    int size()
+    {
+        return processedNodes.size();
+    }
+
+    /** @return number of recorded steps whose changes are applied to the tree */
+    int getCurrentStep()
+    {
+        return currentStep;
+    }
+
+    /** @return {@code true} if some recorded steps are reverted, otherwise {@code false} */
+    boolean hasRevertedSteps()
+    {
+        return currentStep < size();
+    }
+
+    /**
+     * @param step number of the step, counted from one
+     * @return nodes processed in the step
+     */
+    Iterable<TreeNode> getProcessedNodes(int step)
+    {
+        return processedNodes.get(step - 1);
+    }
+
+    /** Removing all recorded steps. */
+    void clear()
+    {
+        processedNodes.clear();
+        Arrays.fill(nodes, 0, changesCount, null);
+        Arrays.fill(oldEncodings, 0, changesCount, null);
+        changesCount = 0;
+        currentStep = 0;
+    }
+
+    /**
+     * Starting a new step after all recorded steps. Changes are added before states of nodes are
+     * computed and the step is finished afterwards.
+     * @param processed nodes processed in the step
+     */
+    void startStep(Iterable<TreeNode> processed)
+    {
+        if(hasRevertedSteps())
+            throw new IllegalStateException("Cannot record step when steps are reverted");
+
+        if(size() + 1 == stepsStarts.length)
+            stepsStarts = Arrays.copyOf(stepsStarts, 2 * stepsStarts.length);
+
+        stepsStarts[size()] = changesCount;
+        processedNodes.add(processed);
+    }
+
+    /**
+     * Saving the current state of the node, which is computed in the current step.
+     * @param node tree node
+     */
+    void addChange(TreeNode node)
+    {
+        if(changesCount == nodes.length)
+            resize(2 * nodes.length);
+
+        nodes[changesCount] = node;
+        oldEncodings[changesCount] = node.getStateEncoding();
+        oldCodes[changesCount] = node.getStateCode();
+        ++changesCount;
+    }
+
+    /** Saving the computed states of nodes changed in the current step. */
+    void finishStep()
+    {
+        for(int i = stepsStarts[size() - 1]; i < changesCount; ++i)
+            newCodes[i] = nodes[i].getStateCode(stateEncoding);
+
+        stepsStarts[size()] = changesCount;
+        currentStep = size();
+    }
+
+    /**
+     * Setting states computed in the first reverted step again.
+     * @return nodes processed in the step
+     */
+    Iterable<TreeNode> applyStep()
+    {
+        if(!hasRevertedSteps())
+            throw new IllegalStateException("No reverted step to apply");
+
+        for(int i = stepsStarts[currentStep]; i < stepsStarts[currentStep + 1]; ++i)
+            nodes[i].setStateCode(stateEncoding, newCodes[i]);
+
+        ++currentStep;
+
+        return getProcessedNodes(currentStep);
+    }
+
+    /**
+     * Restoring states from before the last applied step.
+     * @return nodes processed in the step
+     */
+    Iterable<TreeNode> revertStep()
+    {
+        if(currentStep == 0)
+            throw new IllegalStateException("No step to revert");
+
+        --currentStep;
+
+        for(int i = stepsStarts[currentStep + 1] - 1; i >= stepsStarts[currentStep]; --i)
+            nodes[i].setStateCode(oldEncodings[i], oldCodes[i]);
+
+        return getProcessedNodes(currentStep + 1);
+    }
+
+    private void resize(int capacity)
+    {
+        nodes = Arrays.copyOf(nodes, capacity);
+        oldEncodings = Arrays.copyOf(oldEncodings, capacity);
+        oldCodes = Arrays.copyOf(oldCodes, capacity);
+        newCodes = Arrays.copyOf(newCodes, capacity);
+    }
+}
@@ -0,0 +1,216 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+public final class StateEncoding
+{
+    /** Code of state with all variables undefined. */
+    public static final long EMPTY_STATE = 0L;
+    /** Maximal number of bits available for all variables in the state code. */
+    public static final int MAX_BITS = Long.SIZE;
+    private final List<Variable> variables;
+    private final Map<Variable, Integer> positions = new HashMap<>();
+    private final int[] shifts;
+    private final long[] masks;
+
+    /**
+     * Creating encoding of states over specified variables. Each variable occupies a separate
+     * bit field containing the index of its value increased by one, so zero means undefined
+     * value.
+     * @param variables state variables
+     * @throws IllegalArgumentException if the state does not fit in {@link #MAX_BITS} bits
+     */
+    public StateEncoding(Collection<Variable> variables)
+    {
+        this.variables = Collections.unmodifiableList(new ArrayList<>(variables));
+        shifts = new int[this.variables.size()];
+        masks = new long[this.variables.size()];
+
+        int shift = 0;
+
+        for(int i = 0; i < this.variables.size(); ++i)
+        {
+            Variable var = this.variables.get(i);
+            int bits = Integer.SIZE - Integer.numberOfLeadingZeros(var.size());
+
+            shifts[i] = shift;
+            masks[i] = (1L << bits) - 1;
+            shift += bits;
+
+            if(shift > MAX_BITS)
+                throw new IllegalArgumentException(
+                        String.format("State over %d variables does not fit in %d bits",
+                                      this.variables.size(), MAX_BITS));
+
+            positions.putIfAbsent(var, i);
+        }
+    }
+
+    /** @return variables in order of their positions */
+    public List<Variable> getVariables()
+    {
+        return variables;
+    }
+
+    /** @return number of encoded variables */
+    public int size()
+    {
+        return variables.size();
+    }
+
+    /**
+     * @param var state variable
+     * @return position of the variable, or {@code -1} if it is not encoded
+     */
+    public int indexOf(Variable var)
+    {
+        Integer position = positions.get(var);
+
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Extending the encoding with specified variable.
+     * @param var state variable
+     * @return this encoding if the variable is already encoded, otherwise a new encoding with
+     * the variable at the last position
+     */
+    public StateEncoding extend(Variable var)
+    {
+        if(indexOf(var) >= 0)
+            return this;
+
+        List<Variable> extended = new ArrayList<>(variables);
+
+        extended.add(var);
+
+        return new StateEncoding(extended);
+    }
+
+    /** @return code of state with initial values of all variables */
+    public long getInitialCode()
+    {
+        long code = EMPTY_STATE;
+
+        for(int i = 0; i < variables.size(); ++i)
+            code = setValueIndex(code, i, 0);
+
+        return code;
+    }
+
+    /**
+     * @param code state code
+     * @param position position of variable
+     * @return index of variable value, or {@code -1} if value is undefined
+     */
+    public int getValueIndex(long code, int position)
+    {
+        return (int)((code >>> shifts[position]) & masks[position]) - 1;
+    }
+
+    /**
+     * @param code state code
+     * @param position position of variable
+     * @param valueIndex index of variable value, or {@code -1} to make value undefined
+     * @return state code with changed value of variable
+     */
+    public long setValueIndex(long code, int position, int valueIndex)
+    {
+        return (code & ~(masks[position] << shifts[position]))
+                | ((long)(valueIndex + 1) << shifts[position]);
+    }
+
+    /**
+     * @param code state code
+     * @param position position of variable
+     * @return value of variable, or {@code null} if value is undefined
+     */
+    public String getValue(long code, int position)
+    {
+        int valueIndex = getValueIndex(code, position);
+
+        return valueIndex < 0 ? null : variables.get(position).getValue(valueIndex);
+    }
+
+    /**
+     * @param code state code
+     * @return {@code true} if values of all variables are defined, otherwise {@code false}
+     */
+    public boolean isDefined(long code)
+    {
+        for(int i = 0; i < variables.size(); ++i)
+            if(getValueIndex(code, i) < 0)
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Encoding specified state. Variables outside the encoding are skipped and incorrect values
+     * are left undefined.
+     * @param state mapping from variables to their values
+     * @return state code
+     */
+    public long encode(Map<Variable, String> state)
+    {
+        long code = EMPTY_STATE;
+
+        for(int i = 0; i < variables.size(); ++i)
+        {
+            Variable var = variables.get(i);
+
+            code = setValueIndex(code, i, var.indexOf(state.get(var)));
+        }
+
+        return code;
+    }
+
+    /**
+     * Decoding specified state code.
+     * @param code state code
+     * @return mapping from variables to their values, without undefined variables
+     */
+    public Map<Variable, String> decode(long code)
+    {
+        Map<Variable, String> state = new HashMap<>();
+
+        for(int i = 0; i < variables.size(); ++i)
+        {
+            String value = getValue(code, i);
+
+            if(value != null)
+                state.put(variables.get(i), value);
+        }
+
+        return state;
+    }
+
+    /**
+     * Converting state code from another encoding to this encoding. Variables outside this
+     * encoding are skipped.
+     * @param encoding encoding of the code
+     * @param code state code in the other encoding
+     * @return state code in this encoding
+     */
+    public long recode(StateEncoding encoding, long code)
+    {
+        if(encoding == this)
+            return code;
+
+        long result = EMPTY_STATE;
+
+        if(encoding == null)
+            return result;
+
+        for(int i = 0; i < variables.size(); ++i)
+        {
+            int position = encoding.indexOf(variables.get(i));
+
+            if(position >= 0)
+                result = setValueIndex(result, i, variables.get(i).indexOf(
+                        encoding.getValue(code, position)));
+        }
+
+        return result;
+    }
+}
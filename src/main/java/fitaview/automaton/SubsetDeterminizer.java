@@ -0,0 +1,211 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+import fitaview.tree.NodeMap;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
+
+public final class SubsetDeterminizer
+{
+    public static final int DEFAULT_CACHE_CAPACITY = 1 << 16;
+    private final BottomUpNFTA automaton;
+    private final BottomUpAutomaton.StateSpace space;
+    private final SubsetState initialSubset;
+    private final Map<SubsetTransition, SubsetState> transitionsCache;
+
+    SubsetDeterminizer(BottomUpNFTA automaton, int cacheCapacity)
+    {
+        if(cacheCapacity <= 0)
+            throw new IllegalArgumentException("Cache capacity must be positive");
+
+        this.automaton = automaton;
+        this.space = automaton.createStateSpace();
+        this.initialSubset = new SubsetState(new long[]{automaton.stateEncoding.getInitialCode()});
+        this.transitionsCache = new LinkedHashMap<SubsetTransition, SubsetState>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = -2427306218592466514L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SubsetTransition, SubsetState> eldest)
+            {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    /** @return number of subset transitions currently cached */
+    public int getCacheSize()
+    {
+        return transitionsCache.size();
+    }
+
+    /**
+     * Evaluating the tree with the determinized automaton, where a state in each node is the set
+     * of all states reachable in that node by any run of the non-deterministic automaton.
+     * @param tree finite tree
+     * @return all states of the non-deterministic automaton reachable in the root
+     * @throws NoTreeException if the tree is null
+     * @throws TreeFinitenessException if the tree is infinite
+     */
+    public Set<Map<Variable, String>> evaluate(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException
+    {
+        Set<Map<Variable, String>> states = new HashSet<>();
+
+        for(long code : evaluateSubset(tree).getCodes())
+            states.add(automaton.stateEncoding.decode(code));
+
+        return states;
+    }
+
+    /**
+     * Checking acceptance of the tree by any run of the non-deterministic automaton.
+     * @param tree finite tree
+     * @return {@code true} if any state reachable in the root is accepted, otherwise
+     * {@code false}
+     * @throws NoTreeException if the tree is null
+     * @throws TreeFinitenessException if the tree is infinite
+     */
+    public boolean isAccepted(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException, UndefinedAcceptanceException,
+                   UndefinedStateValueException
+    {
+        for(long code : evaluateSubset(tree).getCodes())
+            if(automaton.acceptanceConditions.check(automaton.stateEncoding, code))
+                return true;
+
+        return false;
+    }
+
+    private SubsetState evaluateSubset(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException
+    {
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        automaton.assertFiniteness(tree);
+
+        List<TreeNode> nodes = new ArrayList<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        Map<TreeNode, SubsetState> subsets = new NodeMap<>();
+
+        stack.push(tree);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            if(!node.isNull())
+            {
+                nodes.add(node);
+                stack.push(node.getLeft());
+                stack.push(node.getRight());
+            }
+            else
+                subsets.put(node, initialSubset);
+        }
+
+        for(int i = nodes.size() - 1; i >= 0; --i)
+        {
+            TreeNode node = nodes.get(i);
+
+            subsets.put(node, applyTransition(subsets.get(node.getLeft()),
+                                              subsets.get(node.getRight()),
+                                              automaton.getLabelIndex(node.getLabel())));
+        }
+
+        return subsets.get(tree);
+    }
+
+    private SubsetState applyTransition(SubsetState left, SubsetState right, int label)
+    {
+        SubsetTransition transition = new SubsetTransition(left, right, label);
+        SubsetState result = transitionsCache.get(transition);
+
+        if(result == null)
+        {
+            Set<Long> codes = new HashSet<>();
+
+            for(long leftCode : left.getCodes())
+                for(long rightCode : right.getCodes())
+                    codes.addAll(space.getNextStates(leftCode, rightCode, label));
+
+            result = new SubsetState(codes.stream().mapToLong(Long::longValue).sorted().toArray());
+            transitionsCache.put(transition, result);
+        }
+
+        return result;
+    }
+
+    private static final class SubsetState
+    {
+        private final long[] codes;
+        private final int hash;
+
+        SubsetState(long[] codes)
+        {
+            this.codes = codes;
+            this.hash = Arrays.hashCode(codes);
+        }
+
+        long[] getCodes()
+        {
+            return codes;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(this == o)
+                return true;
+
+            if(!(o instanceof SubsetState))
+                return false;
+
+            SubsetState other = (SubsetState)o;
+
+            return hash == other.hash && Arrays.equals(codes, other.codes);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    private static final class SubsetTransition
+    {
+        private final SubsetState left;
+        private final SubsetState right;
+        private final int label;
+
+        SubsetTransition(SubsetState left, SubsetState right, int label)
+        {
+            this.left = left;
+            this.right = right;
+            this.label = label;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(this == o)
+                return true;
+
+            if(!(o instanceof SubsetTransition))
+                return false;
+
+            SubsetTransition other = (SubsetTransition)o;
+
+            return label == other.label && left.equals(other.left) && right.equals(other.right);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(left, right, label);
+        }
+    }
+}
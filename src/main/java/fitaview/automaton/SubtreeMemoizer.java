@@ -0,0 +1,231 @@
+package fitaview.automaton;
+
+import java.util.*;
+
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.tree.NodeMap;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
+
+public final class SubtreeMemoizer
+{
+    public static final int DEFAULT_CACHE_CAPACITY = 1 << 16;
+    private static final long NULL_SUBTREE = 0L;
+    private final BottomUpDFTA automaton;
+    private final Map<SubtreeKey, SubtreeValue> subtreesCache;
+    private long lastSubtreeId = NULL_SUBTREE;
+    private long transitionsVersion;
+    private long hitsCount = 0L;
+    private long missesCount = 0L;
+
+    SubtreeMemoizer(BottomUpDFTA automaton, int cacheCapacity)
+    {
+        if(cacheCapacity <= 0)
+            throw new IllegalArgumentException("Cache capacity must be positive");
+
+        this.automaton = automaton;
+        this.transitionsVersion = automaton.getTransitionsVersion();
+        this.subtreesCache = new LinkedHashMap<SubtreeKey, SubtreeValue>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 4410836627021528934L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SubtreeKey, SubtreeValue> eldest)
+            {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    /** @return number of subtrees currently cached */
+    public int getCacheSize()
+    {
+        return subtreesCache.size();
+    }
+
+    /** @return number of nodes whose state was found in the cache */
+    public long getHitsCount()
+    {
+        return hitsCount;
+    }
+
+    /** @return number of nodes whose state was computed by transition */
+    public long getMissesCount()
+    {
+        return missesCount;
+    }
+
+    /** Clearing numbers of hits and misses without clearing the cache. */
+    public void resetStatistics()
+    {
+        hitsCount = 0L;
+        missesCount = 0L;
+    }
+
+    /**
+     * Evaluating the tree with memoized states of subtrees. Each subtree gets an identifier
+     * determined by its label and identifiers of its sons, so equal subtrees share one cache
+     * entry, both in one tree and in trees evaluated before. Identifiers are never reused, so an
+     * evicted subtree gets a new identifier and cannot be mistaken for another one. Cached states
+     * are dropped if transition entries were added since the last evaluation.
+     * @param tree finite tree
+     * @return state in the root
+     * @throws NoTreeException if the tree is null
+     * @throws TreeFinitenessException if the tree is infinite
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    public Map<Variable, String> evaluate(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException
+    {
+        return automaton.stateEncoding.decode(evaluateSubtree(tree).getState());
+    }
+
+    /**
+     * Checking acceptance of the tree with memoized states of subtrees.
+     * @param tree finite tree
+     * @return {@code true} if the automaton accepts the tree, otherwise {@code false}
+     * @throws NoTreeException if the tree is null
+     * @throws TreeFinitenessException if the tree is infinite
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UndefinedAcceptanceException if set of acceptance conditions is empty
+     * @throws UndefinedStateValueException if root state contains undefined values
+     */
+    public boolean isAccepted(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException, UndefinedAcceptanceException,
+                   UndefinedStateValueException
+    {
+        return automaton.acceptanceConditions.check(automaton.stateEncoding,
+                                                    evaluateSubtree(tree).getState());
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("Cached subtrees: %d, hits: %d, misses: %d", getCacheSize(),
+                             hitsCount, missesCount);
+    }
+
+    private SubtreeValue evaluateSubtree(TreeNode tree)
+            throws NoTreeException, TreeFinitenessException, NoSuchTransitionException,
+                   IllegalVariableValueException
+    {
+        if(tree == null)
+            throw new NoTreeException("No tree specified");
+
+        automaton.assertFiniteness(tree);
+
+        if(transitionsVersion != automaton.getTransitionsVersion())
+        {
+            subtreesCache.clear();
+            transitionsVersion = automaton.getTransitionsVersion();
+        }
+
+        List<TreeNode> nodes = new ArrayList<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        Map<TreeNode, SubtreeValue> values = new NodeMap<>();
+        SubtreeValue nullValue =
+                new SubtreeValue(NULL_SUBTREE, automaton.stateEncoding.getInitialCode());
+
+        stack.push(tree);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            if(!node.isNull())
+            {
+                nodes.add(node);
+                stack.push(node.getLeft());
+                stack.push(node.getRight());
+            }
+            else
+                values.put(node, nullValue);
+        }
+
+        for(int i = nodes.size() - 1; i >= 0; --i)
+        {
+            TreeNode node = nodes.get(i);
+            SubtreeValue left = values.get(node.getLeft());
+            SubtreeValue right = values.get(node.getRight());
+            int labelIndex = automaton.getLabelIndex(node.getLabel());
+            SubtreeKey key = new SubtreeKey(labelIndex, left.getId(), right.getId());
+            SubtreeValue value = subtreesCache.get(key);
+
+            if(value == null)
+            {
+                ++missesCount;
+                value = new SubtreeValue(++lastSubtreeId, automaton.applySharedTransition(
+                        left.getState(), right.getState(), labelIndex, node.getLabel()));
+                subtreesCache.put(key, value);
+            }
+            else
+                ++hitsCount;
+
+            values.put(node, value);
+        }
+
+        return values.get(tree);
+    }
+
+    private static final class SubtreeValue
+    {
+        private final long id;
+        private final long state;
+
+        SubtreeValue(long id, long state)
+        {
+            this.id = id;
+            this.state = state;
+        }
+
+        long getId()
+        {
+            return id;
+        }
+
+        long getState()
+        {
+            return state;
+        }
+    }
+
+    private static final class SubtreeKey
+    {
+        private final int label;
+        private final long leftId;
+        private final long rightId;
+        private final int hash;
+
+        SubtreeKey(int label, long leftId, long rightId)
+        {
+            this.label = label;
+            this.leftId = leftId;
+            this.rightId = rightId;
+            this.hash = Objects.hash(label, leftId, rightId);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(this == o)
+                return true;
+
+            if(!(o instanceof SubtreeKey))
+                return false;
+
+            SubtreeKey other = (SubtreeKey)o;
+
+            return label == other.label && leftId == other.leftId && rightId == other.rightId;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
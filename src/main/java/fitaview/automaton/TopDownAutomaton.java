@@ -1,6 +1,9 @@
 package fitaview.automaton;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
 import fitaview.automaton.transition.DuplicatedTransitionException;
 import fitaview.automaton.transition.IllegalTransitionException;
@@ -11,13 +14,12 @@ import fitaview.automaton.traversing.TraversingMode;
 import fitaview.tree.TreeNode;
 import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
-import fitaview.utils.Triple;
 
 public abstract class TopDownAutomaton
         extends AbstractTreeAutomaton
 {
     protected TopDownTraversing traversing;
-    final List<Map<Variable, String>> leafStates = new ArrayList<>();
+    final Map<Long, Integer> leafStates = new HashMap<>();
 
     public TopDownAutomaton(Collection<Variable> variables, Collection<String> alphabet)
     {
@@ -51,11 +53,69 @@ public abstract class TopDownAutomaton
     public Boolean isAccepted()
             throws UndefinedAcceptanceException, UndefinedStateValueException, NoTreeException
     {
-        for(Map<Variable, String> state : leafStates)
-            if(!acceptanceConditions.check(state))
-                return false;
+        return isAccepted(acceptanceConditions);
+    }
 
-        return true;
+    /**
+     * Checking if the automaton can accept at least one finite tree. A state is productive if it
+     * has a transition to sons states, which are either both accepted in leaf or both productive.
+     * Productive states are computed as a least fixpoint over states reachable from the initial
+     * state, where each transition waits for its unproductive sons and transition results are
+     * computed once for each variable value and label.
+     * @return {@code true} if the automaton cannot accept any tree, otherwise {@code false}
+     */
+    public boolean checkEmptiness()
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        int labelsCount = getIndexedAlphabet().size();
+        StateSpace space = new StateSpace();
+        Map<Long, Boolean> acceptingStates = new HashMap<>();
+        Map<Long, List<WaitingTransition>> waitingTransitions = new HashMap<>();
+        Set<Long> productiveStates = new HashSet<>();
+        Set<Long> reachableStates = new HashSet<>();
+        Deque<Long> states = new ArrayDeque<>();
+        long initialState = stateEncoding.getInitialCode();
+
+        reachableStates.add(initialState);
+        states.add(initialState);
+
+        while(!states.isEmpty() && !productiveStates.contains(initialState))
+        {
+            long state = states.poll();
+
+            for(int label = 0; label < labelsCount && !productiveStates.contains(state); ++label)
+                for(Pair<Long, Long> sonsStates : space.getNextStates(state, label))
+                {
+                    if(isAcceptedInLeaf(acceptingStates, sonsStates.getFirst())
+                            && isAcceptedInLeaf(acceptingStates, sonsStates.getSecond()))
+                    {
+                        addProductiveState(state, productiveStates, waitingTransitions);
+                        break;
+                    }
+
+                    WaitingTransition transition = new WaitingTransition(state);
+
+                    for(long son : new HashSet<>(Arrays.asList(sonsStates.getFirst(),
+                                                               sonsStates.getSecond())))
+                        if(!productiveStates.contains(son))
+                        {
+                            transition.addSon();
+                            waitingTransitions.computeIfAbsent(son, k -> new ArrayList<>())
+                                              .add(transition);
+
+                            if(reachableStates.add(son))
+                                states.add(son);
+                        }
+
+                    if(transition.isReady())
+                    {
+                        addProductiveState(state, productiveStates, waitingTransitions);
+                        break;
+                    }
+                }
+        }
+
+        return !productiveStates.contains(initialState);
     }
 
     /**
@@ -70,6 +130,49 @@ public abstract class TopDownAutomaton
                                        String rightResult)
             throws DuplicatedTransitionException, IllegalTransitionException;
 
+    /**
+     * Checking if states in all leaves are accepted with respect to specified acceptance
+     * conditions.
+     * @param conditions acceptance conditions over variables of the automaton
+     * @return {@code true} if states in all leaves are accepted, otherwise {@code false}
+     * @throws UndefinedAcceptanceException if set of acceptance conditions is empty
+     * @throws UndefinedStateValueException if state in any leaf is undefined
+     */
+    boolean isAccepted(AcceptanceConditions conditions)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        for(long state : leafStates.keySet())
+            if(!conditions.check(stateEncoding, state))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * @param var variable
+     * @return arguments of all transition entries for the variable
+     */
+    protected abstract Collection<Pair<String, String>> getTransitionKeys(Variable var);
+
+    /**
+     * @param var variable
+     * @param key arguments of transition entry
+     * @return unresolved results of transition entry with the exact arguments
+     */
+    protected abstract Collection<Pair<String, String>> getTransitionResults(
+            Variable var, Pair<String, String> key);
+
+    /**
+     * Finding results of transition relation with specified arguments without sending messages.
+     * @param var variable
+     * @param value variable value in node
+     * @param label tree label of node
+     * @return resolved pairs of variable values in sons, empty if there is no transition entry
+     */
+    protected abstract Collection<Pair<String, String>> findTransitionResults(Variable var,
+                                                                              String value,
+                                                                              String label);
+
     /**
      * Calling a transition relation with specified arguments.
      * @param var variable
@@ -83,25 +186,29 @@ public abstract class TopDownAutomaton
             throws NoSuchTransitionException;
 
     /**
-     * Calling a transition relation on the whole state with specified arguments.
-     * @param state state of the automaton
+     * Calling a transition relation on the whole encoded state with specified arguments.
+     * @param state code of state in node
      * @param label tree label of node
-     * @return pair of states in sons (first left, second right)
+     * @return pair of state codes in sons (first left, second right)
      * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
      */
-    protected Pair<Map<Variable, String>, Map<Variable, String>> applyTransition(
-            Map<Variable, String> state, String label)
-            throws NoSuchTransitionException
+    protected Pair<Long, Long> applyTransition(long state, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
     {
-        Map<Variable, String> leftResult = new HashMap<>();
-        Map<Variable, String> rightResult = new HashMap<>();
+        long leftResult = StateEncoding.EMPTY_STATE;
+        long rightResult = StateEncoding.EMPTY_STATE;
 
-        for(Variable var : variables)
+        for(int i = 0; i < variables.size(); ++i)
         {
-            Pair<String, String> resultValue = applyTransition(var, state.get(var), label);
+            Variable var = variables.get(i);
+            Pair<String, String> resultValue =
+                    applyTransition(var, stateEncoding.getValue(state, i), label);
 
-            leftResult.put(var, resultValue.getFirst());
-            rightResult.put(var, resultValue.getSecond());
+            leftResult = stateEncoding.setValueIndex(leftResult, i,
+                                                     getValueIndex(var, resultValue.getFirst()));
+            rightResult = stateEncoding.setValueIndex(rightResult, i,
+                                                      getValueIndex(var, resultValue.getSecond()));
         }
 
         return Pair.make(leftResult, rightResult);
@@ -114,45 +221,251 @@ public abstract class TopDownAutomaton
     {
         super.initialize();
 
-        tree.setInitialState(variables);
+        tree.setStateCode(stateEncoding, stateEncoding.getInitialCode());
         traversing.initialize(tree);
         leafStates.clear();
     }
 
+    @Override
+    protected void evaluate(RunContext context)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Deque<TreeNode> stack = new ArrayDeque<>();
+
+        context.setStateCode(context.getTree(), stateEncoding.getInitialCode());
+        stack.push(context.getTree());
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+            Pair<Long, Long> sonsStates =
+                    applySharedTransition(context.getStateCode(node), node.getLabel());
+
+            context.setStateCode(node.getLeft(), sonsStates.getFirst());
+            context.setStateCode(node.getRight(), sonsStates.getSecond());
+
+            if(node.isLeaf())
+            {
+                context.addLeafState(sonsStates.getFirst());
+                context.addLeafState(sonsStates.getSecond());
+            }
+
+            if(!node.getRight().isNull())
+                stack.push(node.getRight());
+
+            if(!node.getLeft().isNull())
+                stack.push(node.getLeft());
+        }
+    }
+
+    @Override
+    protected void evaluateParallel(ForkJoinPool pool, int cutoff)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Pair<List<TreeNode>, List<TreeNode>> parts = splitTree(cutoff);
+        List<ForkJoinTask<Map<Long, Integer>>> tasks = parts.getSecond()
+                                                    .stream()
+                                                    .map(root -> ForkJoinTask.adapt(
+                                                            () -> evaluateSubtree(root)))
+                                                    .collect(Collectors.toList());
+
+        leafStates.clear();
+        tree.setStateCode(stateEncoding, stateEncoding.getInitialCode());
+
+        for(TreeNode node : parts.getFirst())
+            evaluateSons(node, leafStates);
+
+        invokeParallel(pool, tasks);
+
+        for(ForkJoinTask<Map<Long, Integer>> task : tasks)
+            task.join().forEach((state, count) -> leafStates.merge(state, count, Integer::sum));
+    }
+
+    @Override
+    protected boolean isAccepted(RunContext context)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        for(long state : context.getLeafStates())
+            if(!acceptanceConditions.check(stateEncoding, state))
+                return false;
+
+        return true;
+    }
+
     @Override
     protected void processNode(TreeNode node)
             throws IllegalVariableValueException, UndefinedStateValueException,
                    NoSuchTransitionException
     {
-        Pair<Map<Variable, String>, Map<Variable, String>> sonsStates =
-                applyTransition(node.getState(), node.getLabel());
+        Pair<Long, Long> sonsStates =
+                applyTransition(node.getStateCode(stateEncoding), node.getLabel());
+
+        node.getLeft().setStateCode(stateEncoding, sonsStates.getFirst());
+        node.getRight().setStateCode(stateEncoding, sonsStates.getSecond());
+        completeNode(node);
+
+        if(isSendingMessages)
+            sendTransition(node);
+    }
+
+    @Override
+    protected void evaluateNode(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Pair<Long, Long> sonsStates =
+                applySharedTransition(node.getStateCode(stateEncoding), node.getLabel());
 
-        node.getLeft().setState(sonsStates.getFirst());
-        node.getRight().setState(sonsStates.getSecond());
+        node.getLeft().setStateCode(stateEncoding, sonsStates.getFirst());
+        node.getRight().setStateCode(stateEncoding, sonsStates.getSecond());
+    }
 
+    @Override
+    protected void completeNode(TreeNode node)
+    {
         traversing.addNewRecursive(node.getLeft());
         traversing.addNewRecursive(node.getRight());
 
         if(node.isLeaf())
         {
-            leafStates.add(sonsStates.getFirst());
-            leafStates.add(sonsStates.getSecond());
+            addLeafState(leafStates, node.getLeft().getStateCode(stateEncoding));
+            addLeafState(leafStates, node.getRight().getStateCode(stateEncoding));
         }
+    }
 
-        if(isSendingMessages)
+    @Override
+    protected Collection<TreeNode> getComputedNodes(TreeNode node)
+    {
+        return Arrays.asList(node.getLeft(), node.getRight());
+    }
+
+    @Override
+    protected void revertNode(TreeNode node)
+    {
+        if(node.isLeaf())
         {
-            TransitionSender.getInstance()
-                            .send(Triple.make(NodeInfoSource.LEFT_SON, node.getLeft().getLabel(),
-                                              sonsStates.getFirst()));
-            TransitionSender.getInstance()
-                            .send(Triple.make(NodeInfoSource.PARENT, node.getLabel(),
-                                              node.getState()));
-            TransitionSender.getInstance()
-                            .send(Triple.make(NodeInfoSource.RIGHT_SON, node.getRight().getLabel(),
-                                              sonsStates.getSecond()));
+            removeLeafState(node.getLeft().getStateCode(stateEncoding));
+            removeLeafState(node.getRight().getStateCode(stateEncoding));
         }
     }
 
+    /**
+     * Computing again states in the subtree of the relabelled node. States below a son whose
+     * state has not changed depend only on unchanged states, so such sons are not visited.
+     * @param node relabelled node
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    @Override
+    protected void updateLabel(TreeNode node)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Deque<TreeNode> stack = new ArrayDeque<>();
+
+        stack.push(node);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode current = stack.pop();
+            Pair<Long, Long> sonsStates =
+                    applySharedTransition(current.getStateCode(stateEncoding), current.getLabel());
+
+            if(current.isLeaf())
+            {
+                removeLeafState(current.getLeft().getStateCode(stateEncoding));
+                removeLeafState(current.getRight().getStateCode(stateEncoding));
+                addLeafState(leafStates, sonsStates.getFirst());
+                addLeafState(leafStates, sonsStates.getSecond());
+            }
+
+            if(updateSon(current.getRight(), sonsStates.getSecond()))
+                stack.push(current.getRight());
+
+            if(updateSon(current.getLeft(), sonsStates.getFirst()))
+                stack.push(current.getLeft());
+        }
+    }
+
+    @Override
+    protected void updateSubtree(TreeNode subtree)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        TreeNode parent = subtree.getParent();
+
+        if(parent == null)
+            subtree.setStateCode(stateEncoding, stateEncoding.getInitialCode());
+        else
+        {
+            Pair<Long, Long> sonsStates =
+                    applySharedTransition(parent.getStateCode(stateEncoding), parent.getLabel());
+
+            subtree.setStateCode(stateEncoding, parent.getLeft() == subtree
+                                                ? sonsStates.getFirst()
+                                                : sonsStates.getSecond());
+        }
+
+        evaluateSubtree(subtree).forEach(
+                (state, count) -> leafStates.merge(state, count, Integer::sum));
+    }
+
+    @Override
+    protected void removeSubtree(TreeNode subtree)
+    {
+        Deque<TreeNode> stack = new ArrayDeque<>();
+
+        stack.push(subtree);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            if(node.isLeaf())
+            {
+                removeLeafState(node.getLeft().getStateCode(stateEncoding));
+                removeLeafState(node.getRight().getStateCode(stateEncoding));
+            }
+
+            if(!node.getRight().isNull())
+                stack.push(node.getRight());
+
+            if(!node.getLeft().isNull())
+                stack.push(node.getLeft());
+        }
+    }
+
+    /**
+     * Calling a transition relation on the whole encoded state without sending messages or
+     * changing the automaton, so it can be called from concurrent runs.
+     * @param state code of state in node
+     * @param label tree label of node
+     * @return pair of state codes in sons (first left, second right)
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UnsupportedOperationException if transition relation cannot be shared between runs
+     */
+    protected Pair<Long, Long> applySharedTransition(long state, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        throw new UnsupportedOperationException(
+                String.format("%s cannot be shared between runs", getTypeName()));
+    }
+
+    /**
+     * Calling a transition relation on the whole encoded state without sending messages or
+     * changing the automaton, with the label already found in the alphabet.
+     * @param state code of state in node
+     * @param labelIndex index of the label returned by {@link #getLabelIndex(String)}
+     * @param label tree label of node
+     * @return pair of state codes in sons (first left, second right)
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     * @throws UnsupportedOperationException if transition relation cannot be shared between runs
+     */
+    protected Pair<Long, Long> applySharedTransition(long state, int labelIndex, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applySharedTransition(state, label);
+    }
+
     /**
      * Converting transition key to its string representation.
      * @param key transition key
@@ -194,4 +507,200 @@ public abstract class TopDownAutomaton
 
         return result;
     }
+
+    StateSpace createStateSpace()
+    {
+        return new StateSpace();
+    }
+
+    private boolean isAcceptedInLeaf(Map<Long, Boolean> acceptingStates, long state)
+            throws UndefinedAcceptanceException, UndefinedStateValueException
+    {
+        Boolean isAccepting = acceptingStates.get(state);
+
+        if(isAccepting == null)
+        {
+            isAccepting = acceptanceConditions.check(stateEncoding, state);
+            acceptingStates.put(state, isAccepting);
+        }
+
+        return isAccepting;
+    }
+
+    private void addProductiveState(long state, Set<Long> productiveStates,
+                                    Map<Long, List<WaitingTransition>> waitingTransitions)
+    {
+        Deque<Long> newStates = new ArrayDeque<>();
+
+        newStates.push(state);
+
+        while(!newStates.isEmpty())
+        {
+            long newState = newStates.pop();
+
+            if(!productiveStates.add(newState))
+                continue;
+
+            for(WaitingTransition transition : waitingTransitions.getOrDefault(
+                    newState, Collections.emptyList()))
+            {
+                transition.removeSon();
+
+                if(transition.isReady())
+                    newStates.push(transition.getState());
+            }
+
+            waitingTransitions.remove(newState);
+        }
+    }
+
+    private void removeLeafState(long state)
+    {
+        leafStates.computeIfPresent(state, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static void addLeafState(Map<Long, Integer> states, long state)
+    {
+        states.merge(state, 1, Integer::sum);
+    }
+
+    /**
+     * Setting new state of the son.
+     * @param son son of updated node
+     * @param state new state of the son
+     * @return {@code true} if the son is not null and its state has changed, otherwise
+     * {@code false}
+     */
+    private boolean updateSon(TreeNode son, long state)
+    {
+        boolean isChanged = son.getStateCode(stateEncoding) != state;
+
+        son.setStateCode(stateEncoding, state);
+
+        return isChanged && !son.isNull();
+    }
+
+    private Map<Long, Integer> evaluateSubtree(TreeNode root)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Map<Long, Integer> subtreeLeafStates = new HashMap<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+
+        stack.push(root);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            evaluateSons(node, subtreeLeafStates);
+
+            if(!node.getRight().isNull())
+                stack.push(node.getRight());
+
+            if(!node.getLeft().isNull())
+                stack.push(node.getLeft());
+        }
+
+        return subtreeLeafStates;
+    }
+
+    private void evaluateSons(TreeNode node, Map<Long, Integer> subtreeLeafStates)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        Pair<Long, Long> sonsStates =
+                applySharedTransition(node.getStateCode(stateEncoding), node.getLabel());
+
+        node.getLeft().setStateCode(stateEncoding, sonsStates.getFirst());
+        node.getRight().setStateCode(stateEncoding, sonsStates.getSecond());
+
+        if(node.isLeaf())
+        {
+            addLeafState(subtreeLeafStates, sonsStates.getFirst());
+            addLeafState(subtreeLeafStates, sonsStates.getSecond());
+        }
+    }
+
+    private static final class WaitingTransition
+    {
+        private final long state;
+        private int waitingSons = 0;
+
+        WaitingTransition(long state)
+        {
+            this.state = state;
+        }
+
+        long getState()
+        {
+            return state;
+        }
+
+        boolean isReady()
+        {
+            return waitingSons == 0;
+        }
+
+        void addSon()
+        {
+            ++waitingSons;
+        }
+
+        void removeSon()
+        {
+            --waitingSons;
+        }
+    }
+
+    final class StateSpace
+    {
+        private final List<Map<Long, int[]>> results = new ArrayList<>();
+
+        StateSpace()
+        {
+            for(int i = 0; i < variables.size(); ++i)
+                results.add(new HashMap<>());
+        }
+
+        List<Pair<Long, Long>> getNextStates(long state, int label)
+        {
+            List<Pair<Long, Long>> nextStates = Collections.singletonList(
+                    Pair.make(StateEncoding.EMPTY_STATE, StateEncoding.EMPTY_STATE));
+
+            for(int i = 0; i < variables.size(); ++i)
+            {
+                int[] values = getResultIndices(i, state, label);
+                List<Pair<Long, Long>> extendedStates = new ArrayList<>();
+
+                for(Pair<Long, Long> nextState : nextStates)
+                    for(int j = 0; j < values.length; j += 2)
+                        extendedStates.add(Pair.make(
+                                stateEncoding.setValueIndex(nextState.getFirst(), i, values[j]),
+                                stateEncoding.setValueIndex(nextState.getSecond(), i,
+                                                            values[j + 1])));
+
+                nextStates = extendedStates;
+            }
+
+            return nextStates;
+        }
+
+        private int[] getResultIndices(int position, long state, int label)
+        {
+            List<String> labels = getIndexedAlphabet();
+            Variable var = variables.get(position);
+            int valueIndex = stateEncoding.getValueIndex(state, position);
+            long key = (long)valueIndex * (labels.size() + 1) + label;
+            String labelValue = label < labels.size() ? labels.get(label) : Wildcard.EVERY_VALUE;
+
+            return results.get(position).computeIfAbsent(key, k -> findTransitionResults(
+                    var, var.getValue(valueIndex), labelValue)
+                    .stream()
+                    .filter(result -> var.indexOf(result.getFirst()) >= 0
+                            && var.indexOf(result.getSecond()) >= 0)
+                    .distinct()
+                    .flatMapToInt(result -> Arrays.stream(new int[]{
+                            var.indexOf(result.getFirst()), var.indexOf(result.getSecond())}))
+                    .toArray());
+        }
+    }
 }
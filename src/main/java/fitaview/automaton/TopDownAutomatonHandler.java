@@ -24,16 +24,14 @@ class TopDownAutomatonHandler
         {
             case "buchi-accepting":
                 isBuchiAccept = true;
-                result = isDeterministic
-                        ? new TopDownDITA(variables.values(), alphabet)
-                        : new TopDownNITA(variables.values(), alphabet);
+                result = isDeterministic ? createAutomaton(TopDownDITA::new)
+                                         : createAutomaton(TopDownNITA::new);
                 break;
 
             case "leaf-accepting":
                 if(!isBuchiAccept)
-                    result = isDeterministic
-                            ? new TopDownDFTA(variables.values(), alphabet)
-                            : new TopDownNFTA(variables.values(), alphabet);
+                    result = isDeterministic ? createAutomaton(TopDownDFTA::new)
+                                             : createAutomaton(TopDownNFTA::new);
 
                 isBuchiAccept = false;
                 break;
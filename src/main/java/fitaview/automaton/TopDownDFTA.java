@@ -3,8 +3,10 @@ package fitaview.automaton;
 import java.util.Collection;
 import java.util.Objects;
 
+import fitaview.automaton.transition.NoSuchTransitionException;
 import fitaview.tree.TreeNode;
 import fitaview.tree.UndefinedStateValueException;
+import fitaview.utils.Pair;
 
 public class TopDownDFTA
         extends TopDownDeterministicAutomaton
@@ -63,6 +65,26 @@ public class TopDownDFTA
         return Objects.hash(alphabet, variables, acceptanceConditions, traversing, transitions);
     }
 
+    @Override
+    public boolean canRunConcurrently()
+    {
+        return true;
+    }
+
+    @Override
+    protected Pair<Long, Long> applySharedTransition(long state, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applyTransition(state, getLabelIndex(label), label, false);
+    }
+
+    @Override
+    protected Pair<Long, Long> applySharedTransition(long state, int labelIndex, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applyTransition(state, labelIndex, label, false);
+    }
+
     @Override
     protected void assertFiniteness(TreeNode tree)
             throws TreeFinitenessException
@@ -1,19 +1,22 @@
 package fitaview.automaton;
 
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
 
 import fitaview.automaton.transition.DuplicatedTransitionException;
 import fitaview.automaton.transition.IllegalTransitionException;
 import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.automaton.transition.TopDownTransitionTable;
 import fitaview.automaton.transition.TopDownTransitions;
+import fitaview.automaton.transition.TransitionTable;
 import fitaview.utils.Pair;
 
 public abstract class TopDownDeterministicAutomaton
         extends TopDownAutomaton
 {
+    private static final int SAME_VALUE_INDEX = -2;
     protected final TopDownTransitions<Pair<String, String>> transitions =
             new TopDownTransitions<>(this::keyToString, this::valueToString);
+    private volatile CompiledTransitions compiledTransitions = null;
 
     public TopDownDeterministicAutomaton(Collection<Variable> variables,
                                          Collection<String> alphabet)
@@ -33,6 +36,32 @@ public abstract class TopDownDeterministicAutomaton
             throws DuplicatedTransitionException, IllegalTransitionException
     {
         transitions.add(var, Pair.make(value, label), Pair.make(leftResult, rightResult));
+        compiledTransitions = null;
+    }
+
+    @Override
+    protected Collection<Pair<String, String>> getTransitionKeys(Variable var)
+    {
+        return transitions.getKeys(var);
+    }
+
+    @Override
+    protected Collection<Pair<String, String>> getTransitionResults(Variable var,
+                                                                    Pair<String, String> key)
+    {
+        Pair<String, String> result = transitions.get(var, key);
+
+        return result == null ? Collections.emptyList() : Collections.singletonList(result);
+    }
+
+    @Override
+    protected Collection<Pair<String, String>> findTransitionResults(Variable var, String value,
+                                                                     String label)
+    {
+        Pair<String, String> result = transitions.findMatched(var, Pair.make(value, label));
+
+        return result == null ? Collections.emptyList()
+                              : Collections.singletonList(resolveWildcard(result, value));
     }
 
     @Override
@@ -43,4 +72,121 @@ public abstract class TopDownDeterministicAutomaton
 
         return resolveWildcard(result, value);
     }
+
+    @Override
+    protected Pair<Long, Long> applyTransition(long state, String label)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        return applyTransition(state, getLabelIndex(label), label, isSendingMessages);
+    }
+
+    /**
+     * Calling a compiled transition relation on the whole encoded state.
+     * @param state code of state in node
+     * @param labelIndex index of tree label of node
+     * @param label tree label of node
+     * @param isSending if {@code true} then used transition entries are sent as messages
+     * @return pair of state codes in sons (first left, second right)
+     * @throws NoSuchTransitionException if no transition entry was found
+     * @throws IllegalVariableValueException if transition result is not a value of variable
+     */
+    protected Pair<Long, Long> applyTransition(long state, int labelIndex, String label,
+                                               boolean isSending)
+            throws NoSuchTransitionException, IllegalVariableValueException
+    {
+        CompiledTransitions compiled = getCompiledTransitions();
+        List<TopDownTransitionTable<Pair<String, String>>> tables = compiled.tables;
+        long leftResult = StateEncoding.EMPTY_STATE;
+        long rightResult = StateEncoding.EMPTY_STATE;
+
+        for(int i = 0; i < tables.size(); ++i)
+        {
+            TopDownTransitionTable<Pair<String, String>> table = tables.get(i);
+            int valueIndex = stateEncoding.getValueIndex(state, i);
+            int entry = table.find(valueIndex, labelIndex);
+
+            if(entry == TransitionTable.NO_ENTRY)
+                throw new NoSuchTransitionException(
+                        String.format("No entry for arguments %s with variable %s",
+                                      Pair.make(stateEncoding.getValue(state, i), label),
+                                      table.getVariable()));
+
+            if(isSending)
+                table.sendEntry(entry);
+
+            leftResult = stateEncoding.setValueIndex(leftResult, i, resolveResult(
+                    compiled.leftResults[i][entry], valueIndex, table.getValue(entry).getFirst()));
+            rightResult = stateEncoding.setValueIndex(rightResult, i, resolveResult(
+                    compiled.rightResults[i][entry], valueIndex,
+                    table.getValue(entry).getSecond()));
+        }
+
+        return Pair.make(leftResult, rightResult);
+    }
+
+    /**
+     * Compiling transition relation into dense tables if it has changed since the last
+     * compilation.
+     * @return compiled transition tables for each variable with encoded results
+     */
+    private CompiledTransitions getCompiledTransitions()
+    {
+        CompiledTransitions compiled = compiledTransitions;
+
+        if(compiled == null)
+        {
+            List<TopDownTransitionTable<Pair<String, String>>> tables = new ArrayList<>();
+            int[][] leftResults = new int[variables.size()][];
+            int[][] rightResults = new int[variables.size()][];
+
+            for(Variable var : variables)
+            {
+                TopDownTransitionTable<Pair<String, String>> table =
+                        transitions.compile(var, getIndexedAlphabet());
+
+                leftResults[tables.size()] =
+                        table.encodeValues(value -> encodeResult(var, value.getFirst()));
+                rightResults[tables.size()] =
+                        table.encodeValues(value -> encodeResult(var, value.getSecond()));
+                tables.add(table);
+            }
+
+            compiled = new CompiledTransitions(tables, leftResults, rightResults);
+            compiledTransitions = compiled;
+        }
+
+        return compiled;
+    }
+
+    private int encodeResult(Variable var, String value)
+    {
+        return Objects.equals(value, Wildcard.SAME_VALUE) ? SAME_VALUE_INDEX : var.indexOf(value);
+    }
+
+    private int resolveResult(int resultIndex, int valueIndex, String result)
+            throws IllegalVariableValueException
+    {
+        if(resultIndex == SAME_VALUE_INDEX)
+            return valueIndex;
+
+        if(resultIndex < 0)
+            throw new IllegalVariableValueException(result);
+
+        return resultIndex;
+    }
+
+    private static final class CompiledTransitions
+    {
+        final List<TopDownTransitionTable<Pair<String, String>>> tables;
+        final int[][] leftResults;
+        final int[][] rightResults;
+
+        CompiledTransitions(List<TopDownTransitionTable<Pair<String, String>>> tables,
+                            int[][] leftResults, int[][] rightResults)
+        {
+            this.tables = tables;
+            this.leftResults = leftResults;
+            this.rightResults = rightResults;
+        }
+    }
 }
@@ -19,7 +19,7 @@ public class TopDownNITA
         implements InfiniteTreeAutomaton
 {
     private final AcceptanceConditions infiniteAcceptanceConditions = new AcceptanceConditions();
-    private final Map<TreeNode, Map<Map<Variable, String>, Integer>> repeatingStates =
+    private final Map<TreeNode, Map<Long, Integer>> repeatingStates =
             new HashMap<>();
     private final Map<TreeNode, Integer> numberRecursive = new HashMap<>();
     private int maximumRecursive;
@@ -45,18 +45,19 @@ public class TopDownNITA
     public Boolean isBuchiAccepted()
             throws UndefinedStateValueException, UndefinedAcceptanceException
     {
-        for(Map<Map<Variable, String>, Integer> map : repeatingStates.values())
-            for(Map.Entry<Map<Variable, String>, Integer> entry : map.entrySet())
+        for(Map<Long, Integer> map : repeatingStates.values())
+            for(Map.Entry<Long, Integer> entry : map.entrySet())
                 if(entry.getValue() >= maximumRecursive + 2 && infiniteAcceptanceConditions.check(
-                        entry.getKey()))
+                        stateEncoding, entry.getKey()))
                     return true;
 
         boolean allNotAccept = true;
 
-        for(Map<Map<Variable, String>, Integer> map : repeatingStates.values())
-            for(Map.Entry<Map<Variable, String>, Integer> entry : map.entrySet())
+        for(Map<Long, Integer> map : repeatingStates.values())
+            for(Map.Entry<Long, Integer> entry : map.entrySet())
                 if(entry.getValue() > maximumRecursive + 2)
-                    allNotAccept &= infiniteAcceptanceConditions.check(entry.getKey());
+                    allNotAccept &= infiniteAcceptanceConditions.check(stateEncoding,
+                                                                        entry.getKey());
 
         return allNotAccept ? null : false;
     }
@@ -73,6 +74,13 @@ public class TopDownNITA
         return infiniteAcc == null ? null : infiniteAcc && super.isAccepted();
     }
 
+    @Override
+    public boolean checkEmptiness()
+    {
+        throw new UnsupportedOperationException(
+                String.format("%s cannot be checked for emptiness", getTypeName()));
+    }
+
     @Override
     public void continueRecursive()
             throws RecursiveContinuationException
@@ -152,8 +160,7 @@ public class TopDownNITA
     {
         if(repeatingStates.containsKey(node))
         {
-            repeatingStates.get(node).putIfAbsent(node.getState(), 0);
-            repeatingStates.get(node).computeIfPresent(node.getState(), (k, v) -> v + 1);
+            repeatingStates.get(node).merge(node.getStateCode(stateEncoding), 1, Integer::sum);
         }
 
         super.processNode(node);
@@ -1,9 +1,6 @@
 package fitaview.automaton;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import fitaview.automaton.nondeterminism.StateChoice;
@@ -11,6 +8,9 @@ import fitaview.automaton.transition.DuplicatedTransitionException;
 import fitaview.automaton.transition.IllegalTransitionException;
 import fitaview.automaton.transition.NoSuchTransitionException;
 import fitaview.automaton.transition.TopDownTransitions;
+import fitaview.tree.NodeMap;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
 
 public abstract class TopDownNondeterministicAutomaton
@@ -20,6 +20,8 @@ public abstract class TopDownNondeterministicAutomaton
     protected final TopDownTransitions<Set<Pair<String, String>>> transitions =
             new TopDownTransitions<>(this::keyToString, this::valueSetToString);
     private StateChoice<Pair<String, String>, Pair<String, String>> choice;
+    private Map<TreeNode, Map<Long, NodeState>> exactStates = null;
+    private boolean isExactRuns = false;
 
     public TopDownNondeterministicAutomaton(Collection<Variable> variables,
                                             Collection<String> alphabet)
@@ -39,6 +41,32 @@ public abstract class TopDownNondeterministicAutomaton
         this.choice = choice;
     }
 
+    /** @return {@code true} if runs are chosen exactly instead of by the strategy */
+    public boolean isExactRuns()
+    {
+        return isExactRuns;
+    }
+
+    /**
+     * Switching exact runs on and off. When on, acceptance of every pair of tree node and state
+     * is computed once before the run as a fixpoint over all transition results, and the run
+     * follows sons states that lead to accepting leaves whenever there are any. So the tree is
+     * accepted in leaves if any run accepts it in leaves, in time polynomial in the number of
+     * nodes and states, and no strategy is needed. For infinite trees this covers leaves of
+     * the tree, not its infinite paths.
+     * @param exactRuns {@code true} if runs should be chosen exactly
+     * @throws AutomatonIsRunningException if automaton is running
+     */
+    public void setExactRuns(boolean exactRuns)
+            throws AutomatonIsRunningException
+    {
+        if(isRunning())
+            throw new AutomatonIsRunningException(
+                    "Cannot change choosing of runs when automaton is running");
+
+        isExactRuns = exactRuns;
+    }
+
     @Override
     public Map<Pair<Variable, String>, String> getTransitionAsStrings()
     {
@@ -67,6 +95,31 @@ public abstract class TopDownNondeterministicAutomaton
         entry.add(Pair.make(leftResult, rightResult));
     }
 
+    @Override
+    protected Collection<Pair<String, String>> getTransitionKeys(Variable var)
+    {
+        return transitions.getKeys(var);
+    }
+
+    @Override
+    protected Collection<Pair<String, String>> getTransitionResults(Variable var,
+                                                                    Pair<String, String> key)
+    {
+        Set<Pair<String, String>> results = transitions.get(var, key);
+
+        return results == null ? Collections.emptySet() : results;
+    }
+
+    @Override
+    protected Collection<Pair<String, String>> findTransitionResults(Variable var, String value,
+                                                                     String label)
+    {
+        return transitions.findAll(var, Pair.make(value, label))
+                          .stream()
+                          .flatMap(set -> set.stream().map(res -> resolveWildcard(res, value)))
+                          .collect(Collectors.toSet());
+    }
+
     @Override
     protected Pair<String, String> applyTransition(Variable var, String value, String label)
             throws NoSuchTransitionException
@@ -80,11 +133,36 @@ public abstract class TopDownNondeterministicAutomaton
             throws IllegalVariableValueException, NoTreeException, NoTraversingStrategyException,
                    NoNonDeterministicStrategyException
     {
-        if(choice == null)
+        if(choice == null && !isExactRuns)
             throw new NoNonDeterministicStrategyException(
                     "Automaton has no non-deterministic strategy");
 
         super.initialize();
+        exactStates = null;
+    }
+
+    @Override
+    protected void processNode(TreeNode node)
+            throws IllegalVariableValueException, UndefinedStateValueException,
+                   NoSuchTransitionException
+    {
+        if(!isExactRuns)
+        {
+            super.processNode(node);
+            return;
+        }
+
+        if(exactStates == null)
+            exactStates = findExactStates();
+
+        Pair<Long, Long> sonsStates = chooseExactStates(node, node.getStateCode(stateEncoding));
+
+        node.getLeft().setStateCode(stateEncoding, sonsStates.getFirst());
+        node.getRight().setStateCode(stateEncoding, sonsStates.getSecond());
+        completeNode(node);
+
+        if(isSendingMessages)
+            sendTransition(node);
     }
 
     private Set<Pair<String, String>> getAllTransitionResults(Variable var, String value,
@@ -97,6 +175,119 @@ public abstract class TopDownNondeterministicAutomaton
                           .collect(Collectors.toSet());
     }
 
+    private Pair<Long, Long> chooseExactStates(TreeNode node, long state)
+            throws NoSuchTransitionException
+    {
+        NodeState nodeState = exactStates.getOrDefault(node, Collections.emptyMap()).get(state);
+
+        if(nodeState == null || nodeState.getOptions().isEmpty())
+            throw new NoSuchTransitionException(
+                    String.format("No entry for arguments %s", Pair.make(
+                            stateEncoding.decode(state), node.getLabel())));
+
+        return nodeState.getOptions()
+                        .stream()
+                        .filter(option -> !option.isRejected())
+                        .findFirst()
+                        .orElse(nodeState.getOptions().get(0))
+                        .getSonsStates();
+    }
+
+    private Map<TreeNode, Map<Long, NodeState>> findExactStates()
+            throws UndefinedStateValueException
+    {
+        StateSpace space = createStateSpace();
+        Map<TreeNode, Map<Long, NodeState>> nodeStates = new NodeMap<>();
+        Map<Long, Boolean> acceptingStates = new HashMap<>();
+        Deque<NodeState> unexplored = new ArrayDeque<>();
+        Deque<NodeState> rejected = new ArrayDeque<>();
+
+        getNodeState(nodeStates, unexplored, tree, stateEncoding.getInitialCode());
+
+        while(!unexplored.isEmpty())
+        {
+            NodeState nodeState = unexplored.poll();
+            TreeNode node = nodeState.getNode();
+
+            for(Pair<Long, Long> sonsStates : space.getNextStates(nodeState.getState(),
+                                                                  getLabelIndex(node.getLabel())))
+            {
+                StateOption option = new StateOption(nodeState, sonsStates);
+
+                nodeState.getOptions().add(option);
+
+                if(node.isLeaf())
+                {
+                    if(!isAcceptedInLeaf(acceptingStates, sonsStates.getFirst())
+                            || !isAcceptedInLeaf(acceptingStates, sonsStates.getSecond()))
+                        option.reject();
+                }
+                else
+                {
+                    getNodeState(nodeStates, unexplored, node.getLeft(), sonsStates.getFirst())
+                            .getDependentOptions()
+                            .add(option);
+                    getNodeState(nodeStates, unexplored, node.getRight(), sonsStates.getSecond())
+                            .getDependentOptions()
+                            .add(option);
+                }
+            }
+
+            if(nodeState.getAcceptedOptions() == 0)
+                rejected.push(nodeState);
+        }
+
+        while(!rejected.isEmpty())
+            for(StateOption option : rejected.pop().getDependentOptions())
+                if(!option.isRejected())
+                {
+                    option.reject();
+
+                    if(option.getParent().getAcceptedOptions() == 0)
+                        rejected.push(option.getParent());
+                }
+
+        return nodeStates;
+    }
+
+    private NodeState getNodeState(Map<TreeNode, Map<Long, NodeState>> nodeStates,
+                                   Deque<NodeState> unexplored, TreeNode node, long state)
+    {
+        Map<Long, NodeState> states = nodeStates.computeIfAbsent(node, k -> new HashMap<>());
+        NodeState nodeState = states.get(state);
+
+        if(nodeState == null)
+        {
+            nodeState = new NodeState(node, state);
+            states.put(state, nodeState);
+            unexplored.add(nodeState);
+        }
+
+        return nodeState;
+    }
+
+    private boolean isAcceptedInLeaf(Map<Long, Boolean> acceptingStates, long state)
+            throws UndefinedStateValueException
+    {
+        Boolean isAccepting = acceptingStates.get(state);
+
+        if(isAccepting == null)
+        {
+            try
+            {
+                isAccepting = acceptanceConditions.check(stateEncoding, state);
+            }
+            catch(UndefinedAcceptanceException e)
+            {
+                isAccepting = true;
+            }
+
+            acceptingStates.put(state, isAccepting);
+        }
+
+        return isAccepting;
+    }
+
     private String valueSetToString(Set<Pair<String, String>> value)
     {
         Set<String> stringSet = value.stream().map(this::valueToString).collect(Collectors.toSet());
@@ -117,4 +308,83 @@ public abstract class TopDownNondeterministicAutomaton
             return getTransitionValuesSet(var, key);
         }
     }
+
+    private static final class NodeState
+    {
+        private final TreeNode node;
+        private final long state;
+        private final List<StateOption> options = new ArrayList<>();
+        private final List<StateOption> dependentOptions = new ArrayList<>();
+        private int rejectedOptions = 0;
+
+        NodeState(TreeNode node, long state)
+        {
+            this.node = node;
+            this.state = state;
+        }
+
+        TreeNode getNode()
+        {
+            return node;
+        }
+
+        long getState()
+        {
+            return state;
+        }
+
+        List<StateOption> getOptions()
+        {
+            return options;
+        }
+
+        List<StateOption> getDependentOptions()
+        {
+            return dependentOptions;
+        }
+
+        int getAcceptedOptions()
+        {
+            return options.size() - rejectedOptions;
+        }
+
+        void rejectOption()
+        {
+            ++rejectedOptions;
+        }
+    }
+
+    private static final class StateOption
+    {
+        private final NodeState parent;
+        private final Pair<Long, Long> sonsStates;
+        private boolean isRejected = false;
+
+        StateOption(NodeState parent, Pair<Long, Long> sonsStates)
+        {
+            this.parent = parent;
+            this.sonsStates = sonsStates;
+        }
+
+        NodeState getParent()
+        {
+            return parent;
+        }
+
+        Pair<Long, Long> getSonsStates()
+        {
+            return sonsStates;
+        }
+
+        boolean isRejected()
+        {
+            return isRejected;
+        }
+
+        void reject()
+        {
+            isRejected = true;
+            parent.rejectOption();
+        }
+    }
 }
@@ -1,12 +1,13 @@
 package fitaview.automaton;
 
+import java.util.List;
 import java.util.Map;
 
 import fitaview.messaging.DefaultMessageSender;
 import fitaview.utils.Triple;
 
 public final class TransitionSender
-        extends DefaultMessageSender<Triple<NodeInfoSource, String, Map<Variable, String>>>
+        extends DefaultMessageSender<List<Triple<NodeInfoSource, String, Map<Variable, String>>>>
 {
     private static TransitionSender instance = null;
 
@@ -78,6 +78,19 @@ public interface TreeAutomaton
     void setTree(TreeNode tree)
             throws TreeFinitenessException;
 
+    /**
+     * Creating a separate run of the automaton on specified finite tree. The run keeps its own
+     * states, so many runs can evaluate different trees concurrently with one automaton, as long
+     * as the automaton is not modified meanwhile.
+     * @param tree tree to evaluate
+     * @return context of the new run
+     * @throws TreeFinitenessException if tree is infinite
+     * @throws NoTreeException if tree is empty
+     * @throws UnsupportedOperationException if the automaton cannot be shared between runs
+     */
+    RunContext createRunContext(TreeNode tree)
+            throws TreeFinitenessException, NoTreeException;
+
     /**
      * @param isSendingMessages if {@code true} then the automaton sends messages informing about
      * its work
@@ -8,6 +8,9 @@ public class Variable
     private final int index;
     private final String initValue;
     private final Set<String> values = new HashSet<>();
+    private final List<String> indexedValues = new ArrayList<>();
+    private final Map<String, Integer> valuesIndices = new HashMap<>();
+    private int hash;
 
     public Variable(int index, String init)
             throws IllegalVariableValueException
@@ -18,6 +21,7 @@ public class Variable
         this.index = index;
         initValue = init;
         values.add(initValue);
+        indexValues();
     }
 
     public Variable(int index, String init, String... values)
@@ -36,6 +40,13 @@ public class Variable
                 throw new IllegalVariableValueException("Value is null or empty");
 
         this.values.addAll(values);
+        indexValues();
+    }
+
+    /** @return identifier of the variable */
+    public int getIndex()
+    {
+        return index;
     }
 
     public String getInitValue()
@@ -64,6 +75,28 @@ public class Variable
         return values.size();
     }
 
+    /**
+     * Getting the position of specified value in the variable. Initial value has always index
+     * {@code 0}.
+     * @param value value of the variable
+     * @return index of the value, or {@code -1} if it is not a value of the variable
+     */
+    public int indexOf(String value)
+    {
+        Integer index = valuesIndices.get(value);
+
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index index of the value
+     * @return value of the variable at specified position
+     */
+    public String getValue(int index)
+    {
+        return indexedValues.get(index);
+    }
+
     /**
      * Checking if specified string is value of the variable.
      * @param value string to test
@@ -83,7 +116,7 @@ public class Variable
     @Override
     public int hashCode()
     {
-        return Objects.hash(initValue, values);
+        return hash;
     }
 
     @Override
@@ -97,7 +130,8 @@ public class Variable
 
         Variable other = (Variable)obj;
 
-        return Objects.equals(initValue, other.initValue) && Objects.equals(values, other.values);
+        return index == other.index && Objects.equals(initValue, other.initValue)
+                && Objects.equals(values, other.values);
     }
 
     @Override
@@ -105,4 +139,20 @@ public class Variable
     {
         return String.format("%s::%s", getVarName(), values);
     }
+
+    private void indexValues()
+    {
+        indexedValues.clear();
+        valuesIndices.clear();
+        indexedValues.add(initValue);
+
+        for(String value : values)
+            if(!Objects.equals(value, initValue))
+                indexedValues.add(value);
+
+        for(int i = 0; i < indexedValues.size(); ++i)
+            valuesIndices.put(indexedValues.get(i), i);
+
+        hash = Objects.hash(index, initValue, values);
+    }
 }
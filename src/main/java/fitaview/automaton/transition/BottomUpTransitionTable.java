@@ -0,0 +1,73 @@
+package fitaview.automaton.transition;
+
+import java.util.List;
+
+import fitaview.automaton.Variable;
+import fitaview.automaton.Wildcard;
+import fitaview.utils.Triple;
+
+public class BottomUpTransitionTable<V>
+        extends TransitionTable<Triple<String, String, String>, V>
+{
+    private final BottomUpTransitions<V> transitions;
+    private final List<String> labels;
+    private final int valuesCount;
+    private final int labelsCount;
+
+    BottomUpTransitionTable(BottomUpTransitions<V> transitions, Variable variable,
+                            List<String> labels, int maxCells)
+    {
+        super(transitions, variable,
+              countCells(variable.size(), variable.size(), labels.size() + 1), maxCells);
+        this.transitions = transitions;
+        this.labels = labels;
+        this.valuesCount = variable.size();
+        this.labelsCount = labels.size() + 1;
+    }
+
+    /**
+     * Finding transition entry matched for specified arguments.
+     * @param leftIndex index of variable value in left son
+     * @param rightIndex index of variable value in right son
+     * @param labelIndex index of label of node
+     * @return index of transition entry, or {@link #NO_ENTRY} if there is no such entry
+     */
+    public int find(int leftIndex, int rightIndex, int labelIndex)
+    {
+        if(leftIndex < 0 || rightIndex < 0 || labelIndex < 0)
+            return NO_ENTRY;
+
+        if(isExpanded())
+            return cells[getCell(leftIndex, rightIndex, labelIndex)];
+
+        String label = labelIndex < labels.size() ? labels.get(labelIndex) : Wildcard.EVERY_VALUE;
+
+        return getEntry(transitions.findMatchedKey(getVariable(), Triple.make(
+                getVariable().getValue(leftIndex), getVariable().getValue(rightIndex), label)));
+    }
+
+    /**
+     * Assigning transition entry to a cell if no entry of a better rank is assigned there.
+     * @param ranks ranks of entries assigned to cells, where zero means no entry
+     * @param leftIndex index of variable value in left son
+     * @param rightIndex index of variable value in right son
+     * @param labelIndex index of label of node
+     * @param entry index of transition entry
+     * @param rank rank of the entry in the cell, lower are matched first, counted from one
+     */
+    void put(byte[] ranks, int leftIndex, int rightIndex, int labelIndex, int entry, int rank)
+    {
+        int cell = getCell(leftIndex, rightIndex, labelIndex);
+
+        if(ranks[cell] == 0 || rank < ranks[cell])
+        {
+            ranks[cell] = (byte)rank;
+            cells[cell] = entry;
+        }
+    }
+
+    private int getCell(int leftIndex, int rightIndex, int labelIndex)
+    {
+        return (leftIndex * valuesCount + rightIndex) * labelsCount + labelIndex;
+    }
+}
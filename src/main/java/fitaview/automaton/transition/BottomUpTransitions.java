@@ -1,7 +1,10 @@
 package fitaview.automaton.transition;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -74,6 +77,115 @@ public class BottomUpTransitions<V>
         if(hasNull(key))
             throw new NoSuchTransitionException("Key contains a null value");
 
+        List<V> results = collectAll(var, key, true);
+
+        if(results.isEmpty())
+            throw new NoSuchTransitionException(
+                    String.format("No entry for arguments %s with variable %s", key, var));
+
+        return results;
+    }
+
+    /**
+     * Finding results of all transition entries matched for specified arguments without sending
+     * them.
+     * @param var variable
+     * @param key arguments of transition
+     * @return results of matched entries, empty if there are no such entries
+     */
+    public List<V> findAll(Variable var, Triple<String, String, String> key)
+    {
+        return hasNull(key) ? Collections.emptyList() : collectAll(var, key, false);
+    }
+
+    @Override
+    public V getMatched(Variable var, Triple<String, String, String> key)
+            throws NoSuchTransitionException
+    {
+        if(hasNull(key))
+            throw new NoSuchTransitionException("Key contains a null value");
+
+        Triple<String, String, String> matchedKey = findMatchedKey(var, key);
+
+        if(matchedKey == null)
+            throw new NoSuchTransitionException(
+                    String.format("No entry for arguments %s with variable %s", key, var));
+
+        V value = map.get(Pair.make(var, matchedKey));
+
+        sendEntry(var, matchedKey, value);
+        return value;
+    }
+
+    /**
+     * Finding result of first transition entry matched for specified arguments without sending
+     * it.
+     * @param var variable
+     * @param key arguments of transition
+     * @return result of matched entry, or {@code null} if there is no such entry
+     */
+    public V findMatched(Variable var, Triple<String, String, String> key)
+    {
+        Triple<String, String, String> matchedKey = hasNull(key) ? null
+                                                                 : findMatchedKey(var, key);
+
+        return matchedKey == null ? null : map.get(Pair.make(var, matchedKey));
+    }
+
+    /**
+     * Compiling transition relation for specified variable into a table indexed by positions of
+     * variable values and labels. Every wildcard is expanded in a single pass over transition
+     * entries of the variable, so each lookup in the table is a single array read. If the table
+     * would have more than {@link TransitionTable#MAX_CELLS} cells, it is not expanded and
+     * matched entries are looked up in transition relation.
+     * @param var variable
+     * @param labels labels in order of their indices
+     * @return compiled transition table
+     */
+    public BottomUpTransitionTable<V> compile(Variable var, List<String> labels)
+    {
+        return compile(var, labels, TransitionTable.MAX_CELLS);
+    }
+
+    /**
+     * Compiling transition relation for specified variable into a table.
+     * @param var variable
+     * @param labels labels in order of their indices
+     * @param maxCells maximal number of cells in expanded table
+     * @return compiled transition table
+     */
+    BottomUpTransitionTable<V> compile(Variable var, List<String> labels, int maxCells)
+    {
+        BottomUpTransitionTable<V> table =
+                new BottomUpTransitionTable<>(this, var, labels, maxCells);
+        Map<String, Integer> labelIndices = new HashMap<>();
+        byte[] ranks = table.isExpanded() ? new byte[table.cells.length] : null;
+
+        for(int i = 0; i < labels.size(); ++i)
+            labelIndices.put(labels.get(i), i);
+
+        for(Map.Entry<Pair<Variable, Triple<String, String, String>>, V> mapEntry : map.entrySet())
+            if(Objects.equals(mapEntry.getKey().getFirst(), var))
+            {
+                Triple<String, String, String> key = mapEntry.getKey().getSecond();
+                int entry = table.addEntry(key, mapEntry.getValue());
+
+                if(ranks != null)
+                    expandEntry(table, ranks, labelIndices, key, entry);
+            }
+
+        return table;
+    }
+
+    @Override
+    protected boolean hasNull(Triple<String, String, String> key)
+    {
+        return key.getFirst() == null || key.getSecond() == null || key.getThird() == null;
+    }
+
+    private List<V> collectAll(Variable var, Triple<String, String, String> key,
+                               boolean isSending)
+    {
         List<V> results = new ArrayList<>();
 
         if(Objects.equals(key.getFirst(), key.getSecond()))
@@ -85,7 +197,9 @@ public class BottomUpTransitions<V>
 
                 if(value != null)
                 {
-                    sendEntry(var, wildcardKey, value);
+                    if(isSending)
+                        sendEntry(var, wildcardKey, value);
+
                     results.add(value);
                 }
             }
@@ -98,60 +212,96 @@ public class BottomUpTransitions<V>
 
             if(value != null)
             {
-                sendEntry(var, wildcardKey, value);
+                if(isSending)
+                    sendEntry(var, wildcardKey, value);
+
                 results.add(value);
             }
         }
 
-        if(results.isEmpty())
-            throw new NoSuchTransitionException(
-                    String.format("No entry for arguments %s with variable %s", key, var));
-
         return results;
     }
 
-    @Override
-    public V getMatched(Variable var, Triple<String, String, String> key)
-            throws NoSuchTransitionException
+    /**
+     * Assigning transition entry to all table cells it matches. Rank of the entry in a cell is
+     * the position of the first key in {@link #findMatchedKey} equal to the entry, where the
+     * table column after all labels stands for wildcard label.
+     * @param table expanded transition table
+     * @param ranks ranks of entries assigned to cells
+     * @param labelIndices indices of labels
+     * @param key arguments of transition entry
+     * @param entry index of transition entry
+     */
+    private void expandEntry(BottomUpTransitionTable<V> table, byte[] ranks,
+                             Map<String, Integer> labelIndices,
+                             Triple<String, String, String> key, int entry)
     {
-        if(hasNull(key))
-            throw new NoSuchTransitionException("Key contains a null value");
+        Variable var = table.getVariable();
+        int wildcardLabel = labelIndices.size();
+        boolean isEveryLabel = Objects.equals(key.getThird(), Wildcard.EVERY_VALUE);
+        Integer labelIndex = isEveryLabel ? Integer.valueOf(0) : labelIndices.get(key.getThird());
+
+        if(labelIndex == null)
+            return;
+
+        int lastLabel = isEveryLabel ? wildcardLabel : labelIndex;
+
+        boolean isSameLeft = Objects.equals(key.getFirst(), Wildcard.SAME_VALUE);
+
+        if(isSameLeft || Objects.equals(key.getSecond(), Wildcard.SAME_VALUE))
+        {
+            int rank = isSameLeft ? 2 : 1;
+
+            for(int value = 0; value < var.size(); ++value)
+                for(int label = labelIndex; label <= lastLabel; ++label)
+                    table.put(ranks, value, value, label, entry,
+                              isEveryLabel && label != wildcardLabel ? rank + 2 : rank);
+
+            return;
+        }
 
+        boolean isEveryLeft = Objects.equals(key.getFirst(), Wildcard.EVERY_VALUE);
+        boolean isEveryRight = Objects.equals(key.getSecond(), Wildcard.EVERY_VALUE);
+        int leftIndex = isEveryLeft ? 0 : var.indexOf(key.getFirst());
+        int rightIndex = isEveryRight ? 0 : var.indexOf(key.getSecond());
+
+        if(leftIndex < 0 || rightIndex < 0)
+            return;
+
+        int mask = (isEveryLeft ? 1 : 0) | (isEveryRight ? 2 : 0) | (isEveryLabel ? 4 : 0);
+        int lastLeft = isEveryLeft ? var.size() - 1 : leftIndex;
+        int lastRight = isEveryRight ? var.size() - 1 : rightIndex;
+
+        for(int left = leftIndex; left <= lastLeft; ++left)
+            for(int right = rightIndex; right <= lastRight; ++right)
+                for(int label = labelIndex; label <= lastLabel; ++label)
+                    table.put(ranks, left, right, label, entry,
+                              sameMasks.length + 1 + (label == wildcardLabel ? mask & 3 : mask));
+    }
+
+    Triple<String, String, String> findMatchedKey(Variable var,
+                                                  Triple<String, String, String> key)
+    {
         if(Objects.equals(key.getFirst(), key.getSecond()))
         {
             for(String mask : sameMasks)
             {
                 Triple<String, String, String> wildcardKey = setWildcardSame(mask, key);
-                V value = map.get(Pair.make(var, wildcardKey));
 
-                if(value != null)
-                {
-                    sendEntry(var, wildcardKey, value);
-                    return value;
-                }
+                if(map.containsKey(Pair.make(var, wildcardKey)))
+                    return wildcardKey;
             }
         }
 
         for(int i = 0; i < 8; ++i)
         {
             Triple<String, String, String> wildcardKey = setWildcardEvery(i, key);
-            V value = map.get(Pair.make(var, wildcardKey));
 
-            if(value != null)
-            {
-                sendEntry(var, wildcardKey, value);
-                return value;
-            }
+            if(map.containsKey(Pair.make(var, wildcardKey)))
+                return wildcardKey;
         }
 
-        throw new NoSuchTransitionException(
-                String.format("No entry for arguments %s with variable %s", key, var));
-    }
-
-    @Override
-    protected boolean hasNull(Triple<String, String, String> key)
-    {
-        return key.getFirst() == null || key.getSecond() == null || key.getThird() == null;
+        return null;
     }
 
     private Triple<String, String, String> setWildcardEvery(int mask,
@@ -0,0 +1,63 @@
+package fitaview.automaton.transition;
+
+import java.util.List;
+
+import fitaview.automaton.Variable;
+import fitaview.automaton.Wildcard;
+import fitaview.utils.Pair;
+
+public class TopDownTransitionTable<V>
+        extends TransitionTable<Pair<String, String>, V>
+{
+    private final TopDownTransitions<V> transitions;
+    private final List<String> labels;
+    private final int labelsCount;
+
+    TopDownTransitionTable(TopDownTransitions<V> transitions, Variable variable,
+                           List<String> labels, int maxCells)
+    {
+        super(transitions, variable, countCells(variable.size(), labels.size() + 1), maxCells);
+        this.transitions = transitions;
+        this.labels = labels;
+        this.labelsCount = labels.size() + 1;
+    }
+
+    /**
+     * Finding transition entry matched for specified arguments.
+     * @param valueIndex index of variable value in node
+     * @param labelIndex index of label of node
+     * @return index of transition entry, or {@link #NO_ENTRY} if there is no such entry
+     */
+    public int find(int valueIndex, int labelIndex)
+    {
+        if(valueIndex < 0 || labelIndex < 0)
+            return NO_ENTRY;
+
+        if(isExpanded())
+            return cells[valueIndex * labelsCount + labelIndex];
+
+        String label = labelIndex < labels.size() ? labels.get(labelIndex) : Wildcard.EVERY_VALUE;
+
+        return getEntry(transitions.findMatchedKey(getVariable(), Pair.make(
+                getVariable().getValue(valueIndex), label)));
+    }
+
+    /**
+     * Assigning transition entry to a cell if no entry of a better rank is assigned there.
+     * @param ranks ranks of entries assigned to cells, where zero means no entry
+     * @param valueIndex index of variable value in node
+     * @param labelIndex index of label of node
+     * @param entry index of transition entry
+     * @param rank rank of the entry in the cell, lower are matched first, counted from one
+     */
+    void put(byte[] ranks, int valueIndex, int labelIndex, int entry, int rank)
+    {
+        int cell = valueIndex * labelsCount + labelIndex;
+
+        if(ranks[cell] == 0 || rank < ranks[cell])
+        {
+            ranks[cell] = (byte)rank;
+            cells[cell] = entry;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package fitaview.automaton.transition;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 import fitaview.automaton.Variable;
@@ -41,19 +45,7 @@ public class TopDownTransitions<V>
         if(hasNull(key))
             throw new NoSuchTransitionException("Key contains a null value");
 
-        List<V> results = new ArrayList<>();
-
-        for(int i = 0; i < 4; ++i)
-        {
-            Pair<String, String> wildcardKey = setWildcard(i, key);
-            V value = map.get(Pair.make(var, wildcardKey));
-
-            if(value != null)
-            {
-                sendEntry(var, wildcardKey, value);
-                results.add(value);
-            }
-        }
+        List<V> results = collectAll(var, key, true);
 
         if(results.isEmpty())
             throw new NoSuchTransitionException(
@@ -62,6 +54,18 @@ public class TopDownTransitions<V>
         return results;
     }
 
+    /**
+     * Finding results of all transition entries matched for specified arguments without sending
+     * them.
+     * @param var variable
+     * @param key arguments of transition
+     * @return results of matched entries, empty if there are no such entries
+     */
+    public List<V> findAll(Variable var, Pair<String, String> key)
+    {
+        return hasNull(key) ? Collections.emptyList() : collectAll(var, key, false);
+    }
+
     @Override
     public V getMatched(Variable var, Pair<String, String> key)
             throws NoSuchTransitionException
@@ -69,6 +73,86 @@ public class TopDownTransitions<V>
         if(hasNull(key))
             throw new NoSuchTransitionException("Key contains a null value");
 
+        Pair<String, String> matchedKey = findMatchedKey(var, key);
+
+        if(matchedKey == null)
+            throw new NoSuchTransitionException(
+                    String.format("No entry for arguments %s with variable %s", key, var));
+
+        V value = map.get(Pair.make(var, matchedKey));
+
+        sendEntry(var, matchedKey, value);
+        return value;
+    }
+
+    /**
+     * Finding result of first transition entry matched for specified arguments without sending
+     * it.
+     * @param var variable
+     * @param key arguments of transition
+     * @return result of matched entry, or {@code null} if there is no such entry
+     */
+    public V findMatched(Variable var, Pair<String, String> key)
+    {
+        Pair<String, String> matchedKey = hasNull(key) ? null : findMatchedKey(var, key);
+
+        return matchedKey == null ? null : map.get(Pair.make(var, matchedKey));
+    }
+
+    /**
+     * Compiling transition relation for specified variable into a table indexed by positions of
+     * variable values and labels. Every wildcard is expanded in a single pass over transition
+     * entries of the variable, so each lookup in the table is a single array read. If the table
+     * would have more than {@link TransitionTable#MAX_CELLS} cells, it is not expanded and
+     * matched entries are looked up in transition relation.
+     * @param var variable
+     * @param labels labels in order of their indices
+     * @return compiled transition table
+     */
+    public TopDownTransitionTable<V> compile(Variable var, List<String> labels)
+    {
+        return compile(var, labels, TransitionTable.MAX_CELLS);
+    }
+
+    /**
+     * Compiling transition relation for specified variable into a table.
+     * @param var variable
+     * @param labels labels in order of their indices
+     * @param maxCells maximal number of cells in expanded table
+     * @return compiled transition table
+     */
+    TopDownTransitionTable<V> compile(Variable var, List<String> labels, int maxCells)
+    {
+        TopDownTransitionTable<V> table = new TopDownTransitionTable<>(this, var, labels, maxCells);
+        Map<String, Integer> labelIndices = new HashMap<>();
+        byte[] ranks = table.isExpanded() ? new byte[table.cells.length] : null;
+
+        for(int i = 0; i < labels.size(); ++i)
+            labelIndices.put(labels.get(i), i);
+
+        for(Map.Entry<Pair<Variable, Pair<String, String>>, V> mapEntry : map.entrySet())
+            if(Objects.equals(mapEntry.getKey().getFirst(), var))
+            {
+                Pair<String, String> key = mapEntry.getKey().getSecond();
+                int entry = table.addEntry(key, mapEntry.getValue());
+
+                if(ranks != null)
+                    expandEntry(table, ranks, labelIndices, key, entry);
+            }
+
+        return table;
+    }
+
+    @Override
+    protected boolean hasNull(Pair<String, String> key)
+    {
+        return key.getFirst() == null || key.getSecond() == null;
+    }
+
+    private List<V> collectAll(Variable var, Pair<String, String> key, boolean isSending)
+    {
+        List<V> results = new ArrayList<>();
+
         for(int i = 0; i < 4; ++i)
         {
             Pair<String, String> wildcardKey = setWildcard(i, key);
@@ -76,19 +160,61 @@ public class TopDownTransitions<V>
 
             if(value != null)
             {
-                sendEntry(var, wildcardKey, value);
-                return value;
+                if(isSending)
+                    sendEntry(var, wildcardKey, value);
+
+                results.add(value);
             }
         }
 
-        throw new NoSuchTransitionException(
-                String.format("No entry for arguments %s with variable %s", key, var));
+        return results;
     }
 
-    @Override
-    protected boolean hasNull(Pair<String, String> key)
+    /**
+     * Assigning transition entry to all table cells it matches. Rank of the entry in a cell is
+     * the position of the first key in {@link #findMatchedKey} equal to the entry, where the
+     * table column after all labels stands for wildcard label.
+     * @param table expanded transition table
+     * @param ranks ranks of entries assigned to cells
+     * @param labelIndices indices of labels
+     * @param key arguments of transition entry
+     * @param entry index of transition entry
+     */
+    private void expandEntry(TopDownTransitionTable<V> table, byte[] ranks,
+                             Map<String, Integer> labelIndices, Pair<String, String> key,
+                             int entry)
     {
-        return key.getFirst() == null || key.getSecond() == null;
+        Variable var = table.getVariable();
+        int wildcardLabel = labelIndices.size();
+        boolean isEveryValue = Objects.equals(key.getFirst(), Wildcard.EVERY_VALUE);
+        boolean isEveryLabel = Objects.equals(key.getSecond(), Wildcard.EVERY_VALUE);
+        int valueIndex = isEveryValue ? 0 : var.indexOf(key.getFirst());
+        Integer labelIndex = isEveryLabel ? Integer.valueOf(0) : labelIndices.get(key.getSecond());
+
+        if(valueIndex < 0 || labelIndex == null)
+            return;
+
+        int mask = (isEveryValue ? 1 : 0) | (isEveryLabel ? 2 : 0);
+        int lastValue = isEveryValue ? var.size() - 1 : valueIndex;
+        int lastLabel = isEveryLabel ? wildcardLabel : labelIndex;
+
+        for(int value = valueIndex; value <= lastValue; ++value)
+            for(int label = labelIndex; label <= lastLabel; ++label)
+                table.put(ranks, value, label, entry,
+                          1 + (label == wildcardLabel ? mask & 1 : mask));
+    }
+
+    Pair<String, String> findMatchedKey(Variable var, Pair<String, String> key)
+    {
+        for(int i = 0; i < 4; ++i)
+        {
+            Pair<String, String> wildcardKey = setWildcard(i, key);
+
+            if(map.containsKey(Pair.make(var, wildcardKey)))
+                return wildcardKey;
+        }
+
+        return null;
     }
 
     private Pair<String, String> setWildcard(int mask, Pair<String, String> k)
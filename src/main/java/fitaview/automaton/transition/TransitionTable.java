@@ -0,0 +1,149 @@
+package fitaview.automaton.transition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import fitaview.automaton.Variable;
+
+public abstract class TransitionTable<K, V>
+{
+    public static final int NO_ENTRY = -1;
+    /** Maximal number of cells in an expanded table. */
+    public static final int MAX_CELLS = 1 << 22;
+    protected final int[] cells;
+    private final Transitions<K, V> transitions;
+    private final Variable variable;
+    private final List<K> keys = new ArrayList<>();
+    private final List<V> values = new ArrayList<>();
+    private final Map<K, Integer> entries = new HashMap<>();
+
+    /**
+     * @param transitions transition relation
+     * @param variable variable
+     * @param size number of cells needed to expand the table
+     * @param maxCells maximal number of cells, above which the table is not expanded
+     */
+    TransitionTable(Transitions<K, V> transitions, Variable variable, long size, int maxCells)
+    {
+        this.transitions = transitions;
+        this.variable = variable;
+        cells = size <= maxCells ? new int[(int)size] : null;
+
+        if(cells != null)
+            Arrays.fill(cells, NO_ENTRY);
+    }
+
+    /**
+     * Counting cells of an expanded table without overflow.
+     * @param dimensions sizes of dimensions of the table
+     * @return number of cells, or {@link Long#MAX_VALUE} if it does not fit in {@code long}
+     */
+    static long countCells(int... dimensions)
+    {
+        long size = 1L;
+
+        try
+        {
+            for(int dimension : dimensions)
+                size = Math.multiplyExact(size, dimension);
+        }
+        catch(ArithmeticException e)
+        {
+            return Long.MAX_VALUE;
+        }
+
+        return size;
+    }
+
+    public Variable getVariable()
+    {
+        return variable;
+    }
+
+    /**
+     * @return {@code true} if every cell is stored in the table, otherwise {@code false} if
+     * matched entries are looked up in transition relation
+     */
+    public boolean isExpanded()
+    {
+        return cells != null;
+    }
+
+    /**
+     * @return number of transition entries of the variable
+     */
+    public int size()
+    {
+        return keys.size();
+    }
+
+    /**
+     * @param entry index of transition entry
+     * @return arguments of transition entry
+     */
+    public K getKey(int entry)
+    {
+        return keys.get(entry);
+    }
+
+    /**
+     * @param entry index of transition entry
+     * @return result of transition entry
+     */
+    public V getValue(int entry)
+    {
+        return values.get(entry);
+    }
+
+    /**
+     * Encoding results of all transition entries referenced by the table.
+     * @param encoder function encoding single result
+     * @return encoded results at indices of their transition entries
+     */
+    public int[] encodeValues(ToIntFunction<V> encoder)
+    {
+        return values.stream().mapToInt(encoder).toArray();
+    }
+
+    /**
+     * Sending transition entry in the same way as it is sent when looked up in transition
+     * relation.
+     * @param entry index of transition entry
+     */
+    public void sendEntry(int entry)
+    {
+        transitions.sendEntry(variable, keys.get(entry), values.get(entry));
+    }
+
+    /**
+     * Adding transition entry of the variable to the table.
+     * @param key arguments of transition entry
+     * @param value result of transition entry
+     * @return index of transition entry
+     */
+    int addEntry(K key, V value)
+    {
+        int entry = keys.size();
+
+        keys.add(key);
+        values.add(value);
+        entries.put(key, entry);
+
+        return entry;
+    }
+
+    /**
+     * @param key arguments of transition entry
+     * @return index of transition entry, or {@link #NO_ENTRY} if there is no such entry
+     */
+    protected int getEntry(K key)
+    {
+        Integer entry = key == null ? null : entries.get(key);
+
+        return entry == null ? NO_ENTRY : entry;
+    }
+}
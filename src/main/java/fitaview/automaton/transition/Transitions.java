@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import fitaview.automaton.Variable;
 import fitaview.utils.Pair;
@@ -44,6 +45,30 @@ public abstract class Transitions<K, V>
      */
     public abstract boolean containsEntry(Variable var, K key);
 
+    /**
+     * @param var variable
+     * @return arguments of all transition entries for the variable
+     */
+    public List<K> getKeys(Variable var)
+    {
+        return map.keySet()
+                  .stream()
+                  .filter(key -> Objects.equals(key.getFirst(), var))
+                  .map(Pair::getSecond)
+                  .collect(Collectors.toList());
+    }
+
+    /**
+     * Getting result of transition relation for the exact arguments, without matching wildcards.
+     * @param var variable
+     * @param key arguments of transition
+     * @return result of transition entry with the arguments, or {@code null} if there is none
+     */
+    public V get(Variable var, K key)
+    {
+        return map.get(Pair.make(var, key));
+    }
+
     /**
      * Adding new arguments-result entry to transition relation for specified variable.
      * @param var variable
@@ -8,21 +8,12 @@ import fitaview.tree.TreeNode;
 public class BottomUpBFS
     extends BottomUpTraversing
 {
-    private boolean canAddParent = false;
-
     @Override
     public TraversingMode getMode()
     {
         return TraversingMode.BFS;
     }
 
-    @Override
-    public void initialize(TreeNode... nodes)
-    {
-        super.initialize(nodes);
-        canAddParent = false;
-    }
-
     @Override
     public Iterable<TreeNode> next()
     {
@@ -31,10 +22,7 @@ public class BottomUpBFS
 
         TreeNode node = nodeQueue.remove();
 
-        if(node.getParent() != null && canAddParent)
-            nodeQueue.add(node.getParent());
-
-        canAddParent = !canAddParent;
+        finishNode(node);
 
         return Collections.singletonList(node);
     }
@@ -21,10 +21,7 @@ public class BottomUpLevel
     public void initialize(TreeNode... nodes)
     {
         super.initialize(nodes);
-        currentDepth = -1;
-
-        Arrays.stream(nodes)
-              .forEachOrdered(place -> currentDepth = Math.max(currentDepth, countDepth(place)));
+        currentDepth = Arrays.stream(nodes).mapToInt(this::getDepth).max().orElse(-1);
     }
 
     @Override
@@ -34,30 +31,17 @@ public class BottomUpLevel
             throw new NoSuchElementException("No more nodes in traversing");
 
         ArrayList<TreeNode> nodes = new ArrayList<>();
-        int index = nodeQueue.element().getIndex();
-
-        boolean canAddParent = false;
 
-        while(index >= 1 << currentDepth)
+        while(hasNext() && getDepth(nodeQueue.element()) >= currentDepth)
         {
             TreeNode node = nodeQueue.remove();
 
             nodes.add(node);
-
-            if(node.getParent() != null && canAddParent)
-                nodeQueue.add(node.getParent());
-
-            canAddParent = !canAddParent;
-            index = hasNext() ? nodeQueue.element().getIndex() : -1;
+            finishNode(node);
         }
 
         --currentDepth;
 
         return nodes;
     }
-
-    private Integer countDepth(TreeNode node)
-    {
-        return 31 - Integer.numberOfLeadingZeros(node.getIndex());
-    }
 }
@@ -1,21 +1,27 @@
 package fitaview.automaton.traversing;
 
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.*;
 
+import fitaview.tree.NodeType;
 import fitaview.tree.TreeNode;
 
 public abstract class BottomUpTraversing
         implements TreeTraversing
 {
-    protected final Queue<TreeNode> nodeQueue = new PriorityQueue<>(16, new NodeIndexComparator());
+    private final Map<TreeNode, Integer> positions = new HashMap<>();
+    private final List<Integer> levelsStarts = new ArrayList<>();
+    private final Map<TreeNode, Integer> finishedSons = new HashMap<>();
+    protected final Queue<TreeNode> nodeQueue =
+            new PriorityQueue<>(16, Comparator.comparingInt(this::getPosition));
 
     @Override
     public void initialize(TreeNode... nodes)
     {
         clear();
+
+        if(nodes.length > 0)
+            countPositions(findRoot(nodes[0]));
+
         nodeQueue.addAll(Arrays.asList(nodes));
     }
 
@@ -23,6 +29,9 @@ public abstract class BottomUpTraversing
     public void clear()
     {
         nodeQueue.clear();
+        positions.clear();
+        levelsStarts.clear();
+        finishedSons.clear();
     }
 
     @Override
@@ -31,13 +40,85 @@ public abstract class BottomUpTraversing
         return !nodeQueue.isEmpty();
     }
 
-    private static class NodeIndexComparator
-            implements Comparator<TreeNode>
+    /**
+     * Marking node as processed. Its parent is added to traversing when both its sons are
+     * processed.
+     * @param node processed node
+     */
+    protected void finishNode(TreeNode node)
     {
-        @Override
-        public int compare(TreeNode node1, TreeNode node2)
+        TreeNode parent = node.getParent();
+
+        if(parent == null)
+            return;
+
+        if(finishedSons.merge(parent, 1, Integer::sum) == 2)
         {
-            return -Integer.compare(node1.getIndex(), node2.getIndex());
+            finishedSons.remove(parent);
+            nodeQueue.add(parent);
+        }
+    }
+
+    /**
+     * @param node tree node
+     * @return depth of the node in the tree, where root has depth {@code 0}
+     */
+    protected int getDepth(TreeNode node)
+    {
+        int level = Collections.binarySearch(levelsStarts, getPosition(node));
+
+        if(level < 0)
+            level = -level - 2;
+
+        return levelsStarts.size() - 1 - level;
+    }
+
+    /**
+     * Getting the position of node in bottom-up order, which visits levels from the deepest one
+     * and nodes in each level from left to right.
+     * @param node tree node
+     * @return position of the node
+     */
+    private int getPosition(TreeNode node)
+    {
+        return positions.getOrDefault(node, Integer.MAX_VALUE);
+    }
+
+    private TreeNode findRoot(TreeNode node)
+    {
+        while(node.getParent() != null)
+            node = node.getParent();
+
+        return node;
+    }
+
+    private void countPositions(TreeNode root)
+    {
+        List<List<TreeNode>> levels = new ArrayList<>();
+        List<TreeNode> level = Collections.singletonList(root);
+
+        while(!level.isEmpty())
+        {
+            List<TreeNode> nextLevel = new ArrayList<>();
+
+            for(TreeNode node : level)
+                if(node.getType() != NodeType.REC)
+                    for(TreeNode son : Arrays.asList(node.getLeft(), node.getRight()))
+                        if(!son.isNull())
+                            nextLevel.add(son);
+
+            levels.add(level);
+            level = nextLevel;
+        }
+
+        int position = 0;
+
+        for(int i = levels.size() - 1; i >= 0; --i)
+        {
+            levelsStarts.add(position);
+
+            for(TreeNode node : levels.get(i))
+                positions.put(node, position++);
         }
     }
 }
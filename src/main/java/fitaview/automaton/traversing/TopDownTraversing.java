@@ -3,22 +3,20 @@ package fitaview.automaton.traversing;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
-import java.util.Map;
 import java.util.Queue;
 
-import fitaview.automaton.IllegalVariableValueException;
-import fitaview.automaton.Variable;
+import fitaview.automaton.StateEncoding;
 import fitaview.tree.NodeType;
 import fitaview.tree.TreeNode;
-import fitaview.utils.Pair;
+import fitaview.utils.Triple;
 
 public abstract class TopDownTraversing
         implements TreeTraversing
 {
     protected final Deque<TreeNode> nodeDeque = new ArrayDeque<>();
-    private final Queue<Pair<TreeNode, Map<Variable, String>>> pendingRecursiveNodes =
+    private final Queue<Triple<TreeNode, StateEncoding, Long>> pendingRecursiveNodes =
             new ArrayDeque<>();
-    private final Queue<Pair<TreeNode, Map<Variable, String>>> newRecursiveNodes =
+    private final Queue<Triple<TreeNode, StateEncoding, Long>> newRecursiveNodes =
             new ArrayDeque<>();
 
     @Override
@@ -61,7 +59,8 @@ public abstract class TopDownTraversing
     public void addNewRecursive(TreeNode node)
     {
         if(node.getType() == NodeType.REC)
-            newRecursiveNodes.add(Pair.make(node, node.getStateWithNulls()));
+            newRecursiveNodes.add(
+                    Triple.make(node, node.getStateEncoding(), node.getStateCode()));
     }
 
     protected abstract void addNextNode(TreeNode node);
@@ -76,18 +75,10 @@ public abstract class TopDownTraversing
     {
         if(nodeDeque.isEmpty() && !pendingRecursiveNodes.isEmpty())
         {
-            Pair<TreeNode, Map<Variable, String>> pair = pendingRecursiveNodes.remove();
+            Triple<TreeNode, StateEncoding, Long> triple = pendingRecursiveNodes.remove();
 
-            try
-            {
-                pair.getFirst().setState(pair.getSecond());
-            }
-            catch(IllegalVariableValueException e)
-            {
-                throw new IllegalStateException("Unexpected TreeNode#setState error", e);
-            }
-
-            addNextNode(pair.getFirst());
+            triple.getFirst().setStateCode(triple.getSecond(), triple.getThird());
+            addNextNode(triple.getFirst());
         }
     }
 }
@@ -0,0 +1,155 @@
+package fitaview.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.xml.sax.SAXException;
+
+import fitaview.automaton.AutomatonReader;
+import fitaview.automaton.TreeAutomaton;
+
+public final class BatchCommand
+{
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_ERRORS = 1;
+    public static final int EXIT_USAGE = 2;
+    private static final String USAGE =
+            "Usage: fita-view [--threads N] [--format csv|json] AUTOMATON TREE_OR_DIRECTORY...";
+
+    private BatchCommand()
+    {
+    }
+
+    /**
+     * Running automaton from file on trees from files or directories without any graphical
+     * interface. Deterministic automata evaluate trees concurrently, while non-deterministic
+     * finite tree automata evaluate them one by one with exact runs. Results are written to
+     * standard output and statistics to standard error.
+     * @param args command line arguments
+     * @return exit code, {@link #EXIT_ERRORS} if any tree could not be evaluated
+     */
+    public static int execute(String[] args)
+    {
+        return execute(args, System.out, System.err);
+    }
+
+    /**
+     * Running automaton from file on trees from files or directories.
+     * @param args command line arguments
+     * @param output stream for results
+     * @param errors stream for statistics and error messages
+     * @return exit code, {@link #EXIT_ERRORS} if any tree could not be evaluated
+     */
+    public static int execute(String[] args, PrintStream output, PrintStream errors)
+    {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ResultFormat format = ResultFormat.CSV;
+        List<String> paths = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; ++i)
+                switch(args[i])
+                {
+                    case "-t":
+                    case "--threads":
+                        threads = Integer.parseInt(getOptionValue(args, ++i));
+                        break;
+
+                    case "-f":
+                    case "--format":
+                        format = ResultFormat.valueOf(getOptionValue(args, ++i).toUpperCase());
+                        break;
+
+                    default:
+                        if(args[i].startsWith("-"))
+                            throw new IllegalArgumentException(
+                                    String.format("Unknown option %s", args[i]));
+
+                        paths.add(args[i]);
+                }
+
+            if(paths.size() < 2 || threads <= 0)
+                throw new IllegalArgumentException("Missing automaton or trees");
+        }
+        catch(IllegalArgumentException e)
+        {
+            errors.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try
+        {
+            TreeAutomaton automaton = new AutomatonReader(new File(paths.get(0))).read();
+
+            if(!BatchRunner.canEvaluate(automaton))
+            {
+                errors.println(String.format("%s cannot be evaluated in batch mode",
+                                             automaton.getTypeName()));
+                return EXIT_ERRORS;
+            }
+
+            List<File> files = findTreeFiles(paths.subList(1, paths.size()));
+            BatchStatistics statistics =
+                    new BatchRunner(automaton, threads, format).run(files, output);
+
+            errors.println(statistics);
+
+            return statistics.getCount(ResultStatus.ERROR) > 0 ? EXIT_ERRORS : EXIT_SUCCESS;
+        }
+        catch(IOException | SAXException e)
+        {
+            errors.println(String.format("Cannot load input: %s", e.getMessage()));
+            return EXIT_ERRORS;
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            errors.println("Interrupted");
+            return EXIT_ERRORS;
+        }
+    }
+
+    private static String getOptionValue(String[] args, int index)
+    {
+        if(index >= args.length)
+            throw new IllegalArgumentException("Missing option value");
+
+        return args[index];
+    }
+
+    private static List<File> findTreeFiles(List<String> paths)
+            throws IOException
+    {
+        List<File> files = new ArrayList<>();
+
+        for(String path : paths)
+        {
+            File file = new File(path);
+
+            if(!file.isDirectory())
+            {
+                files.add(file);
+                continue;
+            }
+
+            try(Stream<Path> walk = Files.walk(file.toPath()))
+            {
+                files.addAll(walk.filter(Files::isRegularFile)
+                                 .filter(p -> p.toString().endsWith(".tree.xml")
+                                         || p.toString().endsWith(".tree.bin"))
+                                 .sorted()
+                                 .map(Path::toFile)
+                                 .collect(Collectors.toList()));
+            }
+        }
+
+        return files;
+    }
+}
@@ -0,0 +1,40 @@
+package fitaview.batch;
+
+import java.io.File;
+
+public class BatchResult
+{
+    private final File file;
+    private final ResultStatus status;
+    private final String message;
+    private final long time;
+
+    public BatchResult(File file, ResultStatus status, String message, long time)
+    {
+        this.file = file;
+        this.status = status;
+        this.message = message == null ? "" : message;
+        this.time = time;
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    public ResultStatus getStatus()
+    {
+        return status;
+    }
+
+    public String getMessage()
+    {
+        return message;
+    }
+
+    /** @return time of evaluation in nanoseconds */
+    public long getTime()
+    {
+        return time;
+    }
+}
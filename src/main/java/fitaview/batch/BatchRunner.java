@@ -0,0 +1,199 @@
+package fitaview.batch;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import fitaview.automaton.AbstractTreeAutomaton;
+import fitaview.automaton.AutomatonIsRunningException;
+import fitaview.automaton.BottomUpNFTA;
+import fitaview.automaton.RunContext;
+import fitaview.automaton.TopDownNFTA;
+import fitaview.automaton.TreeAutomaton;
+import fitaview.automaton.traversing.IncorrectTraversingException;
+import fitaview.automaton.traversing.TraversingMode;
+import fitaview.tree.TreeBinaryReader;
+import fitaview.tree.TreeNode;
+import fitaview.tree.TreeReader;
+
+public class BatchRunner
+{
+    private final TreeAutomaton automaton;
+    private final int threads;
+    private final ResultFormat format;
+    private final boolean isExact;
+
+    /**
+     * @param automaton tree automaton, non-deterministic ones are switched to exact evaluation
+     * @param threads number of threads
+     * @param format format of results
+     * @throws UnsupportedOperationException if the automaton cannot be evaluated in batch mode
+     * @throws IllegalStateException if a non-deterministic automaton is running
+     */
+    public BatchRunner(TreeAutomaton automaton, int threads, ResultFormat format)
+    {
+        if(threads <= 0)
+            throw new IllegalArgumentException("Number of threads must be positive");
+
+        if(!canEvaluate(automaton))
+            throw new UnsupportedOperationException(
+                    String.format("%s cannot be evaluated in batch mode",
+                                  automaton.getTypeName()));
+
+        this.automaton = automaton;
+        this.threads = threads;
+        this.format = format;
+        isExact = !((AbstractTreeAutomaton)automaton).canRunConcurrently();
+
+        if(isExact)
+            setExactRuns();
+    }
+
+    /**
+     * Checking whether the automaton can evaluate trees in batch mode. Automata whose runs can
+     * share transitions evaluate many trees concurrently. Finite tree non-deterministic automata
+     * evaluate trees one by one, using all runs bottom-up and exact runs top-down, so the result
+     * does not depend on any strategy.
+     * @param automaton tree automaton
+     * @return {@code true} if automaton can be evaluated in batch mode, otherwise {@code false}
+     */
+    public static boolean canEvaluate(TreeAutomaton automaton)
+    {
+        return automaton instanceof BottomUpNFTA || automaton instanceof TopDownNFTA
+                || automaton instanceof AbstractTreeAutomaton
+                && ((AbstractTreeAutomaton)automaton).canRunConcurrently();
+    }
+
+    /**
+     * Evaluating trees from files concurrently. Each result is written as soon as it is ready,
+     * so results may be written in different order than files.
+     * @param files files with trees
+     * @param output stream for results
+     * @return statistics of the whole batch
+     * @throws InterruptedException if interrupted while waiting for results
+     */
+    public BatchStatistics run(List<File> files, PrintStream output)
+            throws InterruptedException
+    {
+        BatchStatistics statistics = new BatchStatistics();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<BatchResult> results = new ExecutorCompletionService<>(executor);
+        long startTime = System.nanoTime();
+
+        if(format.getHeader() != null)
+            output.println(format.getHeader());
+
+        try
+        {
+            for(File file : files)
+                results.submit(() -> evaluate(file));
+
+            for(int i = 0; i < files.size(); ++i)
+            {
+                BatchResult result = results.take().get();
+
+                statistics.add(result);
+                output.println(format.format(result));
+            }
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Evaluation failed unexpectedly", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        output.flush();
+        statistics.setElapsedTime(System.nanoTime() - startTime);
+
+        return statistics;
+    }
+
+    /**
+     * Evaluating tree from single file. Any exception is reported as an error result.
+     * @param file file with tree
+     * @return result of evaluation
+     */
+    public BatchResult evaluate(File file)
+    {
+        long startTime = System.nanoTime();
+
+        try
+        {
+            TreeNode tree = file.getName().endsWith(".tree.bin")
+                    ? new TreeBinaryReader(file).read().getFirst()
+                    : new TreeReader(file).read().getFirst();
+            boolean isAccepted = isExact ? runExact(tree) : runSeparately(tree);
+
+            return new BatchResult(file, isAccepted ? ResultStatus.ACCEPTED
+                                                    : ResultStatus.REJECTED, null,
+                                   System.nanoTime() - startTime);
+        }
+        catch(Exception e)
+        {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName()
+                                                    : String.format("%s: %s",
+                                                                    e.getClass().getSimpleName(),
+                                                                    e.getMessage());
+
+            return new BatchResult(file, ResultStatus.ERROR, message,
+                                   System.nanoTime() - startTime);
+        }
+    }
+
+    private boolean runSeparately(TreeNode tree)
+            throws Exception
+    {
+        RunContext context = automaton.createRunContext(tree);
+
+        context.run();
+
+        return context.isAccepted();
+    }
+
+    private boolean runExact(TreeNode tree)
+            throws Exception
+    {
+        synchronized(automaton)
+        {
+            try
+            {
+                automaton.setTree(tree);
+                automaton.run();
+
+                return Boolean.TRUE.equals(automaton.isAccepted());
+            }
+            finally
+            {
+                automaton.setTree(null);
+            }
+        }
+    }
+
+    private void setExactRuns()
+    {
+        try
+        {
+            if(automaton instanceof BottomUpNFTA)
+                ((BottomUpNFTA)automaton).setAllRuns(true);
+            else
+                ((TopDownNFTA)automaton).setExactRuns(true);
+
+            if(automaton.getTraversing() == null)
+                automaton.setTraversing(TraversingMode.LEVEL);
+        }
+        catch(AutomatonIsRunningException | IncorrectTraversingException e)
+        {
+            throw new IllegalStateException(
+                    String.format("%s cannot be prepared for batch mode", automaton.getTypeName()),
+                    e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package fitaview.batch;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class BatchStatistics
+{
+    private static final double NANOS_IN_SECOND = 1e9;
+    private final Map<ResultStatus, Integer> counts = new EnumMap<>(ResultStatus.class);
+    private long elapsedTime = 0L;
+
+    public BatchStatistics()
+    {
+        for(ResultStatus status : ResultStatus.values())
+            counts.put(status, 0);
+    }
+
+    /**
+     * @param status status of results
+     * @return number of results with specified status
+     */
+    public int getCount(ResultStatus status)
+    {
+        return counts.get(status);
+    }
+
+    /** @return number of all results */
+    public int getTotal()
+    {
+        return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /** @return time of the whole batch in nanoseconds */
+    public long getElapsedTime()
+    {
+        return elapsedTime;
+    }
+
+    /** @return number of trees evaluated per second */
+    public double getThroughput()
+    {
+        return elapsedTime == 0L ? 0.0 : getTotal() * NANOS_IN_SECOND / elapsedTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format(
+                "Trees: %d, accepted: %d, rejected: %d, errors: %d, time: %.3f s, "
+                        + "throughput: %.1f trees/s", getTotal(),
+                getCount(ResultStatus.ACCEPTED), getCount(ResultStatus.REJECTED),
+                getCount(ResultStatus.ERROR), elapsedTime / NANOS_IN_SECOND, getThroughput());
+    }
+
+    void add(BatchResult result)
+    {
+        counts.merge(result.getStatus(), 1, Integer::sum);
+    }
+
+    void setElapsedTime(long elapsedTime)
+    {
+        this.elapsedTime = elapsedTime;
+    }
+}
@@ -0,0 +1,88 @@
+package fitaview.batch;
+
+import java.util.Locale;
+
+public enum ResultFormat
+{
+    CSV, JSON;
+
+    private static final double NANOS_IN_MILLI = 1e6;
+
+    /** @return header line of results, or {@code null} if format has no header */
+    public String getHeader()
+    {
+        return this == CSV ? "file,result,time_ms,message" : null;
+    }
+
+    /**
+     * Formatting single result as one line.
+     * @param result result of evaluation
+     * @return formatted line
+     */
+    public String format(BatchResult result)
+    {
+        String time = String.format(Locale.ROOT, "%.3f", result.getTime() / NANOS_IN_MILLI);
+
+        switch(this)
+        {
+            case CSV:
+                return String.join(",", escapeCSV(result.getFile().getPath()),
+                                   result.getStatus().toString().toLowerCase(), time,
+                                   escapeCSV(result.getMessage()));
+
+            case JSON:
+                return String.format(
+                        "{\"file\": %s, \"result\": \"%s\", \"time_ms\": %s, \"message\": %s}",
+                        escapeJSON(result.getFile().getPath()),
+                        result.getStatus().toString().toLowerCase(), time,
+                        escapeJSON(result.getMessage()));
+        }
+
+        throw new IllegalStateException("Unknown format");
+    }
+
+    private static String escapeCSV(String value)
+    {
+        if(value.chars().noneMatch(c -> ",\"\n\r".indexOf(c) >= 0))
+            return value;
+
+        return String.format("\"%s\"", value.replace("\"", "\"\""));
+    }
+
+    private static String escapeJSON(String value)
+    {
+        StringBuilder builder = new StringBuilder("\"");
+
+        for(char c : value.toCharArray())
+            switch(c)
+            {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+
+                case '\n':
+                    builder.append("\\n");
+                    break;
+
+                case '\r':
+                    builder.append("\\r");
+                    break;
+
+                case '\t':
+                    builder.append("\\t");
+                    break;
+
+                default:
+                    if(c < ' ')
+                        builder.append(String.format("\\u%04x", (int)c));
+                    else
+                        builder.append(c);
+            }
+
+        return builder.append("\"").toString();
+    }
+}
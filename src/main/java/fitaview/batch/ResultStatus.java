@@ -0,0 +1,6 @@
+package fitaview.batch;
+
+public enum ResultStatus
+{
+    ACCEPTED, REJECTED, ERROR
+}
@@ -0,0 +1,108 @@
+package fitaview.tree;
+
+import java.util.Objects;
+
+import fitaview.automaton.StateEncoding;
+
+class ArrayNullNode
+        extends TreeNode
+{
+    private final ArrayTree tree;
+    private final int parentId;
+    private final boolean isLeft;
+
+    ArrayNullNode(ArrayTree tree, int parentId, boolean isLeft)
+    {
+        super(-1);
+        this.tree = tree;
+        this.parentId = parentId;
+        this.isLeft = isLeft;
+    }
+
+    @Override
+    public NodeType getType()
+    {
+        return NodeType.NULL;
+    }
+
+    @Override
+    public TreeNode getLeft()
+    {
+        return null;
+    }
+
+    @Override
+    public TreeNode getRight()
+    {
+        return null;
+    }
+
+    @Override
+    public TreeNode getParent()
+    {
+        return new ArrayTreeNode(tree, parentId);
+    }
+
+    @Override
+    protected void setParent(TreeNode parent)
+    {
+        if(!getParent().equals(parent))
+            throw new IllegalStateException("Null node is a son of another node in array tree");
+    }
+
+    @Override
+    public boolean isView()
+    {
+        return true;
+    }
+
+    @Override
+    public String getLabel()
+    {
+        return "";
+    }
+
+    @Override
+    public StateEncoding getStateEncoding()
+    {
+        return tree.getStateEncoding();
+    }
+
+    @Override
+    public long getStateCode()
+    {
+        return tree.getNullStateCode(parentId, isLeft);
+    }
+
+    @Override
+    public void setStateCode(StateEncoding encoding, long code)
+    {
+        tree.setNullStateCode(parentId, isLeft, encoding, code);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "#";
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+
+        if(!(o instanceof ArrayNullNode))
+            return false;
+
+        ArrayNullNode other = (ArrayNullNode)o;
+
+        return tree == other.tree && parentId == other.parentId && isLeft == other.isLeft;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(index, parentId, isLeft);
+    }
+}
@@ -0,0 +1,307 @@
+package fitaview.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fitaview.automaton.StateEncoding;
+
+public class ArrayTree
+{
+    public static final int NO_NODE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private final List<String> labelNames = new ArrayList<>();
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private final Map<Integer, TreeNode> externalParents = new HashMap<>();
+    private int size = 0;
+    private int[] lefts = new int[INITIAL_CAPACITY];
+    private int[] rights = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] labels = new int[INITIAL_CAPACITY];
+    private int[] indices = new int[INITIAL_CAPACITY];
+    private long[] states = new long[INITIAL_CAPACITY];
+    private volatile long[] nullStates = null;
+    private volatile StateEncoding stateEncoding = null;
+
+    /** @return number of nodes in the tree */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @return number of distinct labels in the tree */
+    public int getLabelsCount()
+    {
+        return labelNames.size();
+    }
+
+    /**
+     * Adding a new node without children. The first added node is the root of the tree.
+     * @param label label of the node
+     * @param index index of the node
+     * @return identifier of the node
+     */
+    public int addNode(String label, int index)
+    {
+        if(label == null || label.isEmpty())
+            throw new IllegalArgumentException("Label is null");
+
+        if(size == lefts.length)
+            resize(2 * lefts.length);
+
+        int id = size++;
+
+        lefts[id] = NO_NODE;
+        rights[id] = NO_NODE;
+        parents[id] = NO_NODE;
+        labels[id] = labelIds.computeIfAbsent(label, l -> {
+            labelNames.add(l);
+            return labelNames.size() - 1;
+        });
+        indices[id] = index;
+        states[id] = StateEncoding.EMPTY_STATE;
+
+        return id;
+    }
+
+    /**
+     * @param id identifier of the node
+     * @param child identifier of the new left son
+     * @throws NodeHasParentException if the son has already got a parent
+     */
+    public void setLeft(int id, int child)
+            throws NodeHasParentException
+    {
+        assignParent(id, child, lefts[id]);
+        lefts[id] = child;
+    }
+
+    /**
+     * @param id identifier of the node
+     * @param child identifier of the new right son
+     * @throws NodeHasParentException if the son has already got a parent
+     */
+    public void setRight(int id, int child)
+            throws NodeHasParentException
+    {
+        assignParent(id, child, rights[id]);
+        rights[id] = child;
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return identifier of left son, or {@link #NO_NODE} if it is null
+     */
+    public int getLeft(int id)
+    {
+        return lefts[id];
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return identifier of right son, or {@link #NO_NODE} if it is null
+     */
+    public int getRight(int id)
+    {
+        return rights[id];
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return identifier of parent, or {@link #NO_NODE} if node is the root
+     */
+    public int getParent(int id)
+    {
+        return parents[id];
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return label of the node
+     */
+    public String getLabel(int id)
+    {
+        return labelNames.get(labels[id]);
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return identifier of label of the node
+     */
+    public int getLabelId(int id)
+    {
+        return labels[id];
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return index of the node
+     */
+    public int getIndex(int id)
+    {
+        return indices[id];
+    }
+
+    /** @return view of the root, or {@code null} if tree is empty */
+    public TreeNode getRoot()
+    {
+        return size == 0 ? null : getNode(0);
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return view of the node, which can be used by automata as any other tree node
+     */
+    public TreeNode getNode(int id)
+    {
+        return new ArrayTreeNode(this, id);
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return node outside of the tree, which the node is assigned to as a son, or {@code null}
+     */
+    TreeNode getExternalParent(int id)
+    {
+        return externalParents.get(id);
+    }
+
+    /**
+     * Assigning a node without parent in the tree as a son of a node outside of the tree.
+     * @param id identifier of the node
+     * @param parent node outside of the tree, or {@code null} to detach the node
+     */
+    void setExternalParent(int id, TreeNode parent)
+    {
+        if(parent == null)
+            externalParents.remove(id);
+        else
+            externalParents.put(id, parent);
+    }
+
+    /** @return encoding of states stored in the tree, or {@code null} if no state was set */
+    public StateEncoding getStateEncoding()
+    {
+        return stateEncoding;
+    }
+
+    /**
+     * @param id identifier of the node
+     * @return state code of the node
+     */
+    public long getStateCode(int id)
+    {
+        return states[id];
+    }
+
+    /**
+     * Setting state of the node. If encoding differs from encoding of the tree, states of all
+     * nodes are converted to the new encoding. States of distinct nodes can be set concurrently.
+     * @param id identifier of the node
+     * @param encoding encoding of the state
+     * @param code state code
+     */
+    public void setStateCode(int id, StateEncoding encoding, long code)
+    {
+        changeEncoding(encoding);
+        states[id] = code;
+    }
+
+    /**
+     * @param id identifier of the parent
+     * @param isLeft {@code true} for the left null son, {@code false} for the right one
+     * @return state code of the null son
+     */
+    public long getNullStateCode(int id, boolean isLeft)
+    {
+        return nullStates == null ? StateEncoding.EMPTY_STATE
+                                  : nullStates[nullPosition(id, isLeft)];
+    }
+
+    /**
+     * Setting state of the null son.
+     * @param id identifier of the parent
+     * @param isLeft {@code true} for the left null son, {@code false} for the right one
+     * @param encoding encoding of the state
+     * @param code state code
+     */
+    public void setNullStateCode(int id, boolean isLeft, StateEncoding encoding, long code)
+    {
+        changeEncoding(encoding);
+
+        if(nullStates == null)
+            allocateNullStates();
+
+        nullStates[nullPosition(id, isLeft)] = code;
+    }
+
+    /** Reducing capacity of the arrays to the number of nodes in the tree. */
+    public void trimToSize()
+    {
+        if(size > 0 && size < lefts.length)
+            resize(size);
+    }
+
+    private void assignParent(int id, int child, int previous)
+            throws NodeHasParentException
+    {
+        if(child != NO_NODE && (parents[child] != NO_NODE || externalParents.containsKey(child)))
+            throw new NodeHasParentException(
+                    "Node has already got a parent, so it cannot be assigned as a child");
+
+        if(previous != NO_NODE)
+            parents[previous] = NO_NODE;
+
+        if(child != NO_NODE)
+            parents[child] = id;
+    }
+
+    private void changeEncoding(StateEncoding encoding)
+    {
+        if(encoding == null || encoding == stateEncoding)
+            return;
+
+        recodeStates(encoding);
+    }
+
+    private synchronized void recodeStates(StateEncoding encoding)
+    {
+        if(encoding == stateEncoding)
+            return;
+
+        for(int i = 0; i < size; ++i)
+            states[i] = encoding.recode(stateEncoding, states[i]);
+
+        if(nullStates != null)
+            for(int i = 0; i < 2 * size; ++i)
+                nullStates[i] = encoding.recode(stateEncoding, nullStates[i]);
+
+        stateEncoding = encoding;
+    }
+
+    private synchronized void allocateNullStates()
+    {
+        if(nullStates == null)
+            nullStates = new long[2 * lefts.length];
+    }
+
+    private int nullPosition(int id, boolean isLeft)
+    {
+        return isLeft ? 2 * id : 2 * id + 1;
+    }
+
+    private void resize(int capacity)
+    {
+        lefts = Arrays.copyOf(lefts, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        indices = Arrays.copyOf(indices, capacity);
+        states = Arrays.copyOf(states, capacity);
+
+        if(nullStates != null)
+            nullStates = Arrays.copyOf(nullStates, 2 * capacity);
+    }
+}
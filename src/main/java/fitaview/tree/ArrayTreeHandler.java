@@ -0,0 +1,108 @@
+package fitaview.tree;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import fitaview.utils.XMLHandler;
+
+class ArrayTreeHandler
+        extends XMLHandler<ArrayTree>
+{
+    private final ArrayTree tree = new ArrayTree();
+    private final Deque<Integer> nodes = new ArrayDeque<>();
+    private int maxDepth = 0;
+
+    public int getMaxDepth()
+    {
+        return maxDepth;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+            throws SAXException
+    {
+        maxDepth = Math.max(maxDepth, nodes.size() + 1);
+
+        switch(qName)
+        {
+            case "node":
+                String label = attributes.getValue("label");
+
+                if(label == null)
+                    throw new TreeParsingException(
+                            String.format("%s: Label is null", writePosition()));
+
+                nodes.push(addNode(label));
+                break;
+
+            case "rec":
+            case "repeat":
+                throw new TreeParsingException(
+                        String.format("%s: Array tree cannot contain recursive nodes",
+                                      writePosition()));
+
+            default:
+                throw new TreeParsingException(
+                        String.format("%s: Unexpected tag: '%s'", writePosition(), qName));
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName)
+            throws SAXException
+    {
+        if(!"node".equals(qName))
+            throw new TreeParsingException(
+                    String.format("%s: Unexpected tag: '%s'", writePosition(), qName));
+
+        int id = nodes.pop();
+
+        if(tree.getLeft(id) != ArrayTree.NO_NODE && tree.getRight(id) == ArrayTree.NO_NODE)
+            throw new OneChildException(
+                    String.format("%s: Node must have zero or two children, but it has one",
+                                  writePosition()));
+    }
+
+    @Override
+    public void endDocument()
+    {
+        tree.trimToSize();
+        result = tree.size() == 0 ? null : tree;
+    }
+
+    @Override
+    public void error(SAXParseException e)
+            throws SAXException
+    {
+        throw new TreeParsingException(e.getMessage(), e);
+    }
+
+    private int addNode(String label)
+            throws SAXException
+    {
+        int id = tree.addNode(label, tree.size() + 1);
+
+        if(nodes.isEmpty())
+            return id;
+
+        int parent = nodes.peek();
+        boolean isLeft = tree.getLeft(parent) == ArrayTree.NO_NODE;
+
+        try
+        {
+            if(isLeft)
+                tree.setLeft(parent, id);
+            else
+                tree.setRight(parent, id);
+        }
+        catch(NodeHasParentException e)
+        {
+            throw new TreeParsingException("Child node has parent", e);
+        }
+
+        return id;
+    }
+}
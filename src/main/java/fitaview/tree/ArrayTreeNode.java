@@ -0,0 +1,123 @@
+package fitaview.tree;
+
+import java.util.Objects;
+
+import fitaview.automaton.StateEncoding;
+
+class ArrayTreeNode
+        extends TreeNode
+{
+    private final ArrayTree tree;
+    private final int id;
+
+    ArrayTreeNode(ArrayTree tree, int id)
+    {
+        super(tree.getIndex(id));
+        this.tree = tree;
+        this.id = id;
+    }
+
+    @Override
+    public NodeType getType()
+    {
+        return NodeType.NODE;
+    }
+
+    @Override
+    public TreeNode getLeft()
+    {
+        int left = tree.getLeft(id);
+
+        return left == ArrayTree.NO_NODE ? new ArrayNullNode(tree, id, true)
+                                         : new ArrayTreeNode(tree, left);
+    }
+
+    @Override
+    public TreeNode getRight()
+    {
+        int right = tree.getRight(id);
+
+        return right == ArrayTree.NO_NODE ? new ArrayNullNode(tree, id, false)
+                                          : new ArrayTreeNode(tree, right);
+    }
+
+    @Override
+    public TreeNode getParent()
+    {
+        int parent = tree.getParent(id);
+
+        return parent == ArrayTree.NO_NODE ? tree.getExternalParent(id)
+                                           : new ArrayTreeNode(tree, parent);
+    }
+
+    @Override
+    protected void setParent(TreeNode parent)
+    {
+        if(tree.getParent(id) == ArrayTree.NO_NODE)
+            tree.setExternalParent(id, parent);
+        else if(!getParent().equals(parent))
+            throw new IllegalStateException("Node is already a son of another node in array tree");
+    }
+
+    @Override
+    public boolean isView()
+    {
+        return true;
+    }
+
+    @Override
+    public String getLabel()
+    {
+        return tree.getLabel(id);
+    }
+
+    @Override
+    public StateEncoding getStateEncoding()
+    {
+        return tree.getStateEncoding();
+    }
+
+    @Override
+    public long getStateCode()
+    {
+        return tree.getStateCode(id);
+    }
+
+    @Override
+    public void setStateCode(StateEncoding encoding, long code)
+    {
+        tree.setStateCode(id, encoding, code);
+    }
+
+    @Override
+    public String toString()
+    {
+        return treeToString(this);
+    }
+
+    @Override
+    protected String[] getStringParts()
+    {
+        return new String[]{String.format("<$ '%s', ", getLabel()), ", ", " $>"};
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+
+        if(!(o instanceof ArrayTreeNode))
+            return false;
+
+        ArrayTreeNode other = (ArrayTreeNode)o;
+
+        return tree == other.tree && id == other.id;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(index, id);
+    }
+}
@@ -0,0 +1,107 @@
+package fitaview.tree;
+
+import java.util.Objects;
+
+import fitaview.automaton.StateEncoding;
+
+class DagNullNode
+        extends TreeNode
+{
+    private final DagTreeNode parent;
+    private final boolean isLeft;
+
+    DagNullNode(DagTreeNode parent, boolean isLeft)
+    {
+        super(-1);
+        this.parent = parent;
+        this.isLeft = isLeft;
+    }
+
+    @Override
+    public NodeType getType()
+    {
+        return NodeType.NULL;
+    }
+
+    @Override
+    public TreeNode getLeft()
+    {
+        return null;
+    }
+
+    @Override
+    public TreeNode getRight()
+    {
+        return null;
+    }
+
+    @Override
+    public TreeNode getParent()
+    {
+        return parent;
+    }
+
+    @Override
+    protected void setParent(TreeNode parent)
+    {
+        if(!this.parent.equals(parent))
+            throw new IllegalStateException("Null node is a son of another node in DAG tree");
+    }
+
+    @Override
+    public boolean isView()
+    {
+        return true;
+    }
+
+    @Override
+    public String getLabel()
+    {
+        return "";
+    }
+
+    @Override
+    public StateEncoding getStateEncoding()
+    {
+        return parent.getTree().getStateEncoding();
+    }
+
+    @Override
+    public long getStateCode()
+    {
+        return parent.getTree().getNullStateCode(parent.getId(), parent.getIndex(), isLeft);
+    }
+
+    @Override
+    public void setStateCode(StateEncoding encoding, long code)
+    {
+        parent.getTree()
+              .setNullStateCode(parent.getId(), parent.getIndex(), isLeft, encoding, code);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "#";
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+
+        if(!(o instanceof DagNullNode))
+            return false;
+
+        DagNullNode other = (DagNullNode)o;
+
+        return parent.equals(other.parent) && isLeft == other.isLeft;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(index, parent.getIndex(), isLeft);
+    }
+}
@@ -0,0 +1,356 @@
+package fitaview.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import fitaview.automaton.StateEncoding;
+import fitaview.utils.Triple;
+
+public class DagTree
+{
+    public static final int NO_NODE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int LOCKS_COUNT = 64;
+    private final List<String> labelNames = new ArrayList<>();
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private final Map<Triple<Integer, Integer, Integer>, Integer> internTable = new HashMap<>();
+    private final Map<Long, Long> overriddenStates = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCKS_COUNT];
+    private int size = 0;
+    private int root = NO_NODE;
+    private TreeNode rootParent = null;
+    private int[] lefts = new int[INITIAL_CAPACITY];
+    private int[] rights = new int[INITIAL_CAPACITY];
+    private int[] labels = new int[INITIAL_CAPACITY];
+    private long[] sizes = new long[INITIAL_CAPACITY];
+    private long[] sharedStates = new long[3 * INITIAL_CAPACITY];
+    private int[] sharedCounts = new int[3 * INITIAL_CAPACITY];
+    private volatile AtomicLongArray occurrences = null;
+    private volatile StateEncoding stateEncoding = null;
+
+    public DagTree()
+    {
+        for(int i = 0; i < LOCKS_COUNT; ++i)
+            locks[i] = new Object();
+    }
+
+    /** @return number of distinct subtrees stored in the tree */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @return number of nodes in the tree with all shared subtrees expanded */
+    public long getTreeSize()
+    {
+        return root == NO_NODE ? 0L : sizes[root];
+    }
+
+    /** @return number of distinct labels in the tree */
+    public int getLabelsCount()
+    {
+        return labelNames.size();
+    }
+
+    /**
+     * Finding the canonical subtree with specified label and sons, or adding it if there is no
+     * such subtree yet. Sons are canonical themselves, so structurally equal subtrees are always
+     * stored once.
+     * @param label label of the root of subtree
+     * @param left identifier of left son, or {@link #NO_NODE} if it is null
+     * @param right identifier of right son, or {@link #NO_NODE} if it is null
+     * @return identifier of the canonical subtree
+     */
+    public int intern(String label, int left, int right)
+    {
+        if(label == null || label.isEmpty())
+            throw new IllegalArgumentException("Label is null");
+
+        if(left == NO_NODE ^ right == NO_NODE)
+            throw new IllegalArgumentException("Node must have zero or two children");
+
+        int labelId = labelIds.computeIfAbsent(label, l -> {
+            labelNames.add(l);
+            return labelNames.size() - 1;
+        });
+
+        return internTable.computeIfAbsent(Triple.make(labelId, left, right), key -> {
+            if(size == lefts.length)
+                resize(2 * lefts.length);
+
+            int id = size++;
+
+            lefts[id] = left;
+            rights[id] = right;
+            labels[id] = labelId;
+            sizes[id] = left == NO_NODE ? 1L : 1L + sizes[left] + sizes[right];
+
+            return id;
+        });
+    }
+
+    /**
+     * Setting root of the tree, whose nodes are indexed in preorder starting from one.
+     * @param id identifier of the canonical subtree
+     */
+    public void setRoot(int id)
+    {
+        if(id != NO_NODE && sizes[id] > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Tree has too many nodes to be indexed");
+
+        root = id;
+        occurrences = null;
+        overriddenStates.clear();
+        Arrays.fill(sharedCounts, 0);
+    }
+
+    /**
+     * @param id identifier of the canonical subtree
+     * @return identifier of left son, or {@link #NO_NODE} if it is null
+     */
+    public int getLeft(int id)
+    {
+        return lefts[id];
+    }
+
+    /**
+     * @param id identifier of the canonical subtree
+     * @return identifier of right son, or {@link #NO_NODE} if it is null
+     */
+    public int getRight(int id)
+    {
+        return rights[id];
+    }
+
+    /**
+     * @param id identifier of the canonical subtree
+     * @return label of the root of subtree
+     */
+    public String getLabel(int id)
+    {
+        return labelNames.get(labels[id]);
+    }
+
+    /**
+     * @param id identifier of the canonical subtree
+     * @return number of nodes in the subtree
+     */
+    public long getSize(int id)
+    {
+        return sizes[id];
+    }
+
+    /**
+     * Getting view of the root. Views are created on every visit and are not kept by the tree,
+     * so equal views represent the same occurrence of a subtree.
+     * @return view of the root, or {@code null} if tree is empty
+     */
+    public TreeNode getRoot()
+    {
+        return root == NO_NODE ? null : new DagTreeNode(this, root, 1, null);
+    }
+
+    /** @return encoding of states stored in the tree, or {@code null} if no state was set */
+    public StateEncoding getStateEncoding()
+    {
+        return stateEncoding;
+    }
+
+    /**
+     * Getting state of the node. A state is stored once for a canonical subtree and shared by
+     * all its occurrences that got the same state, so deterministic bottom-up runs store one
+     * state per distinct subtree. Occurrences with other states store them separately.
+     * @param id identifier of the canonical subtree
+     * @param index index of the node
+     * @return state code of the node
+     */
+    public long getStateCode(int id, int index)
+    {
+        return getState(id, index, 0);
+    }
+
+    /**
+     * Setting state of the node. If encoding differs from encoding of the tree, states of all
+     * nodes are converted to the new encoding. States of distinct nodes can be set concurrently.
+     * @param id identifier of the canonical subtree
+     * @param index index of the node
+     * @param encoding encoding of the state
+     * @param code state code
+     */
+    public void setStateCode(int id, int index, StateEncoding encoding, long code)
+    {
+        changeEncoding(encoding);
+        setState(id, index, 0, code);
+    }
+
+    /**
+     * @param id identifier of the canonical subtree of the parent
+     * @param index index of the parent
+     * @param isLeft {@code true} for the left null son, {@code false} for the right one
+     * @return state code of the null son
+     */
+    public long getNullStateCode(int id, int index, boolean isLeft)
+    {
+        return getState(id, index, isLeft ? 1 : 2);
+    }
+
+    /**
+     * Setting state of the null son.
+     * @param id identifier of the canonical subtree of the parent
+     * @param index index of the parent
+     * @param isLeft {@code true} for the left null son, {@code false} for the right one
+     * @param encoding encoding of the state
+     * @param code state code
+     */
+    public void setNullStateCode(int id, int index, boolean isLeft, StateEncoding encoding,
+                                 long code)
+    {
+        changeEncoding(encoding);
+        setState(id, index, isLeft ? 1 : 2, code);
+    }
+
+    /** Reducing capacity of the arrays to the number of distinct subtrees. */
+    public void trimToSize()
+    {
+        if(size > 0 && size < lefts.length)
+            resize(size);
+    }
+
+    /**
+     * @return node outside of the tree, which the root is assigned to as a son, or {@code null}
+     */
+    TreeNode getRootParent()
+    {
+        return rootParent;
+    }
+
+    /** @param parent node outside of the tree, or {@code null} to detach the root */
+    void setRootParent(TreeNode parent)
+    {
+        rootParent = parent;
+    }
+
+    private long getState(int id, int index, int offset)
+    {
+        long position = occurrencePosition(index, offset);
+        int shared = sharedPosition(id, offset);
+
+        synchronized(locks[id % LOCKS_COUNT])
+        {
+            if(!isOccupied(position))
+                return StateEncoding.EMPTY_STATE;
+
+            Long code = overriddenStates.get(position);
+
+            return code == null ? sharedStates[shared] : code;
+        }
+    }
+
+    private void setState(int id, int index, int offset, long code)
+    {
+        long position = occurrencePosition(index, offset);
+        int shared = sharedPosition(id, offset);
+
+        synchronized(locks[id % LOCKS_COUNT])
+        {
+            if(isOccupied(position) && overriddenStates.remove(position) == null)
+                --sharedCounts[shared];
+
+            setOccupied(position, code != StateEncoding.EMPTY_STATE);
+
+            if(code == StateEncoding.EMPTY_STATE)
+                return;
+
+            if(sharedCounts[shared] == 0 || sharedStates[shared] == code)
+            {
+                sharedStates[shared] = code;
+                ++sharedCounts[shared];
+            }
+            else
+                overriddenStates.put(position, code);
+        }
+    }
+
+    private boolean isOccupied(long position)
+    {
+        AtomicLongArray bits = occurrences;
+
+        return bits != null
+                && (bits.get((int)(position / Long.SIZE)) & 1L << position % Long.SIZE) != 0;
+    }
+
+    private void setOccupied(long position, boolean isOccupied)
+    {
+        if(occurrences == null)
+        {
+            if(!isOccupied)
+                return;
+
+            allocateOccurrences();
+        }
+
+        int word = (int)(position / Long.SIZE);
+        long mask = 1L << position % Long.SIZE;
+        long bits;
+
+        do
+            bits = occurrences.get(word);
+        while(!occurrences.compareAndSet(word, bits, isOccupied ? bits | mask : bits & ~mask));
+    }
+
+    private synchronized void allocateOccurrences()
+    {
+        if(occurrences == null)
+            occurrences = new AtomicLongArray(
+                    (int)((occurrencePosition((int)getTreeSize() + 1, 0) + Long.SIZE - 1)
+                            / Long.SIZE));
+    }
+
+    private long occurrencePosition(int index, int offset)
+    {
+        return 3L * index + offset;
+    }
+
+    private int sharedPosition(int id, int offset)
+    {
+        return 3 * id + offset;
+    }
+
+    private void changeEncoding(StateEncoding encoding)
+    {
+        if(encoding == null || encoding == stateEncoding)
+            return;
+
+        recodeStates(encoding);
+    }
+
+    private synchronized void recodeStates(StateEncoding encoding)
+    {
+        if(encoding == stateEncoding)
+            return;
+
+        StateEncoding previous = stateEncoding;
+
+        for(int i = 0; i < 3 * size; ++i)
+            if(sharedCounts[i] > 0)
+                sharedStates[i] = encoding.recode(previous, sharedStates[i]);
+
+        overriddenStates.replaceAll((position, code) -> encoding.recode(previous, code));
+        stateEncoding = encoding;
+    }
+
+    private void resize(int capacity)
+    {
+        lefts = Arrays.copyOf(lefts, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        sharedStates = Arrays.copyOf(sharedStates, 3 * capacity);
+        sharedCounts = Arrays.copyOf(sharedCounts, 3 * capacity);
+    }
+}
@@ -0,0 +1,118 @@
+package fitaview.tree;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import fitaview.utils.XMLHandler;
+
+class DagTreeHandler
+        extends XMLHandler<DagTree>
+{
+    private final DagTree tree = new DagTree();
+    private final Deque<OpenNode> nodes = new ArrayDeque<>();
+    private int maxDepth = 0;
+
+    public int getMaxDepth()
+    {
+        return maxDepth;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+            throws SAXException
+    {
+        maxDepth = Math.max(maxDepth, nodes.size() + 1);
+
+        switch(qName)
+        {
+            case "node":
+                String label = attributes.getValue("label");
+
+                if(label == null)
+                    throw new TreeParsingException(
+                            String.format("%s: Label is null", writePosition()));
+
+                nodes.push(new OpenNode(label));
+                break;
+
+            case "rec":
+            case "repeat":
+                throw new TreeParsingException(
+                        String.format("%s: DAG tree cannot contain recursive nodes",
+                                      writePosition()));
+
+            default:
+                throw new TreeParsingException(
+                        String.format("%s: Unexpected tag: '%s'", writePosition(), qName));
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName)
+            throws SAXException
+    {
+        if(!"node".equals(qName))
+            throw new TreeParsingException(
+                    String.format("%s: Unexpected tag: '%s'", writePosition(), qName));
+
+        OpenNode node = nodes.pop();
+
+        if(node.left != DagTree.NO_NODE && node.right == DagTree.NO_NODE)
+            throw new OneChildException(
+                    String.format("%s: Node must have zero or two children, but it has one",
+                                  writePosition()));
+
+        int id = tree.intern(node.label, node.left, node.right);
+
+        if(nodes.isEmpty())
+        {
+            try
+            {
+                tree.setRoot(id);
+            }
+            catch(IllegalArgumentException e)
+            {
+                throw new TreeParsingException(
+                        String.format("%s: %s", writePosition(), e.getMessage()), e);
+            }
+
+            return;
+        }
+
+        OpenNode parent = nodes.peek();
+
+        if(parent.left == DagTree.NO_NODE)
+            parent.left = id;
+        else
+            parent.right = id;
+    }
+
+    @Override
+    public void endDocument()
+    {
+        tree.trimToSize();
+        result = tree.size() == 0 ? null : tree;
+    }
+
+    @Override
+    public void error(SAXParseException e)
+            throws SAXException
+    {
+        throw new TreeParsingException(e.getMessage(), e);
+    }
+
+    private static final class OpenNode
+    {
+        private final String label;
+        private int left = DagTree.NO_NODE;
+        private int right = DagTree.NO_NODE;
+
+        OpenNode(String label)
+        {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package fitaview.tree;
+
+import java.util.Objects;
+
+import fitaview.automaton.StateEncoding;
+
+class DagTreeNode
+        extends TreeNode
+{
+    private final DagTree tree;
+    private final int id;
+    private final DagTreeNode parent;
+
+    DagTreeNode(DagTree tree, int id, int index, DagTreeNode parent)
+    {
+        super(index);
+        this.tree = tree;
+        this.id = id;
+        this.parent = parent;
+    }
+
+    @Override
+    public NodeType getType()
+    {
+        return NodeType.NODE;
+    }
+
+    @Override
+    public TreeNode getLeft()
+    {
+        int leftId = tree.getLeft(id);
+
+        return leftId == DagTree.NO_NODE ? new DagNullNode(this, true)
+                                         : new DagTreeNode(tree, leftId, index + 1, this);
+    }
+
+    /**
+     * Getting view of right son, whose index follows all nodes of the left subtree.
+     * @return right son of the node
+     */
+    @Override
+    public TreeNode getRight()
+    {
+        int leftId = tree.getLeft(id);
+        int rightId = tree.getRight(id);
+
+        return rightId == DagTree.NO_NODE
+                ? new DagNullNode(this, false)
+                : new DagTreeNode(tree, rightId, (int)(index + 1 + tree.getSize(leftId)), this);
+    }
+
+    @Override
+    public TreeNode getParent()
+    {
+        return parent == null ? tree.getRootParent() : parent;
+    }
+
+    @Override
+    protected void setParent(TreeNode parent)
+    {
+        if(this.parent == null)
+            tree.setRootParent(parent);
+        else if(!this.parent.equals(parent))
+            throw new IllegalStateException("Node is already a son of another node in DAG tree");
+    }
+
+    @Override
+    public boolean isView()
+    {
+        return true;
+    }
+
+    @Override
+    public String getLabel()
+    {
+        return tree.getLabel(id);
+    }
+
+    @Override
+    public StateEncoding getStateEncoding()
+    {
+        return tree.getStateEncoding();
+    }
+
+    @Override
+    public long getStateCode()
+    {
+        return tree.getStateCode(id, index);
+    }
+
+    @Override
+    public void setStateCode(StateEncoding encoding, long code)
+    {
+        tree.setStateCode(id, index, encoding, code);
+    }
+
+    @Override
+    public String toString()
+    {
+        return treeToString(this);
+    }
+
+    @Override
+    protected String[] getStringParts()
+    {
+        return new String[]{String.format("<$ '%s', ", getLabel()), ", ", " $>"};
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+
+        if(!(o instanceof DagTreeNode))
+            return false;
+
+        DagTreeNode other = (DagTreeNode)o;
+
+        return tree == other.tree && index == other.index;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(index, id);
+    }
+
+    DagTree getTree()
+    {
+        return tree;
+    }
+
+    int getId()
+    {
+        return id;
+    }
+}
@@ -0,0 +1,118 @@
+package fitaview.tree;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map with tree nodes as keys. Standard nodes are compared by identity, since equal subtrees
+ * are distinct nodes of a tree, while views of nodes in compact trees are compared with {@link
+ * Object#equals}, since every call may return a new view of the same node.
+ * @param <V> type of values
+ */
+public final class NodeMap<V>
+        extends AbstractMap<TreeNode, V>
+{
+    private final Map<TreeNode, V> nodes = new IdentityHashMap<>();
+    private final Map<TreeNode, V> views = new HashMap<>();
+
+    @Override
+    public int size()
+    {
+        return nodes.size() + views.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return key instanceof TreeNode && mapFor((TreeNode)key).containsKey(key);
+    }
+
+    @Override
+    public V get(Object key)
+    {
+        return key instanceof TreeNode ? mapFor((TreeNode)key).get(key) : null;
+    }
+
+    @Override
+    public V put(TreeNode key, V value)
+    {
+        return mapFor(key).put(key, value);
+    }
+
+    @Override
+    public V remove(Object key)
+    {
+        return key instanceof TreeNode ? mapFor((TreeNode)key).remove(key) : null;
+    }
+
+    @Override
+    public void clear()
+    {
+        nodes.clear();
+        views.clear();
+    }
+
+    @Override
+    public Set<Entry<TreeNode, V>> entrySet()
+    {
+        return new AbstractSet<Entry<TreeNode, V>>()
+        {
+            @Override
+            public Iterator<Entry<TreeNode, V>> iterator()
+            {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size()
+            {
+                return NodeMap.this.size();
+            }
+        };
+    }
+
+    private Map<TreeNode, V> mapFor(TreeNode node)
+    {
+        return node.isView() ? views : nodes;
+    }
+
+    private final class EntryIterator
+            implements Iterator<Entry<TreeNode, V>>
+    {
+        private final Iterator<Entry<TreeNode, V>> nodesIterator = nodes.entrySet().iterator();
+        private final Iterator<Entry<TreeNode, V>> viewsIterator = views.entrySet().iterator();
+        private Iterator<Entry<TreeNode, V>> last = null;
+
+        @Override
+        public boolean hasNext()
+        {
+            return nodesIterator.hasNext() || viewsIterator.hasNext();
+        }
+
+        @Override
+        public Entry<TreeNode, V> next()
+        {
+            if(!hasNext())
+                throw new NoSuchElementException();
+
+            last = nodesIterator.hasNext() ? nodesIterator : viewsIterator;
+
+            return last.next();
+        }
+
+        @Override
+        public void remove()
+        {
+            if(last == null)
+                throw new IllegalStateException();
+
+            last.remove();
+        }
+    }
+}
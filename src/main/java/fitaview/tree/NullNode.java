@@ -1,18 +1,15 @@
 package fitaview.tree;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
-import fitaview.automaton.IllegalVariableValueException;
-import fitaview.automaton.Variable;
+import fitaview.automaton.StateEncoding;
 
 public class NullNode
         extends TreeNode
 {
     private TreeNode parent;
-    private final Map<Variable, String> state = new HashMap<>();
+    private StateEncoding stateEncoding = null;
+    private long stateCode = StateEncoding.EMPTY_STATE;
 
     public NullNode()
     {
@@ -56,46 +53,22 @@ public class NullNode
     }
 
     @Override
-    public Map<Variable, String> getStateWithNulls()
+    public StateEncoding getStateEncoding()
     {
-        return state;
+        return stateEncoding;
     }
 
     @Override
-    public void setState(Map<Variable, String> state)
-            throws IllegalVariableValueException
+    public long getStateCode()
     {
-        for(Map.Entry<Variable, String> entry : state.entrySet())
-            setStateValue(entry.getKey(), entry.getValue());
+        return stateCode;
     }
 
     @Override
-    public void setInitialState(Collection<Variable> vars)
+    public void setStateCode(StateEncoding encoding, long code)
     {
-        for(Variable var : vars)
-            state.put(var, var.getInitValue());
-    }
-
-    @Override
-    public String getStateValueOrNull(Variable var)
-    {
-        return state.get(var);
-    }
-
-    @Override
-    public void setStateValue(Variable var, String value)
-            throws IllegalVariableValueException
-    {
-        if(!var.contains(value))
-            throw new IllegalVariableValueException(value);
-
-        state.put(var, value);
-    }
-
-    @Override
-    public void deleteState()
-    {
-        state.clear();
+        stateEncoding = encoding;
+        stateCode = code;
     }
 
     @Override
@@ -1,18 +1,17 @@
 package fitaview.tree;
 
-import java.util.Collection;
-import java.util.Map;
 import java.util.Objects;
 
-import fitaview.automaton.IllegalVariableValueException;
-import fitaview.automaton.Variable;
+import fitaview.automaton.StateEncoding;
 
 public class RecNode
         extends TreeNode
 {
     private final RepeatNode recursive;
     private TreeNode parent;
-    private Map<Variable, String> stateCopy;
+    private StateEncoding stateEncoding = null;
+    private long stateCode = StateEncoding.EMPTY_STATE;
+    private boolean hasOwnState = false;
 
     public RecNode(RepeatNode recursive, int index)
     {
@@ -22,7 +21,6 @@ public class RecNode
             throw new IllegalArgumentException("Recursive node is null");
 
         this.recursive = recursive;
-        stateCopy = recursive.getStateWithNulls();
     }
 
     @Override
@@ -62,45 +60,24 @@ public class RecNode
     }
 
     @Override
-    public Map<Variable, String> getStateWithNulls()
+    public StateEncoding getStateEncoding()
     {
-        return stateCopy;
+        return hasOwnState ? stateEncoding : recursive.getStateEncoding();
     }
 
     @Override
-    public void setState(Map<Variable, String> state)
-            throws IllegalVariableValueException
+    public long getStateCode()
     {
-        recursive.setState(state);
-        stateCopy = state;
+        return hasOwnState ? stateCode : recursive.getStateCode();
     }
 
     @Override
-    public void setInitialState(Collection<Variable> vars)
+    public void setStateCode(StateEncoding encoding, long code)
     {
-        recursive.setInitialState(vars);
-        stateCopy = recursive.getStateWithNulls();
-    }
-
-    @Override
-    public String getStateValueOrNull(Variable var)
-    {
-        return stateCopy.get(var);
-    }
-
-    @Override
-    public void setStateValue(Variable var, String value)
-            throws IllegalVariableValueException
-    {
-        recursive.setStateValue(var, value);
-        stateCopy = recursive.getStateWithNulls();
-    }
-
-    @Override
-    public void deleteState()
-    {
-        recursive.deleteState();
-        stateCopy.clear();
+        recursive.setStateCode(encoding, code);
+        stateEncoding = encoding;
+        stateCode = code;
+        hasOwnState = true;
     }
 
     @Override
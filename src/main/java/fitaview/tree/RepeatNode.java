@@ -29,11 +29,8 @@ public class RepeatNode
     }
 
     @Override
-    public String toString()
+    protected String[] getStringParts()
     {
-        String leftString = getLeft() == null ? "#" : getLeft().toString();
-        String rightString = getRight() == null ? "#" : getRight().toString();
-
-        return String.format("<@ '%s',%s, %s @>", getLabel(), leftString, rightString);
+        return new String[]{String.format("<@ '%s',", getLabel()), ", ", " @>"};
     }
 }
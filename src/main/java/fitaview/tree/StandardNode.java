@@ -1,12 +1,11 @@
 package fitaview.tree;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Objects;
 
-import fitaview.automaton.IllegalVariableValueException;
-import fitaview.automaton.Variable;
+import fitaview.automaton.StateEncoding;
+import fitaview.utils.Pair;
 
 public class StandardNode
         extends TreeNode
@@ -14,8 +13,9 @@ public class StandardNode
     private TreeNode left = new NullNode();
     private TreeNode right = new NullNode();
     private TreeNode parent = null;
-    private final String label;
-    private final Map<Variable, String> state = new HashMap<>();
+    private String label;
+    private StateEncoding stateEncoding = null;
+    private long stateCode = StateEncoding.EMPTY_STATE;
 
     public StandardNode(String label, int index)
     {
@@ -47,7 +47,7 @@ public class StandardNode
         return left;
     }
 
-    protected void setLeft(TreeNode node)
+    public void setLeft(TreeNode node)
             throws NodeHasParentException
     {
         if(node == null)
@@ -68,7 +68,7 @@ public class StandardNode
         return right;
     }
 
-    protected void setRight(TreeNode node)
+    public void setRight(TreeNode node)
             throws NodeHasParentException
     {
         if(node == null)
@@ -101,53 +101,44 @@ public class StandardNode
         return label;
     }
 
-    @Override
-    public Map<Variable, String> getStateWithNulls()
+    /** @param label new label of the node */
+    public void setLabel(String label)
     {
-        return state;
-    }
+        if(label == null || label.isEmpty())
+            throw new IllegalArgumentException("Label is null");
 
-    @Override
-    public void setState(Map<Variable, String> state)
-            throws IllegalVariableValueException
-    {
-        for(Map.Entry<Variable, String> entry : state.entrySet())
-            setStateValue(entry.getKey(), entry.getValue());
+        this.label = label;
     }
 
     @Override
-    public void setInitialState(Collection<Variable> vars)
+    public StateEncoding getStateEncoding()
     {
-        for(Variable var : vars)
-            state.put(var, var.getInitValue());
+        return stateEncoding;
     }
 
     @Override
-    public String getStateValueOrNull(Variable var)
+    public long getStateCode()
     {
-        return state.get(var);
+        return stateCode;
     }
 
     @Override
-    public void setStateValue(Variable var, String value)
-            throws IllegalVariableValueException
+    public void setStateCode(StateEncoding encoding, long code)
     {
-        if(!var.contains(value))
-            throw new IllegalVariableValueException(value);
-
-        state.put(var, value);
+        stateEncoding = encoding;
+        stateCode = code;
     }
 
     @Override
-    public void deleteState()
+    public String toString()
     {
-        state.clear();
+        return treeToString(this);
     }
 
     @Override
-    public String toString()
+    protected String[] getStringParts()
     {
-        return String.format("<$ '%s', %s, %s $>", label, left.toString(), right.toString());
+        return new String[]{String.format("<$ '%s', ", label), ", ", " $>"};
     }
 
     @Override
@@ -159,10 +150,30 @@ public class StandardNode
         if(!(o instanceof StandardNode))
             return false;
 
-        StandardNode other = (StandardNode)o;
+        Deque<Pair<TreeNode, TreeNode>> pairs = new ArrayDeque<>();
+
+        pairs.push(Pair.make(this, (TreeNode)o));
+
+        while(!pairs.isEmpty())
+        {
+            Pair<TreeNode, TreeNode> pair = pairs.pop();
+            TreeNode node = pair.getFirst();
+            TreeNode other = pair.getSecond();
+
+            if(node instanceof StandardNode && node != other)
+            {
+                if(!(other instanceof StandardNode) || !Objects.equals(node.getLabel(),
+                                                                       other.getLabel()))
+                    return false;
+
+                pairs.push(Pair.make(node.getRight(), other.getRight()));
+                pairs.push(Pair.make(node.getLeft(), other.getLeft()));
+            }
+            else if(!Objects.equals(node, other))
+                return false;
+        }
 
-        return Objects.equals(label, other.label) && Objects.equals(left, other.left)
-                && Objects.equals(right, other.right);
+        return true;
     }
 
     @Override
@@ -0,0 +1,71 @@
+package fitaview.tree;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+final class TreeBinaryFormat
+{
+    static final String EXTENSION = ".tree.bin";
+    static final byte[] MAGIC = {'F', 'I', 'T', 'B'};
+    static final byte VERSION = 1;
+    static final byte TAG_NULL = 0;
+    static final byte TAG_NODE = 1;
+    static final byte TAG_LEAF = 2;
+    static final byte TAG_REPEAT = 3;
+    static final byte TAG_REPEAT_LEAF = 4;
+    static final byte TAG_REC = 5;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private TreeBinaryFormat()
+    {
+    }
+
+    /**
+     * Writing non-negative number using as few bytes as possible. Each byte holds seven bits
+     * of the number, starting from the lowest ones, and its highest bit is set if more bytes
+     * follow.
+     * @param output output stream
+     * @param value number to write
+     */
+    static void writeVarint(ByteArrayOutputStream output, int value)
+    {
+        while((value & ~VARINT_MASK) != 0)
+        {
+            output.write((value & VARINT_MASK) | VARINT_CONTINUATION);
+            value >>>= VARINT_BITS;
+        }
+
+        output.write(value);
+    }
+
+    /**
+     * Reading number written by {@link #writeVarint}.
+     * @param buffer input buffer
+     * @return read number
+     * @throws TreeParsingException if number is malformed
+     */
+    static int readVarint(ByteBuffer buffer)
+            throws TreeParsingException
+    {
+        int value = 0;
+
+        for(int shift = 0; shift < Integer.SIZE; shift += VARINT_BITS)
+        {
+            byte b = buffer.get();
+
+            value |= (b & VARINT_MASK) << shift;
+
+            if((b & VARINT_CONTINUATION) == 0)
+            {
+                if(value < 0)
+                    throw new TreeParsingException("Number out of range");
+
+                return value;
+            }
+        }
+
+        throw new TreeParsingException("Number out of range");
+    }
+}
@@ -0,0 +1,210 @@
+package fitaview.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.xml.sax.SAXException;
+
+import fitaview.automaton.FileFormatException;
+import fitaview.utils.Pair;
+
+public class TreeBinaryReader
+{
+    private final File file;
+
+    public TreeBinaryReader(File file)
+            throws SAXException
+    {
+        if(!file.getName().endsWith(TreeBinaryFormat.EXTENSION))
+            throw new FileFormatException(String.format(
+                    "File extension is not recognizable, should be '%s'",
+                    TreeBinaryFormat.EXTENSION));
+
+        this.file = file;
+    }
+
+    /**
+     * Reading tree from binary file mapped into memory. Nodes get the same indices as when
+     * the tree is read from XML file.
+     * @return tree object with its depth
+     * @throws IOException if any IO error occurs
+     * @throws SAXException if file content is malformed
+     */
+    public Pair<TreeNode, Integer> read()
+            throws IOException, SAXException
+    {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reading tree from binary data.
+     * @param buffer buffer with binary version of tree
+     * @return tree object with its depth
+     * @throws SAXException if data is malformed
+     */
+    public static Pair<TreeNode, Integer> read(ByteBuffer buffer)
+            throws SAXException
+    {
+        try
+        {
+            readHeader(buffer);
+
+            String[] labels = readLabels(buffer);
+            Pair<TreeNode, Integer> result = readNodes(buffer, labels);
+
+            if(buffer.hasRemaining())
+                throw new TreeParsingException("Unexpected data after the tree");
+
+            return result;
+        }
+        catch(BufferUnderflowException e)
+        {
+            throw new TreeParsingException("Unexpected end of data", e);
+        }
+    }
+
+    private static void readHeader(ByteBuffer buffer)
+            throws FileFormatException
+    {
+        for(byte b : TreeBinaryFormat.MAGIC)
+            if(!buffer.hasRemaining() || buffer.get() != b)
+                throw new FileFormatException("File is not a binary tree file");
+
+        if(!buffer.hasRemaining() || buffer.get() != TreeBinaryFormat.VERSION)
+            throw new FileFormatException("Unsupported version of binary tree file");
+    }
+
+    private static String[] readLabels(ByteBuffer buffer)
+            throws TreeParsingException
+    {
+        String[] labels = new String[TreeBinaryFormat.readVarint(buffer)];
+
+        for(int i = 0; i < labels.length; ++i)
+        {
+            byte[] bytes = new byte[TreeBinaryFormat.readVarint(buffer)];
+
+            buffer.get(bytes);
+            labels[i] = new String(bytes, StandardCharsets.UTF_8);
+
+            if(labels[i].isEmpty())
+                throw new TreeParsingException("Label is empty");
+        }
+
+        return labels;
+    }
+
+    private static Pair<TreeNode, Integer> readNodes(ByteBuffer buffer, String[] labels)
+            throws SAXException
+    {
+        Deque<Pair<StandardNode, Integer>> nodes = new ArrayDeque<>();
+        Deque<RepeatNode> repeats = new ArrayDeque<>();
+        TreeNode root = null;
+        int index = 1;
+        int maxDepth = 0;
+
+        do
+        {
+            byte tag = buffer.get();
+            TreeNode node;
+            boolean isInner = false;
+
+            switch(tag)
+            {
+                case TreeBinaryFormat.TAG_NULL:
+                    node = null;
+                    break;
+
+                case TreeBinaryFormat.TAG_NODE:
+                case TreeBinaryFormat.TAG_LEAF:
+                    node = new StandardNode(readLabel(buffer, labels), index++);
+                    isInner = tag == TreeBinaryFormat.TAG_NODE;
+                    break;
+
+                case TreeBinaryFormat.TAG_REPEAT:
+                case TreeBinaryFormat.TAG_REPEAT_LEAF:
+                    node = new RepeatNode(readLabel(buffer, labels), index++);
+                    isInner = tag == TreeBinaryFormat.TAG_REPEAT;
+                    break;
+
+                case TreeBinaryFormat.TAG_REC:
+                    if(repeats.isEmpty())
+                        throw new TreeParsingException("Recursive node outside repeat node");
+
+                    node = new RecNode(repeats.peek(), index++);
+                    break;
+
+                default:
+                    throw new TreeParsingException(String.format("Unexpected tag: %d", tag));
+            }
+
+            if(node != null)
+                maxDepth = Math.max(maxDepth, nodes.size() + 1);
+
+            if(nodes.isEmpty())
+                root = node;
+            else
+                attach(nodes, node);
+
+            if(isInner)
+            {
+                nodes.push(Pair.make((StandardNode)node, 0));
+
+                if(node.getType() == NodeType.REPEAT)
+                    repeats.push((RepeatNode)node);
+            }
+
+            while(!nodes.isEmpty() && nodes.peek().getSecond() == 2)
+                if(nodes.pop().getFirst().getType() == NodeType.REPEAT)
+                    repeats.pop();
+        }
+        while(!nodes.isEmpty());
+
+        return Pair.make(root, maxDepth);
+    }
+
+    private static void attach(Deque<Pair<StandardNode, Integer>> nodes, TreeNode node)
+            throws SAXException
+    {
+        Pair<StandardNode, Integer> parent = nodes.pop();
+
+        try
+        {
+            if(parent.getSecond() == 0)
+                parent.getFirst().setLeft(node);
+            else
+            {
+                if(parent.getFirst().getLeft().isNull() != (node == null))
+                    throw new OneChildException(
+                            "Node must have zero or two children, but it has one");
+
+                parent.getFirst().setRight(node);
+            }
+        }
+        catch(NodeHasParentException e)
+        {
+            throw new TreeParsingException("Child node has parent", e);
+        }
+
+        nodes.push(Pair.make(parent.getFirst(), parent.getSecond() + 1));
+    }
+
+    private static String readLabel(ByteBuffer buffer, String[] labels)
+            throws TreeParsingException
+    {
+        int labelId = TreeBinaryFormat.readVarint(buffer);
+
+        if(labelId >= labels.length)
+            throw new TreeParsingException(String.format("Unknown label identifier: %d", labelId));
+
+        return labels[labelId];
+    }
+}
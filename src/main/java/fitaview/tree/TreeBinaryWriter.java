@@ -0,0 +1,104 @@
+package fitaview.tree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TreeBinaryWriter
+{
+    private final TreeNode tree;
+
+    public TreeBinaryWriter(TreeNode tree)
+    {
+        this.tree = tree;
+    }
+
+    /**
+     * Writing tree to binary file.
+     * @param filename name of the file without extension
+     * @throws IOException if any IO error occurs
+     */
+    public void toFile(String filename)
+            throws IOException
+    {
+        try(FileOutputStream output = new FileOutputStream(filename + TreeBinaryFormat.EXTENSION))
+        {
+            output.write(toBytes());
+        }
+    }
+
+    /**
+     * Encoding tree in binary format. The format consists of header, table of labels and tags
+     * of nodes in pre-order, where each labelled node is followed by identifier of its label.
+     * @return binary version of tree
+     */
+    public byte[] toBytes()
+    {
+        Map<String, Integer> labels = new LinkedHashMap<>();
+        ByteArrayOutputStream nodes = new ByteArrayOutputStream();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+
+        if(tree != null)
+            stack.push(tree);
+        else
+            nodes.write(TreeBinaryFormat.TAG_NULL);
+
+        while(!stack.isEmpty())
+        {
+            TreeNode node = stack.pop();
+
+            switch(node.getType())
+            {
+                case NULL:
+                    nodes.write(TreeBinaryFormat.TAG_NULL);
+                    break;
+
+                case REC:
+                    nodes.write(TreeBinaryFormat.TAG_REC);
+                    break;
+
+                case NODE:
+                case REPEAT:
+                    boolean isRepeat = node.getType() == NodeType.REPEAT;
+
+                    if(node.isLeaf())
+                        nodes.write(isRepeat ? TreeBinaryFormat.TAG_REPEAT_LEAF
+                                             : TreeBinaryFormat.TAG_LEAF);
+                    else
+                    {
+                        nodes.write(isRepeat ? TreeBinaryFormat.TAG_REPEAT
+                                             : TreeBinaryFormat.TAG_NODE);
+                        stack.push(node.getRight());
+                        stack.push(node.getLeft());
+                    }
+
+                    TreeBinaryFormat.writeVarint(nodes, labels.computeIfAbsent(node.getLabel(),
+                                                                               l -> labels.size()));
+                    break;
+            }
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        output.write(TreeBinaryFormat.MAGIC, 0, TreeBinaryFormat.MAGIC.length);
+        output.write(TreeBinaryFormat.VERSION);
+        TreeBinaryFormat.writeVarint(output, labels.size());
+
+        for(String label : labels.keySet())
+        {
+            byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+
+            TreeBinaryFormat.writeVarint(output, bytes.length);
+            output.write(bytes, 0, bytes.length);
+        }
+
+        output.write(nodes.toByteArray(), 0, nodes.size());
+
+        return output.toByteArray();
+    }
+}
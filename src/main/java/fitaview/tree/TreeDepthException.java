@@ -1,14 +0,0 @@
-package fitaview.tree;
-
-import org.xml.sax.SAXException;
-
-public class TreeDepthException
-    extends SAXException
-{
-    private static final long serialVersionUID = 4185505535495818929L;
-
-    public TreeDepthException(String s)
-    {
-        super(s);
-    }
-}
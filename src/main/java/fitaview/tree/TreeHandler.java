@@ -12,9 +12,9 @@ import fitaview.utils.XMLHandler;
 class TreeHandler
         extends XMLHandler<TreeNode>
 {
-    private static final int MAX_HEIGHT = 15;
     private final Stack<Pair<StandardNode, TreeChild>> nodes = new Stack<>();
     private final Stack<RepeatNode> repeats = new Stack<>();
+    private final Stack<Integer> recIndices = new Stack<>();
     private int index = 1;
     private int actualDepth = 0;
     private int maxDepth = 0;
@@ -39,14 +39,10 @@ class TreeHandler
         ++actualDepth;
         maxDepth = Math.max(maxDepth, actualDepth);
 
-        if(actualDepth > MAX_HEIGHT)
-            throw new TreeDepthException(
-                    String.format("%s: Tree depth is greater than allowed %d", writePosition(),
-                                  MAX_HEIGHT));
-
         switch(qName)
         {
             case "rec":
+                recIndices.push(index++);
                 break;
 
             case "node":
@@ -59,7 +55,7 @@ class TreeHandler
                 StandardNode standardNode = new StandardNode(label, index);
 
                 nodes.push(Pair.make(standardNode, TreeChild.LEFT));
-                index += index + 1;
+                ++index;
                 break;
 
             case "repeat":
@@ -73,7 +69,7 @@ class TreeHandler
 
                 nodes.push(Pair.make(repeatNode, TreeChild.LEFT));
                 repeats.push(repeatNode);
-                index += index + 1;
+                ++index;
                 break;
 
             default:
@@ -96,14 +92,12 @@ class TreeHandler
                     TreeNode node;
 
                     if(Objects.equals(qName, "rec"))
-                        node = new RecNode(repeats.peek(), index);
+                        node = new RecNode(repeats.peek(), recIndices.pop());
                     else
                     {
                         Pair<StandardNode, TreeChild> nodesPair = nodes.pop();
 
-                        if(nodesPair.getSecond() == TreeChild.LEFT)
-                            index /= 2;
-                        else if(nodesPair.getSecond() == TreeChild.RIGHT)
+                        if(nodesPair.getSecond() == TreeChild.RIGHT)
                             throw new OneChildException(String.format(
                                     "%s: Node must have zero or two children, but it has one",
                                     writePosition()));
@@ -113,7 +107,6 @@ class TreeHandler
 
                     Pair<StandardNode, TreeChild> parent = nodes.pop();
 
-                    index /= 2;
                     --actualDepth;
 
                     try
@@ -123,7 +116,6 @@ class TreeHandler
                             case LEFT:
                                 parent.getFirst().setLeft(node);
                                 nodes.push(Pair.make(parent.getFirst(), TreeChild.RIGHT));
-                                index *= 2;
                                 break;
 
                             case RIGHT:
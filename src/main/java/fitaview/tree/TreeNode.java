@@ -1,9 +1,14 @@
 package fitaview.tree;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Map;
 
 import fitaview.automaton.IllegalVariableValueException;
+import fitaview.automaton.StateEncoding;
 import fitaview.automaton.Variable;
 
 public abstract class TreeNode
@@ -61,11 +66,44 @@ public abstract class TreeNode
      * @param state new state for the node
      * @throws IllegalVariableValueException if any of variable values is incorrect
      */
-    public abstract void setState(Map<Variable, String> state)
-            throws IllegalVariableValueException;
+    public void setState(Map<Variable, String> state)
+            throws IllegalVariableValueException
+    {
+        for(Map.Entry<Variable, String> entry : state.entrySet())
+            setStateValue(entry.getKey(), entry.getValue());
+    }
 
     /** @return values of all variables in the node */
-    public abstract Map<Variable, String> getStateWithNulls();
+    public Map<Variable, String> getStateWithNulls()
+    {
+        StateEncoding encoding = getStateEncoding();
+
+        return encoding == null ? new HashMap<>() : encoding.decode(getStateCode());
+    }
+
+    /** @return encoding of the state in the node, or {@code null} if no state was set */
+    public abstract StateEncoding getStateEncoding();
+
+    /** @return state of the node encoded with {@link #getStateEncoding()} */
+    public abstract long getStateCode();
+
+    /**
+     * @param encoding encoding of the state
+     * @return state of the node encoded with specified encoding
+     */
+    public long getStateCode(StateEncoding encoding)
+    {
+        StateEncoding ownEncoding = getStateEncoding();
+
+        return ownEncoding == encoding ? getStateCode()
+                                       : encoding.recode(ownEncoding, getStateCode());
+    }
+
+    /**
+     * @param encoding encoding of the state
+     * @param code new state for the node
+     */
+    public abstract void setStateCode(StateEncoding encoding, long code);
 
     /** @return {@code true} if node is a null node, otherwise {@code false} */
     public boolean isNull()
@@ -73,6 +111,15 @@ public abstract class TreeNode
         return getType() == NodeType.NULL;
     }
 
+    /**
+     * @return {@code true} if node is a view of a node stored in another structure, so equal
+     * views represent the same node, otherwise {@code false}
+     */
+    public boolean isView()
+    {
+        return false;
+    }
+
     /** @return {@code true} if node is a leaf, otherwise {@code false} */
     public boolean isLeaf()
     {
@@ -80,7 +127,23 @@ public abstract class TreeNode
     }
 
     /** @param vars state variables */
-    public abstract void setInitialState(Collection<Variable> vars);
+    public void setInitialState(Collection<Variable> vars)
+    {
+        StateEncoding encoding = getStateEncoding();
+        long code = getStateCode();
+
+        for(Variable var : vars)
+        {
+            StateEncoding extended = encoding == null ? new StateEncoding(
+                    Collections.singletonList(var)) : encoding.extend(var);
+
+            code = extended.recode(encoding, code);
+            encoding = extended;
+            code = encoding.setValueIndex(code, encoding.indexOf(var), 0);
+        }
+
+        setStateCode(encoding, code);
+    }
 
     /**
      * @param var state variable
@@ -103,16 +166,91 @@ public abstract class TreeNode
      * @param var state variable
      * @return variable value in the node or {@code null} if variable value is undefined
      */
-    public abstract String getStateValueOrNull(Variable var);
+    public String getStateValueOrNull(Variable var)
+    {
+        StateEncoding encoding = getStateEncoding();
+
+        if(encoding == null)
+            return null;
+
+        int position = encoding.indexOf(var);
+
+        return position < 0 ? null : encoding.getValue(getStateCode(), position);
+    }
 
     /**
      * @param var state variable
      * @param value variable value
      * @throws IllegalVariableValueException if variable value is incorrect
      */
-    public abstract void setStateValue(Variable var, String value)
-            throws IllegalVariableValueException;
+    public void setStateValue(Variable var, String value)
+            throws IllegalVariableValueException
+    {
+        if(!var.contains(value))
+            throw new IllegalVariableValueException(value);
+
+        StateEncoding encoding = getStateEncoding();
+        StateEncoding extended = encoding == null ? new StateEncoding(
+                Collections.singletonList(var)) : encoding.extend(var);
+        long code = extended.recode(encoding, getStateCode());
+
+        setStateCode(extended, extended.setValueIndex(code, extended.indexOf(var),
+                                                      var.indexOf(value)));
+    }
 
     /** Removing values of all state variables in the node */
-    public abstract void deleteState();
+    public void deleteState()
+    {
+        setStateCode(getStateEncoding(), StateEncoding.EMPTY_STATE);
+    }
+
+    /**
+     * Getting the parts of string representation of the node placed before, between and after
+     * representations of its sons.
+     * @return parts of string representation, or {@code null} if sons are not represented
+     */
+    protected String[] getStringParts()
+    {
+        return null;
+    }
+
+    /**
+     * Building string representation of the tree without recursion.
+     * @param tree root of the tree
+     * @return string representation of the tree
+     */
+    protected static String treeToString(TreeNode tree)
+    {
+        StringBuilder builder = new StringBuilder();
+        Deque<Object> items = new ArrayDeque<>();
+
+        items.push(tree);
+
+        while(!items.isEmpty())
+        {
+            Object item = items.pop();
+
+            if(item instanceof String)
+            {
+                builder.append((String)item);
+                continue;
+            }
+
+            TreeNode node = (TreeNode)item;
+            String[] parts = node.getStringParts();
+
+            if(parts == null)
+                builder.append(node.toString());
+            else
+            {
+                builder.append(parts[0]);
+                items.push(parts[2]);
+                items.push(node.getRight());
+                items.push(parts[1]);
+                items.push(node.getLeft());
+            }
+        }
+
+        return builder.toString();
+    }
 }
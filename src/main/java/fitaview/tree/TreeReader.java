@@ -12,6 +12,7 @@ import org.xml.sax.SAXException;
 
 import fitaview.automaton.FileFormatException;
 import fitaview.utils.Pair;
+import fitaview.utils.XMLHandler;
 
 public class TreeReader
 {
@@ -58,4 +59,54 @@ public class TreeReader
 
         return Pair.make(handler.getResult(), handler.getMaxDepth());
     }
+
+    /**
+     * Reading finite tree from XML file into compact array representation.
+     * @return array tree object with its depth
+     * @throws IOException if any IO error occurs
+     * @throws SAXException if any parsing error occurs or tree contains recursive nodes
+     */
+    public Pair<ArrayTree, Integer> readArrayTree()
+            throws IOException, SAXException
+    {
+        ArrayTreeHandler handler = new ArrayTreeHandler();
+
+        parser.parse(file, handler);
+
+        return Pair.make(handler.getResult(), handler.getMaxDepth());
+    }
+
+    /**
+     * Reading finite tree from XML file into shared representation, where structurally equal
+     * subtrees are stored once.
+     * @return DAG tree object with its depth
+     * @throws IOException if any IO error occurs
+     * @throws SAXException if any parsing error occurs or tree contains recursive nodes
+     */
+    public Pair<DagTree, Integer> readDagTree()
+            throws IOException, SAXException
+    {
+        DagTreeHandler handler = new DagTreeHandler();
+
+        parser.parse(file, handler);
+
+        return Pair.make(handler.getResult(), handler.getMaxDepth());
+    }
+
+    /**
+     * Reading tree from XML file with custom handler, which processes the tree while it is
+     * parsed.
+     * @param handler handler of parsing events
+     * @param <T> type of handler result
+     * @return result of the handler
+     * @throws IOException if any IO error occurs
+     * @throws SAXException if any parsing error occurs
+     */
+    public <T> T read(XMLHandler<T> handler)
+            throws IOException, SAXException
+    {
+        parser.parse(file, handler);
+
+        return handler.getResult();
+    }
 }
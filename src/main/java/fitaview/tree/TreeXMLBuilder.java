@@ -1,23 +1,20 @@
 package fitaview.tree;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
+
+import fitaview.utils.Triple;
 
 class TreeXMLBuilder
 {
-    private TreeNode currentTree;
-    private TreeXMLBuilder parent;
+    private static final String INDENT = "  ";
     private final StringBuilder body = new StringBuilder();
 
     TreeXMLBuilder()
     {
     }
 
-    private TreeXMLBuilder(TreeNode currentTree, TreeXMLBuilder parent)
-    {
-        this.currentTree = currentTree;
-        this.parent = parent;
-    }
-
     static boolean isNull(TreeNode tree)
     {
         return tree == null || tree.isNull();
@@ -26,88 +23,62 @@ class TreeXMLBuilder
     @Override
     public String toString()
     {
-        StringBuilder output = new StringBuilder();
-
-        if(isNull(currentTree))
-            return body.toString();
-
-        output.append("<");
-        output.append(getNodeName(currentTree));
-
-        if(isNode(currentTree))
-        {
-            output.append(" label=\"");
-            output.append(currentTree.getLabel());
-            output.append("\"");
-        }
-
-        if(isNode(currentTree) && !currentTree.isLeaf())
-        {
-            output.append(">");
-            output.append(indentBody());
-            output.append("</");
-            output.append(getNodeName(currentTree));
-            output.append(">\n");
-        }
-        else
-            output.append(" />\n");
-
-        return output.toString();
+        return body.toString();
     }
 
+    /**
+     * Appending XML elements of the tree without recursion. Each element is written in a separate
+     * line indented according to its depth.
+     * @param tree tree to build
+     * @return this builder
+     */
     TreeXMLBuilder build(TreeNode tree)
     {
-        if(isNull(tree))
-            return this;
+        Deque<Triple<TreeNode, Integer, Boolean>> elements = new ArrayDeque<>();
 
-        TreeXMLBuilder builder = startTree(tree);
+        if(!isNull(tree))
+            elements.push(Triple.make(tree, 0, false));
 
-        if(isNode(tree) && !tree.isLeaf())
-            builder = builder.build(tree.getLeft()).build(tree.getRight());
+        while(!elements.isEmpty())
+        {
+            Triple<TreeNode, Integer, Boolean> element = elements.pop();
+            TreeNode node = element.getFirst();
+            int depth = element.getSecond();
 
-        return builder.endTree();
-    }
+            appendIndent(depth);
 
-    private StringBuilder indentBody()
-    {
-        String indentString = String.join("", Collections.nCopies(2, " "));
-        StringBuilder indented = new StringBuilder(String.format("\n%s", body.toString().trim()));
-        int indexStart = 0;
+            if(element.getThird())
+            {
+                body.append("</").append(getNodeName(node)).append(">\n");
+                continue;
+            }
 
-        while(indexStart >= 0)
-        {
-            int newlineIndex = indented.indexOf("\n", indexStart);
+            body.append("<").append(getNodeName(node));
+
+            if(isNode(node))
+                body.append(" label=\"").append(node.getLabel()).append("\"");
 
-            if(newlineIndex >= 0)
+            if(isNode(node) && !node.isLeaf())
             {
-                indented.insert(newlineIndex + 1, indentString);
-                indexStart = newlineIndex + indentString.length();
+                body.append(">\n");
+                elements.push(Triple.make(node, depth, true));
+
+                if(!isNull(node.getRight()))
+                    elements.push(Triple.make(node.getRight(), depth + 1, false));
+
+                if(!isNull(node.getLeft()))
+                    elements.push(Triple.make(node.getLeft(), depth + 1, false));
             }
             else
-            {
-                indented.append("\n");
-                indexStart = newlineIndex;
-            }
+                body.append(" />\n");
         }
 
-        return indented;
-    }
-
-    private TreeXMLBuilder startTree(TreeNode tree)
-    {
-        return new TreeXMLBuilder(tree, this);
-    }
-
-    private TreeXMLBuilder endTree()
-    {
-        parent.addContent(toString());
-
-        return parent;
+        return this;
     }
 
-    private void addContent(String content)
+    private void appendIndent(int depth)
     {
-        body.append(content);
+        body.append(String.join("", Collections.nCopies(depth, INDENT)));
     }
 
     private boolean isNode(TreeNode tree)
@@ -12,6 +12,7 @@ public final class XMLFileChooser
     private XMLFileChooser()
     {
         super();
+        addChoosableFileFilter(new FileNameExtensionFilter("Binary tree files", "bin"));
         setFileFilter(new FileNameExtensionFilter("XML files", "xml"));
         setMultiSelectionEnabled(false);
     }
@@ -4,7 +4,9 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.NoSuchElementException;
 import javax.swing.BorderFactory;
@@ -14,13 +16,17 @@ import javax.swing.JButton;
 import javax.swing.JPanel;
 
 import fitaview.FITAViewException;
+import fitaview.automaton.AutomatonIsRunningException;
 import fitaview.automaton.AutomatonRunningModeSender;
 import fitaview.automaton.BottomUpAutomaton;
 import fitaview.automaton.IllegalVariableValueException;
 import fitaview.automaton.InfiniteTreeAutomaton;
+import fitaview.automaton.TopDownAutomaton;
 import fitaview.automaton.TreeAutomaton;
 import fitaview.messaging.Message;
 import fitaview.messaging.SignalReceiver;
+import fitaview.tree.TreeNode;
+import fitaview.utils.Pair;
 import fitaview.utils.Pointer;
 import fitaview.viewer.ButtonsPanel;
 import fitaview.viewer.UserMessageBox;
@@ -33,16 +39,20 @@ public class ActionButtonsPanel
 
     ButtonsType buttonsType = ButtonsType.NONE;
     private final Pointer<TreeAutomaton> automatonPointer;
+    private final Pointer<Pair<TreeNode, Integer>> treePointer;
     private final List<JButton> runningButtons = new ArrayList<>();
     private final List<JButton> continuingButtons = new ArrayList<>();
     private JButton stopRunningButton;
     private JButton emptinessButton;
+    private JButton minimalTreeButton;
 
-    public ActionButtonsPanel(Pointer<TreeAutomaton> automatonPointer)
+    public ActionButtonsPanel(Pointer<TreeAutomaton> automatonPointer,
+                              Pointer<Pair<TreeNode, Integer>> treePointer)
     {
         super();
 
         this.automatonPointer = automatonPointer;
+        this.treePointer = treePointer;
         automatonPointer.addReceiver(this);
         AutomatonRunningModeSender.getInstance().addReceiver(this);
 
@@ -89,15 +99,38 @@ public class ActionButtonsPanel
                     break;
 
                 case "CHECK EMPTINESS":
-                    BottomUpAutomaton bottomUp = (BottomUpAutomaton)automaton;
+                    boolean isEmpty = automaton instanceof BottomUpAutomaton
+                            ? ((BottomUpAutomaton)automaton).checkEmptiness()
+                            : ((TopDownAutomaton)automaton).checkEmptiness();
 
-                    if(bottomUp.checkEmptiness())
+                    if(isEmpty)
                         UserMessageBox.showWarning("AUTOMATON IS EMPTY",
                                                    "No tree can be accepted by the automaton");
                     else
                         UserMessageBox.showInfo("AUTOMATON IS NON-EMPTY",
                                                 "The automaton can accept at least one tree");
                     break;
+
+                case "FIND MINIMAL TREE":
+                    if(automaton.isRunning())
+                        throw new AutomatonIsRunningException(
+                                "Automaton is currently running on tree!");
+
+                    TreeNode minimalTree = ((BottomUpAutomaton)automaton).findMinimalTree();
+
+                    if(minimalTree == null)
+                    {
+                        UserMessageBox.showWarning("AUTOMATON IS EMPTY",
+                                                   "No tree can be accepted by the automaton");
+                        break;
+                    }
+
+                    treePointer.set(Pair.make(minimalTree, countDepth(minimalTree)));
+                    automaton.setTree(minimalTree);
+                    UserMessageBox.showInfo("MINIMAL TREE FOUND", String.format(
+                            "Found the smallest accepted tree with %d nodes",
+                            countNodes(minimalTree)));
+                    break;
             }
         }
         catch(IllegalVariableValueException | NoSuchElementException | FITAViewException e)
@@ -176,8 +209,17 @@ public class ActionButtonsPanel
         {
             addButtonToPanel(lowerPanel, stopRunningButton, 10, 0);
 
-            if(automatonPointer.get() instanceof BottomUpAutomaton)
+            TreeAutomaton automaton = automatonPointer.get();
+
+            if(automaton instanceof TopDownAutomaton
+                    && !(automaton instanceof InfiniteTreeAutomaton))
                 addButtonToPanel(lowerPanel, emptinessButton, 10, 0);
+
+            if(automaton instanceof BottomUpAutomaton)
+            {
+                addButtonToPanel(lowerPanel, emptinessButton, 10, 0);
+                addButtonToPanel(lowerPanel, minimalTreeButton, 10, 0);
+            }
         }
 
         lowerPanel.add(Box.createHorizontalGlue());
@@ -205,6 +247,7 @@ public class ActionButtonsPanel
 
         stopRunningButton = createButton("STOP TRAVERSING", KeyEvent.VK_S);
         emptinessButton = createButton("CHECK EMPTINESS", KeyEvent.VK_E);
+        minimalTreeButton = createButton("FIND MINIMAL TREE", KeyEvent.VK_I);
 
         runningButtons.add(runButton);
         runningButtons.add(stepForwardButton);
@@ -222,6 +265,41 @@ public class ActionButtonsPanel
         return button;
     }
 
+    private int countDepth(TreeNode tree)
+    {
+        return countTree(tree).getSecond();
+    }
+
+    private int countNodes(TreeNode tree)
+    {
+        return countTree(tree).getFirst();
+    }
+
+    private Pair<Integer, Integer> countTree(TreeNode tree)
+    {
+        Deque<Pair<TreeNode, Integer>> nodes = new ArrayDeque<>();
+        int count = 0;
+        int maxDepth = 0;
+
+        nodes.push(Pair.make(tree, 1));
+
+        while(!nodes.isEmpty())
+        {
+            Pair<TreeNode, Integer> pair = nodes.pop();
+            TreeNode node = pair.getFirst();
+
+            if(node.isNull())
+                continue;
+
+            ++count;
+            maxDepth = Math.max(maxDepth, pair.getSecond());
+            nodes.push(Pair.make(node.getLeft(), pair.getSecond() + 1));
+            nodes.push(Pair.make(node.getRight(), pair.getSecond() + 1));
+        }
+
+        return Pair.make(count, maxDepth);
+    }
+
     enum ButtonsType
     {
         RUN, CONTINUE, NONE
@@ -140,6 +140,6 @@ public class AutomatonMainPanel
         scrollTreeView = new AutomatonScrollTreeView(automatonPointer);
         transitionDrawingArea = new TransitionDrawingArea(automatonPointer);
         modifyingRadioButtonsPanel = new ModifyingRadioButtonsPanel(automatonPointer);
-        actionButtonsPanel = new ActionButtonsPanel(automatonPointer);
+        actionButtonsPanel = new ActionButtonsPanel(automatonPointer, treePointer);
     }
 }
@@ -10,7 +10,9 @@ import javax.swing.*;
 
 import fitaview.FITAViewException;
 import fitaview.automaton.AbstractTreeAutomaton;
+import fitaview.automaton.BottomUpNFTA;
 import fitaview.automaton.NonDeterministicAutomaton;
+import fitaview.automaton.TopDownNondeterministicAutomaton;
 import fitaview.automaton.TreeAutomaton;
 import fitaview.automaton.nondeterminism.StateChoice;
 import fitaview.automaton.nondeterminism.StateChoiceFactory;
@@ -36,6 +38,9 @@ public class ModifyingRadioButtonsPanel
     private final Map<TraversingMode, JRadioButton> traversingButtons = new HashMap<>();
     private final JPanel traversingPanel = new JPanel();
     private final JPanel nonDeterminismPanel = new JPanel();
+    private final JCheckBox parallelLevelsBox = new JCheckBox("PARALLEL LEVELS");
+    private final JCheckBox allRunsBox = new JCheckBox("ALL RUNS");
+    private final JCheckBox exactRunsBox = new JCheckBox("EXACT RUNS");
 
     public ModifyingRadioButtonsPanel(Pointer<TreeAutomaton> automatonPointer)
     {
@@ -57,7 +62,31 @@ public class ModifyingRadioButtonsPanel
         String actionCommand = actionEvent.getActionCommand();
         TreeAutomaton automaton = automatonPointer.get();
 
-        if(TraversingFactory.isCorrectMode(actionCommand))
+        if(actionEvent.getSource() == parallelLevelsBox)
+            ((AbstractTreeAutomaton)automaton).setParallelLevels(parallelLevelsBox.isSelected());
+        else if(actionEvent.getSource() == allRunsBox)
+            try
+            {
+                ((BottomUpNFTA)automaton).setAllRuns(allRunsBox.isSelected());
+            }
+            catch(FITAViewException e)
+            {
+                allRunsBox.setSelected(((BottomUpNFTA)automaton).isAllRuns());
+                UserMessageBox.showException(e);
+            }
+        else if(actionEvent.getSource() == exactRunsBox)
+            try
+            {
+                ((TopDownNondeterministicAutomaton)automaton).setExactRuns(
+                        exactRunsBox.isSelected());
+            }
+            catch(FITAViewException e)
+            {
+                exactRunsBox.setSelected(
+                        ((TopDownNondeterministicAutomaton)automaton).isExactRuns());
+                UserMessageBox.showException(e);
+            }
+        else if(TraversingFactory.isCorrectMode(actionCommand))
             try
             {
                 automaton.setTraversing(TraversingMode.valueOf(actionCommand));
@@ -82,6 +111,9 @@ public class ModifyingRadioButtonsPanel
     {
         traversingGroup.clearSelection();
         nonDeterminismGroup.clearSelection();
+        parallelLevelsBox.setSelected(false);
+        allRunsBox.setSelected(false);
+        exactRunsBox.setSelected(false);
         removeAll();
         addComponents();
         revalidate();
@@ -115,9 +147,16 @@ public class ModifyingRadioButtonsPanel
             nonDeterminismGroup.add(button);
         }
 
-        traversingPanel.setLayout(new GridLayout(TraversingMode.values().length, 1));
+        parallelLevelsBox.addActionListener(this);
+        parallelLevelsBox.setBackground(Color.CYAN);
+        allRunsBox.addActionListener(this);
+        allRunsBox.setBackground(Color.CYAN);
+        exactRunsBox.addActionListener(this);
+        exactRunsBox.setBackground(Color.CYAN);
+
+        traversingPanel.setLayout(new GridLayout(0, 1));
         traversingButtons.values().forEach(traversingPanel::add);
-        nonDeterminismPanel.setLayout(new GridLayout(StateChoiceMode.values().length, 1));
+        nonDeterminismPanel.setLayout(new GridLayout(0, 1));
         nonDeterminismButtons.values().forEach(nonDeterminismPanel::add);
     }
 
@@ -130,10 +169,26 @@ public class ModifyingRadioButtonsPanel
         if(automaton != null)
         {
             if(automaton instanceof AbstractTreeAutomaton)
+            {
+                traversingPanel.remove(parallelLevelsBox);
+
+                if(((AbstractTreeAutomaton)automaton).canRunConcurrently())
+                    traversingPanel.add(parallelLevelsBox);
+
                 add(traversingPanel);
+            }
 
             if(automaton instanceof NonDeterministicAutomaton)
             {
+                nonDeterminismPanel.remove(allRunsBox);
+                nonDeterminismPanel.remove(exactRunsBox);
+
+                if(automaton instanceof BottomUpNFTA)
+                    nonDeterminismPanel.add(allRunsBox);
+
+                if(automaton instanceof TopDownNondeterministicAutomaton)
+                    nonDeterminismPanel.add(exactRunsBox);
+
                 add(Box.createVerticalGlue());
                 add(nonDeterminismPanel);
             }
@@ -2,6 +2,7 @@ package fitaview.viewer.automaton;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.util.List;
 import java.util.Map;
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
@@ -16,7 +17,7 @@ import fitaview.utils.Triple;
 
 public class TransitionDrawingArea
         extends JPanel
-        implements MessageReceiver<Triple<NodeInfoSource, String, Map<Variable, String>>>,
+        implements MessageReceiver<List<Triple<NodeInfoSource, String, Map<Variable, String>>>>,
                    SignalReceiver
 {
     private static final long serialVersionUID = -1303489069622584091L;
@@ -55,24 +56,23 @@ public class TransitionDrawingArea
 
     @Override
     public void receiveMessage(
-            Message<Triple<NodeInfoSource, String, Map<Variable, String>>> message)
+            Message<List<Triple<NodeInfoSource, String, Map<Variable, String>>>> message)
     {
-        Triple<NodeInfoSource, String, Map<Variable, String>> param = message.getParam();
-
-        switch(param.getFirst())
-        {
-            case LEFT_SON:
-                leftSonInfo = Pair.make(param.getSecond(), param.getThird());
-                break;
-
-            case PARENT:
-                parentInfo = Pair.make(param.getSecond(), param.getThird());
-                break;
-
-            case RIGHT_SON:
-                rightSonInfo = Pair.make(param.getSecond(), param.getThird());
-                break;
-        }
+        for(Triple<NodeInfoSource, String, Map<Variable, String>> param : message.getParam())
+            switch(param.getFirst())
+            {
+                case LEFT_SON:
+                    leftSonInfo = Pair.make(param.getSecond(), param.getThird());
+                    break;
+
+                case PARENT:
+                    parentInfo = Pair.make(param.getSecond(), param.getThird());
+                    break;
+
+                case RIGHT_SON:
+                    rightSonInfo = Pair.make(param.getSecond(), param.getThird());
+                    break;
+            }
 
         revalidate();
         repaint();
@@ -5,6 +5,7 @@ import fitaview.utils.Pair;
 
 class NodeParameters
 {
+    private static final int MAX_LEAVES_SHIFT = 16;
     private final int treeDepth;
     private final TreeNode node;
     private final int depth;
@@ -75,7 +76,7 @@ class NodeParameters
 
     int getLeavesNumber()
     {
-        return node.isNull() ? 0 : 1 << getInvertedDepth();
+        return node.isNull() ? 0 : 1 << Math.min(getInvertedDepth(), MAX_LEAVES_SHIFT);
     }
 
     int getInvertedDepth()
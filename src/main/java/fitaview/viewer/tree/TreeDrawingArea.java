@@ -7,6 +7,8 @@ import java.awt.Graphics;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -201,12 +203,23 @@ public class TreeDrawingArea
 
     private void saveNodesPoints(TreeNode tree, NodeParameters parameters)
     {
-        nodesPoints.put(parameters.getDistance(), tree);
+        Deque<Pair<TreeNode, NodeParameters>> nodes = new ArrayDeque<>();
 
-        if(isInnerNode(tree))
+        nodes.push(Pair.make(tree, parameters));
+
+        while(!nodes.isEmpty())
         {
-            saveNodesPoints(tree.getLeft(), parameters.getLeftParams());
-            saveNodesPoints(tree.getRight(), parameters.getRightParams());
+            Pair<TreeNode, NodeParameters> pair = nodes.pop();
+            TreeNode node = pair.getFirst();
+            NodeParameters params = pair.getSecond();
+
+            nodesPoints.put(params.getDistance(), node);
+
+            if(isInnerNode(node))
+            {
+                nodes.push(Pair.make(node.getRight(), params.getRightParams()));
+                nodes.push(Pair.make(node.getLeft(), params.getLeftParams()));
+            }
         }
     }
 
@@ -218,26 +231,41 @@ public class TreeDrawingArea
 
     private void drawTree(Graphics graphics, NodeParameters parameters)
     {
-        TreeNode node = parameters.getNode();
+        Deque<Pair<NodeParameters, Boolean>> nodes = new ArrayDeque<>();
 
-        if(node.getType() == NodeType.REPEAT)
-            repeatNodes.push(parameters);
+        nodes.push(Pair.make(parameters, false));
 
-        if(isInnerNode(node))
-            drawEdges(graphics, parameters);
-        else if(node.getType() == NodeType.REC)
-            drawRecursiveEdge(graphics, parameters);
-
-        drawSingleNode(graphics, parameters);
-
-        if(isInnerNode(node))
+        while(!nodes.isEmpty())
         {
-            drawTree(graphics, parameters.getLeftParams());
-            drawTree(graphics, parameters.getRightParams());
+            Pair<NodeParameters, Boolean> pair = nodes.pop();
+            NodeParameters params = pair.getFirst();
+            TreeNode node = params.getNode();
+
+            if(pair.getSecond())
+            {
+                repeatNodes.pop();
+                continue;
+            }
+
+            if(node.getType() == NodeType.REPEAT)
+            {
+                repeatNodes.push(params);
+                nodes.push(Pair.make(params, true));
+            }
+
+            if(isInnerNode(node))
+                drawEdges(graphics, params);
+            else if(node.getType() == NodeType.REC)
+                drawRecursiveEdge(graphics, params);
+
+            drawSingleNode(graphics, params);
+
+            if(isInnerNode(node))
+            {
+                nodes.push(Pair.make(params.getRightParams(), false));
+                nodes.push(Pair.make(params.getLeftParams(), false));
+            }
         }
-
-        if(node.getType() == NodeType.REPEAT)
-            repeatNodes.pop();
     }
 
     private void drawRecursiveEdge(Graphics graphics, NodeParameters parameters)
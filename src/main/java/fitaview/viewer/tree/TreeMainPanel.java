@@ -15,6 +15,7 @@ import fitaview.automaton.TreeAutomaton;
 import fitaview.automaton.TreeFinitenessException;
 import fitaview.messaging.Message;
 import fitaview.messaging.MessageReceiver;
+import fitaview.tree.TreeBinaryReader;
 import fitaview.tree.TreeNode;
 import fitaview.tree.TreeReader;
 import fitaview.utils.Pair;
@@ -119,6 +120,9 @@ public class TreeMainPanel
     private Pair<TreeNode, Integer> loadTree(File file)
             throws SAXException, IOException
     {
+        if(file.getName().endsWith(".tree.bin"))
+            return new TreeBinaryReader(file).read();
+
         TreeReader reader = new TreeReader(file);
 
         return reader.read();
@@ -0,0 +1,301 @@
+package fitaview.automaton;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.automaton.traversing.TraversingMode;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+import fitaview.utils.Pair;
+
+public class AutomataProductTest
+{
+    private static final String AND_OR_AUTOMATON = "src/test/resources/fixtures/andOr.bua.xml";
+    private BottomUpDFTA valueAutomaton;
+    private BottomUpDFTA zeroAutomaton;
+    private BottomUpDFTA noZeroAutomaton;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        valueAutomaton = (BottomUpDFTA)new AutomatonReader(new File(AND_OR_AUTOMATON)).read();
+
+        zeroAutomaton = createBottomUpAutomaton("T", "F");
+        noZeroAutomaton = createBottomUpAutomaton("F", "T");
+
+        for(String label : Arrays.asList("and", "or"))
+        {
+            zeroAutomaton.addTransition(zeroAutomaton.variables.get(0), "F", "F", label, "F");
+            zeroAutomaton.addTransition(zeroAutomaton.variables.get(0), "T",
+                                        Wildcard.EVERY_VALUE, label, "T");
+            zeroAutomaton.addTransition(zeroAutomaton.variables.get(0), Wildcard.EVERY_VALUE,
+                                        "T", label, "T");
+            noZeroAutomaton.addTransition(noZeroAutomaton.variables.get(0), "T", "T", label, "T");
+            noZeroAutomaton.addTransition(noZeroAutomaton.variables.get(0), "F",
+                                          Wildcard.EVERY_VALUE, label, "F");
+            noZeroAutomaton.addTransition(noZeroAutomaton.variables.get(0),
+                                          Wildcard.EVERY_VALUE, "F", label, "F");
+        }
+    }
+
+    @Test
+    public void testIsAcceptedWhenIntersection()
+    {
+        AutomataProduct testObject =
+                new AutomataProduct(Arrays.asList(valueAutomaton, zeroAutomaton),
+                                    ProductAcceptance.INTERSECTION);
+        Boolean result = null;
+        boolean resultValue = true;
+        boolean resultZero = false;
+
+        try
+        {
+            run(testObject, new StandardNode("and", 1, new StandardNode("1", 2),
+                                             new StandardNode("0", 3)));
+            result = testObject.getAutomaton().isAccepted();
+            resultValue = testObject.isAccepted(0);
+            resultZero = testObject.isAccepted(1);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(2, testObject.getAutomaton().getVariables().size());
+        Assert.assertFalse(result);
+        Assert.assertFalse(resultValue);
+        Assert.assertTrue(resultZero);
+    }
+
+    @Test
+    public void testIsAcceptedWhenIntersectionOfManyConditions()
+    {
+        List<BottomUpDFTA> components = new ArrayList<>();
+        Boolean resultOne = null;
+        Boolean resultZero = null;
+        Boolean resultMinimal = null;
+
+        try
+        {
+            for(int i = 0; i < 12; ++i)
+            {
+                BottomUpDFTA component = createBottomUpAutomaton("F", "T");
+                Variable variable = component.variables.get(0);
+
+                component.addAcceptanceConditions(Collections.singletonMap(
+                        variable, Pair.make("X", true)));
+                component.addAcceptanceConditions(Collections.singletonMap(
+                        variable, Pair.make("F", false)));
+                components.add(component);
+            }
+
+            AutomataProduct testObject =
+                    new AutomataProduct(components, ProductAcceptance.INTERSECTION);
+
+            run(testObject, new StandardNode("1", 1));
+            resultOne = testObject.getAutomaton().isAccepted();
+            run(testObject, new StandardNode("0", 1));
+            resultZero = testObject.getAutomaton().isAccepted();
+
+            BottomUpDFTA minimal = new BottomUpMinimization(
+                    (BottomUpDFTA)testObject.getAutomaton()).getAutomaton();
+
+            minimal.setTraversing(TraversingMode.LEVEL);
+            minimal.setTree(new StandardNode("0", 1));
+            minimal.run();
+            resultMinimal = minimal.isAccepted();
+
+            Assert.assertEquals(0, testObject.getAutomaton().getAcceptanceConditions().size());
+            Assert.assertEquals(12, testObject.getAutomaton()
+                                              .getAcceptanceConditions()
+                                              .getConjuncts()
+                                              .size());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(resultOne);
+        Assert.assertFalse(resultZero);
+        Assert.assertFalse(resultMinimal);
+    }
+
+    @Test
+    public void testIsAcceptedWhenUnion()
+    {
+        AutomataProduct testObject =
+                new AutomataProduct(Arrays.asList(valueAutomaton, zeroAutomaton),
+                                    ProductAcceptance.UNION);
+        boolean result = false;
+        Boolean resultAutomaton = null;
+
+        try
+        {
+            run(testObject, new StandardNode("and", 1, new StandardNode("1", 2),
+                                             new StandardNode("0", 3)));
+            result = testObject.isAccepted();
+            resultAutomaton = testObject.getAutomaton().isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+        Assert.assertTrue(resultAutomaton);
+    }
+
+    @Test
+    public void testCheckEmptinessWhenIntersection()
+    {
+        AutomataProduct testObject =
+                new AutomataProduct(Arrays.asList(valueAutomaton, zeroAutomaton),
+                                    ProductAcceptance.INTERSECTION);
+        AutomataProduct testObjectEmpty =
+                new AutomataProduct(Arrays.asList(zeroAutomaton, noZeroAutomaton),
+                                    ProductAcceptance.INTERSECTION);
+        boolean result = true;
+        boolean resultEmpty = false;
+
+        try
+        {
+            result = testObject.checkEmptiness();
+            resultEmpty = testObjectEmpty.checkEmptiness();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+        Assert.assertTrue(resultEmpty);
+    }
+
+    @Test
+    public void testAutomatonWhenNondeterministic()
+    {
+        AutomataProduct testObject = null;
+
+        try
+        {
+            Variable variable = new Variable(0, "X", "T", "F");
+            BottomUpNFTA automaton = new BottomUpNFTA(Collections.singletonList(variable),
+                                                      Arrays.asList("0", "1"));
+
+            automaton.addTransition(variable, "X", "X", "0", "T");
+            automaton.addTransition(variable, "X", "X", "0", "F");
+            testObject = new AutomataProduct(Arrays.asList(valueAutomaton, automaton),
+                                             ProductAcceptance.INTERSECTION);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(testObject.getAutomaton() instanceof BottomUpNFTA);
+    }
+
+    @Test
+    public void testIsAcceptedWhenTopDownUnion()
+    {
+        AutomataProduct testObject = null;
+        boolean result = false;
+        boolean resultRoot = false;
+        boolean resultNoB = true;
+
+        try
+        {
+            Variable rootVariable = new Variable(0, "X", "Y", "N");
+            Variable noBVariable = new Variable(0, "Y", "N");
+            TopDownDFTA rootAutomaton = new TopDownDFTA(Collections.singletonList(rootVariable),
+                                                        Arrays.asList("a", "b"));
+            TopDownDFTA noBAutomaton = new TopDownDFTA(Collections.singletonList(noBVariable),
+                                                       Arrays.asList("a", "b"));
+
+            rootAutomaton.addTransition(rootVariable, "X", "a", "Y", "Y");
+            rootAutomaton.addTransition(rootVariable, "X", "b", "N", "N");
+            noBAutomaton.addTransition(noBVariable, "Y", "a", "Y", "Y");
+            noBAutomaton.addTransition(noBVariable, "Y", "b", "N", "N");
+
+            for(String label : Arrays.asList("a", "b"))
+            {
+                rootAutomaton.addTransition(rootVariable, "Y", label, Wildcard.SAME_VALUE,
+                                            Wildcard.SAME_VALUE);
+                rootAutomaton.addTransition(rootVariable, "N", label, Wildcard.SAME_VALUE,
+                                            Wildcard.SAME_VALUE);
+                noBAutomaton.addTransition(noBVariable, "N", label, Wildcard.SAME_VALUE,
+                                           Wildcard.SAME_VALUE);
+            }
+
+            rootAutomaton.addAcceptanceConditions(
+                    Collections.singletonMap(rootVariable, Pair.make("Y", true)));
+            noBAutomaton.addAcceptanceConditions(
+                    Collections.singletonMap(noBVariable, Pair.make("Y", true)));
+            testObject = new AutomataProduct(Arrays.asList(rootAutomaton, noBAutomaton),
+                                             ProductAcceptance.UNION);
+            run(testObject, new StandardNode("a", 1, new StandardNode("b", 2),
+                                             new StandardNode("a", 3)));
+            result = testObject.isAccepted();
+            resultRoot = testObject.isAccepted(0);
+            resultNoB = testObject.isAccepted(1);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(testObject.getAutomaton() instanceof TopDownDFTA);
+        Assert.assertTrue(result);
+        Assert.assertTrue(resultRoot);
+        Assert.assertFalse(resultNoB);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAutomataProductWhenDifferentDirections()
+            throws Exception
+    {
+        Variable variable = new Variable(0, "X", "Y");
+
+        new AutomataProduct(Arrays.asList(valueAutomaton,
+                                          new TopDownDFTA(Collections.singletonList(variable),
+                                                          Arrays.asList("0", "1"))),
+                            ProductAcceptance.INTERSECTION);
+    }
+
+    private BottomUpDFTA createBottomUpAutomaton(String zeroValue, String oneValue)
+            throws Exception
+    {
+        Variable variable = new Variable(0, "X", "T", "F");
+        BottomUpDFTA automaton = new BottomUpDFTA(Collections.singletonList(variable),
+                                                  Arrays.asList("0", "1", "and", "or"));
+
+        automaton.addTransition(variable, "X", "X", "0", zeroValue);
+        automaton.addTransition(variable, "X", "X", "1", oneValue);
+        automaton.addAcceptanceConditions(Collections.singletonMap(variable,
+                                                                   Pair.make("T", true)));
+
+        return automaton;
+    }
+
+    private void run(AutomataProduct product, TreeNode tree)
+            throws Exception
+    {
+        product.getAutomaton().setTraversing(TraversingMode.LEVEL);
+        product.getAutomaton().setTree(tree);
+        product.getAutomaton().run();
+    }
+}
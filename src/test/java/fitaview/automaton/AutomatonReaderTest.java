@@ -929,6 +929,32 @@ public class AutomatonReaderTest
         }
     }
 
+    @Test(expected = AutomatonParsingException.class)
+    public void testReadBottomUpDFTAWhenStateTooLarge()
+            throws SAXException
+    {
+        try
+        {
+            testObject = new AutomatonReader(
+                    new File(DIRECTORY + "testReadBottomUpDFTAWhenStateTooLarge.bua.xml"));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        try
+        {
+            testObject.read();
+        }
+        catch(IOException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
     @Test(expected = AutomatonParsingException.class)
     public void testReadBottomUpDFTAWhenVariableValueIsEmpty()
             throws SAXException
@@ -1,22 +1,32 @@
 package fitaview.automaton;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.xml.sax.SAXException;
 
 import fitaview.automaton.transition.NoSuchTransitionException;
 import fitaview.automaton.traversing.TraversingMode;
+import fitaview.messaging.MessageReceiver;
 import fitaview.tree.*;
 import fitaview.utils.Pair;
 import fitaview.utils.Triple;
 
 public class BottomUpDFTATest
 {
+    private static final String DIRECTORY = "src/test/resources/BottomUpDFTATest/";
     private BottomUpDFTA testObject;
     private List<Variable> variables;
     private List<String> alphabet = Arrays.asList("0", "1", "and", "or", "impl");
@@ -217,6 +227,42 @@ public class BottomUpDFTATest
         Assert.assertEquals("@", node1.getStateValueOrNull(variables.get(1)));
     }
 
+    @Test
+    public void testRunWhenArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("impl", 1);
+        int node3 = tree.addNode("and", 3);
+        int node7 = tree.addNode("1", 7);
+        int node6 = tree.addNode("0", 6);
+        int node2 = tree.addNode("1", 2);
+
+        try
+        {
+            tree.setLeft(node1, node3);
+            tree.setRight(node1, node2);
+            tree.setLeft(node3, node7);
+            tree.setRight(node3, node6);
+            testObject.setTraversing(TraversingMode.BFS);
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTree(tree.getRoot());
+            testObject.run();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.runningMode);
+        Assert.assertEquals("T", tree.getNode(node7).getStateValueOrNull(variables.get(0)));
+        Assert.assertEquals("F", tree.getNode(node6).getStateValueOrNull(variables.get(0)));
+        Assert.assertEquals("F", tree.getNode(node3).getStateValueOrNull(variables.get(0)));
+        Assert.assertEquals("&", tree.getNode(node3).getStateValueOrNull(variables.get(1)));
+        Assert.assertEquals("T", tree.getNode(node1).getStateValueOrNull(variables.get(0)));
+        Assert.assertEquals("@", tree.getNode(node1).getStateValueOrNull(variables.get(1)));
+    }
+
     @Test(expected = NoTraversingStrategyException.class)
     public void testRunWhenNoTraversing()
             throws NoTraversingStrategyException
@@ -400,6 +446,77 @@ public class BottomUpDFTATest
         Assert.assertEquals("@", node1.getStateValueOrNull(variables.get(1)));
     }
 
+    @Test
+    public void testMakeStepForwardWhenParallelLevels()
+    {
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new TreeReader(new File(DIRECTORY + "testEvaluate.tree.xml")).read()
+                                                                              .getFirst();
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.run();
+            collectStates(tree, expected);
+
+            testObject.stopTraversing();
+            testObject.setParallelLevels(true);
+
+            do
+            {
+                testObject.makeStepForward();
+            }
+            while(testObject.getRunningMode() == AutomatonRunningMode.RUNNING);
+
+            collectStates(tree, result);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testMakeStepForwardWhenParallelLevelsSendsTransitions()
+    {
+        List<Integer> result = new ArrayList<>();
+        MessageReceiver<List<Triple<NodeInfoSource, String, Map<Variable, String>>>> receiver =
+                message -> result.add(message.getParam().size());
+
+        TransitionSender.getInstance().addReceiver(receiver);
+
+        try
+        {
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(
+                    new TreeReader(new File(DIRECTORY + "testEvaluate.tree.xml")).read()
+                                                                                  .getFirst());
+            testObject.setParallelLevels(true);
+            testObject.setSendingMessages(true);
+            testObject.makeStepForward();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+        finally
+        {
+            TransitionSender.getInstance().removeReceiver(receiver);
+        }
+
+        Assert.assertEquals(Collections.singletonList(3 * 2), result);
+    }
+
     @Test(expected = NoTraversingStrategyException.class)
     public void testMakeStepForwardWhenNoTraversing()
             throws NoTraversingStrategyException
@@ -806,6 +923,223 @@ public class BottomUpDFTATest
         }
     }
 
+    @Test
+    public void testIsAcceptedWhenStreaming()
+    {
+        boolean result = false;
+
+        try
+        {
+            testObject.addAcceptanceConditions(accepts);
+
+            result = testObject.isAccepted(
+                    new TreeReader(new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+    }
+
+    @Test
+    public void testEvaluate()
+    {
+        Map<Variable, String> result = null;
+        Map<Variable, String> expected = new HashMap<>();
+
+        expected.put(variables.get(0), "F");
+        expected.put(variables.get(1), "@");
+
+        try
+        {
+            result = testObject.evaluate(
+                    new TreeReader(new File(DIRECTORY + "testEvaluate.tree.xml")));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test(expected = TreeFinitenessException.class)
+    public void testEvaluateWhenInfiniteTree()
+            throws TreeFinitenessException
+    {
+        try
+        {
+            testObject.evaluate(
+                    new TreeReader(new File(DIRECTORY + "testEvaluateWhenInfiniteTree.tree.xml")));
+        }
+        catch(IOException | SAXException | NoSuchTransitionException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testRunContextWhenConcurrent()
+    {
+        List<Boolean> results = new ArrayList<>();
+        TreeNode accepted = null;
+        TreeNode rejected = null;
+
+        try
+        {
+            testObject.addAcceptanceConditions(accepts);
+            accepted = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                                   .getFirst();
+            rejected = new TreeReader(new File(DIRECTORY + "testEvaluate.tree.xml")).read()
+                                                                                   .getFirst();
+
+            List<RunContext> contexts = new ArrayList<>();
+
+            for(int i = 0; i < 100; ++i)
+                contexts.add(testObject.createRunContext(i % 2 == 0 ? accepted : rejected));
+
+            contexts.parallelStream().forEach(context -> {
+                try
+                {
+                    context.run();
+                }
+                catch(NoSuchTransitionException | IllegalVariableValueException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            for(RunContext context : contexts)
+                results.add(context.isAccepted());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        for(int i = 0; i < results.size(); ++i)
+            Assert.assertEquals(i % 2 == 0, results.get(i));
+
+        Assert.assertEquals(100, results.size());
+        Assert.assertTrue(accepted.getStateWithNulls().isEmpty());
+    }
+
+    @Test
+    public void testRunContextWhenArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("impl", 1);
+        int node3 = tree.addNode("and", 3);
+        int node7 = tree.addNode("1", 7);
+        int node6 = tree.addNode("0", 6);
+        int node2 = tree.addNode("1", 2);
+        RunContext context = null;
+
+        try
+        {
+            tree.setLeft(node1, node3);
+            tree.setRight(node1, node2);
+            tree.setLeft(node3, node7);
+            tree.setRight(node3, node6);
+            testObject.addAcceptanceConditions(accepts);
+            context = testObject.createRunContext(tree.getRoot());
+            context.run();
+
+            Assert.assertTrue(context.isAccepted());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals("F", context.getState(tree.getNode(node3)).get(variables.get(0)));
+        Assert.assertEquals("&", context.getState(tree.getNode(node3)).get(variables.get(1)));
+        Assert.assertEquals("T", context.getState(tree.getRoot()).get(variables.get(0)));
+        Assert.assertTrue(tree.getRoot().getStateWithNulls().isEmpty());
+    }
+
+    @Test
+    public void testRunParallel()
+    {
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+        TreeNode tree = null;
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try
+        {
+            tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                               .getFirst();
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            collectStates(tree, expected);
+
+            testObject.runParallel(pool, 1);
+            resultAccepted = testObject.isAccepted();
+            collectStates(tree, result);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+        Assert.assertTrue(resultAccepted);
+    }
+
+    @Test(expected = NoTreeException.class)
+    public void testRunParallelWhenNoTree()
+            throws NoTreeException
+    {
+        try
+        {
+            testObject.runParallel();
+        }
+        catch(IllegalVariableValueException | NoSuchTransitionException
+                | TreeFinitenessException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = UndefinedStateValueException.class)
+    public void testRunContextWhenNotRun()
+            throws UndefinedStateValueException
+    {
+        try
+        {
+            testObject.addAcceptanceConditions(accepts);
+            testObject.createRunContext(new StandardNode("0", 1)).isAccepted();
+        }
+        catch(TreeFinitenessException | NoTreeException | UndefinedAcceptanceException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
     @Test
     public void testIsInAlphabetWhenValueInAlphabet()
     {
@@ -956,6 +1290,98 @@ public class BottomUpDFTATest
         Assert.assertTrue(result);
     }
 
+    @Test
+    public void testCheckEmptinessWhenStatesFromDifferentLevels()
+    {
+        boolean result = true;
+        Variable variable = null;
+        Map<Variable, Pair<String, Boolean>> testAccepts = new HashMap<>();
+
+        try
+        {
+            variable = new Variable(1, "X", "A", "B", "C");
+            testObject = new BottomUpDFTA(Collections.singletonList(variable),
+                                          Arrays.asList("leaf", "f", "g"));
+            testObject.addTransition(variable, "X", "X", "leaf", "A");
+            testObject.addTransition(variable, "A", "A", "f", "B");
+            testObject.addTransition(variable, "B", "A", "g", "C");
+            testAccepts.put(variable, Pair.make("C", true));
+            testObject.addAcceptanceConditions(testAccepts);
+
+            result = testObject.checkEmptiness();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+    }
+
+    @Test
+    public void testFindMinimalTree()
+    {
+        TreeNode result = null;
+        TreeNode expected = null;
+        Variable variable = null;
+        Map<Variable, Pair<String, Boolean>> testAccepts = new HashMap<>();
+
+        try
+        {
+            variable = new Variable(1, "X", "A", "B", "C");
+            testObject = new BottomUpDFTA(Collections.singletonList(variable),
+                                          Arrays.asList("leaf", "f", "g", "h"));
+            testObject.addTransition(variable, "X", "X", "leaf", "A");
+            testObject.addTransition(variable, "A", "A", "f", "B");
+            testObject.addTransition(variable, "B", "B", "h", "C");
+            testObject.addTransition(variable, "B", "A", "g", "C");
+            testAccepts.put(variable, Pair.make("C", true));
+            testObject.addAcceptanceConditions(testAccepts);
+
+            expected = new StandardNode("g", 1, new StandardNode("f", 2, new StandardNode("leaf", 3),
+                                                                 new StandardNode("leaf", 4)),
+                                        new StandardNode("leaf", 5));
+            result = testObject.findMinimalTree();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testFindMinimalTreeWhenEmpty()
+    {
+        TreeNode result = null;
+        Variable variable = null;
+        Map<Variable, Pair<String, Boolean>> testAccepts = new HashMap<>();
+
+        try
+        {
+            variable = new Variable(1, "X", "A", "B", "C");
+            testObject = new BottomUpDFTA(Collections.singletonList(variable),
+                                          Arrays.asList("leaf", "f"));
+            testObject.addTransition(variable, "X", "X", "leaf", "A");
+            testObject.addTransition(variable, "A", "A", "f", "B");
+            testObject.addTransition(variable, "B", "B", "f", "A");
+            testAccepts.put(variable, Pair.make("C", true));
+            testObject.addAcceptanceConditions(testAccepts);
+
+            result = testObject.findMinimalTree();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertNull(result);
+    }
+
     @Test(expected = UndefinedAcceptanceException.class)
     public void testCheckEmptinessWhenNoAcceptance()
             throws UndefinedAcceptanceException
@@ -970,4 +1396,376 @@ public class BottomUpDFTATest
             Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
         }
     }
+
+    @Test
+    public void testRelabelNode()
+    {
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                               .getFirst();
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.run();
+            testObject.relabelNode((StandardNode)tree.getRight(), "and");
+            resultAccepted = testObject.isAccepted();
+            collectStates(tree, result);
+
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            collectStates(tree, expected);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals("and", tree.getRight().getLabel());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+        Assert.assertFalse(resultAccepted);
+    }
+
+    @Test
+    public void testReplaceSubtree()
+    {
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+        TreeNode tree = null;
+        TreeNode subtree = null;
+
+        try
+        {
+            tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                               .getFirst();
+            subtree = new StandardNode("and", 0, new StandardNode("1", 0),
+                                       new StandardNode("0", 0));
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.run();
+            testObject.replaceSubtree(tree.getLeft().getRight(), subtree);
+            resultAccepted = testObject.isAccepted();
+            collectStates(tree, result);
+
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            collectStates(tree, expected);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertSame(subtree, tree.getLeft().getRight());
+        Assert.assertSame(tree.getLeft(), subtree.getParent());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+        Assert.assertTrue(resultAccepted);
+    }
+
+    @Test
+    public void testReplaceSubtreeWhenNotFinished()
+    {
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                               .getFirst();
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.makeStepForward();
+            testObject.stopTraversing();
+            testObject.replaceSubtree(tree.getRight(), new StandardNode("0", 0));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.STOPPED, testObject.getRunningMode());
+        Assert.assertEquals("0", tree.getRight().getLabel());
+        Assert.assertTrue(tree.getRight().getLeft().isNull());
+    }
+
+    @Test(expected = AutomatonIsRunningException.class)
+    public void testRelabelNodeWhenRunning()
+            throws AutomatonIsRunningException
+    {
+        try
+        {
+            TreeNode tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                                 .getFirst();
+
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.makeStepForward();
+            testObject.relabelNode((StandardNode)tree, "and");
+        }
+        catch(AutomatonIsRunningException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplaceSubtreeWhenNullNode()
+    {
+        try
+        {
+            TreeNode tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                                 .getFirst();
+
+            testObject.setTree(tree);
+            testObject.replaceSubtree(tree.getLeft().getLeft().getLeft(),
+                                      new StandardNode("0", 0));
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplaceSubtreeWhenNotInTree()
+    {
+        try
+        {
+            TreeNode tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                                 .getFirst();
+
+            testObject.setTree(tree);
+            testObject.replaceSubtree(new StandardNode("1", 0), new StandardNode("0", 0));
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testReplaceSubtreeWhenArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("and", 1);
+        int node3 = tree.addNode("1", 3);
+        int node2 = tree.addNode("0", 2);
+        TreeNode subtree = null;
+        Boolean resultBefore = null;
+        Boolean resultAfter = null;
+
+        try
+        {
+            tree.setLeft(node1, node3);
+            tree.setRight(node1, node2);
+            subtree = new StandardNode("1", 1);
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree.getRoot());
+            testObject.run();
+            resultBefore = testObject.isAccepted();
+            testObject.replaceSubtree(tree.getRoot(), subtree);
+            resultAfter = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertSame(subtree, testObject.tree);
+        Assert.assertEquals("T", subtree.getStateValueOrNull(variables.get(0)));
+        Assert.assertFalse(resultBefore);
+        Assert.assertTrue(resultAfter);
+    }
+
+    @Test
+    public void testMakeStepBackward()
+    {
+        List<List<Map<Variable, String>>> expected = new ArrayList<>();
+        List<List<Map<Variable, String>>> result = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                               .getFirst();
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.BFS);
+            testObject.setTree(tree);
+            testObject.setRecordingHistory(true);
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+            {
+                testObject.makeStepForward();
+                expected.add(new ArrayList<>());
+                collectStates(tree, expected.get(expected.size() - 1));
+            }
+
+            expectedAccepted = testObject.isAccepted();
+
+            for(int i = 1; i < expected.size(); ++i)
+            {
+                testObject.makeStepBackward();
+                Assert.assertEquals(AutomatonRunningMode.RUNNING, testObject.getRunningMode());
+            }
+
+            result.add(new ArrayList<>());
+            collectStates(tree, result.get(0));
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+            {
+                testObject.makeStepForward();
+                result.add(new ArrayList<>());
+                collectStates(tree, result.get(result.size() - 1));
+            }
+
+            resultAccepted = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(11, testObject.getStepsCount());
+        Assert.assertEquals(11, testObject.getCurrentStep());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+    }
+
+    @Test
+    public void testJumpToStep()
+    {
+        List<List<Map<Variable, String>>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                               .getFirst();
+            testObject.addAcceptanceConditions(accepts);
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setTree(tree);
+            testObject.setRecordingHistory(true);
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+            {
+                testObject.makeStepForward();
+                expected.add(new ArrayList<>());
+                collectStates(tree, expected.get(expected.size() - 1));
+            }
+
+            testObject.jumpToStep(1);
+            collectStates(tree, result);
+            Assert.assertEquals(expected.get(0), result);
+            Assert.assertEquals(AutomatonRunningMode.RUNNING, testObject.getRunningMode());
+
+            testObject.jumpToStep(0);
+            Assert.assertNull(tree.getStateValueOrNull(variables.get(0)));
+
+            testObject.jumpToStep(3);
+            result.clear();
+            collectStates(tree, result);
+            Assert.assertEquals(expected.get(2), result);
+
+            testObject.run();
+            result.clear();
+            collectStates(tree, result);
+            Assert.assertEquals(expected.get(expected.size() - 1), result);
+            Assert.assertTrue(testObject.isAccepted());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(4, testObject.getStepsCount());
+        Assert.assertEquals(4, testObject.getCurrentStep());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeStepBackwardWhenNoStep()
+    {
+        try
+        {
+            TreeNode tree = new TreeReader(
+                    new File(DIRECTORY + "testIsAcceptedWhenStreaming.tree.xml")).read()
+                                                                                 .getFirst();
+
+            testObject.setTraversing(TraversingMode.BFS);
+            testObject.setTree(tree);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject.makeStepBackward();
+    }
+
+    private void collectStates(TreeNode tree, List<Map<Variable, String>> states)
+    {
+        Deque<TreeNode> nodes = new ArrayDeque<>();
+
+        nodes.push(tree);
+
+        while(!nodes.isEmpty())
+        {
+            TreeNode node = nodes.pop();
+
+            states.add(node.getStateWithNulls());
+
+            if(!node.isNull())
+            {
+                nodes.push(node.getRight());
+                nodes.push(node.getLeft());
+            }
+        }
+    }
 }
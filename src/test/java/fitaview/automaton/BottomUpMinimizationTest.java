@@ -0,0 +1,106 @@
+package fitaview.automaton;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+import fitaview.utils.Pair;
+
+public class BottomUpMinimizationTest
+{
+    private BottomUpDFTA automaton;
+    private BottomUpMinimization testObject;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        Variable variable = new Variable(1, "X", "A", "B", "C", "D");
+
+        automaton = new BottomUpDFTA(Collections.singletonList(variable),
+                                     Arrays.asList("0", "1", "f", "g"));
+        automaton.addTransition(variable, "X", "X", "0", "A");
+        automaton.addTransition(variable, "X", "X", "1", "B");
+        automaton.addTransition(variable, "D", Wildcard.EVERY_VALUE, "f", "D");
+
+        for(String label : Arrays.asList("f", "g"))
+        {
+            String falseValue = label.equals("f") ? "A" : "C";
+
+            automaton.addTransition(variable, "B", "B", label, "B");
+
+            for(String value : Arrays.asList("A", "C"))
+            {
+                automaton.addTransition(variable, value, Wildcard.EVERY_VALUE, label,
+                                        falseValue);
+                automaton.addTransition(variable, Wildcard.EVERY_VALUE, value, label,
+                                        falseValue);
+            }
+        }
+
+        automaton.addAcceptanceConditions(Collections.singletonMap(variable,
+                                                                   Pair.make("B", true)));
+        testObject = automaton.minimize();
+    }
+
+    @Test
+    public void testGetAutomaton()
+    {
+        List<Variable> variables = testObject.getAutomaton().variables;
+
+        Assert.assertEquals(1, variables.size());
+        Assert.assertEquals(3, variables.get(0).size());
+        Assert.assertTrue(variables.get(0).contains("X"));
+        Assert.assertTrue(variables.get(0).contains("B"));
+        Assert.assertEquals(5, testObject.getOriginalStatesCount());
+        Assert.assertEquals(3, testObject.getStatesCount());
+        Assert.assertTrue(testObject.getTransitionsCount()
+                                  < testObject.getOriginalTransitionsCount());
+    }
+
+    @Test
+    public void testGetAutomatonIsEquivalent()
+    {
+        try
+        {
+            TreeNode node1 = new StandardNode("f", 2, new StandardNode("1", 3),
+                                              new StandardNode("1", 4));
+            TreeNode node2 = new StandardNode("g", 6, new StandardNode("0", 7),
+                                              new StandardNode("1", 8));
+            TreeNode node3 = new StandardNode("g", 10, new StandardNode("1", 11),
+                                              new StandardNode("1", 12));
+            List<TreeNode> trees = Arrays.asList(
+                    new StandardNode("g", 1, node1, new StandardNode("1", 5)),
+                    new StandardNode("f", 5, node2, new StandardNode("1", 9)),
+                    node3, new StandardNode("0", 13));
+
+            for(TreeNode tree : trees)
+            {
+                RunContext context = automaton.createRunContext(tree);
+                RunContext minimalContext = testObject.getAutomaton().createRunContext(tree);
+
+                context.run();
+                minimalContext.run();
+                Assert.assertEquals(context.isAccepted(), minimalContext.isAccepted());
+            }
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testToString()
+    {
+        String result = testObject.toString();
+
+        Assert.assertTrue(result.startsWith("States: 5 -> 3, transitions: "));
+    }
+}
@@ -6,6 +6,12 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import fitaview.automaton.nondeterminism.FirstElementChoice;
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.automaton.traversing.TraversingMode;
+import fitaview.tree.ArrayTree;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
 import fitaview.tree.UndefinedStateValueException;
 import fitaview.utils.Pair;
 
@@ -140,4 +146,283 @@ public class BottomUpNFTATest
 
         Assert.assertFalse(result);
     }
+
+    @Test
+    public void testCheckEmptinessWhenEmpty()
+    {
+        boolean result = false;
+
+        try
+        {
+            testObject = new BottomUpNFTA(variables, alphabet);
+            testObject.addTransition(variables.get(0), Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE,
+                                     Wildcard.EVERY_VALUE, "A");
+            testObject.addTransition(variables.get(1), Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE,
+                                     Wildcard.EVERY_VALUE, "X");
+            testObject.addTransition(variables.get(1), "X", "X", "1", "Y");
+            testObject.addAcceptanceConditions(Collections.singletonMap(variables.get(0),
+                                                                        Pair.make("B", true)));
+
+            result = testObject.checkEmptiness();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+    }
+
+    @Test
+    public void testFindMinimalTree()
+    {
+        TreeNode result = null;
+        TreeNode expected = null;
+        Map<Variable, Pair<String, Boolean>> accept = new HashMap<>();
+
+        try
+        {
+            testObject = new BottomUpNFTA(variables, alphabet);
+            testObject.addTransition(variables.get(0), Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE,
+                                     Wildcard.EVERY_VALUE, "B");
+            testObject.addTransition(variables.get(1), "X", "X", "0", "Y");
+            testObject.addTransition(variables.get(1), "Y", "Y", "1", "Y");
+            testObject.addTransition(variables.get(1), "Y", "Y", "1", "X");
+            accept.put(variables.get(0), Pair.make("B", true));
+            accept.put(variables.get(1), Pair.make("X", true));
+            testObject.addAcceptanceConditions(accept);
+
+            expected = new StandardNode("1", 1, new StandardNode("0", 2),
+                                        new StandardNode("0", 3));
+            result = testObject.findMinimalTree();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testRunWhenAllRuns()
+    {
+        TreeNode node = null;
+        Boolean result = null;
+        Set<Map<Variable, String>> states = null;
+        Set<Map<Variable, String>> expected = new HashSet<>();
+
+        for(String value0 : Arrays.asList("A", "B"))
+            for(String value1 : Arrays.asList("X", "Y"))
+            {
+                Map<Variable, String> state = new HashMap<>();
+
+                state.put(variables.get(0), value0);
+                state.put(variables.get(1), value1);
+                expected.add(state);
+            }
+
+        try
+        {
+            node = new StandardNode("1", 1, new StandardNode("1", 2), new StandardNode("1", 3));
+
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setAllRuns(true);
+            testObject.setTree(node);
+            testObject.run();
+
+            result = testObject.isAccepted();
+            states = testObject.getAllStates(node);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected, states);
+        Assert.assertTrue(result);
+    }
+
+    @Test
+    public void testRunWhenAllRunsAndArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("1", 1);
+        Boolean result = null;
+        Set<Map<Variable, String>> states = null;
+
+        try
+        {
+            tree.setLeft(node1, tree.addNode("1", 2));
+            tree.setRight(node1, tree.addNode("1", 3));
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setAllRuns(true);
+            testObject.setTree(tree.getRoot());
+            testObject.run();
+
+            result = testObject.isAccepted();
+            states = testObject.getAllStates(tree.getRoot());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(4, states.size());
+        Assert.assertTrue(result);
+    }
+
+    @Test(expected = UndefinedStateValueException.class)
+    public void testGetAllStatesWhenNotAllRuns()
+            throws UndefinedStateValueException
+    {
+        TreeNode node = new StandardNode("0", 1);
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setChoice(new FirstElementChoice<>());
+            testObject.setTree(node);
+            testObject.run();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject.getAllStates(node);
+    }
+
+    @Test
+    public void testMakeStepBackwardWhenAllRuns()
+    {
+        TreeNode node = null;
+        Set<Map<Variable, String>> expected = null;
+        Set<Map<Variable, String>> result = null;
+        Boolean accepted = null;
+
+        try
+        {
+            node = new StandardNode("1", 1, new StandardNode("1", 2), new StandardNode("1", 3));
+
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setAllRuns(true);
+            testObject.setRecordingHistory(true);
+            testObject.setTree(node);
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+                testObject.makeStepForward();
+
+            expected = testObject.getAllStates(node);
+            testObject.makeStepBackward();
+            Assert.assertNull(node.getStateValueOrNull(variables.get(0)));
+            Assert.assertNotNull(node.getLeft().getStateValueOrNull(variables.get(0)));
+
+            testObject.makeStepForward();
+            result = testObject.getAllStates(node);
+            accepted = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(expected, result);
+        Assert.assertTrue(accepted);
+    }
+
+    @Test(expected = UndefinedStateValueException.class)
+    public void testGetAllStatesWhenStepReverted()
+            throws UndefinedStateValueException
+    {
+        TreeNode node = null;
+
+        try
+        {
+            node = new StandardNode("1", 1, new StandardNode("1", 2), new StandardNode("1", 3));
+
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setAllRuns(true);
+            testObject.setRecordingHistory(true);
+            testObject.setTree(node);
+            testObject.makeStepForward();
+            testObject.makeStepForward();
+            testObject.makeStepBackward();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject.getAllStates(node);
+    }
+
+    @Test
+    public void testRunWhenAllRunsAndNotAccepted()
+    {
+        Boolean result = null;
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.setAllRuns(true);
+            testObject.setTree(new StandardNode("0", 1, new StandardNode("0", 2),
+                                                new StandardNode("0", 3)));
+            testObject.run();
+
+            result = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRunContext()
+    {
+        try
+        {
+            testObject.createRunContext(new StandardNode("0", 1)).run();
+        }
+        catch(TreeFinitenessException | NoTreeException | NoSuchTransitionException
+                | IllegalVariableValueException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRunParallel()
+    {
+        try
+        {
+            testObject.setTree(new StandardNode("0", 1));
+            testObject.runParallel();
+        }
+        catch(TreeFinitenessException | NoTreeException | NoSuchTransitionException
+                | IllegalVariableValueException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetParallelLevels()
+    {
+        testObject.setParallelLevels(true);
+    }
 }
@@ -0,0 +1,197 @@
+package fitaview.automaton;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.tree.TreeNode;
+import fitaview.utils.Pair;
+
+public class InclusionCheckerTest
+{
+    private static final String AND_OR_AUTOMATON = "src/test/resources/fixtures/andOr.bua.xml";
+    private BottomUpDFTA valueAutomaton;
+    private BottomUpDFTA oneAutomaton;
+    private BottomUpDFTA zeroAutomaton;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        Variable oneVariable = new Variable(1, "X", "T", "F");
+        Variable zeroVariable = new Variable(2, "X", "T", "F");
+        List<String> alphabet = Arrays.asList("0", "1", "and", "or");
+
+        valueAutomaton = (BottomUpDFTA)new AutomatonReader(new File(AND_OR_AUTOMATON)).read();
+        oneAutomaton = new BottomUpDFTA(Collections.singletonList(oneVariable), alphabet);
+        zeroAutomaton = new BottomUpDFTA(Collections.singletonList(zeroVariable), alphabet);
+        addContainingTransitions(oneAutomaton, oneVariable, "1", "0");
+        addContainingTransitions(zeroAutomaton, zeroVariable, "0", "1");
+    }
+
+    @Test
+    public void testIsIncludedIn()
+    {
+        try
+        {
+            Assert.assertTrue(valueAutomaton.isIncludedIn(oneAutomaton));
+            Assert.assertFalse(oneAutomaton.isIncludedIn(valueAutomaton));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testFindNotIncludedTree()
+    {
+        try
+        {
+            TreeNode result = oneAutomaton.findNotIncludedTree(valueAutomaton);
+
+            Assert.assertNotNull(result);
+            Assert.assertEquals(3, countNodes(result));
+            Assert.assertTrue(isAccepted(oneAutomaton, result));
+            Assert.assertFalse(isAccepted(valueAutomaton, result));
+            Assert.assertNull(valueAutomaton.findNotIncludedTree(oneAutomaton));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testFindDifferentTree()
+    {
+        try
+        {
+            TreeNode result = valueAutomaton.findDifferentTree(zeroAutomaton);
+
+            Assert.assertNotNull(result);
+            Assert.assertEquals(1, countNodes(result));
+            Assert.assertNotEquals(isAccepted(valueAutomaton, result),
+                                   isAccepted(zeroAutomaton, result));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testIsEquivalentTo()
+    {
+        try
+        {
+            Assert.assertTrue(valueAutomaton.isEquivalentTo(valueAutomaton.minimize()
+                                                                          .getAutomaton()));
+            Assert.assertFalse(valueAutomaton.isEquivalentTo(oneAutomaton));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testCheckUniversality()
+    {
+        try
+        {
+            Assert.assertTrue(createNondeterministicAutomaton("A").checkUniversality());
+            Assert.assertFalse(createNondeterministicAutomaton("B").checkUniversality());
+            Assert.assertFalse(valueAutomaton.checkUniversality());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testFindRejectedTree()
+    {
+        try
+        {
+            TreeNode result = valueAutomaton.findRejectedTree();
+
+            Assert.assertNotNull(result);
+            Assert.assertEquals(1, countNodes(result));
+            Assert.assertFalse(isAccepted(valueAutomaton, result));
+
+            result = createNondeterministicAutomaton("B").findRejectedTree();
+            Assert.assertNotNull(result);
+            Assert.assertEquals(3, countNodes(result));
+            Assert.assertNull(createNondeterministicAutomaton("A").findRejectedTree());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    private static BottomUpNFTA createNondeterministicAutomaton(String acceptedValue)
+            throws Exception
+    {
+        Variable variable = new Variable(3, "X", "A", "B");
+        BottomUpNFTA automaton = new BottomUpNFTA(Collections.singletonList(variable),
+                                                  Arrays.asList("0", "f"));
+
+        automaton.addTransition(variable, "X", "X", Wildcard.EVERY_VALUE, "A");
+        automaton.addTransition(variable, "X", "X", Wildcard.EVERY_VALUE, "B");
+        automaton.addTransition(variable, Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE,
+                                Wildcard.EVERY_VALUE, "A");
+        automaton.addAcceptanceConditions(Collections.singletonMap(
+                variable, Pair.make(acceptedValue, true)));
+
+        return automaton;
+    }
+
+    private static void addContainingTransitions(BottomUpDFTA automaton, Variable variable,
+                                                 String containedLabel, String otherLabel)
+            throws Exception
+    {
+        automaton.addTransition(variable, "X", "X", containedLabel, "T");
+        automaton.addTransition(variable, "X", "X", otherLabel, "F");
+        automaton.addTransition(variable, "F", "F", Wildcard.EVERY_VALUE, "F");
+        automaton.addTransition(variable, "T", Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE, "T");
+        automaton.addTransition(variable, Wildcard.EVERY_VALUE, "T", Wildcard.EVERY_VALUE, "T");
+        automaton.addAcceptanceConditions(Collections.singletonMap(variable,
+                                                                   Pair.make("T", true)));
+    }
+
+    private static boolean isAccepted(BottomUpAutomaton automaton, TreeNode tree)
+            throws Exception
+    {
+        RunContext context = automaton.createRunContext(tree);
+
+        try
+        {
+            context.run();
+        }
+        catch(NoSuchTransitionException e)
+        {
+            return false;
+        }
+
+        return context.isAccepted();
+    }
+
+    private static int countNodes(TreeNode tree)
+    {
+        return tree.isNull() ? 0 : 1 + countNodes(tree.getLeft()) + countNodes(tree.getRight());
+    }
+}
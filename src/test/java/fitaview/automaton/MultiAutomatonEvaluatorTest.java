@@ -0,0 +1,151 @@
+package fitaview.automaton;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.tree.RecNode;
+import fitaview.tree.RepeatNode;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+import fitaview.utils.Pair;
+
+public class MultiAutomatonEvaluatorTest
+{
+    private static final String AND_OR_AUTOMATON = "src/test/resources/fixtures/andOr.bua.xml";
+    private List<TreeAutomaton> automata;
+    private MultiAutomatonEvaluator testObject;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        Variable zeroVariable = new Variable(1, "X", "T", "F");
+        Variable rootVariable = new Variable(0, "X", "Y", "N");
+        List<String> alphabet = Arrays.asList("0", "1", "and", "or");
+        BottomUpDFTA valueAutomaton =
+                (BottomUpDFTA)new AutomatonReader(new File(AND_OR_AUTOMATON)).read();
+        BottomUpDFTA zeroAutomaton =
+                new BottomUpDFTA(Collections.singletonList(zeroVariable), alphabet);
+        TopDownDFTA rootAutomaton =
+                new TopDownDFTA(Collections.singletonList(rootVariable), alphabet);
+
+        zeroAutomaton.addTransition(zeroVariable, "X", "X", "0", "T");
+        zeroAutomaton.addTransition(zeroVariable, "X", "X", "1", "F");
+        zeroAutomaton.addTransition(zeroVariable, "F", "F", Wildcard.EVERY_VALUE, "F");
+        zeroAutomaton.addTransition(zeroVariable, "T", Wildcard.EVERY_VALUE,
+                                    Wildcard.EVERY_VALUE, "T");
+        zeroAutomaton.addTransition(zeroVariable, Wildcard.EVERY_VALUE, "T",
+                                    Wildcard.EVERY_VALUE, "T");
+        zeroAutomaton.addAcceptanceConditions(
+                Collections.singletonMap(zeroVariable, Pair.make("T", true)));
+
+        for(String label : alphabet)
+        {
+            rootAutomaton.addTransition(rootVariable, "X", label,
+                                        label.equals("and") ? "Y" : "N",
+                                        label.equals("and") ? "Y" : "N");
+            rootAutomaton.addTransition(rootVariable, "Y", label, Wildcard.SAME_VALUE,
+                                        Wildcard.SAME_VALUE);
+            rootAutomaton.addTransition(rootVariable, "N", label, Wildcard.SAME_VALUE,
+                                        Wildcard.SAME_VALUE);
+        }
+
+        rootAutomaton.addAcceptanceConditions(
+                Collections.singletonMap(rootVariable, Pair.make("Y", true)));
+        automata = Arrays.asList(valueAutomaton, zeroAutomaton, rootAutomaton);
+        testObject = new MultiAutomatonEvaluator(automata);
+    }
+
+    @Test
+    public void testEvaluate()
+    {
+        boolean[] result = null;
+        boolean[] expected = new boolean[automata.size()];
+
+        try
+        {
+            TreeNode tree = new StandardNode("and", 1, new StandardNode("1", 2),
+                                             new StandardNode("0", 3));
+
+            result = testObject.evaluate(tree);
+
+            for(int i = 0; i < automata.size(); ++i)
+            {
+                RunContext context = automata.get(i).createRunContext(tree);
+
+                context.run();
+                expected[i] = context.isAccepted();
+            }
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertArrayEquals(new boolean[]{false, true, true}, result);
+        Assert.assertArrayEquals(expected, result);
+    }
+
+    @Test
+    public void testEvaluateWhenDeeperTree()
+    {
+        boolean[] result = null;
+
+        try
+        {
+            TreeNode node = new StandardNode("and", 3, new StandardNode("0", 4),
+                                             new StandardNode("1", 5));
+
+            result = testObject.evaluate(
+                    new StandardNode("or", 1, new StandardNode("1", 2), node));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertArrayEquals(new boolean[]{true, true, false}, result);
+    }
+
+    @Test(expected = TreeFinitenessException.class)
+    public void testEvaluateWhenTreeIsInfinite()
+            throws TreeFinitenessException
+    {
+        try
+        {
+            RepeatNode node = new RepeatNode("and", 1);
+
+            node.setLeft(new StandardNode("1", 2));
+            node.setRight(new RecNode(node, 3));
+
+            testObject.evaluate(node);
+        }
+        catch(TreeFinitenessException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMultiAutomatonEvaluatorWhenNondeterministic()
+            throws Exception
+    {
+        Variable variable = new Variable(0, "X", "T");
+
+        new MultiAutomatonEvaluator(Collections.singletonList(
+                new BottomUpNFTA(Collections.singletonList(variable),
+                                 Collections.singletonList("0"))));
+    }
+}
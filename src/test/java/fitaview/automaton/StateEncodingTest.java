@@ -0,0 +1,159 @@
+package fitaview.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StateEncodingTest
+{
+    private StateEncoding testObject;
+    private Variable variable1;
+    private Variable variable2;
+
+    @Before
+    public void setUp()
+    {
+        try
+        {
+            variable1 = new Variable(1, "A", "B", "C");
+            variable2 = new Variable(2, "X", "Y", "Z", "T");
+        }
+        catch(IllegalVariableValueException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject = new StateEncoding(Arrays.asList(variable1, variable2));
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWhenTooManyVariables()
+    {
+        List<Variable> variables = new ArrayList<>();
+
+        for(int i = 0; i < 30; ++i)
+            variables.add(variable2);
+
+        testObject = new StateEncoding(variables);
+    }
+
+    @Test
+    public void testIndexOf()
+    {
+        Assert.assertEquals(0, testObject.indexOf(variable1));
+        Assert.assertEquals(1, testObject.indexOf(variable2));
+    }
+
+    @Test
+    public void testIndexOfWhenNotEncoded()
+        throws IllegalVariableValueException
+    {
+        int result = testObject.indexOf(new Variable(3, "0", "1"));
+
+        Assert.assertEquals(-1, result);
+    }
+
+    @Test
+    public void testGetInitialCode()
+    {
+        long result = testObject.getInitialCode();
+
+        Assert.assertEquals("A", testObject.getValue(result, 0));
+        Assert.assertEquals("X", testObject.getValue(result, 1));
+    }
+
+    @Test
+    public void testGetValueWhenEmptyState()
+    {
+        Assert.assertNull(testObject.getValue(StateEncoding.EMPTY_STATE, 0));
+        Assert.assertNull(testObject.getValue(StateEncoding.EMPTY_STATE, 1));
+        Assert.assertFalse(testObject.isDefined(StateEncoding.EMPTY_STATE));
+    }
+
+    @Test
+    public void testSetValueIndex()
+    {
+        long code = testObject.getInitialCode();
+
+        code = testObject.setValueIndex(code, 1, variable2.indexOf("T"));
+        code = testObject.setValueIndex(code, 0, variable1.indexOf("C"));
+
+        Assert.assertEquals("C", testObject.getValue(code, 0));
+        Assert.assertEquals("T", testObject.getValue(code, 1));
+        Assert.assertTrue(testObject.isDefined(code));
+    }
+
+    @Test
+    public void testSetValueIndexWhenUndefined()
+    {
+        long code = testObject.setValueIndex(testObject.getInitialCode(), 0, -1);
+
+        Assert.assertEquals(-1, testObject.getValueIndex(code, 0));
+        Assert.assertEquals("X", testObject.getValue(code, 1));
+    }
+
+    @Test
+    public void testEncodeAndDecode()
+    {
+        Map<Variable, String> state = new HashMap<>();
+
+        state.put(variable1, "B");
+        state.put(variable2, "Z");
+
+        Map<Variable, String> result = testObject.decode(testObject.encode(state));
+
+        Assert.assertEquals(state, result);
+    }
+
+    @Test
+    public void testEncodeWhenIncorrectValue()
+    {
+        Map<Variable, String> state = new HashMap<>();
+
+        state.put(variable1, "B");
+        state.put(variable2, "B");
+
+        Map<Variable, String> result = testObject.decode(testObject.encode(state));
+
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("B", result.get(variable1));
+    }
+
+    @Test
+    public void testRecode()
+    {
+        StateEncoding other = new StateEncoding(Arrays.asList(variable2, variable1));
+        long code = other.setValueIndex(other.getInitialCode(), 0, variable2.indexOf("Y"));
+
+        long result = testObject.recode(other, code);
+
+        Assert.assertEquals("A", testObject.getValue(result, 0));
+        Assert.assertEquals("Y", testObject.getValue(result, 1));
+    }
+
+    @Test
+    public void testExtend()
+        throws IllegalVariableValueException
+    {
+        Variable variable3 = new Variable(3, "0", "1");
+
+        StateEncoding result = testObject.extend(variable3);
+
+        Assert.assertSame(testObject, testObject.extend(variable1));
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(2, result.indexOf(variable3));
+    }
+}
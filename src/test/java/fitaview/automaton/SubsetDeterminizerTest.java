@@ -0,0 +1,207 @@
+package fitaview.automaton;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.tree.ArrayTree;
+import fitaview.tree.NodeHasParentException;
+import fitaview.tree.RecNode;
+import fitaview.tree.RepeatNode;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+import fitaview.utils.Pair;
+
+public class SubsetDeterminizerTest
+{
+    private BottomUpNFTA automaton;
+    private Variable variable;
+    private SubsetDeterminizer testObject;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        variable = new Variable(1, "X", "A", "B");
+        automaton = new BottomUpNFTA(Collections.singletonList(variable),
+                                     Arrays.asList("leaf", "f", "g"));
+        automaton.addTransition(variable, "X", "X", "leaf", "A");
+        automaton.addTransition(variable, "X", "X", "leaf", "B");
+        automaton.addTransition(variable, "A", "A", "f", "A");
+        automaton.addTransition(variable, "B", "B", "f", "B");
+        automaton.addTransition(variable, "A", "B", "g", "B");
+        automaton.addAcceptanceConditions(Collections.singletonMap(variable,
+                                                                   Pair.make("B", true)));
+        testObject = automaton.determinize();
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void testEvaluate()
+    {
+        Set<Map<Variable, String>> result = null;
+        Set<Map<Variable, String>> expected =
+                new HashSet<>(Arrays.asList(Collections.singletonMap(variable, "A"),
+                                            Collections.singletonMap(variable, "B")));
+
+        try
+        {
+            result = testObject.evaluate(
+                    new StandardNode("f", 1, new StandardNode("leaf", 2),
+                                     new StandardNode("leaf", 3)));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected, result);
+    }
+
+    @Test
+    public void testIsAcceptedWhenAnyRunAccepts()
+    {
+        boolean result = false;
+
+        try
+        {
+            result = testObject.isAccepted(
+                    new StandardNode("g", 1, new StandardNode("leaf", 2),
+                                     new StandardNode("leaf", 3)));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+    }
+
+    @Test
+    public void testIsAcceptedWhenNoRunAccepts()
+    {
+        boolean result = true;
+
+        try
+        {
+            TreeNode node = new StandardNode("g", 2, new StandardNode("leaf", 3),
+                                             new StandardNode("leaf", 4));
+
+            result = testObject.isAccepted(
+                    new StandardNode("g", 1, node, new StandardNode("leaf", 5)));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+    }
+
+    @Test
+    public void testIsAcceptedWhenArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("g", 1);
+        int node2 = tree.addNode("f", 2);
+        boolean result = false;
+
+        try
+        {
+            tree.setLeft(node1, node2);
+            tree.setRight(node1, tree.addNode("leaf", 5));
+            tree.setLeft(node2, tree.addNode("leaf", 3));
+            tree.setRight(node2, tree.addNode("leaf", 4));
+
+            result = testObject.isAccepted(tree.getRoot());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+    }
+
+    @Test
+    public void testIsAcceptedWhenCacheIsFull()
+    {
+        boolean result = false;
+
+        try
+        {
+            testObject = automaton.determinize(1);
+
+            TreeNode node1 = new StandardNode("f", 2, new StandardNode("leaf", 3),
+                                              new StandardNode("leaf", 4));
+            TreeNode node2 = new StandardNode("f", 5, new StandardNode("leaf", 6),
+                                              new StandardNode("leaf", 7));
+
+            result = testObject.isAccepted(new StandardNode("g", 1, node1, node2));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+        Assert.assertEquals(1, testObject.getCacheSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeterminizeWhenCapacityIsNotPositive()
+    {
+        automaton.determinize(0);
+    }
+
+    @Test(expected = NoTreeException.class)
+    public void testEvaluateWhenNoTree()
+            throws NoTreeException
+    {
+        try
+        {
+            testObject.evaluate(null);
+        }
+        catch(TreeFinitenessException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = TreeFinitenessException.class)
+    public void testEvaluateWhenInfiniteTree()
+            throws TreeFinitenessException
+    {
+        try
+        {
+            RepeatNode node = new RepeatNode("f", 1);
+
+            node.setLeft(new StandardNode("leaf", 2));
+            node.setRight(new RecNode(node, 3));
+
+            testObject.evaluate(node);
+        }
+        catch(NoTreeException | NodeHasParentException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+}
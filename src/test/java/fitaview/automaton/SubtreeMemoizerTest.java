@@ -0,0 +1,203 @@
+package fitaview.automaton;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.tree.ArrayTree;
+import fitaview.tree.RecNode;
+import fitaview.tree.RepeatNode;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+
+public class SubtreeMemoizerTest
+{
+    private static final String AND_OR_AUTOMATON = "src/test/resources/fixtures/andOr.bua.xml";
+    private BottomUpDFTA automaton;
+    private Variable variable;
+    private SubtreeMemoizer testObject;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        automaton = (BottomUpDFTA)new AutomatonReader(new File(AND_OR_AUTOMATON)).read();
+        variable = automaton.variables.get(0);
+        testObject = automaton.memoize();
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void testEvaluateWhenRepeatedSubtrees()
+    {
+        Map<Variable, String> result = null;
+
+        try
+        {
+            result = testObject.evaluate(createTree());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(Collections.singletonMap(variable, "T"), result);
+        Assert.assertEquals(4, testObject.getMissesCount());
+        Assert.assertEquals(3, testObject.getHitsCount());
+        Assert.assertEquals(4, testObject.getCacheSize());
+    }
+
+    @Test
+    public void testIsAcceptedWhenNextRun()
+    {
+        boolean result = false;
+
+        try
+        {
+            testObject.isAccepted(createTree());
+            testObject.resetStatistics();
+            result = testObject.isAccepted(createTree());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+        Assert.assertEquals(0, testObject.getMissesCount());
+        Assert.assertEquals(7, testObject.getHitsCount());
+    }
+
+    @Test
+    public void testEvaluateWhenArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("or", 1);
+        int node2 = tree.addNode("and", 2);
+        int node3 = tree.addNode("and", 3);
+        Map<Variable, String> result = null;
+
+        try
+        {
+            tree.setLeft(node1, node2);
+            tree.setRight(node1, node3);
+            tree.setLeft(node2, tree.addNode("1", 4));
+            tree.setRight(node2, tree.addNode("0", 5));
+            tree.setLeft(node3, tree.addNode("1", 6));
+            tree.setRight(node3, tree.addNode("0", 7));
+
+            result = testObject.evaluate(tree.getRoot());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(Collections.singletonMap(variable, "F"), result);
+        Assert.assertEquals(4, testObject.getMissesCount());
+        Assert.assertEquals(3, testObject.getHitsCount());
+    }
+
+    @Test
+    public void testEvaluateWhenTransitionAdded()
+    {
+        Map<Variable, String> result = null;
+
+        try
+        {
+            testObject.evaluate(
+                    new StandardNode("and", 1, new StandardNode("1", 2), new StandardNode("0", 3)));
+            automaton.addTransition(variable, "T", "F", "and", "T");
+            result = testObject.evaluate(
+                    new StandardNode("and", 1, new StandardNode("1", 2), new StandardNode("0", 3)));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(Collections.singletonMap(variable, "T"), result);
+        Assert.assertEquals(6, testObject.getMissesCount());
+        Assert.assertEquals(3, testObject.getCacheSize());
+    }
+
+    @Test
+    public void testIsAcceptedWhenCacheIsFull()
+    {
+        SubtreeMemoizer memoizer = automaton.memoize(2);
+        boolean result = true;
+
+        try
+        {
+            RunContext context = automaton.createRunContext(createTree());
+
+            context.run();
+            result = memoizer.isAccepted(createTree());
+            Assert.assertEquals(context.isAccepted(), result);
+            result = memoizer.isAccepted(
+                    new StandardNode("and", 1, new StandardNode("0", 2), new StandardNode("1", 3)));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+        Assert.assertEquals(2, memoizer.getCacheSize());
+    }
+
+    @Test(expected = TreeFinitenessException.class)
+    public void testEvaluateWhenTreeIsInfinite()
+            throws TreeFinitenessException
+    {
+        try
+        {
+            RepeatNode node = new RepeatNode("and", 1);
+
+            node.setLeft(new StandardNode("1", 2));
+            node.setRight(new RecNode(node, 3));
+
+            testObject.evaluate(node);
+        }
+        catch(TreeFinitenessException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMemoizeWhenCapacityIsNotPositive()
+    {
+        automaton.memoize(0);
+    }
+
+    private static TreeNode createTree()
+            throws Exception
+    {
+        TreeNode left = new StandardNode("or", 2, new StandardNode("0", 3),
+                                         new StandardNode("1", 4));
+        TreeNode right = new StandardNode("or", 5, new StandardNode("0", 6),
+                                          new StandardNode("1", 7));
+
+        return new StandardNode("and", 1, left, right);
+    }
+}
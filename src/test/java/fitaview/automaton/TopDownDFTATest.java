@@ -1,10 +1,14 @@
 package fitaview.automaton;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -268,7 +272,401 @@ public class TopDownDFTATest
         Assert.assertEquals("!", node12.getStateValueOrNull(variables.get(1)));
         Assert.assertEquals("A", node13.getStateValueOrNull(variables.get(0)));
         Assert.assertEquals("$", node13.getStateValueOrNull(variables.get(1)));
-        Assert.assertArrayEquals(leavesResults.toArray(), testObject.leafStates.toArray());
+        Assert.assertEquals(countLeafStates(leavesResults), testObject.leafStates);
+    }
+
+    @Test
+    public void testRunContext()
+    {
+        TreeNode node5 = null;
+        TreeNode node1 = null;
+        RunContext context = null;
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node5 = new StandardNode("2", 5, new StandardNode("0", 11), new StandardNode("4", 10));
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, node5, new StandardNode("0", 4)));
+            testObject.setTree(node1);
+            testObject.run();
+            context = testObject.createRunContext(node1);
+            context.run();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, context.getRunningMode());
+        Assert.assertEquals(node1.getStateWithNulls(), context.getState(node1));
+        Assert.assertEquals(node5.getStateWithNulls(), context.getState(node5));
+        Assert.assertEquals(node5.getLeft().getLeft().getStateWithNulls(),
+                            context.getState(node5.getLeft().getLeft()));
+
+        try
+        {
+            Assert.assertEquals(testObject.isAccepted(), context.isAccepted());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testRunParallel()
+    {
+        TreeNode node5 = null;
+        TreeNode node1 = null;
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node5 = new StandardNode("2", 5, new StandardNode("0", 11), new StandardNode("4", 10));
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, node5, new StandardNode("0", 4)));
+            testObject.setTree(node1);
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            expected.add(node1.getStateWithNulls());
+            expected.add(node5.getStateWithNulls());
+            expected.add(node5.getLeft().getLeft().getStateWithNulls());
+
+            testObject.runParallel(pool, 1);
+            resultAccepted = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(expected.get(0), node1.getStateWithNulls());
+        Assert.assertEquals(expected.get(1), node5.getStateWithNulls());
+        Assert.assertEquals(expected.get(2), node5.getLeft().getLeft().getStateWithNulls());
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+    }
+
+    @Test
+    public void testRelabelNode()
+    {
+        TreeNode node1 = null;
+        StandardNode node5 = null;
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node5 = new StandardNode("2", 5, new StandardNode("0", 11), new StandardNode("4", 10));
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, node5, new StandardNode("0", 4)));
+            testObject.setTree(node1);
+            testObject.run();
+            testObject.relabelNode(node5, "3");
+            resultAccepted = testObject.isAccepted();
+            collectStates(node1, result);
+
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            collectStates(node1, expected);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals("3", node5.getLabel());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+    }
+
+    @Test
+    public void testReplaceSubtree()
+    {
+        TreeNode node1 = null;
+        TreeNode node5 = null;
+        TreeNode subtree = null;
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node5 = new StandardNode("2", 5, new StandardNode("0", 11), new StandardNode("4", 10));
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, node5, new StandardNode("0", 4)));
+            subtree = new StandardNode("3", 0, new StandardNode("1", 0),
+                                       new StandardNode("2", 0, new StandardNode("0", 0),
+                                                        new StandardNode("0", 0)));
+            testObject.setTree(node1);
+            testObject.run();
+            testObject.replaceSubtree(node5, subtree);
+            resultAccepted = testObject.isAccepted();
+            collectStates(node1, result);
+
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            collectStates(node1, expected);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertSame(subtree, node1.getRight().getLeft());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+    }
+
+    @Test
+    public void testMakeStepBackward()
+    {
+        TreeNode node1 = null;
+        List<List<Map<Variable, String>>> expected = new ArrayList<>();
+        List<Map<Long, Integer>> expectedLeafStates = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.BFS);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, new StandardNode("3", 5),
+                                                      new StandardNode("0", 4)));
+            testObject.setTree(node1);
+            testObject.setRecordingHistory(true);
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+            {
+                testObject.makeStepForward();
+                expected.add(new ArrayList<>());
+                collectStates(node1, expected.get(expected.size() - 1));
+                expectedLeafStates.add(new HashMap<>(testObject.leafStates));
+            }
+
+            for(int i = expected.size() - 1; i > 0; --i)
+            {
+                testObject.makeStepBackward();
+                result.clear();
+                collectStates(node1, result);
+                Assert.assertEquals(expected.get(i - 1), result);
+                Assert.assertEquals(expectedLeafStates.get(i - 1), testObject.leafStates);
+            }
+
+            testObject.makeStepBackward();
+            Assert.assertTrue(testObject.leafStates.isEmpty());
+            Assert.assertEquals(0, testObject.getCurrentStep());
+
+            testObject.makeStepForward();
+            result.clear();
+            collectStates(node1, result);
+            Assert.assertEquals(expected.get(0), result);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.RUNNING, testObject.getRunningMode());
+        Assert.assertEquals(5, testObject.getStepsCount());
+        Assert.assertEquals(1, testObject.getCurrentStep());
+    }
+
+    @Test
+    public void testJumpToStep()
+    {
+        TreeNode node1 = null;
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        List<Map<Variable, String>> result = new ArrayList<>();
+        Map<Long, Integer> expectedLeafStates = null;
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.DFS);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, new StandardNode("3", 5),
+                                                      new StandardNode("0", 4)));
+            testObject.setTree(node1);
+            testObject.setRecordingHistory(true);
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+                testObject.makeStepForward();
+
+            expectedAccepted = testObject.isAccepted();
+            expectedLeafStates = new HashMap<>(testObject.leafStates);
+            collectStates(node1, expected);
+
+            testObject.jumpToStep(2);
+            Assert.assertEquals(AutomatonRunningMode.RUNNING, testObject.getRunningMode());
+            Assert.assertEquals(2, sumLeafStates());
+
+            testObject.jumpToStep(5);
+            resultAccepted = testObject.isAccepted();
+            collectStates(node1, result);
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(expected, result);
+        Assert.assertEquals(expectedLeafStates, testObject.leafStates);
+        Assert.assertEquals(expectedAccepted, resultAccepted);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJumpToStepWhenStepNotMade()
+    {
+        try
+        {
+            testObject.setTraversing(TraversingMode.DFS);
+            testObject.setTree(new StandardNode("2", 1, new StandardNode("4", 3),
+                                                new StandardNode("0", 2)));
+            testObject.setRecordingHistory(true);
+            testObject.makeStepForward();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject.jumpToStep(2);
+    }
+
+    @Test
+    public void testRunWhenRecordingHistory()
+    {
+        try
+        {
+            testObject.setTraversing(TraversingMode.DFS);
+            testObject.setTree(new StandardNode("2", 1, new StandardNode("4", 3),
+                                                new StandardNode("1", 2, new StandardNode("3", 5),
+                                                                 new StandardNode("0", 4))));
+            testObject.setRecordingHistory(true);
+            testObject.makeStepForward();
+            testObject.makeStepForward();
+            testObject.makeStepBackward();
+            testObject.run();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(0, testObject.getStepsCount());
+        Assert.assertEquals(6, sumLeafStates());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeStepBackwardWhenNotRecordingHistory()
+    {
+        try
+        {
+            testObject.setTraversing(TraversingMode.DFS);
+            testObject.setTree(new StandardNode("2", 1, new StandardNode("4", 3),
+                                                new StandardNode("0", 2)));
+            testObject.makeStepForward();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject.makeStepBackward();
+    }
+
+    @Test(expected = TreeFinitenessException.class)
+    public void testReplaceSubtreeWhenInfiniteTree()
+            throws TreeFinitenessException
+    {
+        try
+        {
+            TreeNode node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                              new StandardNode("0", 2));
+            RepeatNode node2 = new RepeatNode("0", 2);
+
+            node2.setLeft(new StandardNode("1", 4));
+            node2.setRight(new RecNode(node2, 5));
+
+            testObject.setTree(node1);
+            testObject.replaceSubtree(node1.getRight(), node2);
+        }
+        catch(TreeFinitenessException e)
+        {
+            throw e;
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = TreeFinitenessException.class)
+    public void testCreateRunContextWhenInfiniteTree()
+            throws TreeFinitenessException
+    {
+        try
+        {
+            RepeatNode node2 = new RepeatNode("0", 2);
+
+            node2.setLeft(new StandardNode("1", 4));
+            node2.setRight(new RecNode(node2, 5));
+
+            testObject.createRunContext(new StandardNode("2", 1, new StandardNode("0", 3), node2));
+        }
+        catch(NodeHasParentException | NoTreeException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
     }
 
     @Test(expected = NoTraversingStrategyException.class)
@@ -459,8 +857,8 @@ public class TopDownDFTATest
         Assert.assertEquals("!", node12.getStateValueOrNull(variables.get(1)));
         Assert.assertEquals("A", node13.getStateValueOrNull(variables.get(0)));
         Assert.assertEquals("$", node13.getStateValueOrNull(variables.get(1)));
-        Assert.assertEquals(4, testObject.leafStates.size());
-        Assert.assertArrayEquals(leavesResults.toArray(), testObject.leafStates.toArray());
+        Assert.assertEquals(4, sumLeafStates());
+        Assert.assertEquals(countLeafStates(leavesResults), testObject.leafStates);
 
         try
         {
@@ -498,8 +896,57 @@ public class TopDownDFTATest
         leavesResults.get(11).put(variables.get(1), "!");
 
         Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.runningMode);
-        Assert.assertEquals(12, testObject.leafStates.size());
-        Assert.assertArrayEquals(leavesResults.toArray(), testObject.leafStates.toArray());
+        Assert.assertEquals(12, sumLeafStates());
+        Assert.assertEquals(countLeafStates(leavesResults), testObject.leafStates);
+    }
+
+    @Test
+    public void testMakeStepForwardWhenParallelLevels()
+    {
+        TreeNode node5 = null;
+        TreeNode node1 = null;
+        List<Map<Variable, String>> expected = new ArrayList<>();
+        Boolean expectedAccepted = null;
+        Boolean resultAccepted = null;
+
+        try
+        {
+            testObject.setTraversing(TraversingMode.LEVEL);
+            testObject.addAcceptanceConditions(accepts.get(0));
+            testObject.addAcceptanceConditions(accepts.get(1));
+
+            node5 = new StandardNode("2", 5, new StandardNode("0", 11), new StandardNode("4", 10));
+            node1 = new StandardNode("2", 1, new StandardNode("4", 3),
+                                     new StandardNode("1", 2, node5, new StandardNode("0", 4)));
+            testObject.setTree(node1);
+            testObject.run();
+            expectedAccepted = testObject.isAccepted();
+            expected.add(node5.getStateWithNulls());
+            expected.add(node5.getLeft().getLeft().getStateWithNulls());
+            expected.add(node5.getRight().getRight().getStateWithNulls());
+
+            testObject.stopTraversing();
+            testObject.setParallelLevels(true);
+
+            do
+            {
+                testObject.makeStepForward();
+            }
+            while(testObject.getRunningMode() == AutomatonRunningMode.RUNNING);
+
+            resultAccepted = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.FINISHED, testObject.getRunningMode());
+        Assert.assertEquals(expected.get(0), node5.getStateWithNulls());
+        Assert.assertEquals(expected.get(1), node5.getLeft().getLeft().getStateWithNulls());
+        Assert.assertEquals(expected.get(2), node5.getRight().getRight().getStateWithNulls());
+        Assert.assertEquals(expectedAccepted, resultAccepted);
     }
 
     @Test(expected = NoTraversingStrategyException.class)
@@ -699,7 +1146,7 @@ public class TopDownDFTATest
         Assert.assertEquals("!", node12.getStateValueOrNull(variables.get(1)));
         Assert.assertEquals("A", node13.getStateValueOrNull(variables.get(0)));
         Assert.assertEquals("$", node13.getStateValueOrNull(variables.get(1)));
-        Assert.assertArrayEquals(leavesResults.toArray(), testObject.leafStates.toArray());
+        Assert.assertEquals(countLeafStates(leavesResults), testObject.leafStates);
     }
 
     @Test
@@ -1016,4 +1463,98 @@ public class TopDownDFTATest
         Assert.assertNotNull(result);
         Assert.assertEquals(expected, result);
     }
+
+    @Test
+    public void testCheckEmptinessWhenNotEmpty()
+    {
+        boolean result = true;
+        Variable variable = null;
+        Map<Variable, Pair<String, Boolean>> testAccepts = new HashMap<>();
+
+        try
+        {
+            variable = new Variable(1, "X", "A", "B");
+            testObject = new TopDownDFTA(Collections.singletonList(variable),
+                                         Arrays.asList("f", "g"));
+            testObject.addTransition(variable, "X", "f", "A", "B");
+            testObject.addTransition(variable, "A", "g", "A", "A");
+            testObject.addTransition(variable, "B", "g", "B", "B");
+            testObject.addTransition(variable, "B", "f", "A", "A");
+            testAccepts.put(variable, Pair.make("A", true));
+            testObject.addAcceptanceConditions(testAccepts);
+
+            result = testObject.checkEmptiness();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+    }
+
+    @Test
+    public void testCheckEmptinessWhenEmpty()
+    {
+        boolean result = false;
+        Variable variable = null;
+        Map<Variable, Pair<String, Boolean>> testAccepts = new HashMap<>();
+
+        try
+        {
+            variable = new Variable(1, "X", "A", "B");
+            testObject = new TopDownDFTA(Collections.singletonList(variable),
+                                         Arrays.asList("f", "g"));
+            testObject.addTransition(variable, "X", "f", "A", "B");
+            testObject.addTransition(variable, "A", "g", "A", "A");
+            testObject.addTransition(variable, "B", "g", "B", "B");
+            testAccepts.put(variable, Pair.make("A", true));
+            testObject.addAcceptanceConditions(testAccepts);
+
+            result = testObject.checkEmptiness();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+    }
+
+    private Map<Long, Integer> countLeafStates(List<Map<Variable, String>> leavesResults)
+    {
+        Map<Long, Integer> counts = new HashMap<>();
+
+        for(Map<Variable, String> state : leavesResults)
+            counts.merge(testObject.stateEncoding.encode(state), 1, Integer::sum);
+
+        return counts;
+    }
+
+    private int sumLeafStates()
+    {
+        return testObject.leafStates.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private void collectStates(TreeNode tree, List<Map<Variable, String>> states)
+    {
+        Deque<TreeNode> nodes = new ArrayDeque<>();
+
+        nodes.push(tree);
+
+        while(!nodes.isEmpty())
+        {
+            TreeNode node = nodes.pop();
+
+            states.add(node.getStateWithNulls());
+
+            if(!node.isNull())
+            {
+                nodes.push(node.getRight());
+                nodes.push(node.getLeft());
+            }
+        }
+    }
 }
@@ -94,6 +94,12 @@ public class TopDownDITATest
         Assert.assertEquals("Top-down deterministic infinite tree automaton", result);
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCheckEmptiness()
+    {
+        testObject.checkEmptiness();
+    }
+
     @Test(expected = TreeFinitenessException.class)
     public void testSetTreeWhenFiniteTree()
             throws TreeFinitenessException
@@ -0,0 +1,184 @@
+package fitaview.automaton;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.automaton.transition.NoSuchTransitionException;
+import fitaview.automaton.traversing.TraversingMode;
+import fitaview.tree.ArrayTree;
+import fitaview.tree.StandardNode;
+import fitaview.tree.TreeNode;
+import fitaview.tree.UndefinedStateValueException;
+import fitaview.utils.Pair;
+
+public class TopDownNFTATest
+{
+    private TopDownNFTA testObject;
+    private Variable variable;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        variable = new Variable(1, "X", "A", "B");
+        testObject = new TopDownNFTA(Collections.singletonList(variable),
+                                     Arrays.asList("f", "leaf"));
+        testObject.addTransition(variable, "X", "f", "B", "B");
+        testObject.addTransition(variable, "A", "leaf", "A", "A");
+        testObject.addTransition(variable, "B", "leaf", "B", "B");
+        testObject.addAcceptanceConditions(Collections.singletonMap(variable,
+                                                                    Pair.make("A", true)));
+        testObject.setTraversing(TraversingMode.DFS);
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void testRunWhenExactRuns()
+    {
+        Boolean result = null;
+        Map<Variable, String> leftState = null;
+
+        try
+        {
+            TreeNode node = new StandardNode("f", 1, new StandardNode("leaf", 2),
+                                             new StandardNode("leaf", 3));
+
+            testObject.addTransition(variable, "X", "f", "A", "A");
+            testObject.setExactRuns(true);
+            testObject.setTree(node);
+            testObject.run();
+
+            result = testObject.isAccepted();
+            leftState = node.getLeft().getState();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+        Assert.assertEquals(Collections.singletonMap(variable, "A"), leftState);
+    }
+
+    @Test
+    public void testJumpToStepWhenExactRuns()
+    {
+        Boolean result = null;
+        Map<Variable, String> leftState = null;
+
+        try
+        {
+            TreeNode node = new StandardNode("f", 1, new StandardNode("leaf", 2),
+                                             new StandardNode("leaf", 3));
+
+            testObject.addTransition(variable, "X", "f", "A", "A");
+            testObject.setExactRuns(true);
+            testObject.setRecordingHistory(true);
+            testObject.setTree(node);
+
+            while(testObject.getRunningMode() != AutomatonRunningMode.FINISHED)
+                testObject.makeStepForward();
+
+            testObject.jumpToStep(0);
+            Assert.assertNull(node.getLeft().getStateValueOrNull(variable));
+            Assert.assertTrue(testObject.leafStates.isEmpty());
+
+            testObject.run();
+            result = testObject.isAccepted();
+            leftState = node.getLeft().getState();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(3, testObject.getStepsCount());
+        Assert.assertTrue(result);
+        Assert.assertEquals(Collections.singletonMap(variable, "A"), leftState);
+    }
+
+    @Test
+    public void testRunWhenExactRunsAndArrayTree()
+    {
+        ArrayTree tree = new ArrayTree();
+        int node1 = tree.addNode("f", 1);
+        int node2 = tree.addNode("leaf", 2);
+        Boolean result = null;
+        Map<Variable, String> leftState = null;
+
+        try
+        {
+            tree.setLeft(node1, node2);
+            tree.setRight(node1, tree.addNode("leaf", 3));
+            testObject.addTransition(variable, "X", "f", "A", "A");
+            testObject.setExactRuns(true);
+            testObject.setTree(tree.getRoot());
+            testObject.run();
+
+            result = testObject.isAccepted();
+            leftState = tree.getNode(node2).getState();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertTrue(result);
+        Assert.assertEquals(Collections.singletonMap(variable, "A"), leftState);
+    }
+
+    @Test
+    public void testRunWhenExactRunsAndNotAccepted()
+    {
+        Boolean result = null;
+
+        try
+        {
+            testObject.addTransition(variable, "X", "f", "A", "B");
+            testObject.setExactRuns(true);
+            testObject.setTree(new StandardNode("f", 1, new StandardNode("leaf", 2),
+                                                new StandardNode("leaf", 3)));
+            testObject.run();
+
+            result = testObject.isAccepted();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertFalse(result);
+    }
+
+    @Test(expected = NoNonDeterministicStrategyException.class)
+    public void testRunWhenNoStrategy()
+            throws NoNonDeterministicStrategyException
+    {
+        try
+        {
+            testObject.setTree(new StandardNode("leaf", 1));
+            testObject.run();
+        }
+        catch(IllegalVariableValueException | NoSuchTransitionException
+                | NoTraversingStrategyException | UndefinedStateValueException | NoTreeException
+                | TreeFinitenessException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+}
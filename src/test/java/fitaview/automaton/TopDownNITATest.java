@@ -0,0 +1,77 @@
+package fitaview.automaton;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.automaton.traversing.TraversingMode;
+import fitaview.tree.RecNode;
+import fitaview.tree.RepeatNode;
+import fitaview.tree.StandardNode;
+import fitaview.utils.Pair;
+
+public class TopDownNITATest
+{
+    private TopDownNITA testObject;
+    private Variable variable;
+
+    @Before
+    public void setUp()
+            throws Exception
+    {
+        variable = new Variable(1, "X", "A", "B");
+        testObject = new TopDownNITA(Collections.singletonList(variable),
+                                     Arrays.asList("f", "leaf"));
+        testObject.addTransition(variable, "X", "f", "A", "X");
+        testObject.addTransition(variable, "X", "f", "B", "X");
+        testObject.addTransition(variable, "A", "leaf", "A", "A");
+        testObject.addTransition(variable, "B", "leaf", "B", "B");
+        testObject.addAcceptanceConditions(Collections.singletonMap(variable,
+                                                                    Pair.make("A", true)));
+        testObject.addBuchiAcceptanceConditions(Collections.singletonMap(variable,
+                                                                         Pair.make("X", true)));
+        testObject.setTraversing(TraversingMode.DFS);
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void testRunWhenExactRuns()
+    {
+        Map<Variable, String> leftState = null;
+        Map<Variable, String> rightState = null;
+
+        try
+        {
+            RepeatNode node = new RepeatNode("f", 1);
+
+            node.setLeft(new StandardNode("leaf", 2));
+            node.setRight(new RecNode(node, 3));
+            testObject.setExactRuns(true);
+            testObject.setTree(node);
+            testObject.run();
+            testObject.continueRecursive();
+            testObject.run();
+
+            leftState = node.getLeft().getState();
+            rightState = node.getRight().getState();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(AutomatonRunningMode.CONTINUING, testObject.getRunningMode());
+        Assert.assertEquals(Collections.singletonMap(variable, "A"), leftState);
+        Assert.assertEquals(Collections.singletonMap(variable, "X"), rightState);
+    }
+}
@@ -124,6 +124,39 @@ public class VariableTest
         Assert.assertEquals(3, result);
     }
 
+    @Test
+    public void testIndexOfWhenInitValue()
+    {
+        int result = testObject.indexOf("A");
+
+        Assert.assertEquals(0, result);
+    }
+
+    @Test
+    public void testIndexOfWhenInnerValue()
+    {
+        int result = testObject.indexOf("C");
+
+        Assert.assertTrue(result > 0);
+        Assert.assertEquals("C", testObject.getValue(result));
+    }
+
+    @Test
+    public void testIndexOfWhenOuterValue()
+    {
+        int result = testObject.indexOf("D");
+
+        Assert.assertEquals(-1, result);
+    }
+
+    @Test
+    public void testIndexOfWhenNull()
+    {
+        int result = testObject.indexOf(null);
+
+        Assert.assertEquals(-1, result);
+    }
+
     @Test
     public void testIterator()
     {
@@ -1,5 +1,6 @@
 package fitaview.automaton.transition;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -313,6 +314,106 @@ public class BottomUpTransitionsTest
         testObject.getMatched(v, Triple.make("C", "C", "0"));
     }
 
+    @Test
+    public void testCompile()
+    {
+        List<String> labels = Arrays.asList("0", "1", "2", "3", "4");
+        BottomUpTransitionTable<String> result = testObject.compile(v, labels);
+
+        int directEntry = result.find(v.indexOf("A"), v.indexOf("B"), 0);
+        int everyEntry = result.find(v.indexOf("D"), v.indexOf("C"), 1);
+        int sameEntry = result.find(v.indexOf("B"), v.indexOf("B"), 2);
+        int priorityEntry = result.find(v.indexOf("C"), v.indexOf("A"), 4);
+
+        Assert.assertEquals(v, result.getVariable());
+        Assert.assertEquals("C", result.getValue(directEntry));
+        Assert.assertEquals("B", result.getValue(everyEntry));
+        Assert.assertEquals(Triple.make(Wildcard.EVERY_VALUE, "C", "1"),
+                            result.getKey(everyEntry));
+        Assert.assertEquals("A", result.getValue(sameEntry));
+        Assert.assertEquals("C", result.getValue(priorityEntry));
+        Assert.assertEquals(TransitionTable.NO_ENTRY,
+                            result.find(v.indexOf("B"), v.indexOf("C"), 2));
+        Assert.assertEquals(TransitionTable.NO_ENTRY,
+                            result.find(v.indexOf("C"), v.indexOf("C"), 0));
+        Assert.assertEquals(TransitionTable.NO_ENTRY,
+                            result.find(v.indexOf("A"), v.indexOf("C"), labels.size()));
+        Assert.assertEquals(TransitionTable.NO_ENTRY, result.find(-1, v.indexOf("B"), 0));
+    }
+
+    @Test
+    public void testCompileWhenWildcardLabel()
+            throws Exception
+    {
+        testObject.add(v, Triple.make("B", "B", Wildcard.EVERY_VALUE), "D");
+
+        List<String> labels = Arrays.asList("0", "1");
+        BottomUpTransitionTable<String> result = testObject.compile(v, labels);
+
+        int innerEntry = result.find(v.indexOf("B"), v.indexOf("B"), 0);
+        int outerEntry = result.find(v.indexOf("B"), v.indexOf("B"), labels.size());
+
+        Assert.assertEquals("D", result.getValue(innerEntry));
+        Assert.assertEquals("D", result.getValue(outerEntry));
+        Assert.assertEquals(innerEntry, outerEntry);
+    }
+
+    @Test
+    public void testCompileWhenManyWildcards()
+            throws Exception
+    {
+        testObject.add(v, Triple.make(Wildcard.EVERY_VALUE, Wildcard.SAME_VALUE,
+                                      Wildcard.EVERY_VALUE), "B");
+        testObject.add(v, Triple.make("B", Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE), "A");
+        testObject.add(v, Triple.make(Wildcard.EVERY_VALUE, Wildcard.EVERY_VALUE, "3"), "D");
+
+        List<String> labels = Arrays.asList("0", "1", "2", "3", "4");
+        BottomUpTransitionTable<String> expanded = testObject.compile(v, labels);
+        BottomUpTransitionTable<String> notExpanded = testObject.compile(v, labels, 0);
+
+        Assert.assertTrue(expanded.isExpanded());
+        Assert.assertFalse(notExpanded.isExpanded());
+
+        for(int left = 0; left < v.size(); ++left)
+            for(int right = 0; right < v.size(); ++right)
+                for(int label = 0; label <= labels.size(); ++label)
+                {
+                    Triple<String, String, String> expected = testObject.findMatchedKey(v,
+                            Triple.make(v.getValue(left), v.getValue(right),
+                                        label < labels.size() ? labels.get(label)
+                                                              : Wildcard.EVERY_VALUE));
+                    int expandedEntry = expanded.find(left, right, label);
+                    int notExpandedEntry = notExpanded.find(left, right, label);
+
+                    Assert.assertEquals(expected, expandedEntry == TransitionTable.NO_ENTRY
+                                                  ? null : expanded.getKey(expandedEntry));
+                    Assert.assertEquals(expected, notExpandedEntry == TransitionTable.NO_ENTRY
+                                                  ? null : notExpanded.getKey(notExpandedEntry));
+                }
+    }
+
+    @Test
+    public void testCompileWhenTableTooLarge()
+            throws Exception
+    {
+        String[] values = new String[50000];
+
+        for(int i = 0; i < values.length; ++i)
+            values[i] = String.valueOf(i);
+
+        Variable var = new Variable(1, "X", Arrays.asList(values));
+
+        testObject.add(var, Triple.make(Wildcard.EVERY_VALUE, "7", Wildcard.EVERY_VALUE), "8");
+
+        BottomUpTransitionTable<String> result = testObject.compile(var, Arrays.asList("0", "1"));
+        int entry = result.find(var.indexOf("49999"), var.indexOf("7"), 1);
+
+        Assert.assertFalse(result.isExpanded());
+        Assert.assertEquals("8", result.getValue(entry));
+        Assert.assertEquals(TransitionTable.NO_ENTRY,
+                            result.find(var.indexOf("7"), var.indexOf("49999"), 1));
+    }
+
     @Test
     public void testConvertToStringMap()
     {
@@ -1,5 +1,6 @@
 package fitaview.automaton.transition;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -270,6 +271,58 @@ public class TopDownTransitionsTest
         testObject.getMatched(v, Pair.make("C", "0"));
     }
 
+    @Test
+    public void testCompile()
+    {
+        List<String> labels = Arrays.asList("0", "1", "2", "3");
+        TopDownTransitionTable<Pair<String, String>> result = testObject.compile(v, labels);
+
+        int directEntry = result.find(v.indexOf("A"), 0);
+        int everyEntry = result.find(v.indexOf("B"), 1);
+        int priorityEntry = result.find(v.indexOf("C"), 3);
+        int wildcardEntry = result.find(v.indexOf("A"), 3);
+
+        Assert.assertEquals(v, result.getVariable());
+        Assert.assertEquals(Pair.make("B", "C"), result.getValue(directEntry));
+        Assert.assertEquals(Pair.make("D", "D"), result.getValue(everyEntry));
+        Assert.assertEquals(Pair.make("B", "A"), result.getValue(priorityEntry));
+        Assert.assertEquals(Pair.make("C", "C"), result.getValue(wildcardEntry));
+        Assert.assertEquals(Pair.make(Wildcard.EVERY_VALUE, "3"), result.getKey(wildcardEntry));
+        Assert.assertEquals(TransitionTable.NO_ENTRY, result.find(v.indexOf("B"), 0));
+        Assert.assertEquals(TransitionTable.NO_ENTRY, result.find(v.indexOf("A"), labels.size()));
+        Assert.assertEquals(TransitionTable.NO_ENTRY, result.find(-1, 0));
+    }
+
+    @Test
+    public void testCompileWhenNotExpanded()
+            throws Exception
+    {
+        testObject.add(v, Pair.make("B", Wildcard.EVERY_VALUE), Pair.make("A", "A"));
+
+        List<String> labels = Arrays.asList("0", "1", "2", "3");
+        TopDownTransitionTable<Pair<String, String>> expanded = testObject.compile(v, labels);
+        TopDownTransitionTable<Pair<String, String>> notExpanded =
+                testObject.compile(v, labels, 0);
+
+        Assert.assertTrue(expanded.isExpanded());
+        Assert.assertFalse(notExpanded.isExpanded());
+
+        for(int value = 0; value < v.size(); ++value)
+            for(int label = 0; label <= labels.size(); ++label)
+            {
+                Pair<String, String> expected = testObject.findMatchedKey(v, Pair.make(
+                        v.getValue(value),
+                        label < labels.size() ? labels.get(label) : Wildcard.EVERY_VALUE));
+                int expandedEntry = expanded.find(value, label);
+                int notExpandedEntry = notExpanded.find(value, label);
+
+                Assert.assertEquals(expected, expandedEntry == TransitionTable.NO_ENTRY
+                                              ? null : expanded.getKey(expandedEntry));
+                Assert.assertEquals(expected, notExpandedEntry == TransitionTable.NO_ENTRY
+                                              ? null : notExpanded.getKey(notExpandedEntry));
+            }
+    }
+
     @Test
     public void testConvertToStringMap()
     {
@@ -0,0 +1,140 @@
+package fitaview.batch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchCommandTest
+{
+    private static final String DIRECTORY = "src/test/resources/BatchCommandTest/";
+    private ByteArrayOutputStream output;
+    private ByteArrayOutputStream errors;
+
+    @Before
+    public void setUp()
+    {
+        output = new ByteArrayOutputStream();
+        errors = new ByteArrayOutputStream();
+    }
+
+    @After
+    public void tearDown()
+    {
+        output = null;
+        errors = null;
+    }
+
+    @Test
+    public void testExecute()
+    {
+        int result = execute("--threads", "2", DIRECTORY + "testExecute.bua.xml",
+                             DIRECTORY + "trees/accepted.tree.xml",
+                             DIRECTORY + "trees/rejected.tree.xml");
+        List<String> lines = Arrays.asList(output.toString().split("\n"));
+
+        Assert.assertEquals(BatchCommand.EXIT_SUCCESS, result);
+        Assert.assertEquals(3, lines.size());
+        Assert.assertEquals("file,result,time_ms,message", lines.get(0));
+        Assert.assertTrue(lines.stream()
+                               .anyMatch(line -> line.startsWith(
+                                       DIRECTORY + "trees/accepted.tree.xml,accepted,")));
+        Assert.assertTrue(lines.stream()
+                               .anyMatch(line -> line.startsWith(
+                                       DIRECTORY + "trees/rejected.tree.xml,rejected,")));
+        Assert.assertTrue(errors.toString().startsWith(
+                "Trees: 2, accepted: 1, rejected: 1, errors: 0"));
+    }
+
+    @Test
+    public void testExecuteWhenDirectory()
+    {
+        int result = execute("-f", "json", DIRECTORY + "testExecute.bua.xml", DIRECTORY + "trees");
+        String[] lines = output.toString().split("\n");
+
+        Assert.assertEquals(BatchCommand.EXIT_ERRORS, result);
+        Assert.assertEquals(3, lines.length);
+        Assert.assertTrue(Arrays.stream(lines).allMatch(line -> line.startsWith("{\"file\": ")));
+        Assert.assertTrue(Arrays.stream(lines)
+                                .anyMatch(line -> line.contains("infinite.tree.xml")
+                                        && line.contains("\"result\": \"error\"")));
+        Assert.assertTrue(errors.toString().startsWith(
+                "Trees: 3, accepted: 1, rejected: 1, errors: 1"));
+    }
+
+    @Test
+    public void testExecuteWhenNoTrees()
+    {
+        int result = execute(DIRECTORY + "testExecute.bua.xml");
+
+        Assert.assertEquals(BatchCommand.EXIT_USAGE, result);
+        Assert.assertEquals("", output.toString());
+    }
+
+    @Test
+    public void testExecuteWhenIncorrectThreads()
+    {
+        int result = execute("--threads", "zero", DIRECTORY + "testExecute.bua.xml",
+                             DIRECTORY + "trees");
+
+        Assert.assertEquals(BatchCommand.EXIT_USAGE, result);
+    }
+
+    @Test
+    public void testExecuteWhenIncorrectAutomaton()
+    {
+        int result = execute(DIRECTORY + "trees/accepted.tree.xml", DIRECTORY + "trees");
+
+        Assert.assertEquals(BatchCommand.EXIT_ERRORS, result);
+        Assert.assertTrue(errors.toString().startsWith("Cannot load input"));
+    }
+
+    @Test
+    public void testExecuteWhenNondeterministicAutomaton()
+    {
+        int result = execute(DIRECTORY + "testExecuteWhenNondeterministic.bua.xml",
+                             DIRECTORY + "trees");
+        List<String> lines = Arrays.asList(output.toString().split("\n"));
+
+        Assert.assertEquals(BatchCommand.EXIT_ERRORS, result);
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.stream()
+                               .anyMatch(line -> line.startsWith(
+                                       DIRECTORY + "trees/accepted.tree.xml,accepted,")));
+        Assert.assertTrue(lines.stream()
+                               .anyMatch(line -> line.startsWith(
+                                       DIRECTORY + "trees/rejected.tree.xml,rejected,")));
+        Assert.assertTrue(errors.toString().startsWith(
+                "Trees: 3, accepted: 1, rejected: 1, errors: 1"));
+    }
+
+    @Test
+    public void testExecuteWhenUnsupportedAutomaton()
+    {
+        int result = execute(DIRECTORY + "testExecuteWhenUnsupported.tda.xml",
+                             DIRECTORY + "trees");
+
+        Assert.assertEquals(BatchCommand.EXIT_ERRORS, result);
+        Assert.assertEquals("", output.toString());
+        Assert.assertTrue(errors.toString().contains("cannot be evaluated in batch mode"));
+    }
+
+    @Test
+    public void testExecuteWhenUnknownOption()
+    {
+        int result = execute("-x", DIRECTORY + "testExecute.bua.xml", DIRECTORY + "trees");
+
+        Assert.assertEquals(BatchCommand.EXIT_USAGE, result);
+        Assert.assertEquals("", output.toString());
+        Assert.assertTrue(errors.toString().startsWith("Usage: "));
+    }
+
+    private int execute(String... args)
+    {
+        return BatchCommand.execute(args, new PrintStream(output), new PrintStream(errors));
+    }
+}
@@ -0,0 +1,45 @@
+package fitaview.batch;
+
+import java.io.File;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResultFormatTest
+{
+    @Test
+    public void testFormatWhenCSV()
+    {
+        BatchResult result =
+                new BatchResult(new File("tree.tree.xml"), ResultStatus.ACCEPTED, null, 1500000L);
+
+        Assert.assertEquals("tree.tree.xml,accepted,1.500,", ResultFormat.CSV.format(result));
+    }
+
+    @Test
+    public void testFormatWhenCSVNeedsQuoting()
+    {
+        BatchResult result = new BatchResult(new File("a,b.tree.xml"), ResultStatus.ERROR,
+                                             "Label \"x\"\nmissing", 0L);
+
+        Assert.assertEquals("\"a,b.tree.xml\",error,0.000,\"Label \"\"x\"\"\nmissing\"",
+                            ResultFormat.CSV.format(result));
+    }
+
+    @Test
+    public void testFormatWhenJSON()
+    {
+        BatchResult result = new BatchResult(new File("tree.tree.xml"), ResultStatus.ERROR,
+                                             "Label \"x\"\\\n", 2000000L);
+
+        Assert.assertEquals("{\"file\": \"tree.tree.xml\", \"result\": \"error\", "
+                                    + "\"time_ms\": 2.000, \"message\": \"Label \\\"x\\\"\\\\\\n\"}",
+                            ResultFormat.JSON.format(result));
+    }
+
+    @Test
+    public void testGetHeader()
+    {
+        Assert.assertEquals("file,result,time_ms,message", ResultFormat.CSV.getHeader());
+        Assert.assertNull(ResultFormat.JSON.getHeader());
+    }
+}
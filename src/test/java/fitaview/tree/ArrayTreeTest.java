@@ -0,0 +1,223 @@
+package fitaview.tree;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.automaton.IllegalVariableValueException;
+import fitaview.automaton.StateEncoding;
+import fitaview.automaton.Variable;
+
+public class ArrayTreeTest
+{
+    private ArrayTree testObject;
+    private int root;
+    private int left;
+    private int right;
+    private Variable variable1 = new Variable(1, "0", "1", "2", "3");
+    private Variable variable2 = new Variable(2, "X", "Y", "Z");
+
+    public ArrayTreeTest()
+        throws IllegalVariableValueException
+    {
+    }
+
+    @Before
+    public void setUp()
+        throws NodeHasParentException
+    {
+        testObject = new ArrayTree();
+        root = testObject.addNode("LABEL", 1);
+        left = testObject.addNode("left", 3);
+        right = testObject.addNode("LABEL", 2);
+        testObject.setLeft(root, left);
+        testObject.setRight(root, right);
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNodeWhenNullLabel()
+    {
+        testObject.addNode(null, 4);
+    }
+
+    @Test
+    public void testStructure()
+    {
+        Assert.assertEquals(3, testObject.size());
+        Assert.assertEquals(2, testObject.getLabelsCount());
+        Assert.assertEquals(left, testObject.getLeft(root));
+        Assert.assertEquals(right, testObject.getRight(root));
+        Assert.assertEquals(root, testObject.getParent(left));
+        Assert.assertEquals(ArrayTree.NO_NODE, testObject.getParent(root));
+        Assert.assertEquals(ArrayTree.NO_NODE, testObject.getLeft(left));
+        Assert.assertEquals(testObject.getLabelId(root), testObject.getLabelId(right));
+    }
+
+    @Test(expected = NodeHasParentException.class)
+    public void testSetLeftWhenChildHasParent()
+        throws NodeHasParentException
+    {
+        testObject.setLeft(right, left);
+    }
+
+    @Test
+    public void testGetRoot()
+    {
+        TreeNode result = testObject.getRoot();
+
+        Assert.assertEquals(NodeType.NODE, result.getType());
+        Assert.assertEquals("LABEL", result.getLabel());
+        Assert.assertEquals(1, result.getIndex());
+        Assert.assertNull(result.getParent());
+        Assert.assertFalse(result.isLeaf());
+        Assert.assertEquals("<$ 'LABEL', <$ 'left', #, # $>, <$ 'LABEL', #, # $> $>",
+                            result.toString());
+    }
+
+    @Test
+    public void testGetRootWhenEmpty()
+    {
+        testObject = new ArrayTree();
+
+        Assert.assertNull(testObject.getRoot());
+    }
+
+    @Test
+    public void testNodeViewEquality()
+    {
+        TreeNode result = testObject.getNode(left);
+
+        Assert.assertEquals(testObject.getRoot().getLeft(), result);
+        Assert.assertEquals(testObject.getRoot(), result.getParent());
+        Assert.assertNotEquals(testObject.getRoot().getRight(), result);
+        Assert.assertEquals(result.getLeft(), testObject.getNode(left).getLeft());
+        Assert.assertNotEquals(result.getLeft(), result.getRight());
+    }
+
+    @Test
+    public void testNodeMap()
+    {
+        NodeMap<Integer> result = new NodeMap<>();
+        StandardNode node1 = new StandardNode("left", 3);
+        StandardNode node2 = new StandardNode("left", 3);
+
+        result.put(testObject.getNode(left), 1);
+        result.put(testObject.getRoot().getLeft().getLeft(), 2);
+        result.put(node1, 3);
+        result.put(node2, 4);
+
+        Assert.assertEquals(4, result.size());
+        Assert.assertEquals(Integer.valueOf(1), result.get(testObject.getRoot().getLeft()));
+        Assert.assertEquals(Integer.valueOf(2), result.get(testObject.getNode(left).getLeft()));
+        Assert.assertNull(result.get(testObject.getNode(left).getRight()));
+        Assert.assertEquals(Integer.valueOf(3), result.get(node1));
+        Assert.assertEquals(Integer.valueOf(4), result.get(node2));
+    }
+
+    @Test
+    public void testSetParentWhenRoot()
+    {
+        try
+        {
+            StandardNode parent = new StandardNode("parent", 0);
+
+            parent.setRight(testObject.getRoot());
+
+            Assert.assertSame(parent, testObject.getRoot().getParent());
+            Assert.assertSame(parent, testObject.getNode(left).getParent().getParent());
+
+            parent.setRight(null);
+
+            Assert.assertNull(testObject.getRoot().getParent());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = NodeHasParentException.class)
+    public void testSetParentWhenRootHasExternalParent()
+        throws NodeHasParentException
+    {
+        new StandardNode("parent", 0).setLeft(testObject.getRoot());
+        testObject.setLeft(testObject.addNode("root", 4), root);
+    }
+
+    @Test(expected = NodeHasParentException.class)
+    public void testSetParentWhenNodeHasParent()
+        throws NodeHasParentException
+    {
+        new StandardNode("parent", 0).setLeft(testObject.getNode(left));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSetParentWhenNullNode()
+    {
+        testObject.getNode(left).getLeft().setParent(testObject.getRoot());
+    }
+
+    @Test
+    public void testSetStateValue()
+        throws IllegalVariableValueException
+    {
+        TreeNode node = testObject.getNode(left);
+
+        node.setStateValue(variable1, "2");
+        node.setStateValue(variable2, "Z");
+
+        Assert.assertEquals("2", testObject.getNode(left).getStateValueOrNull(variable1));
+        Assert.assertEquals("Z", testObject.getNode(left).getStateValueOrNull(variable2));
+        Assert.assertNull(testObject.getRoot().getStateValueOrNull(variable1));
+    }
+
+    @Test
+    public void testSetStateCodeWhenNullNode()
+    {
+        StateEncoding encoding = new StateEncoding(Arrays.asList(variable1, variable2));
+        TreeNode nullNode = testObject.getNode(left).getRight();
+
+        nullNode.setStateCode(encoding, encoding.getInitialCode());
+
+        Assert.assertTrue(nullNode.isNull());
+        Assert.assertEquals("0", testObject.getNode(left).getRight().getStateValueOrNull(variable1));
+        Assert.assertNull(testObject.getNode(left).getLeft().getStateValueOrNull(variable1));
+    }
+
+    @Test
+    public void testSetStateCodeWhenEncodingChanges()
+        throws IllegalVariableValueException
+    {
+        StateEncoding encoding = new StateEncoding(Arrays.asList(variable2, variable1));
+
+        testObject.getRoot().setStateValue(variable1, "3");
+        testObject.getNode(right).setStateCode(encoding, encoding.getInitialCode());
+
+        Assert.assertSame(encoding, testObject.getStateEncoding());
+        Assert.assertEquals("3", testObject.getRoot().getStateValueOrNull(variable1));
+        Assert.assertEquals(Collections.singletonMap(variable1, "3"),
+                            testObject.getRoot().getStateWithNulls());
+    }
+
+    @Test
+    public void testDeleteState()
+        throws IllegalVariableValueException
+    {
+        TreeNode node = testObject.getRoot();
+
+        node.setStateValue(variable1, "1");
+        node.deleteState();
+
+        Assert.assertTrue(node.getStateWithNulls().isEmpty());
+    }
+}
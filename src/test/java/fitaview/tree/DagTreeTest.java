@@ -0,0 +1,183 @@
+package fitaview.tree;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fitaview.automaton.IllegalVariableValueException;
+import fitaview.automaton.Variable;
+
+public class DagTreeTest
+{
+    private DagTree testObject;
+    private int leaf;
+    private int inner;
+    private int root;
+    private Variable variable = new Variable(1, "0", "1", "2", "3");
+
+    public DagTreeTest()
+        throws IllegalVariableValueException
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+        testObject = new DagTree();
+        leaf = testObject.intern("a", DagTree.NO_NODE, DagTree.NO_NODE);
+        inner = testObject.intern("g", leaf, testObject.intern("a", DagTree.NO_NODE,
+                                                               DagTree.NO_NODE));
+        root = testObject.intern("f", inner, testObject.intern("g", leaf, leaf));
+        testObject.setRoot(root);
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInternWhenNullLabel()
+    {
+        testObject.intern(null, DagTree.NO_NODE, DagTree.NO_NODE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInternWhenOneChild()
+    {
+        testObject.intern("g", leaf, DagTree.NO_NODE);
+    }
+
+    @Test
+    public void testStructure()
+    {
+        Assert.assertEquals(3, testObject.size());
+        Assert.assertEquals(7L, testObject.getTreeSize());
+        Assert.assertEquals(3, testObject.getLabelsCount());
+        Assert.assertEquals(inner, testObject.getLeft(root));
+        Assert.assertEquals(inner, testObject.getRight(root));
+        Assert.assertEquals(leaf, testObject.getRight(inner));
+        Assert.assertEquals(3L, testObject.getSize(inner));
+    }
+
+    @Test
+    public void testGetRoot()
+    {
+        TreeNode result = testObject.getRoot();
+
+        Assert.assertEquals(NodeType.NODE, result.getType());
+        Assert.assertEquals("f", result.getLabel());
+        Assert.assertEquals(1, result.getIndex());
+        Assert.assertNull(result.getParent());
+        Assert.assertEquals(2, result.getLeft().getIndex());
+        Assert.assertEquals(4, result.getLeft().getRight().getIndex());
+        Assert.assertEquals(5, result.getRight().getIndex());
+        Assert.assertEquals(7, result.getRight().getRight().getIndex());
+        Assert.assertEquals("<$ 'f', <$ 'g', <$ 'a', #, # $>, <$ 'a', #, # $> $>, "
+                                    + "<$ 'g', <$ 'a', #, # $>, <$ 'a', #, # $> $> $>",
+                            result.toString());
+    }
+
+    @Test
+    public void testGetRootWhenEmpty()
+    {
+        testObject = new DagTree();
+
+        Assert.assertNull(testObject.getRoot());
+    }
+
+    @Test
+    public void testNodeViewEquality()
+    {
+        TreeNode result = testObject.getRoot().getLeft();
+
+        Assert.assertEquals(testObject.getRoot(), result.getParent());
+        Assert.assertTrue(result.isView());
+        Assert.assertEquals(testObject.getRoot().getLeft(), result);
+        Assert.assertNotEquals(testObject.getRoot().getRight(), result);
+        Assert.assertEquals(result.getLeft().getLeft(), result.getLeft().getLeft());
+        Assert.assertNotEquals(result.getLeft().getLeft(), result.getLeft().getRight());
+    }
+
+    @Test
+    public void testSetStateValueWhenSharedSubtree()
+        throws IllegalVariableValueException
+    {
+        testObject.getRoot().getLeft().setStateValue(variable, "2");
+        testObject.getRoot().getRight().setStateValue(variable, "3");
+        testObject.getRoot().getRight().getLeft().getRight().setStateValue(variable, "1");
+
+        Assert.assertEquals("2", testObject.getRoot().getLeft().getStateValueOrNull(variable));
+        Assert.assertEquals("3", testObject.getRoot().getRight().getStateValueOrNull(variable));
+        Assert.assertEquals("1", testObject.getRoot()
+                                           .getRight()
+                                           .getLeft()
+                                           .getRight()
+                                           .getStateValueOrNull(variable));
+        Assert.assertNull(testObject.getRoot()
+                                    .getLeft()
+                                    .getLeft()
+                                    .getRight()
+                                    .getStateValueOrNull(variable));
+    }
+
+    @Test
+    public void testSetStateValueWhenStateCleared()
+        throws IllegalVariableValueException
+    {
+        testObject.getRoot().getLeft().setStateValue(variable, "2");
+        testObject.getRoot().getRight().setStateValue(variable, "3");
+        testObject.getRoot().getLeft().deleteState();
+        testObject.getRoot().getRight().setStateValue(variable, "3");
+        testObject.getRoot().getLeft().setStateValue(variable, "1");
+
+        Assert.assertEquals("1", testObject.getRoot().getLeft().getStateValueOrNull(variable));
+        Assert.assertEquals("3", testObject.getRoot().getRight().getStateValueOrNull(variable));
+        Assert.assertNull(testObject.getRoot().getStateValueOrNull(variable));
+    }
+
+    @Test
+    public void testSetStateValueWhenNullNode()
+        throws IllegalVariableValueException
+    {
+        testObject.getRoot().getLeft().getLeft().getLeft().setStateValue(variable, "2");
+
+        Assert.assertEquals("2", testObject.getRoot()
+                                           .getLeft()
+                                           .getLeft()
+                                           .getLeft()
+                                           .getStateValueOrNull(variable));
+        Assert.assertNull(testObject.getRoot()
+                                    .getRight()
+                                    .getLeft()
+                                    .getLeft()
+                                    .getStateValueOrNull(variable));
+    }
+
+    @Test
+    public void testSetParentWhenRoot()
+    {
+        try
+        {
+            StandardNode parent = new StandardNode("parent", 0);
+
+            parent.setLeft(testObject.getRoot());
+
+            Assert.assertSame(parent, testObject.getRoot().getParent());
+            Assert.assertSame(parent, testObject.getRoot().getRight().getParent().getParent());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSetParentWhenNodeHasParent()
+    {
+        testObject.getRoot().getLeft().setParent(testObject.getRoot().getRight());
+    }
+}
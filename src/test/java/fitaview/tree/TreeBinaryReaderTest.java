@@ -0,0 +1,207 @@
+package fitaview.tree;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.SAXException;
+
+import fitaview.automaton.FileFormatException;
+import fitaview.utils.Pair;
+
+public class TreeBinaryReaderTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private TreeBinaryReader testObject;
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void testReadFiniteTree()
+    {
+        assertConvertedLosslessly("testReadFiniteTree.tree.xml");
+    }
+
+    @Test
+    public void testReadWhenSingleRepeat()
+    {
+        assertConvertedLosslessly("testReadWhenSingleRepeat.tree.xml");
+    }
+
+    @Test
+    public void testReadWhenNestedRepeats()
+    {
+        assertConvertedLosslessly("testReadWhenNestedRepeats.tree.xml");
+    }
+
+    @Test
+    public void testReadWhenDeepTree()
+    {
+        assertConvertedLosslessly("testReadWhenDeepTree.tree.xml");
+    }
+
+    @Test
+    public void testReadFromFile()
+    {
+        Pair<TreeNode, Integer> result = null;
+        TreeNode expected = null;
+
+        try
+        {
+            expected = new StandardNode("1", 1, new StandardNode("2", 2, new StandardNode("3", 3),
+                                                                 new StandardNode("4", 4)),
+                                        new StandardNode("5", 5));
+
+            String filename = new File(folder.getRoot(), "tree").getPath();
+
+            new TreeBinaryWriter(expected).toFile(filename);
+            testObject = new TreeBinaryReader(new File(filename + ".tree.bin"));
+            result = testObject.read();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected, result.getFirst());
+        Assert.assertEquals(Integer.valueOf(3), result.getSecond());
+    }
+
+    @Test
+    public void testReadWhenEmptyTree()
+    {
+        Pair<TreeNode, Integer> result = null;
+
+        try
+        {
+            result = TreeBinaryReader.read(ByteBuffer.wrap(new TreeBinaryWriter(null).toBytes()));
+        }
+        catch(SAXException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertNull(result.getFirst());
+        Assert.assertEquals(Integer.valueOf(0), result.getSecond());
+    }
+
+    @Test(expected = FileFormatException.class)
+    public void testConstructorWhenIncorrectExtension()
+            throws SAXException
+    {
+        testObject = new TreeBinaryReader(new File("tree.tree.xml"));
+    }
+
+    @Test(expected = FileFormatException.class)
+    public void testReadWhenIncorrectHeader()
+            throws SAXException
+    {
+        TreeBinaryReader.read(ByteBuffer.wrap(new byte[]{'<', 'n', 'o', 'd', 'e', '>'}));
+    }
+
+    @Test(expected = TreeParsingException.class)
+    public void testReadWhenTruncated()
+            throws SAXException
+    {
+        byte[] bytes = getBytes();
+
+        TreeBinaryReader.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test(expected = TreeParsingException.class)
+    public void testReadWhenUnexpectedTag()
+            throws SAXException
+    {
+        byte[] bytes = getBytes();
+
+        bytes[bytes.length - 2] = 42;
+        TreeBinaryReader.read(ByteBuffer.wrap(bytes));
+    }
+
+    @Test(expected = TreeParsingException.class)
+    public void testReadWhenRecOutOfScope()
+            throws SAXException
+    {
+        byte[] bytes = getBytes();
+
+        bytes[bytes.length - 2] = TreeBinaryFormat.TAG_REC;
+        TreeBinaryReader.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test(expected = OneChildException.class)
+    public void testReadWhenOneChild()
+            throws SAXException
+    {
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new StandardNode("a", 1, new StandardNode("a", 2), null);
+        }
+        catch(NodeHasParentException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        TreeBinaryReader.read(ByteBuffer.wrap(new TreeBinaryWriter(tree).toBytes()));
+    }
+
+    private byte[] getBytes()
+    {
+        TreeNode tree = null;
+
+        try
+        {
+            tree = new StandardNode("1", 1, new StandardNode("2", 2), new StandardNode("3", 3));
+        }
+        catch(NodeHasParentException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        return new TreeBinaryWriter(tree).toBytes();
+    }
+
+    private void assertConvertedLosslessly(String filename)
+    {
+        Pair<TreeNode, Integer> expected = null;
+        Pair<TreeNode, Integer> result = null;
+
+        try
+        {
+            expected = new TreeReader(new File(TreeReaderTest.DIRECTORY + filename)).read();
+            result = TreeBinaryReader.read(
+                    ByteBuffer.wrap(new TreeBinaryWriter(expected.getFirst()).toBytes()));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertEquals(expected.getFirst(), result.getFirst());
+        Assert.assertEquals(expected.getFirst().toString(), result.getFirst().toString());
+        Assert.assertEquals(expected.getSecond(), result.getSecond());
+        Assert.assertEquals(new TreeWriter(expected.getFirst()).toString(),
+                            new TreeWriter(result.getFirst()).toString());
+    }
+}
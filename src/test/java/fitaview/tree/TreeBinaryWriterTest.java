@@ -0,0 +1,61 @@
+package fitaview.tree;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TreeBinaryWriterTest
+{
+    private TreeBinaryWriter testObject;
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+        testObject = null;
+    }
+
+    @Test
+    public void testToBytesWhenEmptyTree()
+    {
+        testObject = new TreeBinaryWriter(null);
+
+        byte[] result = testObject.toBytes();
+
+        Assert.assertArrayEquals(new byte[]{'F', 'I', 'T', 'B', 1, 0, 0}, result);
+    }
+
+    @Test
+    public void testToBytesWhenRepeat()
+    {
+        TreeNode tree = null;
+
+        try
+        {
+            RepeatNode repeat = new RepeatNode("ab", 2);
+
+            repeat.setLeft(new StandardNode("c", 3));
+            repeat.setRight(new RecNode(repeat, 4));
+            tree = new StandardNode("c", 1, repeat, new StandardNode("ab", 5));
+        }
+        catch(NodeHasParentException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        testObject = new TreeBinaryWriter(tree);
+
+        byte[] result = testObject.toBytes();
+        byte[] expected = {'F', 'I', 'T', 'B', 1, 2, 1, 'c', 2, 'a', 'b', TreeBinaryFormat.TAG_NODE,
+                           0, TreeBinaryFormat.TAG_REPEAT, 1, TreeBinaryFormat.TAG_LEAF, 0,
+                           TreeBinaryFormat.TAG_REC, TreeBinaryFormat.TAG_LEAF, 1};
+
+        Assert.assertArrayEquals(expected, result);
+    }
+}
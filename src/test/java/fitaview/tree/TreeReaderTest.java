@@ -36,9 +36,9 @@ public class TreeReaderTest
         {
             testObject = new TreeReader(new File(DIRECTORY + "testReadFiniteTree.tree.xml"));
             result = testObject.read();
-            expected = new StandardNode("1", 1, new StandardNode("2", 3, new StandardNode("3", 7),
-                                                                 new StandardNode("4", 6)),
-                                        new StandardNode("5", 2));
+            expected = new StandardNode("1", 1, new StandardNode("2", 2, new StandardNode("3", 3),
+                                                                 new StandardNode("4", 4)),
+                                        new StandardNode("5", 5));
         }
         catch(Exception e)
         {
@@ -71,13 +71,13 @@ public class TreeReaderTest
 
         try
         {
-            RepeatNode repeat = new RepeatNode("5", 2);
+            RepeatNode repeat = new RepeatNode("5", 5);
 
-            repeat.setLeft(new StandardNode("6", 5));
+            repeat.setLeft(new StandardNode("6", 6));
             repeat.setRight(
-                    new StandardNode("7", 4, new RecNode(repeat, 9), new StandardNode("9", 8)));
-            expected = new StandardNode("1", 1, new StandardNode("2", 3, new StandardNode("3", 7),
-                                                                 new StandardNode("4", 6)), repeat);
+                    new StandardNode("7", 7, new RecNode(repeat, 8), new StandardNode("9", 9)));
+            expected = new StandardNode("1", 1, new StandardNode("2", 2, new StandardNode("3", 3),
+                                                                 new StandardNode("4", 4)), repeat);
         }
         catch(NodeHasParentException e)
         {
@@ -110,19 +110,19 @@ public class TreeReaderTest
 
         try
         {
-            RepeatNode repeat5 = new RepeatNode("5", 2);
-            RepeatNode repeat7 = new RepeatNode("7", 11);
+            RepeatNode repeat5 = new RepeatNode("5", 5);
+            RepeatNode repeat7 = new RepeatNode("7", 7);
 
             repeat7.setLeft(
-                    new StandardNode("8", 23, new RecNode(repeat7, 47), new RecNode(repeat7, 46)));
-            repeat7.setRight(new StandardNode("11", 22));
+                    new StandardNode("8", 8, new RecNode(repeat7, 9), new RecNode(repeat7, 10)));
+            repeat7.setRight(new StandardNode("11", 11));
 
-            repeat5.setLeft(new StandardNode("6", 5, repeat7, new RecNode(repeat5, 10)));
-            repeat5.setRight(
-                    new StandardNode("13", 4, new RecNode(repeat5, 9), new StandardNode("15", 8)));
+            repeat5.setLeft(new StandardNode("6", 6, repeat7, new RecNode(repeat5, 12)));
+            repeat5.setRight(new StandardNode("13", 13, new RecNode(repeat5, 14),
+                                              new StandardNode("15", 15)));
 
-            expected = new StandardNode("1", 1, new StandardNode("2", 3, new StandardNode("3", 7),
-                                                                 new StandardNode("4", 6)),
+            expected = new StandardNode("1", 1, new StandardNode("2", 2, new StandardNode("3", 3),
+                                                                 new StandardNode("4", 4)),
                                         repeat5);
         }
         catch(NodeHasParentException e)
@@ -186,14 +186,33 @@ public class TreeReaderTest
         }
     }
 
-    @Test(expected = TreeDepthException.class)
-    public void testReadWhenTreeDepthIsViolated()
+    @Test
+    public void testReadWhenDeepTree()
+    {
+        Pair<TreeNode, Integer> result = null;
+
+        try
+        {
+            testObject = new TreeReader(new File(DIRECTORY + "testReadWhenDeepTree.tree.xml"));
+            result = testObject.read();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals(Integer.valueOf(16), result.getSecond());
+    }
+
+    @Test(expected = TreeParsingException.class)
+    public void testReadWhenThreeChildren()
             throws SAXException
     {
         try
         {
-            testObject = new TreeReader(
-                    new File(DIRECTORY + "testReadWhenTreeDepthIsViolated.tree.xml"));
+            testObject = new TreeReader(new File(DIRECTORY + "testReadWhenThreeChildren.tree.xml"));
         }
         catch(Exception e)
         {
@@ -212,13 +231,49 @@ public class TreeReaderTest
         }
     }
 
+    @Test
+    public void testReadArrayTree()
+    {
+        Pair<ArrayTree, Integer> result = null;
+
+        try
+        {
+            testObject = new TreeReader(new File(DIRECTORY + "testReadFiniteTree.tree.xml"));
+            result = testObject.readArrayTree();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals(5, result.getFirst().size());
+        Assert.assertEquals(Integer.valueOf(3), result.getSecond());
+
+        TreeNode root = result.getFirst().getRoot();
+
+        Assert.assertEquals("1", root.getLabel());
+        Assert.assertEquals(1, root.getIndex());
+        Assert.assertEquals("2", root.getLeft().getLabel());
+        Assert.assertEquals(2, root.getLeft().getIndex());
+        Assert.assertEquals("3", root.getLeft().getLeft().getLabel());
+        Assert.assertEquals(3, root.getLeft().getLeft().getIndex());
+        Assert.assertEquals("4", root.getLeft().getRight().getLabel());
+        Assert.assertEquals(4, root.getLeft().getRight().getIndex());
+        Assert.assertEquals("5", root.getRight().getLabel());
+        Assert.assertEquals(5, root.getRight().getIndex());
+        Assert.assertTrue(root.getRight().isLeaf());
+        Assert.assertEquals(root, root.getRight().getParent());
+    }
+
     @Test(expected = TreeParsingException.class)
-    public void testReadWhenThreeChildren()
+    public void testReadArrayTreeWhenRepeat()
             throws SAXException
     {
         try
         {
-            testObject = new TreeReader(new File(DIRECTORY + "testReadWhenThreeChildren.tree.xml"));
+            testObject = new TreeReader(new File(DIRECTORY + "testReadWhenSingleRepeat.tree.xml"));
         }
         catch(Exception e)
         {
@@ -228,7 +283,88 @@ public class TreeReaderTest
 
         try
         {
-            testObject.read();
+            testObject.readArrayTree();
+        }
+        catch(IOException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test(expected = OneChildException.class)
+    public void testReadArrayTreeWhenOneChild()
+            throws SAXException
+    {
+        try
+        {
+            testObject = new TreeReader(new File(DIRECTORY + "testReadWhenOneChild.tree.xml"));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        try
+        {
+            testObject.readArrayTree();
+        }
+        catch(IOException e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
+    @Test
+    public void testReadDagTree()
+    {
+        Pair<DagTree, Integer> result = null;
+
+        try
+        {
+            testObject = new TreeReader(new File(DIRECTORY + "testReadDagTree.tree.xml"));
+            result = testObject.readDagTree();
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals(5, result.getFirst().size());
+        Assert.assertEquals(11L, result.getFirst().getTreeSize());
+        Assert.assertEquals(Integer.valueOf(4), result.getSecond());
+
+        TreeNode root = result.getFirst().getRoot();
+
+        Assert.assertEquals("and", root.getLabel());
+        Assert.assertEquals("or", root.getLeft().getLabel());
+        Assert.assertEquals(5, root.getRight().getIndex());
+        Assert.assertEquals("1", root.getRight().getRight().getRight().getLabel());
+        Assert.assertEquals(11, root.getRight().getRight().getRight().getIndex());
+        Assert.assertEquals(root.getRight(), root.getRight().getRight().getParent());
+    }
+
+    @Test(expected = TreeParsingException.class)
+    public void testReadDagTreeWhenRepeat()
+            throws SAXException
+    {
+        try
+        {
+            testObject = new TreeReader(new File(DIRECTORY + "testReadWhenSingleRepeat.tree.xml"));
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+
+        try
+        {
+            testObject.readDagTree();
         }
         catch(IOException e)
         {
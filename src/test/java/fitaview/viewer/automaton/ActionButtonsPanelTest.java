@@ -225,6 +225,37 @@ public class ActionButtonsPanelTest
         }
     }
 
+    @Test
+    public void testActionPerformedWhenFindMinimalTreeIsNull()
+    {
+        try
+        {
+            Object[] result = new Object[2];
+
+            Mockito.when(mockPointer.get()).thenReturn(mockBottomUp);
+            Mockito.when(mockActionEvent.getActionCommand()).thenReturn("FIND MINIMAL TREE");
+            Mockito.when(mockBottomUp.findMinimalTree()).thenReturn(null);
+            PowerMockito.doAnswer((Answer<Void>)invocation -> {
+                            result[0] = invocation.getArguments()[0];
+                            result[1] = invocation.getArguments()[1];
+                            return null;
+                        })
+                        .when(UserMessageBox.class, "showWarning", ArgumentMatchers.anyString(),
+                              ArgumentMatchers.anyString());
+
+            testObject.actionPerformed(mockActionEvent);
+
+            Assert.assertEquals("AUTOMATON IS EMPTY", result[0]);
+            Assert.assertEquals("No tree can be accepted by the automaton", result[1]);
+            Mockito.verify(mockBottomUp, Mockito.never()).setTree(ArgumentMatchers.any());
+        }
+        catch(Exception e)
+        {
+            e.printStackTrace();
+            Assert.fail(String.format("Unexpected exception %s", e.getClass().getSimpleName()));
+        }
+    }
+
     @Test
     public void testReceiveSignalWhenSourcePointerIsNotEmpty()
     {
@@ -1,6 +1,8 @@
 package fitaview.viewer.automaton;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.After;
 import org.junit.Assert;
@@ -31,7 +33,7 @@ public class TransitionDrawingAreaTest
 
     @Mock private Message<Void> mockSignal;
 
-    @Mock private Message<Triple<NodeInfoSource, String, Map<Variable, String>>> mockMessage;
+    @Mock private Message<List<Triple<NodeInfoSource, String, Map<Variable, String>>>> mockMessage;
 
     @InjectMocks private TransitionDrawingArea testObject;
 
@@ -79,7 +81,7 @@ public class TransitionDrawingAreaTest
         Triple<NodeInfoSource, String, Map<Variable, String>> param =
                 Triple.make(NodeInfoSource.LEFT_SON, "LABEL", Collections.emptyMap());
 
-        Mockito.when(mockMessage.getParam()).thenReturn(param);
+        Mockito.when(mockMessage.getParam()).thenReturn(Collections.singletonList(param));
 
         testObject.receiveMessage(mockMessage);
 
@@ -95,7 +97,7 @@ public class TransitionDrawingAreaTest
         Triple<NodeInfoSource, String, Map<Variable, String>> param =
                 Triple.make(NodeInfoSource.PARENT, "LABEL", Collections.emptyMap());
 
-        Mockito.when(mockMessage.getParam()).thenReturn(param);
+        Mockito.when(mockMessage.getParam()).thenReturn(Collections.singletonList(param));
 
         testObject.receiveMessage(mockMessage);
 
@@ -111,7 +113,7 @@ public class TransitionDrawingAreaTest
         Triple<NodeInfoSource, String, Map<Variable, String>> param =
                 Triple.make(NodeInfoSource.RIGHT_SON, "LABEL", Collections.emptyMap());
 
-        Mockito.when(mockMessage.getParam()).thenReturn(param);
+        Mockito.when(mockMessage.getParam()).thenReturn(Collections.singletonList(param));
 
         testObject.receiveMessage(mockMessage);
 
@@ -121,4 +123,25 @@ public class TransitionDrawingAreaTest
         Assert.assertNull(testObject.parentInfo);
         Assert.assertNull(testObject.leftSonInfo);
     }
+
+    @Test
+    public void testReceiveMessageWhenManyTransitions()
+    {
+        Triple<NodeInfoSource, String, Map<Variable, String>> parent1 =
+                Triple.make(NodeInfoSource.PARENT, "LABEL1", Collections.emptyMap());
+        Triple<NodeInfoSource, String, Map<Variable, String>> leftSon2 =
+                Triple.make(NodeInfoSource.LEFT_SON, "LABEL2", Collections.emptyMap());
+        Triple<NodeInfoSource, String, Map<Variable, String>> parent2 =
+                Triple.make(NodeInfoSource.PARENT, "LABEL2", Collections.emptyMap());
+
+        Mockito.when(mockMessage.getParam()).thenReturn(Arrays.asList(parent1, leftSon2, parent2));
+
+        testObject.receiveMessage(mockMessage);
+
+        Assert.assertEquals(Pair.make(parent2.getSecond(), parent2.getThird()),
+                            testObject.parentInfo);
+        Assert.assertEquals(Pair.make(leftSon2.getSecond(), leftSon2.getThird()),
+                            testObject.leftSonInfo);
+        Assert.assertNull(testObject.rightSonInfo);
+    }
 }